@@ -0,0 +1,226 @@
+package com.paymentgateway.benchmark;
+
+import com.paymentgateway.config.ReferenceDataProperties;
+import com.paymentgateway.config.RuleEngineProperties;
+import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.model.PaymentInstrument;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.model.PaymentNetwork;
+import com.paymentgateway.model.PricingModel;
+import com.paymentgateway.model.VendorHealth;
+import com.paymentgateway.repository.MerchantPaymentConfigRepository;
+import com.paymentgateway.repository.PaymentMethodRepository;
+import com.paymentgateway.repository.PaymentNetworkRepository;
+import com.paymentgateway.repository.PricingModelRepository;
+import com.paymentgateway.repository.RuleSetDefinitionRepository;
+import com.paymentgateway.repository.VendorHealthRepository;
+import com.paymentgateway.rules.RuleSetRegistry;
+import com.paymentgateway.service.MerchantConfigService;
+import com.paymentgateway.service.NetworkRegistry;
+import com.paymentgateway.service.ReferenceDataStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the repositories and services behind the hot paths,
+ * plus deterministic data sets sized by benchmark parameters.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] KNOWN_METHODS = { "CREDIT_CARD", "DEBIT_CARD", "UPI", "NETBANKING" };
+    private static final String[] KNOWN_NETWORKS = { "VISA", "MASTERCARD", "RUPAY", "AMEX" };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Implements a Spring Data repository interface with only the given methods;
+     * anything else throws, so a benchmark cannot silently hit an unstubbed call.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> implementation = methods.get(method.getName());
+            if (implementation != null) {
+                return implementation.apply(args);
+            }
+            switch (method.getName()) {
+                case "toString":
+                    return "InMemory" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+        });
+    }
+
+    static PaymentMethodRepository paymentMethodRepository(List<PaymentMethod> methods) {
+        return repository(PaymentMethodRepository.class, Map.of("findByActiveTrue", args -> methods));
+    }
+
+    /**
+     * The bundled default rules; the repository is never read because reload
+     * is not called.
+     */
+    static RuleSetRegistry ruleSetRegistry() {
+        return new RuleSetRegistry(repository(RuleSetDefinitionRepository.class, Map.of()),
+                new RuleEngineProperties(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Network i of the list gets bit i, matching {@link #mask(List)}.
+     */
+    static NetworkRegistry networkRegistry(List<String> networks) {
+        List<PaymentNetwork> rows = new ArrayList<>(networks.size());
+        for (int i = 0; i < networks.size(); i++) {
+            PaymentNetwork network = new PaymentNetwork();
+            network.setName(networks.get(i));
+            network.setBitIndex(i);
+            rows.add(network);
+        }
+        return new NetworkRegistry(repository(PaymentNetworkRepository.class, Map.of("findAll", args -> rows)));
+    }
+
+    static long mask(List<String> networks) {
+        return networks.size() == Long.SIZE ? -1L : (1L << networks.size()) - 1;
+    }
+
+    /**
+     * A store loaded from in-memory tables on first use, without a snapshot
+     * file; syncs and config change events are never triggered.
+     */
+    static ReferenceDataStore referenceDataStore(List<PaymentMethod> methods, List<MerchantPaymentConfig> configs,
+            List<PricingModel> pricingModels, List<VendorHealth> vendors) {
+        return new ReferenceDataStore(paymentMethodRepository(methods),
+                repository(MerchantPaymentConfigRepository.class, Map.of("findAll", args -> configs)),
+                repository(PricingModelRepository.class, Map.of("findAll", args -> pricingModels)),
+                repository(VendorHealthRepository.class, Map.of("findAll", args -> vendors)),
+                new ReferenceDataProperties(), event -> {
+                }, new SimpleMeterRegistry());
+    }
+
+    static MerchantConfigService merchantConfigService(List<MerchantPaymentConfig> configs) {
+        Map<String, MerchantPaymentConfig> byMethod = new HashMap<>();
+        configs.forEach(config -> byMethod.put(config.getMethodId(), config));
+        return new MerchantConfigService() {
+            @Override
+            public MerchantPaymentConfig getConfig(UUID merchantId, String methodId) {
+                return byMethod.get(methodId);
+            }
+
+            @Override
+            public List<MerchantPaymentConfig> getEnabledConfigs(UUID merchantId) {
+                return configs;
+            }
+        };
+    }
+
+    static List<String> networks(int count) {
+        List<String> networks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            networks.add(i < KNOWN_NETWORKS.length ? KNOWN_NETWORKS[i] : "NETWORK_" + i);
+        }
+        return networks;
+    }
+
+    static List<PaymentMethod> paymentMethods(int count, List<String> networks) {
+        List<PaymentMethod> methods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PaymentMethod method = new PaymentMethod();
+            method.setMethodId(i < KNOWN_METHODS.length ? KNOWN_METHODS[i] : "METHOD_" + i);
+            method.setMethodName(method.getMethodId());
+            method.setSupportedNetworks(mask(networks));
+            method.setActive(true);
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    static List<MerchantPaymentConfig> merchantConfigs(UUID merchantId, List<PaymentMethod> methods,
+            List<String> networks) {
+        List<MerchantPaymentConfig> configs = new ArrayList<>(methods.size());
+        for (PaymentMethod method : methods) {
+            MerchantPaymentConfig config = new MerchantPaymentConfig();
+            config.setConfigId(UUID.randomUUID());
+            config.setMerchantId(merchantId);
+            config.setMethodId(method.getMethodId());
+            config.setSupportedNetworks(mask(networks));
+            config.setMinAmountMinor(100L);
+            config.setMaxAmountMinor(50_000_000L);
+            config.setEnabled(true);
+            configs.add(config);
+        }
+        return configs;
+    }
+
+    /**
+     * Instruments spread round-robin over the methods. Each uses the last
+     * supported network, the worst case for the network membership check.
+     */
+    static List<PaymentInstrument> instruments(UUID userId, int count, List<PaymentMethod> methods,
+            List<String> networks) {
+        List<PaymentInstrument> instruments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PaymentInstrument instrument = new PaymentInstrument();
+            instrument.setInstrumentId(UUID.randomUUID());
+            instrument.setUserId(userId);
+            instrument.setMethodId(methods.get(i % methods.size()).getMethodId());
+            instrument.setMaskedDetails("**** " + (1000 + i));
+            instrument.setNetwork(networks.get(networks.size() - 1));
+            instrument.setIssuer("ICICI");
+            instrument.setStatus("ACTIVE");
+            instruments.add(instrument);
+        }
+        return instruments;
+    }
+
+    /**
+     * Vendors in groups of three with equal uptime and error rate, so the sort
+     * has to fall through to the fee comparison.
+     */
+    static List<VendorHealth> vendors(int count) {
+        List<VendorHealth> vendors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            VendorHealth vendor = new VendorHealth();
+            vendor.setVendorId("VENDOR_" + i);
+            vendor.setUptimeScore(99.0 + (i / 3) % 10 * 0.1);
+            vendor.setErrorRate(0.5);
+            vendor.setDown(false);
+            vendors.add(vendor);
+        }
+        return vendors;
+    }
+
+    /**
+     * Two amount bands per vendor, in paise and basis points.
+     */
+    static List<PricingModel> pricingModels(List<VendorHealth> vendors) {
+        List<PricingModel> models = new ArrayList<>(vendors.size() * 2);
+        for (int i = 0; i < vendors.size(); i++) {
+            String vendorId = vendors.get(i).getVendorId();
+            models.add(pricingModel(vendorId, 0, 1_000_000, 150 + i % 7 * 10, 200));
+            models.add(pricingModel(vendorId, 1_000_001, 100_000_000, 120 + i % 5 * 10, 0));
+        }
+        return models;
+    }
+
+    private static PricingModel pricingModel(String vendorId, long min, long max, int bps, long fixed) {
+        PricingModel model = new PricingModel();
+        model.setVendorId(vendorId);
+        model.setMinAmountMinor(min);
+        model.setMaxAmountMinor(max);
+        model.setFeeBps(bps);
+        model.setFixedFeeMinor(fixed);
+        return model;
+    }
+}
@@ -0,0 +1,124 @@
+package com.paymentgateway.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentgateway.config.BlockListProperties;
+import com.paymentgateway.config.CheckoutTemplateProperties;
+import com.paymentgateway.config.HandoffTokenProperties;
+import com.paymentgateway.config.RedisResilienceProperties;
+import com.paymentgateway.config.SloProperties;
+import com.paymentgateway.generated.model.CheckoutResponse;
+import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.model.Money;
+import com.paymentgateway.model.PaymentInstrument;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.model.VendorHealth;
+import com.paymentgateway.service.BlockListService;
+import com.paymentgateway.service.CheckoutService;
+import com.paymentgateway.service.CheckoutTemplateCache;
+import com.paymentgateway.service.HandoffTokenService;
+import com.paymentgateway.service.MerchantConfigService;
+import com.paymentgateway.service.NetworkRegistry;
+import com.paymentgateway.service.RedisGuard;
+import com.paymentgateway.service.ReferenceDataStore;
+import com.paymentgateway.service.RetryStateStore;
+import com.paymentgateway.service.StageTimer;
+import com.paymentgateway.service.VendorRouter;
+import com.paymentgateway.service.impl.PricingServiceImpl;
+import com.paymentgateway.service.impl.SimpleRuleEngineService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end checkout option assembly against in-memory repositories: global
+ * methods x merchant config x rule evaluation x downtime per instrument.
+ * <p>
+ * Every invocation uses a fresh idempotency key, so the idempotency cache never
+ * short-circuits the work being measured. {@code templateCache=false} evaluates
+ * every method per request, as before the merchant template cache;
+ * {@code checkoutJson} adds encoding the response as the controller would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckoutBenchmark {
+
+    private static final Money AMOUNT = new Money(250_000, "INR");
+
+    @Param({ "4", "16" })
+    private int methodCount;
+
+    @Param({ "2", "10", "50" })
+    private int instrumentCount;
+
+    @Param({ "4", "32" })
+    private int networkCount;
+
+    @Param({ "true", "false" })
+    private boolean templateCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CheckoutService checkoutService;
+    private UUID checkoutId;
+    private UUID merchantId;
+    private UUID userId;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        checkoutId = UUID.randomUUID();
+        merchantId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+
+        List<String> networks = BenchmarkFixtures.networks(networkCount);
+        List<PaymentMethod> methods = BenchmarkFixtures.paymentMethods(methodCount, networks);
+        List<MerchantPaymentConfig> configs = BenchmarkFixtures.merchantConfigs(merchantId, methods, networks);
+        List<PaymentInstrument> instruments = BenchmarkFixtures.instruments(userId, instrumentCount, methods,
+                networks);
+
+        MerchantConfigService merchantConfigService = BenchmarkFixtures.merchantConfigService(configs);
+        List<VendorHealth> vendors = BenchmarkFixtures.vendors(6);
+        HandoffTokenProperties handoffTokenProperties = new HandoffTokenProperties();
+        handoffTokenProperties.setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        // Redis is only touched on retries (non-null paymentId), which this benchmark does not exercise.
+        NetworkRegistry networkRegistry = BenchmarkFixtures.networkRegistry(networks);
+        ReferenceDataStore referenceDataStore = BenchmarkFixtures.referenceDataStore(methods, configs,
+                BenchmarkFixtures.pricingModels(vendors), vendors);
+        SimpleRuleEngineService ruleEngineService = new SimpleRuleEngineService(merchantConfigService,
+                BenchmarkFixtures.ruleSetRegistry(), networkRegistry);
+        CheckoutTemplateProperties templateProperties = new CheckoutTemplateProperties();
+        templateProperties.setEnabled(templateCache);
+        RedisGuard redisGuard = new RedisGuard(new StringRedisTemplate(), new RedisResilienceProperties(),
+                new SimpleMeterRegistry());
+        checkoutService = new CheckoutService(
+                user -> instruments,
+                ruleEngineService,
+                (instrumentType, issuer) -> false,
+                new RetryStateStore(redisGuard, new RedisResilienceProperties()),
+                new StageTimer(new SimpleMeterRegistry(), new SloProperties()),
+                () -> vendors,
+                new VendorRouter(new PricingServiceImpl(referenceDataStore)),
+                new HandoffTokenService(handoffTokenProperties),
+                handoffTokenProperties,
+                new BlockListService(redisGuard, new BlockListProperties(), new SimpleMeterRegistry()),
+                new CheckoutTemplateCache(referenceDataStore, ruleEngineService,
+                        networkRegistry, templateProperties, objectMapper, new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public CheckoutResponse getCheckoutOptions() {
+        UUID idempotencyKey = new UUID(0x636b6f7574L, sequence++);
+        return checkoutService.getCheckoutOptions(checkoutId, idempotencyKey, merchantId, userId, AMOUNT, "5411",
+                null);
+    }
+
+    @Benchmark
+    public byte[] checkoutJson() throws Exception {
+        return objectMapper.writeValueAsBytes(getCheckoutOptions());
+    }
+}
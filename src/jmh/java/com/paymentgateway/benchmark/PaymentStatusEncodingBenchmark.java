@@ -0,0 +1,70 @@
+package com.paymentgateway.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+import com.paymentgateway.service.PaymentStatusCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Side-by-side ser/de cost of the JSON and binary payment status encodings.
+ * Run with {@code -prof gc} to compare allocation per operation; encoded sizes
+ * are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentStatusEncodingBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private PaymentStatusResponse status;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws Exception {
+        ZonedDateTime now = ZonedDateTime.now();
+        status = new PaymentStatusResponse();
+        status.setPaymentId(UUID.randomUUID());
+        status.setTxnId(UUID.randomUUID());
+        status.setStatus(PaymentStatusResponse.StatusEnum.FAILED);
+        status.setAmount(1499.50);
+        status.setCreatedAt(now.minusSeconds(3));
+        status.setUpdatedAt(now);
+        status.setFailureReason("Vendor timeout");
+        status.setRetryCount(1);
+
+        json = objectMapper.writeValueAsBytes(status);
+        binary = PaymentStatusCodec.encode(status);
+        System.out.printf("%nEncoded size: json=%d bytes, binary=%d bytes%n", json.length, binary.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(status);
+    }
+
+    @Benchmark
+    public PaymentStatusResponse jsonDecode() throws Exception {
+        return objectMapper.readValue(json, PaymentStatusResponse.class);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return PaymentStatusCodec.encode(status);
+    }
+
+    @Benchmark
+    public PaymentStatusResponse binaryDecode() {
+        return PaymentStatusCodec.decode(binary);
+    }
+}
@@ -0,0 +1,38 @@
+package com.paymentgateway.benchmark;
+
+import com.paymentgateway.model.VendorHealth;
+import com.paymentgateway.service.PricingService;
+import com.paymentgateway.service.impl.PricingServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fee calculation for the last vendor in the table, served from the
+ * in-process reference data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PricingBenchmark {
+
+    @Param({ "4", "32", "128" })
+    private int vendorCount;
+
+    private PricingService pricingService;
+    private String vendorId;
+
+    @Setup
+    public void setUp() {
+        List<VendorHealth> vendors = BenchmarkFixtures.vendors(vendorCount);
+        pricingService = new PricingServiceImpl(BenchmarkFixtures.referenceDataStore(List.of(), List.of(),
+                BenchmarkFixtures.pricingModels(vendors), vendors));
+        vendorId = vendors.get(vendors.size() - 1).getVendorId();
+    }
+
+    @Benchmark
+    public long calculateFee() {
+        return pricingService.calculateFee(vendorId, 250_000);
+    }
+}
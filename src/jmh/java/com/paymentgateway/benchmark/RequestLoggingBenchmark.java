@@ -0,0 +1,143 @@
+package com.paymentgateway.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.paymentgateway.logging.LogMarkers;
+import com.paymentgateway.logging.RequestLogContext;
+import com.paymentgateway.logging.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of one checkout + payment request, comparing the former style
+ * (every line at INFO with all ids as arguments, synchronous appender) with the
+ * current one (ids in the MDC, sampled marker summaries, guarded debug, async
+ * non-blocking appender). Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}. Output goes to a null stream, so only the
+ * logging pipeline itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d %5p [%t] %logger{39} : %X{merchantId:-} %X{paymentId:-} %m%n";
+
+    private LoggerContext syncContext;
+    private LoggerContext asyncContext;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+
+    private UUID checkoutId;
+    private UUID merchantId;
+    private UUID userId;
+    private UUID idempotencyKey;
+    private UUID paymentId;
+    private UUID txnId;
+
+    @Setup
+    public void setUp() {
+        checkoutId = UUID.randomUUID();
+        merchantId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        idempotencyKey = UUID.randomUUID();
+        paymentId = UUID.randomUUID();
+        txnId = UUID.randomUUID();
+
+        syncContext = new LoggerContext();
+        syncLogger = syncContext.getLogger("com.paymentgateway.service");
+        syncLogger.setLevel(Level.INFO);
+        syncLogger.addAppender(nullAppender(syncContext));
+
+        asyncContext = new LoggerContext();
+        SamplingTurboFilter checkoutFilter = samplingFilter(asyncContext, "CHECKOUT", 0.01);
+        SamplingTurboFilter paymentFilter = samplingFilter(asyncContext, "PAYMENT", 0.1);
+        asyncContext.addTurboFilter(checkoutFilter);
+        asyncContext.addTurboFilter(paymentFilter);
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(asyncContext);
+        async.setNeverBlock(true);
+        async.setQueueSize(8192);
+        async.setIncludeCallerData(false);
+        async.addAppender(nullAppender(asyncContext));
+        async.start();
+        asyncLogger = asyncContext.getLogger("com.paymentgateway.service");
+        asyncLogger.setLevel(Level.INFO);
+        asyncLogger.addAppender(async);
+    }
+
+    @TearDown
+    public void tearDown() {
+        syncContext.stop();
+        asyncContext.stop();
+    }
+
+    @Benchmark
+    public void before() {
+        syncLogger.info("Checkout request - checkoutId: {}, userId: {}, idempotencyKey: {}, paymentId: {}",
+                checkoutId, userId, idempotencyKey, null);
+        syncLogger.debug("Getting checkout options - checkoutId: {}, idempotencyKey: {}, merchantId: {}, userId: {}, paymentId: {}",
+                checkoutId, idempotencyKey, merchantId, userId, null);
+        syncLogger.debug("Loaded {} global payment methods for checkoutId: {}", 16, checkoutId);
+        syncLogger.info("Checkout session created - checkoutId: {}, paymentId: {}, methods: {}",
+                checkoutId, paymentId, 16);
+        syncLogger.info("Checkout response - checkoutId: {}, paymentId: {}, methods: {}",
+                checkoutId, paymentId, 16);
+        syncLogger.info("Payment request - paymentId: {}, userId: {}", paymentId, userId);
+        syncLogger.info("Processing payment - userId: {}, merchantId: {}, paymentId: {}",
+                userId, merchantId, paymentId);
+        syncLogger.info("Selected vendor: {} for paymentId: {}", "PAYU", paymentId);
+        syncLogger.info("Payment response - paymentId: {}, txnId: {}, status: {}, retryable: {}, requiresNewInstrument: {}",
+                paymentId, txnId, "SUCCESS", false, false);
+    }
+
+    @Benchmark
+    public void after() {
+        try (RequestLogContext ignored = RequestLogContext.checkout(checkoutId, merchantId, null)) {
+            asyncLogger.debug("Checkout request - userId: {}, idempotencyKey: {}", userId, idempotencyKey);
+            asyncLogger.debug("Getting checkout options - idempotencyKey: {}, userId: {}", idempotencyKey, userId);
+            if (asyncLogger.isDebugEnabled()) {
+                asyncLogger.debug("Loaded {} global payment methods", 16);
+            }
+            asyncLogger.info(LogMarkers.CHECKOUT, "Checkout session created - paymentId: {}, methods: {}",
+                    paymentId, 16);
+        }
+        try (RequestLogContext ignored = RequestLogContext.payment(paymentId, merchantId)) {
+            asyncLogger.debug("Payment request - userId: {}", userId);
+            asyncLogger.info(LogMarkers.PAYMENT, "Processing payment - userId: {}", userId);
+            asyncLogger.info(LogMarkers.PAYMENT, "Selected vendor: {}", "PAYU");
+            asyncLogger.info(LogMarkers.PAYMENT, "Payment response - txnId: {}, status: {}", txnId, "SUCCESS");
+        }
+    }
+
+    private static OutputStreamAppender<ILoggingEvent> nullAppender(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private static SamplingTurboFilter samplingFilter(LoggerContext context, String marker, double sampleRate) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setMarker(marker);
+        filter.setSampleRate(sampleRate);
+        filter.start();
+        return filter;
+    }
+}
@@ -0,0 +1,83 @@
+package com.paymentgateway.benchmark;
+
+import com.paymentgateway.model.PaymentInstrument;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.rules.CompiledRuleSet;
+import com.paymentgateway.rules.RuleSetRegistry;
+import com.paymentgateway.service.RuleEngineService;
+import com.paymentgateway.service.impl.SimpleRuleEngineService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single eligibility decision, at method level and for an instrument
+ * whose network has the highest bit in the merchant's network mask.
+ * <p>
+ * {@code compiledRules} and {@code handWrittenRules} isolate the global rules:
+ * the compiled default rule set against the if-chain it replaced, for the same
+ * instrument.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RuleEngineBenchmark {
+
+    // Network masks are 64 bits wide
+    @Param({ "4", "32", "64" })
+    private int networkCount;
+
+    private RuleEngineService ruleEngineService;
+    private CompiledRuleSet ruleSet;
+    private UUID merchantId;
+    private PaymentMethod method;
+    private PaymentInstrument instrument;
+
+    @Setup
+    public void setUp() {
+        merchantId = UUID.randomUUID();
+        List<String> networks = BenchmarkFixtures.networks(networkCount);
+        List<PaymentMethod> methods = BenchmarkFixtures.paymentMethods(1, networks);
+        method = methods.get(0);
+        instrument = BenchmarkFixtures.instruments(UUID.randomUUID(), 1, methods, networks).get(0);
+        RuleSetRegistry ruleSetRegistry = BenchmarkFixtures.ruleSetRegistry();
+        ruleSet = ruleSetRegistry.current();
+        ruleEngineService = new SimpleRuleEngineService(BenchmarkFixtures.merchantConfigService(
+                BenchmarkFixtures.merchantConfigs(merchantId, methods, networks)), ruleSetRegistry,
+                BenchmarkFixtures.networkRegistry(networks));
+    }
+
+    @Benchmark
+    public String methodLevel() {
+        return ruleEngineService.getIneligibilityReason(method, null, merchantId, "5411", 250_000);
+    }
+
+    @Benchmark
+    public String instrumentLevel() {
+        return ruleEngineService.getIneligibilityReason(method, instrument, merchantId, "5411", 250_000);
+    }
+
+    @Benchmark
+    public String compiledRules() {
+        return ruleSet.evaluate(method.getMethodId(), "5411", instrument.getNetwork(), instrument.getIssuer(), true,
+                250_000);
+    }
+
+    @Benchmark
+    public String handWrittenRules() {
+        return handWritten(method.getMethodId(), "5411", 250_000);
+    }
+
+    // The global rules as they were hardcoded in SimpleRuleEngineService
+    private static String handWritten(String methodId, String mcc, long amountMinor) {
+        if ("6011".equals(mcc) && "CREDIT_CARD".equals(methodId)) {
+            return "Credit Cards not allowed for this Merchant Category";
+        }
+        if ("UPI".equals(methodId) && amountMinor > 10_000_000) {
+            return "Amount exceeds UPI regulatory limit of 1,00,000";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.paymentgateway.benchmark;
+
+import com.paymentgateway.model.VendorHealth;
+import com.paymentgateway.service.VendorRouter;
+import com.paymentgateway.service.impl.PricingServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vendor selection over the available candidates. Vendors tie on uptime and
+ * error rate in groups of three, so the fee tie-breaker is evaluated too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VendorRoutingBenchmark {
+
+    @Param({ "3", "12", "48" })
+    private int vendorCount;
+
+    private VendorRouter vendorRouter;
+    private List<VendorHealth> vendors;
+
+    @Setup
+    public void setUp() {
+        vendors = BenchmarkFixtures.vendors(vendorCount);
+        vendorRouter = new VendorRouter(new PricingServiceImpl(BenchmarkFixtures.referenceDataStore(List.of(),
+                List.of(), BenchmarkFixtures.pricingModels(vendors), vendors)));
+    }
+
+    @Benchmark
+    public VendorHealth selectVendor() {
+        return vendorRouter.selectVendor(vendors, 250_000);
+    }
+}
@@ -0,0 +1,126 @@
+package com.paymentgateway.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.paymentgateway.generated.model.CheckoutResponse;
+import com.paymentgateway.generated.model.InstrumentDetails;
+import com.paymentgateway.generated.model.PaymentMethodOption;
+import com.paymentgateway.generated.model.PaymentResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ser/de cost of the negotiated wire formats (JSON, CBOR, Smile) for the
+ * largest response we serve, a checkout with several methods and saved
+ * instruments, and for the small pay response. Encoded sizes are printed once
+ * per fork; run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private CheckoutResponse checkout;
+    private PaymentResponse payment;
+    private byte[] checkoutBytes;
+    private byte[] paymentBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        checkout = checkoutResponse();
+        payment = new PaymentResponse();
+        payment.setPaymentId(UUID.randomUUID());
+        payment.setTxnId(UUID.randomUUID());
+        payment.setStatus(PaymentResponse.StatusEnum.SUCCESS);
+        payment.setRequiresNewInstrument(false);
+        payment.setRetryable(false);
+        payment.setResponseCode("00");
+        payment.setProviderRefId("RAZORPAY-" + UUID.randomUUID());
+
+        checkoutBytes = objectMapper.writeValueAsBytes(checkout);
+        paymentBytes = objectMapper.writeValueAsBytes(payment);
+        System.out.printf("%nEncoded size (%s): checkout=%d bytes, payment=%d bytes%n",
+                format, checkoutBytes.length, paymentBytes.length);
+    }
+
+    @Benchmark
+    public byte[] checkoutEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(checkout);
+    }
+
+    @Benchmark
+    public CheckoutResponse checkoutDecode() throws Exception {
+        return objectMapper.readValue(checkoutBytes, CheckoutResponse.class);
+    }
+
+    @Benchmark
+    public byte[] paymentEncode() throws Exception {
+        return objectMapper.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public PaymentResponse paymentDecode() throws Exception {
+        return objectMapper.readValue(paymentBytes, PaymentResponse.class);
+    }
+
+    // Five methods, two saved instruments each, one of them ineligible
+    private static CheckoutResponse checkoutResponse() {
+        String[][] methods = {
+                {"CREDIT_CARD", "Credit Card"},
+                {"DEBIT_CARD", "Debit Card"},
+                {"UPI", "UPI"},
+                {"NET_BANKING", "Net Banking"},
+                {"WALLET", "Wallets"}};
+        List<PaymentMethodOption> options = new ArrayList<>();
+        for (String[] method : methods) {
+            PaymentMethodOption option = new PaymentMethodOption();
+            option.setMethodId(method[0]);
+            option.setMethodName(method[1]);
+            option.setEnabled(true);
+            option.setAllowAddNew(true);
+            option.setSupportedNetworks(List.of("VISA", "MASTERCARD", "RUPAY"));
+            List<InstrumentDetails> instruments = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                InstrumentDetails instrument = new InstrumentDetails();
+                instrument.setInstrumentId(UUID.randomUUID());
+                instrument.setMethodId(method[0]);
+                instrument.setType(method[0]);
+                instrument.setMaskedDetails("XXXX-XXXX-XXXX-12" + i + "4");
+                instrument.setNetwork(i == 0 ? "VISA" : "MASTERCARD");
+                instrument.setIssuer("HDFC Bank");
+                instrument.setEligible(i == 0);
+                if (i != 0) {
+                    instrument.setIneligibilityReason("Card expired");
+                }
+                instruments.add(instrument);
+            }
+            option.setUserInstruments(instruments);
+            options.add(option);
+        }
+        CheckoutResponse response = new CheckoutResponse();
+        response.setPaymentId(UUID.randomUUID());
+        response.setPaymentMethods(options);
+        response.setHandoffToken("AQAAAABmZ2h4AAAAAGZndog" + "x".repeat(300));
+        return response;
+    }
+}
@@ -0,0 +1,128 @@
+package com.paymentgateway.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator: requests are issued on a fixed arrival schedule
+ * whether or not earlier ones have completed, so a slow server cannot throttle
+ * its own load.
+ * <p>
+ * Latency is measured from the scheduled send time, not the actual one, so time
+ * spent queued behind a stalled sender counts against the server (no coordinated
+ * omission). Only arrivals scheduled inside the measurement window are recorded.
+ * When more than {@code maxInFlight} requests are outstanding, further arrivals
+ * are dropped and counted as errors.
+ */
+@Slf4j
+final class ConstantRateDriver {
+
+    private final String name;
+    private final int ratePerSecond;
+    private final Supplier<CompletableFuture<?>> request;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    ConstantRateDriver(String name, int ratePerSecond, int maxInFlight, Supplier<CompletableFuture<?>> request) {
+        this.name = name;
+        this.ratePerSecond = ratePerSecond;
+        this.request = request;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Starts issuing arrivals from {@code startNanos} until {@code endNanos},
+     * recording those scheduled at or after {@code measureFromNanos}.
+     */
+    Thread start(long startNanos, long measureFromNanos, long endNanos) {
+        Thread thread = new Thread(() -> run(startNanos, measureFromNanos, endNanos), "load-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void run(long startNanos, long measureFromNanos, long endNanos) {
+        if (ratePerSecond <= 0) {
+            return;
+        }
+        double periodNanos = 1_000_000_000.0 / ratePerSecond;
+        for (long i = 0;; i++) {
+            long intended = startNanos + (long) (i * periodNanos);
+            if (intended >= endNanos) {
+                return;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = intended >= measureFromNanos;
+            if (measured) {
+                sent.increment();
+            }
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    dropped.increment();
+                }
+                continue;
+            }
+
+            CompletableFuture<?> response;
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((result, failure) -> {
+                long latencyNanos = System.nanoTime() - intended;
+                inFlight.release();
+                if (!measured) {
+                    return;
+                }
+                recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+                if (failure != null) {
+                    errors.increment();
+                    log.debug("{} request failed", name, failure);
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits for outstanding requests and returns the measurement window's
+     * results. Latencies are in microseconds.
+     */
+    Result awaitResult(long timeout, TimeUnit unit) throws InterruptedException {
+        if (inFlight.tryAcquire(maxInFlight, timeout, unit)) {
+            inFlight.release(maxInFlight);
+        } else {
+            log.warn("{}: requests still outstanding after {} {}", name, timeout, unit);
+        }
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new Result(name, ratePerSecond, histogram, sent.sum(), errors.sum(), dropped.sum());
+    }
+
+    record Result(String name, int targetRate, Histogram latencyMicros, long sent, long errors, long dropped) {
+
+        long failed() {
+            return errors + dropped;
+        }
+
+        double errorRate() {
+            return sent == 0 ? 0.0 : (double) failed() / sent;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.paymentgateway.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.paymentgateway.generated.model.CheckoutRequest;
+import com.paymentgateway.generated.model.CheckoutResponse;
+import com.paymentgateway.generated.model.MerchantDetails;
+import com.paymentgateway.generated.model.PaymentDetails;
+import com.paymentgateway.generated.model.PaymentInstrument;
+import com.paymentgateway.generated.model.PaymentRequest;
+import com.paymentgateway.generated.model.PaymentResponse;
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Async HTTP client for the checkout, pay and status endpoints.
+ * Non-2xx responses complete exceptionally.
+ */
+final class GatewayClient {
+
+    private final URI baseUri;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    GatewayClient(URI baseUri, Duration requestTimeout, Executor executor) {
+        this.baseUri = baseUri;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    CompletableFuture<CheckoutResponse> checkout(UUID merchantId, UUID userId, double amount) {
+        CheckoutRequest request = new CheckoutRequest();
+        request.setCheckoutId(UUID.randomUUID());
+        MerchantDetails merchant = new MerchantDetails();
+        merchant.setMerchantId(merchantId);
+        merchant.setMcc("5411");
+        request.setMerchant(merchant);
+        PaymentDetails payment = new PaymentDetails();
+        payment.setAmount(amount);
+        payment.setCurrency("INR");
+        request.setPayment(payment);
+
+        return send(post("/checkout", request)
+                .header("X-User-Id", userId.toString())
+                .header("X-Idempotency-Key", UUID.randomUUID().toString())
+                .build(), CheckoutResponse.class);
+    }
+
+    CompletableFuture<PaymentResponse> pay(UUID merchantId, UUID userId, UUID paymentId, UUID instrumentId,
+            String methodId, double amount, String handoffToken) {
+        PaymentRequest request = new PaymentRequest();
+        request.setPaymentId(paymentId);
+        request.setHandoffToken(handoffToken);
+        MerchantDetails merchant = new MerchantDetails();
+        merchant.setMerchantId(merchantId);
+        merchant.setMcc("5411");
+        request.setMerchant(merchant);
+        PaymentDetails payment = new PaymentDetails();
+        payment.setAmount(amount);
+        payment.setCurrency("INR");
+        request.setPayment(payment);
+        PaymentInstrument instrument = new PaymentInstrument();
+        instrument.setInstrumentId(instrumentId);
+        instrument.setMethodId(methodId);
+        request.setInstrument(instrument);
+
+        return send(post("/payment/pay", request)
+                .header("X-User-Id", userId.toString())
+                .build(), PaymentResponse.class);
+    }
+
+    CompletableFuture<PaymentStatusResponse> status(UUID paymentId) {
+        return send(HttpRequest.newBuilder(baseUri.resolve("/payment/status/" + paymentId))
+                .timeout(requestTimeout)
+                .GET()
+                .build(), PaymentStatusResponse.class);
+    }
+
+    private HttpRequest.Builder post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> send(HttpRequest request, Class<T> responseType) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new IllegalStateException(
+                                "HTTP " + response.statusCode() + " from " + request.method() + " " + request.uri());
+                    }
+                    try {
+                        return objectMapper.readValue(response.body(), responseType);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+}
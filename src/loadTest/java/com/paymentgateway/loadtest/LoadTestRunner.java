@@ -0,0 +1,200 @@
+package com.paymentgateway.loadtest;
+
+import com.paymentgateway.PaymentGatewayApplication;
+import com.paymentgateway.generated.model.CheckoutResponse;
+import com.paymentgateway.generated.model.InstrumentDetails;
+import com.paymentgateway.generated.model.PaymentMethodOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boots the gateway against in-process stand-ins (H2 in PostgreSQL mode, an
+ * embedded Redis, and the simulated vendor, instrument and downtime services)
+ * and drives the checkout -> pay -> status flow at constant arrival rates.
+ * <p>
+ * Each stage runs on its own arrival schedule. Payments consume sessions
+ * produced by completed checkouts and status queries consume completed
+ * payments; when a stage outruns its upstream it falls back to a seeded
+ * instrument or an unknown payment id, so the arrival rate never bends to the
+ * server's speed. Exits non-zero when any SLO is missed.
+ *
+ * @see LoadTestSettings
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    static final UUID MERCHANT_ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+    // Users and instruments seeded by loadtest-data.sql
+    static final int SEEDED_USERS = 8;
+
+    private final LoadTestSettings settings;
+    private final BlockingQueue<Session> checkedOut = new ArrayBlockingQueue<>(100_000);
+    private final BlockingQueue<UUID> paid = new ArrayBlockingQueue<>(100_000);
+    private final AtomicLong userSequence = new AtomicLong();
+    private final LongAdder unpairedPayments = new LongAdder();
+    private final LongAdder unpairedStatusQueries = new LongAdder();
+
+    private LoadTestRunner(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        int redisPort = freePort();
+        RedisServer redis = new RedisServer(redisPort);
+        redis.start();
+
+        ConfigurableApplicationContext context = null;
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors() * 2);
+        boolean passed;
+        try {
+            context = new SpringApplicationBuilder(PaymentGatewayApplication.class)
+                    .profiles("loadtest")
+                    .properties("spring.data.redis.port=" + redisPort)
+                    .run(args);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            GatewayClient client = new GatewayClient(URI.create("http://localhost:" + port),
+                    settings.requestTimeout(), clientExecutor);
+
+            passed = new LoadTestRunner(settings).run(client);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            clientExecutor.shutdownNow();
+            redis.stop();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run(GatewayClient client) throws Exception {
+        List<ConstantRateDriver> drivers = List.of(
+                new ConstantRateDriver("checkout", settings.checkoutRate(), settings.maxInFlight(),
+                        () -> checkout(client)),
+                new ConstantRateDriver("payment", settings.paymentRate(), settings.maxInFlight(),
+                        () -> pay(client)),
+                new ConstantRateDriver("status", settings.statusRate(), settings.maxInFlight(),
+                        () -> status(client)));
+
+        log.info("Load test: warm-up {}, measure {}, rates checkout={}/s payment={}/s status={}/s",
+                settings.warmup(), settings.duration(), settings.checkoutRate(), settings.paymentRate(),
+                settings.statusRate());
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        List<Thread> threads = new ArrayList<>();
+        for (ConstantRateDriver driver : drivers) {
+            threads.add(driver.start(start, measureFrom, end));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<ConstantRateDriver.Result> results = new ArrayList<>();
+        for (ConstantRateDriver driver : drivers) {
+            results.add(driver.awaitResult(settings.requestTimeout().toMillis() * 2, TimeUnit.MILLISECONDS));
+        }
+
+        log.info("Payments without a checkout session: {}, status queries without a payment: {}",
+                unpairedPayments.sum(), unpairedStatusQueries.sum());
+        return new SloReport(settings).evaluate(results);
+    }
+
+    private CompletableFuture<?> checkout(GatewayClient client) {
+        UUID userId = seededUser(nextUser());
+        double amount = randomAmount();
+        return client.checkout(MERCHANT_ID, userId, amount)
+                .thenAccept(response -> firstEligible(response)
+                        .ifPresent(instrument -> checkedOut.offer(new Session(userId, response.getPaymentId(),
+                                instrument.getInstrumentId(), instrument.getMethodId(), amount,
+                                response.getHandoffToken()))));
+    }
+
+    private CompletableFuture<?> pay(GatewayClient client) {
+        Session session = checkedOut.poll();
+        if (session == null) {
+            unpairedPayments.increment();
+            session = seededSession(nextUser());
+        }
+        return client.pay(MERCHANT_ID, session.userId(), session.paymentId(), session.instrumentId(),
+                session.methodId(), session.amount(), session.handoffToken())
+                .thenAccept(response -> paid.offer(response.getPaymentId()));
+    }
+
+    private CompletableFuture<?> status(GatewayClient client) {
+        UUID paymentId = paid.poll();
+        if (paymentId == null) {
+            unpairedStatusQueries.increment();
+            paymentId = UUID.randomUUID();
+        }
+        return client.status(paymentId);
+    }
+
+    private int nextUser() {
+        return (int) (userSequence.getAndIncrement() % SEEDED_USERS) + 1;
+    }
+
+    private static Optional<InstrumentDetails> firstEligible(CheckoutResponse response) {
+        for (PaymentMethodOption method : response.getPaymentMethods()) {
+            if (method.getUserInstruments() == null) {
+                continue;
+            }
+            for (InstrumentDetails instrument : method.getUserInstruments()) {
+                if (Boolean.TRUE.equals(instrument.getEligible())) {
+                    return Optional.of(instrument);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Session seededSession(int user) {
+        // Every seeded user's first instrument is a VISA credit card; no checkout, so no handoff token
+        return new Session(seededUser(user), UUID.randomUUID(), seededInstrument(user, 1), "CREDIT_CARD",
+                randomAmount(), null);
+    }
+
+    static UUID seededUser(int user) {
+        return UUID.fromString(String.format("c0000000-0000-0000-0000-%012d", user));
+    }
+
+    static UUID seededInstrument(int user, int instrument) {
+        return UUID.fromString(String.format("d0000000-0000-0000-0000-%010d%02d", user, instrument));
+    }
+
+    private static double randomAmount() {
+        return Math.round(ThreadLocalRandom.current().nextDouble(100.0, 5000.0) * 100) / 100.0;
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Session(UUID userId, UUID paymentId, UUID instrumentId, String methodId, double amount,
+            String handoffToken) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.paymentgateway.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Load test knobs, read from {@code loadtest.*} system properties. Defaults are
+ * the design-doc targets: 5k checkout RPS with P90 under 120 ms, and 2k payment
+ * RPS with P95 under 200 ms.
+ */
+record LoadTestSettings(
+        Duration warmup,
+        Duration duration,
+        int checkoutRate,
+        int paymentRate,
+        int statusRate,
+        Duration checkoutP90,
+        Duration paymentP95,
+        Duration statusP99,
+        double maxErrorRate,
+        int maxInFlight,
+        Duration requestTimeout,
+        Path reportDir) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                duration("loadtest.warmup", "30s"),
+                duration("loadtest.duration", "60s"),
+                Integer.getInteger("loadtest.checkout.rate", 5000),
+                Integer.getInteger("loadtest.payment.rate", 2000),
+                Integer.getInteger("loadtest.status.rate", 2000),
+                duration("loadtest.slo.checkout.p90", "120ms"),
+                duration("loadtest.slo.payment.p95", "200ms"),
+                duration("loadtest.slo.status.p99", "50ms"),
+                Double.parseDouble(System.getProperty("loadtest.slo.max-error-rate", "0.001")),
+                Integer.getInteger("loadtest.max-in-flight", 2000),
+                duration("loadtest.request-timeout", "5s"),
+                Paths.get(System.getProperty("loadtest.report-dir", "build/reports/loadtest")));
+    }
+
+    private static Duration duration(String key, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(key, defaultValue));
+    }
+}
@@ -0,0 +1,86 @@
+package com.paymentgateway.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints per-stage percentiles, writes each stage's full HdrHistogram
+ * distribution ({@code <stage>.hgrm}, in milliseconds) to the report directory
+ * and checks the results against the configured SLOs.
+ */
+@Slf4j
+final class SloReport {
+
+    private static final double[] PERCENTILES = { 50.0, 90.0, 95.0, 99.0, 99.9 };
+
+    private final LoadTestSettings settings;
+    private final Map<String, Objective> objectives;
+
+    SloReport(LoadTestSettings settings) {
+        this.settings = settings;
+        this.objectives = Map.of(
+                "checkout", new Objective(90.0, settings.checkoutP90()),
+                "payment", new Objective(95.0, settings.paymentP95()),
+                "status", new Objective(99.0, settings.statusP99()));
+    }
+
+    /**
+     * @return true when every stage meets its latency and error-rate objectives
+     */
+    boolean evaluate(List<ConstantRateDriver.Result> results) throws IOException {
+        Files.createDirectories(settings.reportDir());
+        List<String> violations = new ArrayList<>();
+
+        StringBuilder table = new StringBuilder(String.format("%n%-10s %8s %8s %8s %9s %9s %9s %9s %9s %9s%n",
+                "stage", "target/s", "sent", "failed", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (ConstantRateDriver.Result result : results) {
+            Histogram histogram = result.latencyMicros();
+            table.append(String.format("%-10s %8d %8d %8d", result.name(), result.targetRate(), result.sent(),
+                    result.failed()));
+            for (double percentile : PERCENTILES) {
+                table.append(String.format(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0));
+            }
+            table.append(String.format(" %9.2f%n", histogram.getMaxValue() / 1000.0));
+
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(settings.reportDir().resolve(result.name() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+
+            Objective objective = objectives.get(result.name());
+            if (objective != null && histogram.getTotalCount() > 0) {
+                long observedMicros = histogram.getValueAtPercentile(objective.percentile());
+                if (observedMicros > objective.threshold().toNanos() / 1000) {
+                    violations.add(String.format("%s p%s %.2f ms > %d ms", result.name(), objective.percentile(),
+                            observedMicros / 1000.0, objective.threshold().toMillis()));
+                }
+            }
+            if (result.errorRate() > settings.maxErrorRate()) {
+                violations.add(String.format("%s error rate %.3f%% > %.3f%% (%d errors, %d dropped)",
+                        result.name(), result.errorRate() * 100, settings.maxErrorRate() * 100, result.errors(),
+                        result.dropped()));
+            }
+        }
+        log.info(table.toString());
+        log.info("Latency distributions written to {}", settings.reportDir().toAbsolutePath());
+
+        if (violations.isEmpty()) {
+            log.info("All SLOs met");
+            return true;
+        }
+        violations.forEach(violation -> log.error("SLO violated: {}", violation));
+        return false;
+    }
+
+    private record Objective(double percentile, Duration threshold) {
+    }
+}
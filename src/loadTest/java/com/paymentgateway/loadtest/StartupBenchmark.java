@@ -0,0 +1,149 @@
+package com.paymentgateway.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches the fast-start build (build/faststart, see {@code -PfastStart}) in
+ * each startup mode and measures the time from process launch to the first
+ * successful checkout:
+ * <ul>
+ * <li>JIT: the plain application, classpath scanning and all;</li>
+ * <li>AOT: the bean definitions generated by Spring AOT
+ * ({@code -Dspring.aot.enabled=true});</li>
+ * <li>AOT_CDS: AOT plus the class-data-sharing archive from the training
+ * run.</li>
+ * </ul>
+ * Every mode runs the same jar on the same JVM, so peak (JIT-compiled)
+ * performance is identical and only startup differs. Runs alternate between
+ * modes so warming disks and databases affect them alike.
+ * <p>
+ * The application uses the datasource and Redis from its own configuration;
+ * {@code startup.app-args} adds arguments, e.g. a profile. Knobs are
+ * {@code startup.*} system properties ({@code -Pstartup.runs=10}).
+ */
+@Slf4j
+public final class StartupBenchmark {
+
+    private enum Mode {
+        JIT,
+        AOT("-Dspring.aot.enabled=true"),
+        AOT_CDS("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=app.jsa");
+
+        private final List<String> jvmArgs;
+
+        Mode(String... jvmArgs) {
+            this.jvmArgs = List.of(jvmArgs);
+        }
+    }
+
+    private final Path appDir = Paths.get(System.getProperty("startup.app-dir", "build/faststart"));
+    private final Path reportDir = Paths.get(System.getProperty("startup.report-dir", "build/reports/startup"));
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final Duration timeout = DurationStyle.detectAndParse(System.getProperty("startup.timeout", "60s"));
+    private final List<String> appArgs = Arrays.stream(System.getProperty("startup.app-args", "").split("\\s+"))
+            .filter(arg -> !arg.isEmpty())
+            .toList();
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new StartupBenchmark().run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        Files.createDirectories(reportDir);
+        Map<Mode, List<Long>> millis = new EnumMap<>(Mode.class);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        boolean passed = true;
+        try {
+            for (int run = 1; run <= runs; run++) {
+                for (Mode mode : Mode.values()) {
+                    long elapsed = timeToFirstCheckout(mode, run, executor);
+                    if (elapsed < 0) {
+                        passed = false;
+                        continue;
+                    }
+                    millis.computeIfAbsent(mode, m -> new ArrayList<>()).add(elapsed);
+                    log.info("Run {} {}: first checkout after {} ms", run, mode, elapsed);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%n%-8s %5s %8s %8s %8s%n",
+                "mode", "runs", "min ms", "p50 ms", "max ms"));
+        for (Map.Entry<Mode, List<Long>> entry : millis.entrySet()) {
+            List<Long> sorted = entry.getValue().stream().sorted().toList();
+            table.append(String.format("%-8s %5d %8d %8d %8d%n", entry.getKey(), sorted.size(), sorted.get(0),
+                    sorted.get(sorted.size() / 2), sorted.get(sorted.size() - 1)));
+        }
+        log.info(table.toString());
+        Files.writeString(reportDir.resolve("startup.txt"), table.toString());
+        log.info("Startup report and application logs written to {}", reportDir.toAbsolutePath());
+        return passed;
+    }
+
+    /**
+     * @return milliseconds from launch to the first 2xx checkout, or -1 if the
+     *         application exited or did not get there within the timeout
+     */
+    private long timeToFirstCheckout(Mode mode, int run, ExecutorService executor) throws Exception {
+        int port = LoadTestRunner.freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode.jvmArgs);
+        command.addAll(List.of("-jar", "payment-gateway.jar", "--server.port=" + port));
+        command.addAll(appArgs);
+        Path logFile = reportDir.resolve(mode.name().toLowerCase() + "-" + run + ".log");
+
+        GatewayClient client = new GatewayClient(URI.create("http://localhost:" + port), Duration.ofSeconds(2),
+                executor);
+        UUID userId = UUID.randomUUID();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(appDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() - deadline < 0) {
+                if (!process.isAlive()) {
+                    log.error("{} exited with {} before serving a checkout, see {}", mode, process.exitValue(),
+                            logFile);
+                    return -1;
+                }
+                try {
+                    client.checkout(LoadTestRunner.MERCHANT_ID, userId, 100.0).get();
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                } catch (ExecutionException e) {
+                    // Not listening yet, or not able to serve yet
+                    Thread.sleep(10);
+                }
+            }
+            log.error("{} served no checkout within {}, see {}", mode, timeout, logFile);
+            return -1;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
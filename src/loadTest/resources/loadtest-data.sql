@@ -0,0 +1,45 @@
+-- Reference data and users for the load test (loaded after data.sql).
+-- User n is c0000000-0000-0000-0000-<n>; their instruments are d0000000-0000-0000-0000-<n><k>.
+
+-- Networks as NetworkRegistry masks: VISA, MASTERCARD, AMEX (7); VISA, MASTERCARD, RUPAY (11)
+INSERT INTO payment_methods (method_id, method_name, supported_networks, active)
+VALUES
+('CREDIT_CARD', 'Credit Card', 7, true),
+('DEBIT_CARD', 'Debit Card', 11, true),
+('UPI', 'UPI', 0, true),
+('NETBANKING', 'Net Banking', 0, true);
+
+INSERT INTO vendor_health (vendor_id, uptime_score, error_rate, is_down, last_updated)
+VALUES
+('PAYU', 99.95, 0.20, false, CURRENT_TIMESTAMP),
+('RAZORPAY', 99.90, 0.30, false, CURRENT_TIMESTAMP),
+('INTERNAL_PG', 99.50, 0.80, false, CURRENT_TIMESTAMP);
+
+-- Bands and fixed fees in paise, percentage fees in basis points
+INSERT INTO pricing_models (vendor_id, min_amount_minor, max_amount_minor, fee_bps, fixed_fee_minor)
+VALUES
+('PAYU', 0, 1000000, 190, 200),
+('PAYU', 1000001, 100000000, 160, 0),
+('RAZORPAY', 0, 1000000, 200, 0),
+('RAZORPAY', 1000001, 100000000, 150, 0),
+('INTERNAL_PG', 0, 100000000, 120, 500);
+
+-- Two instruments per user: a VISA credit card (ICICI) and a UPI handle
+INSERT INTO payment_instruments (instrument_id, user_id, method_id, masked_details, network, issuer, status)
+VALUES
+('d0000000-0000-0000-0000-000000000101', 'c0000000-0000-0000-0000-000000000001', 'CREDIT_CARD', '**** 4001', 'VISA', 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000102', 'c0000000-0000-0000-0000-000000000001', 'UPI', 'user1@okicici', NULL, 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000201', 'c0000000-0000-0000-0000-000000000002', 'CREDIT_CARD', '**** 4002', 'VISA', 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000202', 'c0000000-0000-0000-0000-000000000002', 'UPI', 'user2@okicici', NULL, 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000301', 'c0000000-0000-0000-0000-000000000003', 'CREDIT_CARD', '**** 4003', 'VISA', 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000302', 'c0000000-0000-0000-0000-000000000003', 'UPI', 'user3@okicici', NULL, 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000401', 'c0000000-0000-0000-0000-000000000004', 'CREDIT_CARD', '**** 4004', 'VISA', 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000402', 'c0000000-0000-0000-0000-000000000004', 'UPI', 'user4@okicici', NULL, 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000501', 'c0000000-0000-0000-0000-000000000005', 'CREDIT_CARD', '**** 4005', 'VISA', 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000502', 'c0000000-0000-0000-0000-000000000005', 'UPI', 'user5@okicici', NULL, 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000601', 'c0000000-0000-0000-0000-000000000006', 'CREDIT_CARD', '**** 4006', 'VISA', 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000602', 'c0000000-0000-0000-0000-000000000006', 'UPI', 'user6@okicici', NULL, 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000701', 'c0000000-0000-0000-0000-000000000007', 'CREDIT_CARD', '**** 4007', 'VISA', 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000702', 'c0000000-0000-0000-0000-000000000007', 'UPI', 'user7@okicici', NULL, 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000801', 'c0000000-0000-0000-0000-000000000008', 'CREDIT_CARD', '**** 4008', 'VISA', 'ICICI', 'ACTIVE'),
+('d0000000-0000-0000-0000-000000000802', 'c0000000-0000-0000-0000-000000000008', 'UPI', 'user8@okicici', NULL, 'ICICI', 'ACTIVE');
@@ -0,0 +1,156 @@
+package com.paymentgateway.admission;
+
+import com.paymentgateway.config.AdmissionControlProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-wide in-flight limit that follows observed latency (gradient method).
+ * <p>
+ * Latencies are averaged per window and compared with a slowly moving
+ * baseline. While recent latency stays within {@code rttTolerance} of the
+ * baseline the limit grows by about sqrt(limit) per window; as queueing pushes
+ * latency up the gradient drops below one and the limit shrinks in proportion.
+ * A 5xx or timed-out request counts as a halving signal.
+ * <p>
+ * Acquire and release are a CAS on one counter; the window is closed by
+ * whichever thread wins a CAS on the window start, so the limit has a single
+ * writer and no lock is taken.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final AdmissionControlProperties.Concurrency config;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private volatile double baselineRttNanos = Double.NaN;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAdder windowDrops = new LongAdder();
+
+    private final Counter rejectedCheckout;
+    private final Counter rejectedPayment;
+
+    public AdaptiveConcurrencyLimiter(AdmissionControlProperties.Concurrency config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.windowNanos = config.getWindow().toNanos();
+        this.limit = config.getInitialLimit();
+
+        Gauge.builder("admission.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive in-flight limit")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Admitted requests in flight")
+                .register(meterRegistry);
+        this.rejectedCheckout = rejectedCounter(meterRegistry, AdmissionPriority.CHECKOUT);
+        this.rejectedPayment = rejectedCounter(meterRegistry, AdmissionPriority.PAYMENT);
+    }
+
+    /**
+     * @return true if admitted; the caller must then call {@link #release}
+     */
+    public boolean tryAcquire(AdmissionPriority priority) {
+        int currentLimit = limit;
+        int cap = priority == AdmissionPriority.CHECKOUT
+                ? Math.max(1, (int) (currentLimit * config.getCheckoutShare()))
+                : currentLimit;
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                (priority == AdmissionPriority.CHECKOUT ? rejectedCheckout : rejectedPayment).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and feeds its latency into the limit.
+     *
+     * @param dropped the request failed in a way that signals overload
+     */
+    public void release(long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        if (dropped) {
+            windowDrops.increment();
+        } else {
+            windowRttSum.add(rttNanos);
+            windowSamples.increment();
+        }
+
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start >= windowNanos
+                && windowSamples.sum() + windowDrops.sum() >= config.getMinWindowSamples()
+                && windowStart.compareAndSet(start, now)) {
+            closeWindow();
+        }
+    }
+
+    /**
+     * Releases an admitted request without a latency sample, e.g. when it was
+     * rejected further down before doing any work.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Single writer: only the thread that won the windowStart CAS gets here
+    private void closeWindow() {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        long drops = windowDrops.sumThenReset();
+        int currentLimit = limit;
+
+        double newLimit;
+        if (drops > 0) {
+            newLimit = currentLimit * 0.5;
+        } else if (samples == 0) {
+            return;
+        } else {
+            double shortRtt = (double) rttSum / samples;
+            double baseline = baselineRttNanos;
+            if (Double.isNaN(baseline)) {
+                baseline = shortRtt;
+            } else if (baseline / shortRtt > 2) {
+                // Load dropped sharply; let the baseline follow it down
+                baseline = baseline * 0.95 + shortRtt * 0.05;
+            } else {
+                baseline = baseline * 0.99 + shortRtt * 0.01;
+            }
+            baselineRttNanos = baseline;
+
+            double gradient = Math.max(0.5, Math.min(1.0, config.getRttTolerance() * baseline / shortRtt));
+            newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+        }
+
+        double smoothed = currentLimit * (1 - config.getSmoothing()) + newLimit * config.getSmoothing();
+        limit = (int) Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), Math.round(smoothed)));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, AdmissionPriority priority) {
+        return Counter.builder("admission.rejected")
+                .description("Requests shed by admission control")
+                .tag("priority", priority.name().toLowerCase())
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+    }
+}
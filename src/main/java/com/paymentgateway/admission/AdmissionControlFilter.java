@@ -0,0 +1,257 @@
+package com.paymentgateway.admission;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds checkout and payment requests before they reach a controller thread's
+ * real work. A request must pass the node-wide adaptive concurrency limit and
+ * then its merchant's rate; otherwise it gets an immediate 429 with
+ * {@code Retry-After}.
+ * <p>
+ * The merchant id is read from the body ({@code merchant.merchantId}) with a
+ * streaming scan in whichever of JSON, CBOR or Smile it was sent as; the body
+ * is buffered so the controller can still bind it. A body without a readable
+ * merchant id skips the merchant check and is left for request validation to
+ * reject. Bodies larger than {@code maxBodyBytes} are rejected with 413 before
+ * they are buffered.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final JsonFactory CBOR = new CBORFactory();
+    private static final JsonFactory SMILE = new SmileFactory();
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final MerchantRateLimiter merchantRateLimiter;
+    private final int maxBodyBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return priorityOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionPriority priority = priorityOf(request);
+        if (!concurrencyLimiter.tryAcquire(priority)) {
+            reject(response, 1, "Server is at capacity");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean sampled = false;
+        boolean failed = false;
+        try {
+            byte[] body = readBody(request, maxBodyBytes);
+            if (body == null) {
+                tooLarge(response);
+                return;
+            }
+            BufferedBodyRequest buffered = new BufferedBodyRequest(request, body);
+            UUID merchantId = merchantId(buffered.body, request.getContentType());
+            if (merchantId != null) {
+                long waitNanos = merchantRateLimiter.tryAcquire(merchantId, priority);
+                if (waitNanos > 0) {
+                    reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)),
+                            "Merchant request rate exceeded");
+                    return;
+                }
+            }
+
+            sampled = true;
+            try {
+                chain.doFilter(buffered, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                // The error page has not been rendered yet, so the status may still read 200
+                failed = true;
+                throw e;
+            }
+        } finally {
+            if (sampled) {
+                concurrencyLimiter.release(System.nanoTime() - start, failed || response.getStatus() >= 500);
+            } else {
+                concurrencyLimiter.releaseWithoutSample();
+            }
+        }
+    }
+
+    static AdmissionPriority priorityOf(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals("/checkout")) {
+            return AdmissionPriority.CHECKOUT;
+        }
+        if (path.equals("/payment/pay")) {
+            return AdmissionPriority.PAYMENT;
+        }
+        return null;
+    }
+
+    static UUID merchantId(byte[] body, String contentType) {
+        try (JsonParser parser = parserFactory(contentType).createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (!"merchant".equals(field) || value != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String merchantField = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("merchantId".equals(merchantField)) {
+                        return UUID.fromString(parser.getText());
+                    }
+                    parser.skipChildren();
+                }
+                return null;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("No merchant id in request body, skipping merchant rate check", e);
+        }
+        return null;
+    }
+
+    private static JsonFactory parserFactory(String contentType) {
+        if (contentType != null) {
+            if (contentType.startsWith("application/cbor")) {
+                return CBOR;
+            }
+            if (contentType.startsWith("application/x-jackson-smile")) {
+                return SMILE;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * @return the body, or null if it is larger than {@code maxBytes}
+     */
+    static byte[] readBody(HttpServletRequest request, int maxBytes) throws IOException {
+        if (request.getContentLengthLong() > maxBytes) {
+            return null;
+        }
+        // One byte over the limit is enough to tell a chunked body is too large
+        byte[] body = request.getInputStream().readNBytes(maxBytes + 1);
+        return body.length > maxBytes ? null : body;
+    }
+
+    private static void tooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write("{\"error\":\"Payload Too Large\",\"message\":\"Request body is too large\"}"
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(("{\"error\":\"Too Many Requests\",\"message\":\"" + message + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Holds the request body in memory so it can be inspected here and read
+     * again by message conversion.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // Everything is already in memory: always ready until finished
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
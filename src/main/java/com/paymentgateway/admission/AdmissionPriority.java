@@ -0,0 +1,11 @@
+package com.paymentgateway.admission;
+
+/**
+ * Request classes seen by admission control. Under pressure checkout is shed
+ * before payment: a shed checkout costs a retry, a shed payment costs a sale
+ * already in progress.
+ */
+public enum AdmissionPriority {
+    CHECKOUT,
+    PAYMENT
+}
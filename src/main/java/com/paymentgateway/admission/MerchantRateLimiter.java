@@ -0,0 +1,100 @@
+package com.paymentgateway.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentgateway.config.AdmissionControlProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-merchant request rates, one token bucket per merchant and priority, so a
+ * single merchant's flash sale cannot take the whole node.
+ * <p>
+ * Buckets use the generic cell rate algorithm: the whole bucket is one
+ * {@code AtomicLong} holding the theoretical arrival time of the next request,
+ * updated by CAS. Merchant state lives in a bounded cache and is evicted when
+ * idle.
+ */
+public class MerchantRateLimiter {
+
+    private final AdmissionControlProperties properties;
+    private final Cache<UUID, Buckets> buckets;
+    private final Counter rejectedCheckout;
+    private final Counter rejectedPayment;
+
+    public MerchantRateLimiter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedMerchants())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        Gauge.builder("admission.merchants.tracked", buckets, Cache::estimatedSize)
+                .description("Merchants with live rate-limit state")
+                .register(meterRegistry);
+        this.rejectedCheckout = rejectedCounter(meterRegistry, AdmissionPriority.CHECKOUT);
+        this.rejectedPayment = rejectedCounter(meterRegistry, AdmissionPriority.PAYMENT);
+    }
+
+    /**
+     * @return 0 if admitted, otherwise nanoseconds until the merchant may retry
+     */
+    public long tryAcquire(UUID merchantId, AdmissionPriority priority) {
+        Buckets merchant = buckets.get(merchantId, this::newBuckets);
+        Bucket bucket = priority == AdmissionPriority.CHECKOUT ? merchant.checkout : merchant.payment;
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            (priority == AdmissionPriority.CHECKOUT ? rejectedCheckout : rejectedPayment).increment();
+        }
+        return waitNanos;
+    }
+
+    private Buckets newBuckets(UUID merchantId) {
+        AdmissionControlProperties.MerchantLimits limits = properties.getMerchants()
+                .getOrDefault(merchantId, properties.getMerchantDefaults());
+        return new Buckets(new Bucket(limits.getCheckoutRate(), limits.getCheckoutBurst()),
+                new Bucket(limits.getPaymentRate(), limits.getPaymentBurst()));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, AdmissionPriority priority) {
+        return Counter.builder("admission.rejected")
+                .description("Requests shed by admission control")
+                .tag("priority", priority.name().toLowerCase())
+                .tag("reason", "merchant_rate")
+                .register(meterRegistry);
+    }
+
+    private record Buckets(Bucket checkout, Bucket payment) {
+    }
+
+    static final class Bucket {
+
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final AtomicLong theoreticalArrival;
+
+        Bucket(double ratePerSecond, int burst) {
+            this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+            this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+            this.theoreticalArrival = new AtomicLong(System.nanoTime());
+        }
+
+        long tryAcquire(long now) {
+            for (;;) {
+                long tat = theoreticalArrival.get();
+                long waitNanos = tat - toleranceNanos - now;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (theoreticalArrival.compareAndSet(tat, Math.max(tat, now) + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.paymentgateway.config;
+
+import com.paymentgateway.admission.AdaptiveConcurrencyLimiter;
+import com.paymentgateway.admission.AdmissionControlFilter;
+import com.paymentgateway.admission.MerchantRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Admission control for checkout and payment, on unless
+ * {@code payment.admission.enabled=false}. The filter runs after the HTTP
+ * observation filter, so shed requests still show up in request metrics.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(AdmissionControlProperties properties,
+            MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(properties.getConcurrency(), meterRegistry);
+    }
+
+    @Bean
+    public MerchantRateLimiter merchantRateLimiter(AdmissionControlProperties properties,
+            MeterRegistry meterRegistry) {
+        return new MerchantRateLimiter(properties, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            AdaptiveConcurrencyLimiter concurrencyLimiter, MerchantRateLimiter merchantRateLimiter,
+            AdmissionControlProperties properties) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(concurrencyLimiter, merchantRateLimiter,
+                        (int) properties.getMaxBodySize().toBytes()));
+        registration.addUrlPatterns("/checkout", "/payment/pay");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,93 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Admission control in front of checkout and payment: a node-wide adaptive
+ * concurrency limit plus per-merchant request rates.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    private Concurrency concurrency = new Concurrency();
+
+    /**
+     * Rates applied to merchants without an override.
+     */
+    private MerchantLimits merchantDefaults = new MerchantLimits();
+
+    /**
+     * Per-merchant rate overrides, keyed by merchant id.
+     */
+    private Map<UUID, MerchantLimits> merchants = new HashMap<>();
+
+    /**
+     * Largest request body the filter buffers to find the merchant; larger
+     * ones get 413.
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+    /**
+     * Upper bound on merchants with live rate state; idle ones are evicted.
+     */
+    private long maxTrackedMerchants = 100_000;
+
+    @Data
+    public static class Concurrency {
+
+        private int initialLimit = 200;
+
+        private int minLimit = 20;
+
+        private int maxLimit = 2_000;
+
+        /**
+         * Fraction of the limit checkout may use; the rest is held for payments,
+         * so checkout is shed first.
+         */
+        private double checkoutShare = 0.8;
+
+        /**
+         * How far recent latency may exceed the long-term baseline before the
+         * limit shrinks, e.g. 1.5 allows 50% growth.
+         */
+        private double rttTolerance = 1.5;
+
+        /**
+         * Weight of each new limit estimate (0-1).
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Latency samples are aggregated over this window before the limit moves.
+         */
+        private Duration window = Duration.ofMillis(500);
+
+        /**
+         * Minimum samples in a window for it to count.
+         */
+        private int minWindowSamples = 20;
+    }
+
+    @Data
+    public static class MerchantLimits {
+
+        private double checkoutRate = 500;
+
+        private int checkoutBurst = 1_000;
+
+        private double paymentRate = 200;
+
+        private int paymentBurst = 400;
+    }
+}
@@ -0,0 +1,48 @@
+package com.paymentgateway.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Serves the API models as CBOR ({@code application/cbor}) or Smile
+ * ({@code application/x-jackson-smile}) when the client asks for it in
+ * {@code Accept}, and reads request bodies sent with those content types.
+ * <p>
+ * Declared as beans so Boot's {@code HttpMessageConverters} puts them in place
+ * of Spring MVC's default CBOR and Smile converters, which would otherwise be
+ * picked first. Each mapper gets its own builder with Boot's Jackson
+ * customizers applied, so it has the JSON mapper's modules and
+ * {@code spring.jackson.*} settings. JSON stays first, and the default for
+ * wildcard or missing {@code Accept} headers.
+ */
+@Configuration
+public class BinaryContentNegotiationConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ApplicationContext applicationContext,
+            ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        return new MappingJackson2CborHttpMessageConverter(
+                customized(Jackson2ObjectMapperBuilder.cbor(), applicationContext, customizers).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ApplicationContext applicationContext,
+            ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                customized(Jackson2ObjectMapperBuilder.smile(), applicationContext, customizers).build());
+    }
+
+    // What Boot does for the JSON builder, on a builder of our own
+    private static Jackson2ObjectMapperBuilder customized(Jackson2ObjectMapperBuilder builder,
+            ApplicationContext applicationContext, ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        builder.applicationContext(applicationContext);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+}
@@ -0,0 +1,28 @@
+package com.paymentgateway.config;
+
+import com.paymentgateway.service.BlockListService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes the block-list to keyspace notifications for its blocked keys, so
+ * blocks set by any node reach every node's local copy within a round trip.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.blocklist", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BlockListConfig {
+
+    @Bean
+    public RedisMessageListenerContainer blockListListenerContainer(RedisConnectionFactory connectionFactory,
+            BlockListService blockListService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(blockListService,
+                new PatternTopic("__keyspace@*__:" + BlockListService.BLOCKED_PREFIX + "*"));
+        return container;
+    }
+}
@@ -0,0 +1,59 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Failure thresholds for temporarily blocking instruments and vendors, and how
+ * each node keeps its local copy of the block-list current.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.blocklist")
+public class BlockListProperties {
+
+    private boolean enabled = true;
+
+    private Threshold instrument = new Threshold(Duration.ofMinutes(10), 3, Duration.ofMinutes(30));
+
+    private Threshold vendor = new Threshold(Duration.ofMinutes(1), 20, Duration.ofMinutes(2));
+
+    /**
+     * Full re-read of the blocked keys, in case a keyspace notification was
+     * missed (pub/sub is at-most-once).
+     */
+    private Duration resyncInterval = Duration.ofSeconds(30);
+
+    /**
+     * Turn on keyspace notifications for the block-list keys at startup. Leave
+     * off where CONFIG is not allowed and set notify-keyspace-events on the
+     * server instead; without them changes from other nodes arrive on resync.
+     */
+    private boolean configureKeyspaceEvents = true;
+
+    @Data
+    public static class Threshold {
+
+        /**
+         * Failures are counted over this sliding window.
+         */
+        private Duration window;
+
+        /**
+         * Failures within the window that trigger a block.
+         */
+        private int maxFailures;
+
+        private Duration blockDuration;
+
+        public Threshold() {
+        }
+
+        public Threshold(Duration window, int maxFailures, Duration blockDuration) {
+            this.window = window;
+            this.maxFailures = maxFailures;
+            this.blockDuration = blockDuration;
+        }
+    }
+}
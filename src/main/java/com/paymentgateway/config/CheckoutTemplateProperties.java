@@ -0,0 +1,36 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Node-local cache of the merchant-level part of checkout responses.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.checkout-template")
+public class CheckoutTemplateProperties {
+
+    /**
+     * When false every checkout evaluates its methods from scratch.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of (merchant, MCC) entries held.
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * Upper bound on how long a merchant config change made through another
+     * node can go unnoticed here.
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+
+    /**
+     * How often the active method catalog is re-read; a change drops every
+     * template.
+     */
+    private Duration catalogRefreshInterval = Duration.ofSeconds(30);
+}
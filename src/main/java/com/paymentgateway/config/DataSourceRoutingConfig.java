@@ -0,0 +1,77 @@
+package com.paymentgateway.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primary/replica datasource routing, enabled with
+ * {@code payment.datasource.routing.enabled=true}. Without it the auto-configured
+ * single datasource is used unchanged.
+ * <p>
+ * Every pool is named ("primary", "replica-1", ...) and reports Hikari pool
+ * metrics tagged with that name, so write and read utilization can be tracked
+ * separately.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(ReadReplicaProperties properties,
+            DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        List<ReadReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica config = properties.getReplicas().get(i);
+            String name = "replica-" + (i + 1);
+
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(config.getUrl());
+            pool.setUsername(config.getUsername());
+            pool.setPassword(config.getPassword());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setMaximumPoolSize(config.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReadReplicaRoutingDataSource.Replica(name, pool));
+        }
+        return new ReplicaLagMonitor(replicas, properties.getLagCheckInterval(), meterRegistry);
+    }
+
+    /**
+     * The datasource JPA uses. The lazy proxy defers fetching a physical
+     * connection until the first statement, by which time the transaction's
+     * read-only flag is visible to the router.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+            ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(primaryDataSource,
+                replicaLagMonitor.getReplicas(), properties.getMaxLag().toMillis(), meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,49 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signing and lifetime of the checkout-to-payment handoff token.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.handoff")
+public class HandoffTokenProperties {
+
+    /**
+     * Base64 HMAC key shared by every node. When blank a random key is generated
+     * at startup, which only works for a single node.
+     */
+    private String secret = "";
+
+    /**
+     * Keys still accepted for verification during a rotation.
+     */
+    private List<String> previousSecrets = new ArrayList<>();
+
+    /**
+     * How long a token is accepted after checkout; matches the checkout
+     * idempotency cache so a replayed checkout never returns an expired token.
+     */
+    private Duration ttl = Duration.ofHours(1);
+
+    /**
+     * Vendors ranked into the token at checkout.
+     */
+    private int shortlistSize = 3;
+
+    /**
+     * Past this age the shortlist is ignored and pay-time routing reads live
+     * vendor health; eligibility from the token is still used.
+     */
+    private Duration shortlistMaxAge = Duration.ofMinutes(5);
+
+    /**
+     * Reject payments without a token instead of accepting them unvalidated.
+     */
+    private boolean required = false;
+}
@@ -0,0 +1,48 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Batch payment submissions (see PaymentBatchService).
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.batch")
+public class PaymentBatchProperties {
+
+    /**
+     * Largest number of payments one batch may carry.
+     */
+    private int maxItems = 5_000;
+
+    /**
+     * Vendor calls one batch may have in flight. Keep it at or below
+     * payment.vendor-dispatch.max-queued-per-merchant, or a large batch fails
+     * its own calls as vendor busy.
+     */
+    private int concurrency = 32;
+
+    /**
+     * Batches one node runs at once; further batches get 429. Each batch has at
+     * most {@code concurrency} calls queued or running, so this also sizes the
+     * dispatch queue.
+     */
+    private int maxConcurrentBatches = 8;
+
+    /**
+     * Batches that include any one merchant's payments, running at once on one
+     * node.
+     */
+    private int maxConcurrentBatchesPerMerchant = 2;
+
+    /**
+     * Threads making vendor calls, shared by all batches on the node.
+     */
+    private int dispatchThreads = 64;
+
+    /**
+     * Most finished payments persisted, written to Redis and streamed back
+     * together.
+     */
+    private int flushSize = 200;
+}
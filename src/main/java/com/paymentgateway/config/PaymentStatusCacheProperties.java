@@ -0,0 +1,30 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the node-local payment status cache that sits between Redis and the
+ * transactions table.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.status-cache")
+public class PaymentStatusCacheProperties {
+
+    /**
+     * Maximum number of payment ids held locally, found and unknown combined.
+     */
+    private long maxSize = 100_000;
+
+    /**
+     * How long a status loaded from the database is served locally.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * How long an id with no transaction is remembered as unknown.
+     */
+    private Duration negativeTtl = Duration.ofSeconds(5);
+}
@@ -0,0 +1,94 @@
+package com.paymentgateway.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a replica whose last measured
+ * lag is within the threshold, round-robin, and everything else to the primary.
+ * <p>
+ * Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only
+ * bound to the thread after the transaction manager has asked for a connection.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryFallbacks;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMillis,
+            MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+        this.primaryFallbacks = Counter.builder("datasource.routing.fallback")
+                .description("Read-only connections sent to the primary because no replica was within max lag")
+                .register(meterRegistry);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicas.isEmpty()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.getLagMillis() <= maxLagMillis) {
+                return replica.getName();
+            }
+        }
+        primaryFallbacks.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * A replica pool and its most recently measured replication lag.
+     */
+    public static class Replica {
+
+        static final long UNKNOWN_LAG = Long.MAX_VALUE;
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagMillis = UNKNOWN_LAG;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        void setLagMillis(long lagMillis) {
+            this.lagMillis = lagMillis;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.paymentgateway.config;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.RedisCommand;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lettuce client options for failing fast: every command gets its own short
+ * timeout instead of the connection-wide one, and commands issued while the
+ * connection is down are rejected instead of queued until it comes back.
+ */
+@Configuration
+public class RedisClientConfig {
+
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer redisCommandTimeouts(RedisResilienceProperties properties,
+            RedisProperties redisProperties) {
+        Map<String, Long> timeouts = new HashMap<>();
+        properties.getCommandTimeouts().forEach((command, timeout) -> timeouts.put(command.toUpperCase(),
+                timeout.toNanos()));
+        long defaultTimeout = properties.getCommandTimeout().toNanos();
+
+        TimeoutOptions timeoutOptions = TimeoutOptions.builder()
+                .timeoutSource(new TimeoutOptions.TimeoutSource() {
+                    @Override
+                    public long getTimeout(RedisCommand<?, ?, ?> command) {
+                        return timeouts.getOrDefault(command.getType().name(), defaultTimeout);
+                    }
+
+                    @Override
+                    public TimeUnit getTimeUnit() {
+                        return TimeUnit.NANOSECONDS;
+                    }
+                })
+                .build();
+        Duration connectTimeout = redisProperties.getConnectTimeout() != null ? redisProperties.getConnectTimeout()
+                : SocketOptions.DEFAULT_CONNECT_TIMEOUT_DURATION;
+        return builder -> builder.clientOptions(ClientOptions.builder()
+                .timeoutOptions(timeoutOptions)
+                .socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).build())
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build());
+    }
+}
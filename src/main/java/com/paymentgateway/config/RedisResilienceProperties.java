@@ -0,0 +1,67 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-command Redis timeouts and the circuit breaker, local fallbacks and
+ * replay buffer used while Redis is slow or down (see RedisGuard).
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.redis")
+public class RedisResilienceProperties {
+
+    /**
+     * Timeout for any Redis command not listed in {@code command-timeouts}.
+     * spring.data.redis.timeout stays the upper bound for all of them.
+     */
+    private Duration commandTimeout = Duration.ofMillis(50);
+
+    /**
+     * Timeouts by command name (SCAN, MGET, ...) for the few commands that
+     * legitimately take longer, such as the block-list resync.
+     */
+    private Map<String, Duration> commandTimeouts = new LinkedHashMap<>(Map.of(
+            "SCAN", Duration.ofSeconds(1),
+            "MGET", Duration.ofSeconds(1),
+            "CONFIG", Duration.ofSeconds(1)));
+
+    /**
+     * Consecutive failed or timed-out calls that open the circuit.
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * How long an open circuit rejects calls before one probe is let through.
+     */
+    private Duration openDuration = Duration.ofSeconds(2);
+
+    /**
+     * Writes kept for replay while degraded; writes beyond this are dropped
+     * from the buffer and only held locally.
+     */
+    private int maxBufferedWrites = 100_000;
+
+    /**
+     * Entries per local fallback structure (payment statuses, declined
+     * instruments) written while degraded.
+     */
+    private long maxLocalEntries = 100_000;
+
+    /**
+     * How long locally held state is kept if it is never replayed.
+     */
+    private Duration localTtl = Duration.ofHours(1);
+
+    private Duration replayInterval = Duration.ofSeconds(1);
+
+    /**
+     * Buffered writes replayed per run, so one run cannot hold the scheduler
+     * for long.
+     */
+    private int replayBatchSize = 1_000;
+}
@@ -0,0 +1,50 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * In-process copy of the method catalog, merchant configs, pricing and vendor
+ * health, and its snapshot on local disk (see ReferenceDataStore).
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.reference-data")
+public class ReferenceDataProperties {
+
+    /**
+     * Snapshot file; unset disables snapshots, so every start reads the
+     * database.
+     */
+    private String snapshotFile;
+
+    /**
+     * How often the snapshot is rewritten when the data has been synced since.
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+
+    /**
+     * A snapshot older than this is ignored on startup and the data is read
+     * from the database instead.
+     */
+    private Duration maxSnapshotAge = Duration.ofHours(24);
+
+    /**
+     * How often the catalog, pricing and vendor health are re-read and
+     * changed merchant configs are fetched.
+     */
+    private Duration syncInterval = Duration.ofSeconds(10);
+
+    /**
+     * How often merchant configs are re-read in full, which also drops
+     * deleted ones.
+     */
+    private Duration fullSyncInterval = Duration.ofMinutes(15);
+
+    /**
+     * How far before the newest updated_at seen a delta sync starts, to cover
+     * writes stamped by nodes with slower clocks.
+     */
+    private Duration syncOverlap = Duration.ofMinutes(1);
+}
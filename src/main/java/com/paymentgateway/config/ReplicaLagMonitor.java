@@ -0,0 +1,79 @@
+package com.paymentgateway.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures replication lag on each replica and owns the replica
+ * pools. A replica that cannot be queried is treated as infinitely behind until
+ * the next successful check.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    // Zero when all received WAL is replayed (an idle primary keeps the replay
+    // timestamp old); null-safe on a standalone instance used as a local replica.
+    private static final String LAG_QUERY = "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END, 0)";
+
+    private final List<ReadReplicaRoutingDataSource.Replica> replicas;
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(List<ReadReplicaRoutingDataSource.Replica> replicas, Duration interval,
+            MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (ReadReplicaRoutingDataSource.Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica,
+                    r -> r.getLagMillis() == ReadReplicaRoutingDataSource.Replica.UNKNOWN_LAG ? Double.NaN
+                            : r.getLagMillis() / 1000.0)
+                    .description("Replication lag measured on the replica")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+        }
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public List<ReadReplicaRoutingDataSource.Replica> getReplicas() {
+        return replicas;
+    }
+
+    void checkAll() {
+        for (ReadReplicaRoutingDataSource.Replica replica : replicas) {
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getDataSource());
+                jdbcTemplate.setQueryTimeout(1);
+                Number lag = jdbcTemplate.queryForObject(LAG_QUERY, Number.class);
+                replica.setLagMillis(lag != null ? lag.longValue() : 0L);
+            } catch (Exception e) {
+                log.warn("Replica lag check failed - pool: {}, routing reads to other pools", replica.getName(), e);
+                replica.setLagMillis(ReadReplicaRoutingDataSource.Replica.UNKNOWN_LAG);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (ReadReplicaRoutingDataSource.Replica replica : replicas) {
+            if (replica.getDataSource() instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+}
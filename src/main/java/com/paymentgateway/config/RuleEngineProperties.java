@@ -0,0 +1,22 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Which stored rule set the rule engine runs and how often it checks for a new
+ * version.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.rules")
+public class RuleEngineProperties {
+
+    /**
+     * Row of rule_sets to load; until it exists the bundled default rules apply.
+     */
+    private String ruleSetId = "global";
+
+    private Duration reloadInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,33 @@
+package com.paymentgateway.config;
+
+import com.paymentgateway.service.PipelineStage;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latency objectives for the pipeline stages, reported by the {@code slo}
+ * actuator endpoint.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.slo")
+public class SloProperties {
+
+    /**
+     * Percentile each stage is held to, e.g. 0.9 for P90.
+     */
+    private double percentile = 0.9;
+
+    /**
+     * Per-stage overrides of the built-in objectives, keyed by stage constant,
+     * e.g. {@code checkout-rules: 15ms}.
+     */
+    private Map<PipelineStage, Duration> objectives = new EnumMap<>(PipelineStage.class);
+
+    public Duration objectiveFor(PipelineStage stage) {
+        return objectives.getOrDefault(stage, stage.getDefaultObjective());
+    }
+}
@@ -0,0 +1,45 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Lifecycle of the created_at partitions of the transactions table.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.transactions.partitioning")
+public class TransactionPartitioningProperties {
+
+    /**
+     * Requires db/transactions_partitioning.sql to have been applied.
+     */
+    private boolean enabled = false;
+
+    private Granularity granularity = Granularity.MONTHLY;
+
+    /**
+     * Partitions created ahead of the current one, so inserts never wait on DDL.
+     */
+    private int precreate = 2;
+
+    /**
+     * Partitions kept in the database, including the current one. Older ones are
+     * archived and dropped.
+     */
+    private int retention = 13;
+
+    private String archiveDir = "archive/transactions";
+
+    /**
+     * How far back paymentId lookups search before falling back to every
+     * partition.
+     */
+    private Duration lookupWindow = Duration.ofDays(7);
+
+    public enum Granularity {
+        DAILY,
+        MONTHLY
+    }
+}
@@ -0,0 +1,75 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-vendor concurrency limits and merchant weights for the vendor dispatch
+ * scheduler.
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.vendor-dispatch")
+public class VendorDispatchProperties {
+
+    /**
+     * When off, vendor calls go straight through with no limit or queue.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Concurrent calls allowed to a vendor without an override.
+     */
+    private int defaultConcurrency = 64;
+
+    /**
+     * Concurrency overrides, keyed by vendor id.
+     */
+    private Map<String, Integer> vendorConcurrency = new HashMap<>();
+
+    /**
+     * Share of a busy vendor each tier gets, relative to the other tiers.
+     */
+    private Map<String, Integer> tierWeights = new HashMap<>(Map.of(
+            "ENTERPRISE", 8,
+            "GROWTH", 4,
+            "STANDARD", 1));
+
+    private String defaultTier = "STANDARD";
+
+    /**
+     * Merchant tier assignments, keyed by merchant id.
+     */
+    private Map<UUID, String> merchantTiers = new HashMap<>();
+
+    /**
+     * Calls one merchant may have waiting for one vendor.
+     */
+    private int maxQueuedPerMerchant = 50;
+
+    /**
+     * Calls waiting for one vendor across all merchants.
+     */
+    private int maxQueuedPerVendor = 1_000;
+
+    /**
+     * How long a call may wait for a vendor slot before it fails as vendor busy.
+     */
+    private Duration queueTimeout = Duration.ofSeconds(2);
+
+    public String tierOf(UUID merchantId) {
+        return merchantTiers.getOrDefault(merchantId, defaultTier);
+    }
+
+    public int weightOf(String tier) {
+        return Math.max(1, tierWeights.getOrDefault(tier, 1));
+    }
+
+    public int concurrencyOf(String vendorId) {
+        return vendorConcurrency.getOrDefault(vendorId, defaultConcurrency);
+    }
+}
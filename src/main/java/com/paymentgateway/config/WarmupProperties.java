@@ -0,0 +1,53 @@
+package com.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Startup warm-up that runs before the node reports ready (see StartupWarmup).
+ */
+@Data
+@ConfigurationProperties(prefix = "payment.warmup")
+public class WarmupProperties {
+
+    /**
+     * When false the node is ready as soon as the application has started.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the warm-up; whatever is left is skipped and the node
+     * reports ready anyway.
+     */
+    private Duration timeout = Duration.ofMinutes(2);
+
+    /**
+     * How many of the merchants with the most recent transactions get their
+     * config and checkout templates loaded.
+     */
+    private int topMerchants = 50;
+
+    /**
+     * How far back transactions are counted to find the top merchants.
+     */
+    private Duration merchantLookback = Duration.ofHours(24);
+
+    /**
+     * MCCs the top merchants' checkout templates are built for.
+     */
+    private List<String> mccs = List.of("5411");
+
+    /**
+     * Checkout evaluations run against the top merchants and stored users to
+     * get the hot paths compiled.
+     */
+    private int syntheticCheckouts = 2_000;
+
+    /**
+     * Users whose stored instruments the synthetic checkouts evaluate.
+     */
+    private int syntheticUsers = 50;
+}
@@ -1,8 +1,12 @@
 package com.paymentgateway.controller;
 
+import com.paymentgateway.exception.InvalidRequestException;
 import com.paymentgateway.generated.api.CheckoutApi;
 import com.paymentgateway.generated.model.CheckoutRequest;
 import com.paymentgateway.generated.model.CheckoutResponse;
+import com.paymentgateway.generated.model.PaymentDetails;
+import com.paymentgateway.logging.RequestLogContext;
+import com.paymentgateway.model.Money;
 import com.paymentgateway.service.CheckoutService;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
@@ -36,23 +40,38 @@ public class CheckoutController implements CheckoutApi {
 
         UUID paymentId = checkoutRequest.getPaymentId(); // Can be null for first-time checkout
 
-        log.info("Checkout request - checkoutId: {}, userId: {}, idempotencyKey: {}, paymentId: {}",
-                checkoutRequest.getCheckoutId(), xUserId, xIdempotencyKey, paymentId);
+        try (RequestLogContext ignored = RequestLogContext.checkout(checkoutRequest.getCheckoutId(),
+                checkoutRequest.getMerchant().getMerchantId(), paymentId)) {
+            log.debug("Checkout request - userId: {}, idempotencyKey: {}", xUserId, xIdempotencyKey);
 
-        CheckoutResponse response = checkoutService.getCheckoutOptions(
-                checkoutRequest.getCheckoutId(),
-                xIdempotencyKey,
-                checkoutRequest.getMerchant().getMerchantId(),
-                xUserId,
-                checkoutRequest.getPayment().getAmount(),
-                checkoutRequest.getMerchant().getMcc(),
-                paymentId // Pass optional paymentId for retry scenarios
-        );
+            CheckoutResponse response = checkoutService.getCheckoutOptions(
+                    checkoutRequest.getCheckoutId(),
+                    xIdempotencyKey,
+                    checkoutRequest.getMerchant().getMerchantId(),
+                    xUserId,
+                    amountOf(checkoutRequest.getPayment()),
+                    checkoutRequest.getMerchant().getMcc(),
+                    paymentId // Pass optional paymentId for retry scenarios
+            );
 
-        log.info("Checkout response - checkoutId: {}, paymentId: {}, methods: {}",
-                checkoutRequest.getCheckoutId(), response.getPaymentId(),
-                response.getPaymentMethods().size());
+            if (log.isDebugEnabled()) {
+                log.debug("Checkout response - paymentId: {}, methods: {}", response.getPaymentId(),
+                        response.getPaymentMethods().size());
+            }
 
-        return ResponseEntity.ok(response);
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    // The API's decimal amount becomes minor units here and nowhere later in checkout
+    private static Money amountOf(PaymentDetails payment) {
+        if (payment == null || payment.getAmount() == null) {
+            throw new InvalidRequestException("payment.amount is required");
+        }
+        try {
+            return Money.ofDefaultCurrency(payment.getAmount(), payment.getCurrency());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid amount: " + e.getMessage(), e);
+        }
     }
 }
@@ -3,7 +3,10 @@ package com.paymentgateway.controller;
 import com.paymentgateway.generated.api.PaymentsApi;
 import com.paymentgateway.generated.model.MerchantConfigRequest;
 import com.paymentgateway.generated.model.MerchantConfigResponse;
+import com.paymentgateway.exception.InvalidRequestException;
 import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.model.Money;
+import com.paymentgateway.service.NetworkRegistry;
 import com.paymentgateway.service.impl.MerchantConfigServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +29,7 @@ import java.util.stream.Collectors;
 public class MerchantConfigController implements PaymentsApi {
 
     private final MerchantConfigServiceImpl merchantConfigService;
+    private final NetworkRegistry networkRegistry;
 
     @Override
     public ResponseEntity<MerchantConfigResponse> onboardMerchantConfig(MerchantConfigRequest request) {
@@ -36,9 +40,10 @@ public class MerchantConfigController implements PaymentsApi {
         MerchantPaymentConfig config = new MerchantPaymentConfig();
         config.setMerchantId(request.getMerchantId());
         config.setMethodId(request.getMethodId());
-        config.setSupportedNetworks(request.getSupportedNetworks());
-        config.setMinAmount(request.getMinAmount() != null ? BigDecimal.valueOf(request.getMinAmount()) : null);
-        config.setMaxAmount(request.getMaxAmount() != null ? BigDecimal.valueOf(request.getMaxAmount()) : null);
+        config.setSupportedNetworks(request.getSupportedNetworks() != null
+                ? networkRegistry.maskOf(request.getSupportedNetworks()) : null);
+        config.setMinAmountMinor(toMinorUnits(request.getMinAmount()));
+        config.setMaxAmountMinor(toMinorUnits(request.getMaxAmount()));
         config.setEnabled(request.getEnabled() != null ? request.getEnabled() : true);
 
         // Save to database
@@ -86,10 +91,25 @@ public class MerchantConfigController implements PaymentsApi {
         response.setConfigId(config.getConfigId());
         response.setMerchantId(config.getMerchantId());
         response.setMethodId(config.getMethodId());
-        response.setSupportedNetworks(config.getSupportedNetworks());
-        response.setMinAmount(config.getMinAmount() != null ? config.getMinAmount().doubleValue() : null);
-        response.setMaxAmount(config.getMaxAmount() != null ? config.getMaxAmount().doubleValue() : null);
+        response.setSupportedNetworks(config.getSupportedNetworks() != null
+                ? networkRegistry.namesOf(config.getSupportedNetworks()) : null);
+        response.setMinAmount(config.getMinAmountMinor() != null
+                ? Money.toDouble(config.getMinAmountMinor(), Money.DEFAULT_CURRENCY) : null);
+        response.setMaxAmount(config.getMaxAmountMinor() != null
+                ? Money.toDouble(config.getMaxAmountMinor(), Money.DEFAULT_CURRENCY) : null);
         response.setEnabled(config.getEnabled());
         return response;
     }
+
+    // Merchant limits are in the gateway's currency
+    private static Long toMinorUnits(Double amount) {
+        if (amount == null) {
+            return null;
+        }
+        try {
+            return Money.toMinorUnits(BigDecimal.valueOf(amount), Money.DEFAULT_CURRENCY);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid amount limit: " + e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.paymentgateway.controller;
+
+import com.paymentgateway.generated.api.MerchantsApi;
+import com.paymentgateway.generated.model.MerchantTransactionPage;
+import com.paymentgateway.service.MerchantTransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Controller for merchant transaction search.
+ * Implements OpenAPI generated interface.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class MerchantTransactionController implements MerchantsApi {
+
+    private final MerchantTransactionService merchantTransactionService;
+
+    @Override
+    public ResponseEntity<MerchantTransactionPage> listMerchantTransactions(UUID merchantId, ZonedDateTime from,
+            ZonedDateTime to, String status, Integer limit, String cursor) {
+        log.info("Listing merchant transactions - merchantId: {}, status: {}, limit: {}", merchantId, status, limit);
+
+        MerchantTransactionPage page = merchantTransactionService.listTransactions(merchantId, from, to, status,
+                limit, cursor);
+
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,94 @@
+package com.paymentgateway.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentgateway.config.PaymentBatchProperties;
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.service.BatchPayment;
+import com.paymentgateway.service.PaymentBatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Controller for batch payments. Not part of the OpenAPI interface: the
+ * generator cannot express a streamed response.
+ * <p>
+ * Takes a JSON array of {@link BatchPayment}s and answers with one
+ * {@link BatchPayment.Result} per line (NDJSON), each written as soon as its
+ * payment finishes. A batch over the node's or a merchant's running batch
+ * limit gets 429 with {@code Retry-After}.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentBatchController {
+
+    private final PaymentBatchService paymentBatchService;
+    private final PaymentBatchProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(path = "/payment/pay/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> processBatch(@RequestBody List<BatchPayment> payments) {
+        if (payments.isEmpty()) {
+            throw new InvalidRequestException("A batch needs at least one payment");
+        }
+        if (payments.size() > properties.getMaxItems()) {
+            throw new InvalidRequestException("A batch carries at most " + properties.getMaxItems() + " payments");
+        }
+        PaymentBatchService.BatchPermit permit = paymentBatchService.admit(payments);
+        if (permit == null) {
+            log.warn("Batch payment request rejected, too many batches running - payments: {}", payments.size());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+        log.info("Batch payment request - payments: {}", payments.size());
+
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                paymentBatchService.processBatch(payments, new LineWriter(out));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Writes and flushes one result per line. Once the client has gone the
+     * remaining results are dropped, so the batch still records every outcome.
+     */
+    private final class LineWriter implements Consumer<BatchPayment.Result> {
+
+        private final OutputStream out;
+        private boolean closed;
+
+        private LineWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(BatchPayment.Result result) {
+            if (closed) {
+                return;
+            }
+            try {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                closed = true;
+                log.warn("Batch payment client went away, dropping the remaining results - {}", e.getMessage());
+            }
+        }
+    }
+}
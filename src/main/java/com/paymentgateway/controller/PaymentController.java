@@ -4,6 +4,8 @@ import com.paymentgateway.generated.api.PaymentApi;
 import com.paymentgateway.generated.model.PaymentRequest;
 import com.paymentgateway.generated.model.PaymentResponse;
 import com.paymentgateway.generated.model.PaymentStatusResponse;
+import com.paymentgateway.logging.LogMarkers;
+import com.paymentgateway.logging.RequestLogContext;
 import com.paymentgateway.service.PaymentService;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
@@ -31,16 +33,17 @@ public class PaymentController implements PaymentApi {
         @Counted(value = "controller.requests.count", extraTags = { "domain", "payment", "controller",
                         "PaymentController", "method", "processPayment" })
         public ResponseEntity<PaymentResponse> processPayment(UUID xUserId, PaymentRequest paymentRequest) {
-                log.info("Payment request - paymentId: {}, userId: {}",
-                                paymentRequest.getPaymentId(), xUserId);
+                try (RequestLogContext ignored = RequestLogContext.payment(paymentRequest.getPaymentId(),
+                                paymentRequest.getMerchant().getMerchantId())) {
+                        log.debug("Payment request - userId: {}", xUserId);
 
-                PaymentResponse response = paymentService.processPayment(paymentRequest, xUserId);
+                        PaymentResponse response = paymentService.processPayment(paymentRequest, xUserId);
 
-                log.info("Payment response - paymentId: {}, txnId: {}, status: {}, retryable: {}, requiresNewInstrument: {}",
-                                response.getPaymentId(), response.getTxnId(), response.getStatus(),
-                                response.getRetryable(), response.getRequiresNewInstrument());
+                        log.info(LogMarkers.PAYMENT, "Payment response - txnId: {}, status: {}",
+                                        response.getTxnId(), response.getStatus());
 
-                return ResponseEntity.ok(response);
+                        return ResponseEntity.ok(response);
+                }
         }
 
         @Override
@@ -49,13 +52,13 @@ public class PaymentController implements PaymentApi {
         @Counted(value = "controller.requests.count", extraTags = { "domain", "payment", "controller",
                         "PaymentController", "method", "getPaymentStatus" })
         public ResponseEntity<PaymentStatusResponse> getPaymentStatus(UUID paymentId) {
-                log.info("Payment status query - paymentId: {}", paymentId);
+                try (RequestLogContext ignored = RequestLogContext.paymentStatus(paymentId)) {
+                        PaymentStatusResponse response = paymentService.getPaymentStatus(paymentId);
 
-                PaymentStatusResponse response = paymentService.getPaymentStatus(paymentId);
+                        log.info(LogMarkers.PAYMENT_STATUS, "Payment status response - status: {}, retryCount: {}",
+                                        response.getStatus(), response.getRetryCount());
 
-                log.info("Payment status response - paymentId: {}, status: {}, retryCount: {}",
-                                paymentId, response.getStatus(), response.getRetryCount());
-
-                return ResponseEntity.ok(response);
+                        return ResponseEntity.ok(response);
+                }
         }
 }
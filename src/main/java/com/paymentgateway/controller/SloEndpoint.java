@@ -0,0 +1,93 @@
+package com.paymentgateway.controller;
+
+import com.paymentgateway.config.SloProperties;
+import com.paymentgateway.service.PipelineStage;
+import com.paymentgateway.service.StageTimer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/slo}: per-stage p50/p90/p99 next to each stage's objective,
+ * so a P90 regression can be traced to the stage that caused it.
+ * {@code /actuator/slo/{pipeline}} narrows to one pipeline.
+ * <p>
+ * The percentiles decay: they cover roughly the last few minutes (Micrometer's
+ * distribution expiry). {@code count} is cumulative since startup.
+ */
+@Component
+@Endpoint(id = "slo")
+@RequiredArgsConstructor
+public class SloEndpoint {
+
+    private final StageTimer stageTimer;
+    private final SloProperties sloProperties;
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return report(null);
+    }
+
+    @ReadOperation
+    public Map<String, Object> pipeline(@Selector String pipeline) {
+        return report(pipeline);
+    }
+
+    private Map<String, Object> report(String pipeline) {
+        List<StageReport> stages = new ArrayList<>();
+        for (PipelineStage stage : PipelineStage.values()) {
+            if (pipeline == null || stage.getPipeline().equals(pipeline)) {
+                stages.add(stageReport(stage));
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("percentile", sloProperties.getPercentile());
+        report.put("withinSlo", stages.stream().allMatch(StageReport::withinSlo));
+        report.put("stages", stages);
+        return report;
+    }
+
+    private StageReport stageReport(PipelineStage stage) {
+        HistogramSnapshot snapshot = stageTimer.timer(stage).takeSnapshot();
+        Double p50 = null;
+        Double p90 = null;
+        Double p99 = null;
+        Double atObjectivePercentile = null;
+        if (snapshot.count() > 0) {
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                double millis = value.value(TimeUnit.MILLISECONDS);
+                if (value.percentile() == 0.5) {
+                    p50 = millis;
+                } else if (value.percentile() == 0.9) {
+                    p90 = millis;
+                } else if (value.percentile() == 0.99) {
+                    p99 = millis;
+                }
+                if (value.percentile() == sloProperties.getPercentile()) {
+                    atObjectivePercentile = millis;
+                }
+            }
+        }
+
+        double objectiveMillis = stageTimer.objective(stage).toNanos() / 1_000_000.0;
+        // A stage that has never been timed is not in violation
+        boolean withinSlo = atObjectivePercentile == null || atObjectivePercentile <= objectiveMillis;
+        return new StageReport(stage.getPipeline(), stage.getStage(), snapshot.count(), p50, p90, p99,
+                objectiveMillis, withinSlo);
+    }
+
+    public record StageReport(String pipeline, String stage, long count, Double p50Ms, Double p90Ms,
+            Double p99Ms, double objectiveMs, boolean withinSlo) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.paymentgateway.controller;
+
+import com.paymentgateway.service.StartupWarmup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code warmup} health: OUT_OF_SERVICE until the startup warm-up has
+ * finished, then UP with its duration and per-step coverage. Part of the
+ * readiness group, so a new node gets no traffic while it is still cold.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final StartupWarmup startupWarmup;
+
+    @Override
+    public Health health() {
+        StartupWarmup.Report report = startupWarmup.report();
+        if (report == null) {
+            return Health.outOfService().withDetail("state", "RUNNING").build();
+        }
+        // A slow or partly failed warm-up still lets the node in; the details say what was missed
+        return Health.up()
+                .withDetail("state", report.state())
+                .withDetail("durationMs", report.duration().toMillis())
+                .withDetail("coverage", report.coverage())
+                .withDetail("failures", report.failures())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.paymentgateway.exception;
+
+/**
+ * A request that is well-formed but carries values the service cannot act on,
+ * such as an inverted time range or a tampered cursor. Mapped to 400.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
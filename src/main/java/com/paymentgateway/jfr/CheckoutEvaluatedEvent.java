@@ -0,0 +1,41 @@
+package com.paymentgateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One checkout options evaluation, from request to response. The event's
+ * duration is the end-to-end service time.
+ */
+@Name("com.paymentgateway.CheckoutEvaluated")
+@Label("Checkout Evaluated")
+@Category({ "Payment Gateway", "Checkout" })
+@Description("Checkout options assembled for a user and merchant")
+@StackTrace(false)
+public class CheckoutEvaluatedEvent extends jdk.jfr.Event {
+
+    @Label("Checkout Id")
+    public String checkoutId;
+
+    @Label("Merchant Id")
+    public String merchantId;
+
+    @Label("Idempotency Cache Hit")
+    public boolean cacheHit;
+
+    @Label("Methods")
+    public int methodCount;
+
+    @Label("Instruments")
+    public int instrumentCount;
+
+    @Label("Eligible Instruments")
+    public int eligibleInstrumentCount;
+
+    @Label("Declined Instruments")
+    @Description("Instruments declined earlier in this payment, on retry checkouts")
+    public int declinedInstrumentCount;
+}
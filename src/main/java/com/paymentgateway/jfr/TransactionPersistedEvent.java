@@ -0,0 +1,28 @@
+package com.paymentgateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One write of a transaction row. The event's duration is the repository save.
+ */
+@Name("com.paymentgateway.TransactionPersisted")
+@Label("Transaction Persisted")
+@Category({ "Payment Gateway", "Payment" })
+@StackTrace(false)
+public class TransactionPersistedEvent extends jdk.jfr.Event {
+
+    @Label("Transaction Id")
+    public String txnId;
+
+    @Label("Payment Id")
+    public String paymentId;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Insert")
+    public boolean insert;
+}
@@ -0,0 +1,28 @@
+package com.paymentgateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to a payment vendor. The event's duration is the vendor latency.
+ */
+@Name("com.paymentgateway.VendorCall")
+@Label("Vendor Call")
+@Category({ "Payment Gateway", "Payment" })
+@Description("Payment executed against a vendor")
+@StackTrace(false)
+public class VendorCallEvent extends jdk.jfr.Event {
+
+    @Label("Payment Id")
+    public String paymentId;
+
+    @Label("Vendor")
+    public String vendorId;
+
+    @Label("Outcome")
+    @Description("SUCCESS, or the failure type")
+    public String outcome;
+}
@@ -0,0 +1,34 @@
+package com.paymentgateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Smart routing decision for one payment attempt. The event's duration covers
+ * the availability lookup and the ranking.
+ */
+@Name("com.paymentgateway.VendorSelected")
+@Label("Vendor Selected")
+@Category({ "Payment Gateway", "Payment" })
+@Description("Vendor chosen for a payment attempt")
+@StackTrace(false)
+public class VendorSelectedEvent extends jdk.jfr.Event {
+
+    @Label("Payment Id")
+    public String paymentId;
+
+    @Label("Candidates")
+    @Description("Vendors reported available")
+    public int candidates;
+
+    @Label("Excluded")
+    @Description("Candidates skipped because they already failed this payment or are block-listed")
+    public int excluded;
+
+    @Label("Selected Vendor")
+    @Description("Empty when every candidate was excluded")
+    public String vendorId;
+}
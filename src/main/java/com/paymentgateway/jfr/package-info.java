@@ -0,0 +1,12 @@
+/**
+ * JDK Flight Recorder events for the checkout and payment pipelines.
+ * <p>
+ * Events are enabled by default and carry no stack traces, so they are cheap
+ * enough for an always-on recording, e.g.
+ * {@code -XX:StartFlightRecording=settings=default,maxage=6h,disk=true}. Lining
+ * them up with {@code jdk.GarbageCollection} or {@code jdk.JavaMonitorEnter}
+ * in the same recording shows whether a slow payment was the vendor, the
+ * database or a pause. Emitters check {@code shouldCommit()} before filling
+ * fields, so a disabled event costs only the begin/end timestamps.
+ */
+package com.paymentgateway.jfr;
@@ -0,0 +1,19 @@
+package com.paymentgateway.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers for per-request summary lines on the hot paths. Each marker can be
+ * sampled and rate limited independently by {@link SamplingTurboFilter};
+ * unmarked lines are unaffected.
+ */
+public final class LogMarkers {
+
+    public static final Marker CHECKOUT = MarkerFactory.getMarker("CHECKOUT");
+    public static final Marker PAYMENT = MarkerFactory.getMarker("PAYMENT");
+    public static final Marker PAYMENT_STATUS = MarkerFactory.getMarker("PAYMENT_STATUS");
+
+    private LogMarkers() {
+    }
+}
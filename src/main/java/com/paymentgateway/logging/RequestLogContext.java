@@ -0,0 +1,65 @@
+package com.paymentgateway.logging;
+
+import org.slf4j.MDC;
+
+import java.util.UUID;
+
+/**
+ * Binds request identifiers to the MDC for the duration of a request, so log
+ * lines carry them as structured fields instead of formatting them into every
+ * message. Each id is stringified once per request.
+ *
+ * <pre>
+ * try (RequestLogContext ignored = RequestLogContext.payment(paymentId, merchantId)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class RequestLogContext implements AutoCloseable {
+
+    public static final String PAYMENT_ID = "paymentId";
+    public static final String MERCHANT_ID = "merchantId";
+    public static final String CHECKOUT_ID = "checkoutId";
+
+    // Scopes hold no per-request state, so one instance per shape is reused
+    private static final RequestLogContext CHECKOUT = new RequestLogContext(CHECKOUT_ID, MERCHANT_ID, PAYMENT_ID);
+    private static final RequestLogContext PAYMENT = new RequestLogContext(PAYMENT_ID, MERCHANT_ID);
+    private static final RequestLogContext PAYMENT_STATUS = new RequestLogContext(PAYMENT_ID);
+
+    private final String[] keys;
+
+    private RequestLogContext(String... keys) {
+        this.keys = keys;
+    }
+
+    public static RequestLogContext checkout(UUID checkoutId, UUID merchantId, UUID paymentId) {
+        put(CHECKOUT_ID, checkoutId);
+        put(MERCHANT_ID, merchantId);
+        put(PAYMENT_ID, paymentId);
+        return CHECKOUT;
+    }
+
+    public static RequestLogContext payment(UUID paymentId, UUID merchantId) {
+        put(PAYMENT_ID, paymentId);
+        put(MERCHANT_ID, merchantId);
+        return PAYMENT;
+    }
+
+    public static RequestLogContext paymentStatus(UUID paymentId) {
+        put(PAYMENT_ID, paymentId);
+        return PAYMENT_STATUS;
+    }
+
+    private static void put(String key, UUID value) {
+        if (value != null) {
+            MDC.put(key, value.toString());
+        }
+    }
+
+    @Override
+    public void close() {
+        for (String key : keys) {
+            MDC.remove(key);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.paymentgateway.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples and rate limits log events carrying one marker, before the event
+ * (and its message) is ever built. WARN and above always pass.
+ * <p>
+ * An event passes with probability {@code sampleRate}, and at most
+ * {@code maxPerSecond} pass per wall-clock second (approximately; the window
+ * resets without locking). Configure one filter per marker:
+ *
+ * <pre>
+ * &lt;turboFilter class="com.paymentgateway.logging.SamplingTurboFilter"&gt;
+ *     &lt;marker&gt;CHECKOUT&lt;/marker&gt;
+ *     &lt;sampleRate&gt;0.01&lt;/sampleRate&gt;
+ *     &lt;maxPerSecond&gt;50&lt;/maxPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private Marker marker;
+    private double sampleRate = 1.0;
+    private int maxPerSecond = Integer.MAX_VALUE;
+
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+
+    public void setMarker(String marker) {
+        this.marker = MarkerFactory.getMarker(marker);
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public void start() {
+        if (marker == null) {
+            addError("No marker set for SamplingTurboFilter " + getName());
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker eventMarker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (!isStarted() || eventMarker == null || !eventMarker.contains(marker)
+                || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Let the level check run first so disabled levels don't consume the rate budget
+        if (!logger.isEnabledFor(level)) {
+            return FilterReply.DENY;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return FilterReply.DENY;
+        }
+        return withinRate() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean withinRate() {
+        if (maxPerSecond == Integer.MAX_VALUE) {
+            return true;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        long window = windowSecond.get();
+        if (now != window && windowSecond.compareAndSet(window, now)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= maxPerSecond;
+    }
+}
@@ -0,0 +1,82 @@
+package com.paymentgateway.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Why a {@link Transaction} failed, stored as a smallint code next to an
+ * optional free-text detail from the vendor. The codes mirror the
+ * failure_codes table (db/transaction_codes.sql) and must never be
+ * renumbered; new reasons get the next free code.
+ * <p>
+ * {@link #isRetryable()} decides whether another attempt for the same payment
+ * is routed again or answered with the stored failure.
+ */
+public enum FailureCode {
+
+    // Rows migrated from free text that matched no known reason
+    UNKNOWN(0, "Payment failed", false),
+    NO_VENDOR_AVAILABLE(1, "No payment vendors available (all vendors exhausted)", false),
+    INSTRUMENT_BLOCKED(2, "Instrument temporarily blocked after repeated failures", false),
+    VENDOR_BUSY(3, "Vendor at capacity, payment not sent", true),
+    VENDOR_ERROR(4, "Vendor error", true),
+    VENDOR_TIMEOUT(5, "Vendor timeout", true),
+    // The client starts a new payment with another instrument (requiresNewInstrument)
+    INSTRUMENT_DECLINED(6, "Instrument declined", false),
+    VALIDATION_ERROR(7, "Payment rejected by vendor validation", false);
+
+    private static final FailureCode[] BY_CODE = new FailureCode[8];
+
+    static {
+        for (FailureCode failure : values()) {
+            BY_CODE[failure.code] = failure;
+        }
+    }
+
+    private final short code;
+    private final String message;
+    private final boolean retryable;
+
+    FailureCode(int code, String message, boolean retryable) {
+        this.code = (short) code;
+        this.message = message;
+        this.retryable = retryable;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no failure has the code
+     */
+    public static FailureCode fromCode(int code) {
+        FailureCode failure = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (failure == null) {
+            throw new IllegalArgumentException("Unknown failure code: " + code);
+        }
+        return failure;
+    }
+
+    @Converter
+    public static class ColumnConverter implements AttributeConverter<FailureCode, Short> {
+
+        @Override
+        public Short convertToDatabaseColumn(FailureCode failure) {
+            return failure != null ? failure.code : null;
+        }
+
+        @Override
+        public FailureCode convertToEntityAttribute(Short code) {
+            return code != null ? fromCode(code) : null;
+        }
+    }
+}
@@ -5,13 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "merchant_payment_config")
+@Table(name = "merchant_payment_config", indexes = {
+    // Delta syncs of ReferenceDataStore fetch configs by updated_at
+    @Index(name = "idx_merchant_payment_config_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,14 +28,19 @@ public class MerchantPaymentConfig {
     @Column(nullable = false, length = 50)
     private String methodId;
 
-    @ElementCollection
-    @CollectionTable(name = "merchant_supported_networks", joinColumns = @JoinColumn(name = "config_id"))
-    @Column(name = "network")
-    private List<String> supportedNetworks;
+    /**
+     * NetworkRegistry mask of the networks the merchant accepts for this
+     * method; null accepts any network.
+     */
+    @Column(name = "supported_networks")
+    private Long supportedNetworks;
 
-    private BigDecimal minAmount;
+    // Limits in minor units of Money.DEFAULT_CURRENCY; null means no limit
+    @Column(name = "min_amount_minor")
+    private Long minAmountMinor;
 
-    private BigDecimal maxAmount;
+    @Column(name = "max_amount_minor")
+    private Long maxAmountMinor;
 
     @Column(nullable = false)
     private Boolean enabled = true;
@@ -0,0 +1,87 @@
+package com.paymentgateway.model;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount as a whole number of the currency's minor unit (paise for INR)
+ * plus its ISO 4217 code.
+ * <p>
+ * Amounts are stored as BIGINT and compared, routed and priced as
+ * {@code long}s. The API carries decimal amounts; they are converted with
+ * {@link #ofDefaultCurrency} where a request comes in and {@link #toDouble}
+ * where a response goes out, and nowhere else.
+ */
+public record Money(long minorUnits, String currency) {
+
+    public static final String DEFAULT_CURRENCY = "INR";
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    /**
+     * @param currency ISO 4217 code, or null for {@link #DEFAULT_CURRENCY}
+     * @throws IllegalArgumentException if the currency is unknown or the
+     *                                  amount is finer than its minor unit
+     */
+    public static Money of(double amount, String currency) {
+        String code = currency != null ? currency : DEFAULT_CURRENCY;
+        return new Money(toMinorUnits(BigDecimal.valueOf(amount), code), code);
+    }
+
+    /**
+     * {@link #of} for request amounts. Rule bounds, merchant limits and
+     * pricing are all kept in {@link #DEFAULT_CURRENCY}, so an amount in any
+     * other currency cannot be checked against them and is refused.
+     *
+     * @param currency ISO 4217 code, or null for {@link #DEFAULT_CURRENCY}
+     * @throws IllegalArgumentException if the currency is not
+     *                                  {@link #DEFAULT_CURRENCY} or the amount is
+     *                                  finer than its minor unit
+     */
+    public static Money ofDefaultCurrency(double amount, String currency) {
+        if (currency != null && !DEFAULT_CURRENCY.equals(currency)) {
+            throw new IllegalArgumentException(
+                    "currency " + currency + " is not supported, only " + DEFAULT_CURRENCY + " is accepted");
+        }
+        return of(amount, currency);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the currency is unknown or the
+     *                                  amount is finer than its minor unit
+     */
+    public static long toMinorUnits(BigDecimal amount, String currency) {
+        try {
+            return amount.movePointRight(fractionDigits(currency)).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    amount.toPlainString() + " is not a whole number of " + currency + " minor units", e);
+        }
+    }
+
+    public static BigDecimal toDecimal(long minorUnits, String currency) {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    public static double toDouble(long minorUnits, String currency) {
+        return toDecimal(minorUnits, currency).doubleValue();
+    }
+
+    public double toDouble() {
+        return toDouble(minorUnits, currency);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal(minorUnits, currency).toPlainString() + " " + currency;
+    }
+
+    private static int fractionDigits(String currency) {
+        // Currencies without a minor unit (e.g. XAU) report -1
+        return Math.max(Currency.getInstance(currency != null ? currency : DEFAULT_CURRENCY)
+                .getDefaultFractionDigits(), 0);
+    }
+}
@@ -2,7 +2,6 @@ package com.paymentgateway.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
-import java.util.List;
 
 @Entity
 @Table(name = "payment_methods")
@@ -16,10 +15,8 @@ public class PaymentMethod {
     @Column(name = "method_name")
     private String methodName;
 
-    @ElementCollection
-    @CollectionTable(name = "payment_method_networks", joinColumns = @JoinColumn(name = "method_id"))
-    @Column(name = "network")
-    private List<String> supportedNetworks; // VISA, MASTERCARD
+    @Column(name = "supported_networks", nullable = false)
+    private long supportedNetworks; // NetworkRegistry mask, e.g. VISA | MASTERCARD
 
     @Column(name = "active")
     private boolean active = true;
@@ -0,0 +1,21 @@
+package com.paymentgateway.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A card or wallet network and the bit that stands for it in network masks.
+ * Bits are assigned once and never reused or renumbered.
+ */
+@Entity
+@Table(name = "networks")
+@Data
+public class PaymentNetwork {
+
+    @Id
+    @Column(name = "name", length = 30)
+    private String name; // e.g., VISA, RUPAY
+
+    @Column(name = "bit_index", nullable = false, unique = true)
+    private int bitIndex; // 0-63
+}
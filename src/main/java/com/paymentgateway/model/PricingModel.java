@@ -3,8 +3,11 @@ package com.paymentgateway.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
-import java.io.Serializable;
-
+/**
+ * A vendor's fee for one amount band. Bounds and the fixed fee are in minor
+ * units of {@link Money#DEFAULT_CURRENCY}; the percentage fee is in basis
+ * points so the fee is computed in integer arithmetic.
+ */
 @Entity
 @Table(name = "pricing_models")
 @Data
@@ -16,16 +19,16 @@ public class PricingModel {
     private String vendorId;
 
     @Id
-    @Column(name = "min_amount")
-    private Double minAmount;
+    @Column(name = "min_amount_minor")
+    private long minAmountMinor;
 
     @Id
-    @Column(name = "max_amount")
-    private Double maxAmount;
+    @Column(name = "max_amount_minor")
+    private long maxAmountMinor;
 
-    @Column(name = "fee_percent")
-    private Double feePercent;
+    @Column(name = "fee_bps", nullable = false)
+    private int feeBps;
 
-    @Column(name = "fixed_fee")
-    private Double fixedFee;
+    @Column(name = "fixed_fee_minor", nullable = false)
+    private long fixedFeeMinor;
 }
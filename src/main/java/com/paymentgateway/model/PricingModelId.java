@@ -6,6 +6,6 @@ import java.io.Serializable;
 @Data
 public class PricingModelId implements Serializable {
     private String vendorId;
-    private Double minAmount;
-    private Double maxAmount;
+    private long minAmountMinor;
+    private long maxAmountMinor;
 }
@@ -0,0 +1,32 @@
+package com.paymentgateway.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored eligibility rule set in Easy Rules YAML or JSON. Bumping
+ * {@code version} makes every node recompile it on its next reload check.
+ */
+@Entity
+@Table(name = "rule_sets")
+@Data
+public class RuleSetDefinition {
+
+    @Id
+    @Column(name = "rule_set_id", length = 50)
+    private String ruleSetId;
+
+    @Column(nullable = false, length = 10)
+    private String format; // YAML or JSON
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String definition;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
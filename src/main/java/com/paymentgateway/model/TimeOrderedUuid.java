@@ -0,0 +1,23 @@
+package com.paymentgateway.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates version 7 UUIDs: a 48-bit millisecond timestamp followed by random
+ * bits. Consecutive ids sort by creation time, so primary key inserts land on
+ * the rightmost pages of the current partition's index instead of at random
+ * positions across it.
+ */
+public final class TimeOrderedUuid {
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
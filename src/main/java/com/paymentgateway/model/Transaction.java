@@ -2,15 +2,27 @@ package com.paymentgateway.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * A payment attempt. In Postgres the table is range-partitioned on created_at
+ * (see db/transactions_partitioning.sql); txn_id is a time-ordered UUID so
+ * inserts stay on the hot end of the current partition's indexes.
+ * <p>
+ * The table's key is (txn_id, created_at) but the entity id is txn_id alone,
+ * so outcomes are written with TransactionRepository.updateOutcome rather
+ * than save(), which would look the row up in every partition.
+ */
 @Entity
 @Table(name = "transactions", indexes = {
-    @Index(name = "idx_transaction_payment_id", columnList = "payment_id")
+    @Index(name = "idx_transaction_payment_id", columnList = "payment_id, created_at"),
+    @Index(name = "idx_transactions_merchant_created", columnList = "merchant_id, created_at DESC, txn_id DESC")
 })
 @Data
-public class Transaction {
+public class Transaction implements Persistable<UUID> {
 
     @Id
     @Column(name = "txn_id")
@@ -31,8 +43,9 @@ public class Transaction {
     @Column(name = "method_id")
     private String methodId;
 
-    @Column(name = "amount")
-    private Double amount;
+    // Minor units of currency, see Money
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
 
     @Column(name = "currency")
     private String currency = "INR";
@@ -40,24 +53,62 @@ public class Transaction {
     @Column(name = "vendor_id")
     private String vendorId;
 
-    @Column(name = "status")
-    private String status; // INITIATED, SUCCESS, FAILED
+    @Convert(converter = TransactionStatus.ColumnConverter.class)
+    @Column(name = "status", nullable = false)
+    private TransactionStatus status;
+
+    @Convert(converter = FailureCode.ColumnConverter.class)
+    @Column(name = "failure_code")
+    private FailureCode failureCode;
 
-    @Column(name = "failure_reason")
-    private String failureReason;
+    // Vendor-supplied text, when there is more to say than the code's message
+    @Column(name = "failure_detail")
+    private String failureDetail;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // txnId is assigned before the first save; without this flag Spring Data
+    // would merge (SELECT then INSERT) instead of persisting directly.
+    @Transient
+    private boolean newEntity = true;
+
+    @Override
+    public UUID getId() {
+        return txnId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * The failure detail if there is one, else the failure code's message;
+     * null unless the transaction failed.
+     */
+    public String getFailureReason() {
+        if (failureDetail != null) {
+            return failureDetail;
+        }
+        return failureCode != null ? failureCode.message() : null;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
 
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        newEntity = false;
+    }
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
@@ -0,0 +1,60 @@
+package com.paymentgateway.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Lifecycle state of a {@link Transaction}, stored as a smallint code. The
+ * codes mirror the transaction_statuses table (db/transaction_codes.sql) and
+ * must never be renumbered.
+ */
+public enum TransactionStatus {
+
+    INITIATED(0),
+    SUCCESS(1),
+    FAILED(2),
+    PENDING(3);
+
+    private static final TransactionStatus[] BY_CODE = new TransactionStatus[4];
+
+    static {
+        for (TransactionStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final short code;
+
+    TransactionStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no status has the code
+     */
+    public static TransactionStatus fromCode(int code) {
+        TransactionStatus status = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown transaction status code: " + code);
+        }
+        return status;
+    }
+
+    @Converter
+    public static class ColumnConverter implements AttributeConverter<TransactionStatus, Short> {
+
+        @Override
+        public Short convertToDatabaseColumn(TransactionStatus status) {
+            return status != null ? status.code : null;
+        }
+
+        @Override
+        public TransactionStatus convertToEntityAttribute(Short code) {
+            return code != null ? fromCode(code) : null;
+        }
+    }
+}
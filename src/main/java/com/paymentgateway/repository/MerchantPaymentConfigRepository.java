@@ -4,6 +4,7 @@ import com.paymentgateway.model.MerchantPaymentConfig;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,4 +29,9 @@ public interface MerchantPaymentConfigRepository extends JpaRepository<MerchantP
      * Find all configurations for a merchant.
      */
     List<MerchantPaymentConfig> findByMerchantId(UUID merchantId);
+
+    /**
+     * Find configurations created or updated at or after the given time.
+     */
+    List<MerchantPaymentConfig> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
 }
@@ -0,0 +1,91 @@
+package com.paymentgateway.repository;
+
+import com.paymentgateway.generated.model.MerchantTransactionSummary;
+import com.paymentgateway.model.Money;
+import com.paymentgateway.model.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keyset-paginated reads of a merchant's transactions, mapped straight from the
+ * result set into API summaries without hydrating Transaction entities.
+ * <p>
+ * Every selected column is in the covering indexes from
+ * db/merchant_transaction_indexes.sql, so a page is one index-only range scan
+ * starting at the cursor, whatever the page number.
+ */
+@Repository
+public class MerchantTransactionQueryRepository {
+
+    private static final int FETCH_SIZE = 128;
+
+    private static final String SELECT = "SELECT txn_id, payment_id, status, amount_minor, currency, method_id, "
+            + "vendor_id, created_at "
+            + "FROM transactions "
+            + "WHERE merchant_id = :merchantId AND created_at >= :from AND created_at < :to";
+
+    private static final RowMapper<MerchantTransactionSummary> ROW_MAPPER = (rs, rowNum) -> {
+        MerchantTransactionSummary summary = new MerchantTransactionSummary();
+        summary.setTxnId(rs.getObject("txn_id", UUID.class));
+        summary.setPaymentId(rs.getObject("payment_id", UUID.class));
+        summary.setStatus(TransactionStatus.fromCode(rs.getShort("status")).name());
+        String currency = rs.getString("currency");
+        summary.setAmount(Money.toDouble(rs.getLong("amount_minor"), currency));
+        summary.setCurrency(currency);
+        summary.setMethodId(rs.getString("method_id"));
+        summary.setVendorId(rs.getString("vendor_id"));
+        summary.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime().atZone(ZoneId.systemDefault()));
+        return summary;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public MerchantTransactionQueryRepository(DataSource dataSource) {
+        // Own template so the fetch size does not leak into other JDBC users.
+        // Postgres only honours it inside a transaction (autocommit off).
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Rows ordered by (created_at, txn_id) descending, strictly after the
+     * (afterCreatedAt, afterTxnId) keyset position when one is given.
+     */
+    public List<MerchantTransactionSummary> findPage(UUID merchantId, LocalDateTime from, LocalDateTime to,
+            TransactionStatus status, LocalDateTime afterCreatedAt, UUID afterTxnId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("merchantId", merchantId)
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("limit", limit);
+
+        if (status != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", status.code());
+        }
+        if (afterCreatedAt != null) {
+            sql.append(" AND (created_at, txn_id) < (:afterCreatedAt, :afterTxnId)");
+            params.addValue("afterCreatedAt", afterCreatedAt);
+            params.addValue("afterTxnId", afterTxnId);
+        }
+        sql.append(" ORDER BY created_at DESC, txn_id DESC LIMIT :limit");
+
+        try (Stream<MerchantTransactionSummary> rows = jdbcTemplate.queryForStream(sql.toString(), params,
+                ROW_MAPPER)) {
+            return rows.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.paymentgateway.repository;
+
+import com.paymentgateway.model.PaymentNetwork;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentNetworkRepository extends JpaRepository<PaymentNetwork, String> {
+}
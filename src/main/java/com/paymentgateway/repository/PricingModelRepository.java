@@ -10,6 +10,6 @@ import java.util.List;
 
 @Repository
 public interface PricingModelRepository extends JpaRepository<PricingModel, PricingModelId> {
-    @Query("SELECT p FROM PricingModel p WHERE p.minAmount <= :amount AND p.maxAmount >= :amount")
-    List<PricingModel> findApplicableModels(Double amount);
+    @Query("SELECT p FROM PricingModel p WHERE p.minAmountMinor <= :amountMinor AND p.maxAmountMinor >= :amountMinor")
+    List<PricingModel> findApplicableModels(long amountMinor);
 }
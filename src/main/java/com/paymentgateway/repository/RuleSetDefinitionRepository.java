@@ -0,0 +1,16 @@
+package com.paymentgateway.repository;
+
+import com.paymentgateway.model.RuleSetDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RuleSetDefinitionRepository extends JpaRepository<RuleSetDefinition, String> {
+
+    /**
+     * Cheap change check: reads one column, not the definition text.
+     */
+    @Query("SELECT r.version FROM RuleSetDefinition r WHERE r.ruleSetId = :ruleSetId")
+    Long findVersion(String ruleSetId);
+}
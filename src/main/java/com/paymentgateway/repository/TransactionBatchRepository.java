@@ -0,0 +1,94 @@
+package com.paymentgateway.repository;
+
+import com.paymentgateway.model.FailureCode;
+import com.paymentgateway.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Multi-row writes of transactions for batch payments, as JDBC batches instead
+ * of one JPA save per row. With {@code reWriteBatchedInserts} the Postgres
+ * driver sends each insert batch as multi-row INSERT statements.
+ * <p>
+ * Rows are written as the entity would write them; callers set every column,
+ * including created_at and updated_at, since no JPA callbacks run.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchRepository {
+
+    private static final String INSERT = "INSERT INTO transactions (txn_id, user_id, merchant_id, payment_id, "
+            + "instrument_id, method_id, amount_minor, currency, vendor_id, status, failure_code, failure_detail, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // created_at lets Postgres prune to the row's partition
+    private static final String UPDATE_OUTCOME = "UPDATE transactions SET status = ?, failure_code = ?, "
+            + "failure_detail = ?, updated_at = ? WHERE txn_id = ? AND created_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, transactions, transactions.size(), (ps, txn) -> {
+            ps.setObject(1, txn.getTxnId());
+            ps.setObject(2, txn.getUserId());
+            ps.setObject(3, txn.getMerchantId());
+            ps.setObject(4, txn.getPaymentId());
+            setUuid(ps, 5, txn.getInstrumentId());
+            ps.setString(6, txn.getMethodId());
+            ps.setLong(7, txn.getAmountMinor());
+            ps.setString(8, txn.getCurrency());
+            ps.setString(9, txn.getVendorId());
+            ps.setShort(10, txn.getStatus().code());
+            setFailureCode(ps, 11, txn.getFailureCode());
+            ps.setString(12, txn.getFailureDetail());
+            ps.setTimestamp(13, Timestamp.valueOf(txn.getCreatedAt()));
+            ps.setTimestamp(14, Timestamp.valueOf(txn.getUpdatedAt()));
+        });
+        transactions.forEach(txn -> txn.setNewEntity(false));
+    }
+
+    /**
+     * Writes status, failure and updated_at of transactions already inserted.
+     */
+    public void updateOutcomes(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_OUTCOME, transactions, transactions.size(), (ps, txn) -> {
+            ps.setShort(1, txn.getStatus().code());
+            setFailureCode(ps, 2, txn.getFailureCode());
+            ps.setString(3, txn.getFailureDetail());
+            ps.setTimestamp(4, Timestamp.valueOf(txn.getUpdatedAt()));
+            ps.setObject(5, txn.getTxnId());
+            ps.setTimestamp(6, Timestamp.valueOf(txn.getCreatedAt()));
+        });
+    }
+
+    private static void setUuid(PreparedStatement ps, int index, UUID value) throws SQLException {
+        if (value != null) {
+            ps.setObject(index, value);
+        } else {
+            ps.setNull(index, Types.OTHER);
+        }
+    }
+
+    private static void setFailureCode(PreparedStatement ps, int index, FailureCode failureCode)
+            throws SQLException {
+        if (failureCode != null) {
+            ps.setShort(index, failureCode.code());
+        } else {
+            ps.setNull(index, Types.SMALLINT);
+        }
+    }
+}
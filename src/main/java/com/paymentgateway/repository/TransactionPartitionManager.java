@@ -0,0 +1,184 @@
+package com.paymentgateway.repository;
+
+import com.paymentgateway.config.TransactionPartitioningProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the created_at partitions of the transactions table rolling: creates the
+ * current and upcoming partitions, and archives partitions past retention to
+ * gzipped CSV files before detaching and dropping them.
+ * <p>
+ * Runs at startup and daily. A session advisory lock makes sure only one node of
+ * the fleet does maintenance at a time.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.transactions.partitioning", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPartitionManager {
+
+    private static final String PARENT_TABLE = "transactions";
+    private static final long ADVISORY_LOCK_KEY = 0x74786e5f70617274L;
+    private static final Pattern MANAGED_PARTITION = Pattern.compile("transactions_p(\\d{8}|\\d{6})");
+    private static final DateTimeFormatter DAILY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTHLY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionPartitioningProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${payment.transactions.partitioning.maintenance-cron:0 15 0 * * *}")
+    public void maintain() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!tryLock(connection)) {
+                log.debug("Partition maintenance running on another node, skipping");
+                return null;
+            }
+            try {
+                LocalDate current = periodStart(LocalDate.now());
+                createUpcoming(connection, current);
+                archiveExpired(connection, current);
+            } finally {
+                unlock(connection);
+            }
+            return null;
+        });
+    }
+
+    private void createUpcoming(Connection connection, LocalDate current) {
+        LocalDate start = current;
+        for (int i = 0; i <= properties.getPrecreate(); i++) {
+            LocalDate end = nextPeriod(start);
+            String partition = partitionName(start);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        partition, PARENT_TABLE, start, end));
+            } catch (SQLException e) {
+                log.error("Failed to create partition {} [{}, {})", partition, start, end, e);
+            }
+            start = end;
+        }
+    }
+
+    private void archiveExpired(Connection connection, LocalDate current) throws SQLException {
+        LocalDate cutoff = current;
+        for (int i = 1; i < properties.getRetention(); i++) {
+            cutoff = previousPeriod(cutoff);
+        }
+
+        for (String partition : listPartitions(connection)) {
+            Matcher matcher = MANAGED_PARTITION.matcher(partition);
+            if (!matcher.matches() || !parsePeriodStart(matcher.group(1)).isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                Path archive = archive(connection, partition);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+                    statement.execute("DROP TABLE " + partition);
+                }
+                log.info("Archived and dropped partition {} to {}", partition, archive);
+            } catch (IOException | SQLException e) {
+                // Partition stays attached; the next run retries the archive.
+                log.error("Failed to archive partition {}", partition, e);
+            }
+        }
+    }
+
+    private Path archive(Connection connection, String partition) throws IOException, SQLException {
+        Path directory = Paths.get(properties.getArchiveDir());
+        Files.createDirectories(directory);
+        Path target = directory.resolve(partition + ".csv.gz");
+        Path temp = directory.resolve(partition + ".csv.gz.tmp");
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+        }
+        return Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<String> listPartitions(Connection connection) throws SQLException {
+        List<String> partitions = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = '" + PARENT_TABLE + "'")) {
+            while (rs.next()) {
+                partitions.add(rs.getString(1));
+            }
+        }
+        return partitions;
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+        }
+    }
+
+    private LocalDate periodStart(LocalDate date) {
+        return properties.getGranularity() == TransactionPartitioningProperties.Granularity.DAILY ? date
+                : date.withDayOfMonth(1);
+    }
+
+    private LocalDate nextPeriod(LocalDate start) {
+        return properties.getGranularity() == TransactionPartitioningProperties.Granularity.DAILY
+                ? start.plusDays(1)
+                : start.plusMonths(1);
+    }
+
+    private LocalDate previousPeriod(LocalDate start) {
+        return properties.getGranularity() == TransactionPartitioningProperties.Granularity.DAILY
+                ? start.minusDays(1)
+                : start.minusMonths(1);
+    }
+
+    private String partitionName(LocalDate start) {
+        DateTimeFormatter suffix = properties.getGranularity() == TransactionPartitioningProperties.Granularity.DAILY
+                ? DAILY_SUFFIX
+                : MONTHLY_SUFFIX;
+        return PARENT_TABLE + "_p" + start.format(suffix);
+    }
+
+    private static LocalDate parsePeriodStart(String suffix) {
+        return suffix.length() == 8 ? LocalDate.parse(suffix, DAILY_SUFFIX)
+                : LocalDate.parse(suffix + "01", DAILY_SUFFIX);
+    }
+}
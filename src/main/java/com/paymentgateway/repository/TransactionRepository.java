@@ -1,11 +1,67 @@
 package com.paymentgateway.repository;
 
+import com.paymentgateway.model.FailureCode;
 import com.paymentgateway.model.Transaction;
+import com.paymentgateway.model.TransactionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
     java.util.Optional<Transaction> findByPaymentId(UUID paymentId);
+
+    /**
+     * All attempts for a payment, latest first. Served by idx_transaction_payment_id.
+     */
+    List<Transaction> findByPaymentIdOrderByCreatedAtDesc(UUID paymentId);
+
+    /**
+     * Attempts created after {@code since}, latest first. The created_at bound
+     * lets Postgres prune older partitions before probing the index.
+     */
+    List<Transaction> findByPaymentIdAndCreatedAtAfterOrderByCreatedAtDesc(UUID paymentId, LocalDateTime since);
+
+    /**
+     * {@link #findByPaymentIdOrderByCreatedAtDesc} on the primary: its own
+     * read-write transaction is not routed to a replica, even when the caller
+     * is in a read-only one.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("SELECT t FROM Transaction t WHERE t.paymentId = :paymentId ORDER BY t.createdAt DESC")
+    List<Transaction> findOnPrimaryByPaymentId(UUID paymentId);
+
+    /**
+     * Merchants with the most transactions created after {@code since}, most
+     * first; the page bounds how many. Used by the startup warm-up of every
+     * node, so it reads from a replica (read-only) and leaves the primary to
+     * live traffic.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT t.merchantId FROM Transaction t WHERE t.createdAt >= :since "
+            + "GROUP BY t.merchantId ORDER BY COUNT(t) DESC")
+    List<UUID> findBusiestMerchants(LocalDateTime since, Pageable page);
+
+    /**
+     * Writes an attempt's outcome. Matching created_at as well as txn_id lets
+     * Postgres prune to the row's partition; save() on a persisted entity
+     * would SELECT and UPDATE by txn_id alone and probe every partition.
+     *
+     * @return 1, or 0 if no such transaction exists
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Transaction t SET t.status = :status, t.failureCode = :failureCode, "
+            + "t.failureDetail = :failureDetail, t.updatedAt = :updatedAt "
+            + "WHERE t.txnId = :txnId AND t.createdAt = :createdAt")
+    int updateOutcome(UUID txnId, LocalDateTime createdAt, TransactionStatus status, FailureCode failureCode,
+            String failureDetail, LocalDateTime updatedAt);
 }
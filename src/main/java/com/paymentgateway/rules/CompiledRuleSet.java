@@ -0,0 +1,159 @@
+package com.paymentgateway.rules;
+
+import org.jeasy.rules.support.RuleDefinition;
+import org.jeasy.rules.support.reader.JsonRuleDefinitionReader;
+import org.jeasy.rules.support.reader.RuleDefinitionReader;
+import org.jeasy.rules.support.reader.YamlRuleDefinitionReader;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, compiled rule set: rules sorted by priority into parallel
+ * arrays of predicates and rejection reasons.
+ * <p>
+ * Definitions use the Easy Rules format. Each rule's {@code condition} uses the
+ * {@link ConditionCompiler} grammar, its {@code description} is the reason
+ * returned when the condition holds, and {@code actions} must be
+ * {@code [reject]}. Rules that test an instrument field are skipped when only
+ * the method is being evaluated.
+ */
+public final class CompiledRuleSet {
+
+    public enum Format {
+        YAML, JSON
+    }
+
+    private static final String REJECT = "reject";
+    private static final int INSTRUMENT_FIELDS = instrumentFields();
+
+    private final String version;
+    private final Map<String, Integer> symbols;
+    private final RulePredicate[] predicates;
+    private final String[] reasons;
+    private final boolean[] instrumentLevel;
+    private final int fieldsUsed;
+    private final long[] amountBounds;
+
+    private CompiledRuleSet(String version, Map<String, Integer> symbols, RulePredicate[] predicates,
+            String[] reasons, boolean[] instrumentLevel, int fieldsUsed, long[] amountBounds) {
+        this.version = version;
+        this.symbols = symbols;
+        this.predicates = predicates;
+        this.reasons = reasons;
+        this.instrumentLevel = instrumentLevel;
+        this.fieldsUsed = fieldsUsed;
+        this.amountBounds = amountBounds;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the definitions cannot be read or a
+     *                                  condition does not compile
+     */
+    public static CompiledRuleSet compile(String definitions, Format format, String version) {
+        List<RuleDefinition> rules;
+        try {
+            RuleDefinitionReader reader = format == Format.JSON ? new JsonRuleDefinitionReader()
+                    : new YamlRuleDefinitionReader();
+            rules = new ArrayList<>(reader.read(new StringReader(definitions)));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Unreadable rule definitions: " + e.getMessage(), e);
+        }
+        rules.sort(Comparator.comparingInt(RuleDefinition::getPriority));
+
+        Map<String, Integer> symbols = new HashMap<>();
+        ConditionCompiler compiler = new ConditionCompiler(symbols);
+        RulePredicate[] predicates = new RulePredicate[rules.size()];
+        String[] reasons = new String[rules.size()];
+        boolean[] instrumentLevel = new boolean[rules.size()];
+        int fieldsUsed = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            RuleDefinition rule = rules.get(i);
+            if (rule.isCompositeRule()) {
+                throw new IllegalArgumentException("Composite rules are not supported: " + rule.getName());
+            }
+            if (rule.getActions() == null || !rule.getActions().equals(List.of(REJECT))) {
+                throw new IllegalArgumentException("Rule " + rule.getName() + " must have actions [reject]");
+            }
+            if (rule.getDescription() == null || rule.getDescription().isBlank()) {
+                throw new IllegalArgumentException("Rule " + rule.getName() + " needs a description (the reason)");
+            }
+            try {
+                predicates[i] = compiler.compile(rule.getCondition());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Rule " + rule.getName() + ": " + e.getMessage(), e);
+            }
+            reasons[i] = rule.getDescription();
+            instrumentLevel[i] = (compiler.fieldsUsed() & INSTRUMENT_FIELDS) != 0;
+            fieldsUsed |= compiler.fieldsUsed();
+        }
+        long[] amountBounds = compiler.amountBounds().stream().mapToLong(Long::longValue).toArray();
+        return new CompiledRuleSet(version, Map.copyOf(symbols), predicates, reasons, instrumentLevel, fieldsUsed,
+                amountBounds);
+    }
+
+    /**
+     * @param network     null when no instrument is being evaluated
+     * @param amountMinor in minor units of {@link com.paymentgateway.model.Money#DEFAULT_CURRENCY}
+     * @return the first matching rule's reason, or null if none matched
+     */
+    public String evaluate(String methodId, String mcc, String network, String issuer, boolean instrument,
+            long amountMinor) {
+        RuleContext context = new RuleContext();
+        context.method = symbol(RuleField.METHOD, methodId);
+        context.mcc = symbol(RuleField.MCC, mcc);
+        context.network = symbol(RuleField.NETWORK, network);
+        context.issuer = symbol(RuleField.ISSUER, issuer);
+        context.amount = amountMinor;
+
+        for (int i = 0; i < predicates.length; i++) {
+            if (instrumentLevel[i] && !instrument) {
+                continue;
+            }
+            if (predicates[i].test(context)) {
+                return reasons[i];
+            }
+        }
+        return null;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return predicates.length;
+    }
+
+    /**
+     * @return the amounts, in minor units, any rule compares against,
+     *         ascending; between two of them every amount comparison gives the
+     *         same result
+     */
+    public long[] amountBounds() {
+        return amountBounds.clone();
+    }
+
+    private static int instrumentFields() {
+        int bits = 0;
+        for (RuleField field : RuleField.values()) {
+            if (field.isInstrumentLevel()) {
+                bits |= field.bit();
+            }
+        }
+        return bits;
+    }
+
+    // Fields no rule tests are never looked up
+    private int symbol(RuleField field, String value) {
+        if (value == null || (fieldsUsed & field.bit()) == 0) {
+            return RuleContext.UNKNOWN;
+        }
+        Integer symbol = symbols.get(value);
+        return symbol != null ? symbol : RuleContext.UNKNOWN;
+    }
+}
@@ -0,0 +1,281 @@
+package com.paymentgateway.rules;
+
+import com.paymentgateway.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Compiles a rule condition into a {@link RulePredicate}.
+ * <p>
+ * Grammar:
+ * <pre>
+ * expr       := and ('||' and)*
+ * and        := unary ('&amp;&amp;' unary)*
+ * unary      := '!' unary | '(' expr ')' | comparison
+ * comparison := field ('==' | '!=') value
+ *             | field 'in' '[' value (',' value)* ']'
+ *             | 'amount' ('&lt;' | '&lt;=' | '&gt;' | '&gt;=' | '==' | '!=') number
+ * field      := method | mcc | network | issuer | amount
+ * </pre>
+ * String literals are double-quoted and interned into the rule set's symbol
+ * table, so a comparison becomes an int compare against a context field.
+ * Amount literals are written in major units of {@link Money#DEFAULT_CURRENCY}
+ * and compiled to minor units, so amount comparisons are long compares.
+ */
+final class ConditionCompiler {
+
+    private final Map<String, Integer> symbols;
+    private final SortedSet<Long> amountBounds = new TreeSet<>();
+    private String source;
+    private int pos;
+    private int fieldsUsed;
+
+    ConditionCompiler(Map<String, Integer> symbols) {
+        this.symbols = symbols;
+    }
+
+    RulePredicate compile(String condition) {
+        this.source = condition;
+        this.pos = 0;
+        this.fieldsUsed = 0;
+        RulePredicate predicate = expr();
+        skipWhitespace();
+        if (pos < source.length()) {
+            throw error("unexpected '" + source.substring(pos) + "'");
+        }
+        return predicate;
+    }
+
+    /**
+     * @return bit set of {@link RuleField#bit()} for fields the last condition tested
+     */
+    int fieldsUsed() {
+        return fieldsUsed;
+    }
+
+    /**
+     * @return every amount, in minor units, compared against by the conditions
+     *         compiled so far
+     */
+    SortedSet<Long> amountBounds() {
+        return amountBounds;
+    }
+
+    private RulePredicate expr() {
+        RulePredicate left = and();
+        while (consume("||")) {
+            RulePredicate first = left;
+            RulePredicate second = and();
+            left = c -> first.test(c) || second.test(c);
+        }
+        return left;
+    }
+
+    private RulePredicate and() {
+        RulePredicate left = unary();
+        while (consume("&&")) {
+            RulePredicate first = left;
+            RulePredicate second = unary();
+            left = c -> first.test(c) && second.test(c);
+        }
+        return left;
+    }
+
+    private RulePredicate unary() {
+        if (consume("!")) {
+            RulePredicate inner = unary();
+            return c -> !inner.test(c);
+        }
+        if (consume("(")) {
+            RulePredicate inner = expr();
+            expect(")");
+            return inner;
+        }
+        return comparison();
+    }
+
+    private RulePredicate comparison() {
+        String name = identifier();
+        RuleField field = RuleField.byName(name);
+        if (field == null) {
+            throw error("unknown field '" + name + "'");
+        }
+        fieldsUsed |= field.bit();
+
+        if (field.isNumeric()) {
+            return numericComparison();
+        }
+        if (consumeKeyword("in")) {
+            return membership(field, valueList());
+        }
+        boolean equal;
+        if (consume("==")) {
+            equal = true;
+        } else if (consume("!=")) {
+            equal = false;
+        } else {
+            throw error("expected ==, != or in after " + name);
+        }
+        int symbol = intern(string());
+        RulePredicate test = equality(field, symbol);
+        return equal ? test : c -> !test.test(c);
+    }
+
+    private RulePredicate numericComparison() {
+        String op;
+        if (consume("<=")) {
+            op = "<=";
+        } else if (consume(">=")) {
+            op = ">=";
+        } else if (consume("==")) {
+            op = "==";
+        } else if (consume("!=")) {
+            op = "!=";
+        } else if (consume("<")) {
+            op = "<";
+        } else if (consume(">")) {
+            op = ">";
+        } else {
+            throw error("expected a comparison after amount");
+        }
+        long bound = amount();
+        amountBounds.add(bound);
+        return switch (op) {
+            case "<" -> c -> c.amount < bound;
+            case "<=" -> c -> c.amount <= bound;
+            case ">" -> c -> c.amount > bound;
+            case ">=" -> c -> c.amount >= bound;
+            case "==" -> c -> c.amount == bound;
+            default -> c -> c.amount != bound;
+        };
+    }
+
+    private static RulePredicate equality(RuleField field, int symbol) {
+        return switch (field) {
+            case METHOD -> c -> c.method == symbol;
+            case MCC -> c -> c.mcc == symbol;
+            case NETWORK -> c -> c.network == symbol;
+            case ISSUER -> c -> c.issuer == symbol;
+            case AMOUNT -> throw new IllegalArgumentException("amount is numeric");
+        };
+    }
+
+    private RulePredicate membership(RuleField field, List<String> values) {
+        // Symbols are small dense ints, so the set is a lookup table
+        int max = 0;
+        int[] members = new int[values.size()];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = intern(values.get(i));
+            max = Math.max(max, members[i]);
+        }
+        boolean[] set = new boolean[max + 1];
+        for (int member : members) {
+            set[member] = true;
+        }
+        return switch (field) {
+            case METHOD -> c -> c.method >= 0 && c.method < set.length && set[c.method];
+            case MCC -> c -> c.mcc >= 0 && c.mcc < set.length && set[c.mcc];
+            case NETWORK -> c -> c.network >= 0 && c.network < set.length && set[c.network];
+            case ISSUER -> c -> c.issuer >= 0 && c.issuer < set.length && set[c.issuer];
+            case AMOUNT -> throw new IllegalArgumentException("amount is numeric");
+        };
+    }
+
+    private List<String> valueList() {
+        expect("[");
+        List<String> values = new ArrayList<>();
+        do {
+            values.add(string());
+        } while (consume(","));
+        expect("]");
+        return values;
+    }
+
+    private int intern(String value) {
+        return symbols.computeIfAbsent(value, v -> symbols.size());
+    }
+
+    private String identifier() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < source.length() && Character.isLetter(source.charAt(pos))) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("expected a field name");
+        }
+        return source.substring(start, pos);
+    }
+
+    private String string() {
+        skipWhitespace();
+        if (pos >= source.length() || source.charAt(pos) != '"') {
+            throw error("expected a double-quoted string");
+        }
+        int end = source.indexOf('"', pos + 1);
+        if (end < 0) {
+            throw error("unterminated string");
+        }
+        String value = source.substring(pos + 1, end);
+        pos = end + 1;
+        return value;
+    }
+
+    private long amount() {
+        skipWhitespace();
+        int start = pos;
+        while (pos < source.length()
+                && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.' || source.charAt(pos) == '_')) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("expected a number");
+        }
+        try {
+            return Money.toMinorUnits(new BigDecimal(source.substring(start, pos).replace("_", "")),
+                    Money.DEFAULT_CURRENCY);
+        } catch (IllegalArgumentException e) {
+            throw error("invalid amount: " + e.getMessage());
+        }
+    }
+
+    private boolean consumeKeyword(String keyword) {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (source.startsWith(keyword, pos) && (end == source.length() || !Character.isLetter(source.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean consume(String token) {
+        skipWhitespace();
+        if (source.startsWith(token, pos)) {
+            pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!consume(token)) {
+            throw error("expected '" + token + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in: " + source);
+    }
+}
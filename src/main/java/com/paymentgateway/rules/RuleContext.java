@@ -0,0 +1,17 @@
+package com.paymentgateway.rules;
+
+/**
+ * One eligibility question in primitive form. String attributes are replaced
+ * by their symbol in the rule set's table, so predicates compare ints; a value
+ * no rule mentions resolves to {@link #UNKNOWN}.
+ */
+public final class RuleContext {
+
+    public static final int UNKNOWN = -1;
+
+    int method = UNKNOWN;
+    int mcc = UNKNOWN;
+    int network = UNKNOWN;
+    int issuer = UNKNOWN;
+    long amount; // minor units
+}
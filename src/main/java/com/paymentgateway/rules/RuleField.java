@@ -0,0 +1,45 @@
+package com.paymentgateway.rules;
+
+/**
+ * Attributes a rule condition can test. Instrument-level fields make the rule
+ * apply only when an instrument is being evaluated.
+ */
+enum RuleField {
+
+    METHOD("method", false, false),
+    MCC("mcc", false, false),
+    NETWORK("network", true, false),
+    ISSUER("issuer", true, false),
+    AMOUNT("amount", false, true);
+
+    private final String name;
+    private final boolean instrumentLevel;
+    private final boolean numeric;
+
+    RuleField(String name, boolean instrumentLevel, boolean numeric) {
+        this.name = name;
+        this.instrumentLevel = instrumentLevel;
+        this.numeric = numeric;
+    }
+
+    boolean isInstrumentLevel() {
+        return instrumentLevel;
+    }
+
+    boolean isNumeric() {
+        return numeric;
+    }
+
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    static RuleField byName(String name) {
+        for (RuleField field : values()) {
+            if (field.name.equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.paymentgateway.rules;
+
+/**
+ * A compiled rule condition.
+ */
+@FunctionalInterface
+interface RulePredicate {
+
+    boolean test(RuleContext context);
+}
@@ -0,0 +1,102 @@
+package com.paymentgateway.rules;
+
+import com.paymentgateway.config.RuleEngineProperties;
+import com.paymentgateway.model.RuleSetDefinition;
+import com.paymentgateway.repository.RuleSetDefinitionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Holds the rule set the engine evaluates and swaps it when the stored
+ * definition changes.
+ * <p>
+ * Starts with the bundled {@code rules/default-rules.yml}. On startup and every
+ * {@code payment.rules.reload-interval} it reads the stored version, and only
+ * when that changed loads and compiles the definition. A new set replaces the
+ * old one with a single volatile write, so an evaluation always runs against
+ * one complete set; a definition that fails to compile is logged and the
+ * current set stays.
+ */
+@Component
+@Slf4j
+public class RuleSetRegistry {
+
+    private static final String BUNDLED_RULES = "rules/default-rules.yml";
+    private static final long BUNDLED_VERSION = -1L;
+
+    private final RuleSetDefinitionRepository repository;
+    private final RuleEngineProperties properties;
+    private final Counter reloadFailures;
+
+    private volatile CompiledRuleSet current;
+    private volatile long loadedVersion = BUNDLED_VERSION;
+
+    public RuleSetRegistry(RuleSetDefinitionRepository repository, RuleEngineProperties properties,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.current = bundled();
+
+        Gauge.builder("rules.version", this, r -> r.loadedVersion)
+                .description("Stored rule set version in use; -1 for the bundled defaults")
+                .register(meterRegistry);
+        Gauge.builder("rules.count", this, r -> r.current.size())
+                .description("Rules in the active rule set")
+                .register(meterRegistry);
+        this.reloadFailures = Counter.builder("rules.reload.failures")
+                .description("Stored rule sets that failed to load or compile")
+                .register(meterRegistry);
+    }
+
+    public CompiledRuleSet current() {
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${payment.rules.reload-interval:30s}",
+            initialDelayString = "${payment.rules.reload-interval:30s}")
+    public void reload() {
+        try {
+            Long version = repository.findVersion(properties.getRuleSetId());
+            if (version == null || version == loadedVersion) {
+                return;
+            }
+            RuleSetDefinition definition = repository.findById(properties.getRuleSetId()).orElse(null);
+            if (definition == null) {
+                return;
+            }
+            CompiledRuleSet compiled = CompiledRuleSet.compile(definition.getDefinition(),
+                    CompiledRuleSet.Format.valueOf(definition.getFormat()),
+                    definition.getRuleSetId() + ":" + definition.getVersion());
+            current = compiled;
+            loadedVersion = definition.getVersion();
+            log.info("Loaded rule set {} version {} ({} rules)", definition.getRuleSetId(), definition.getVersion(),
+                    compiled.size());
+        } catch (Exception e) {
+            reloadFailures.increment();
+            log.error("Rule set reload failed, keeping version {}", current.getVersion(), e);
+        }
+    }
+
+    static CompiledRuleSet bundled() {
+        try (InputStream in = Objects.requireNonNull(
+                RuleSetRegistry.class.getClassLoader().getResourceAsStream(BUNDLED_RULES), BUNDLED_RULES)) {
+            return CompiledRuleSet.compile(new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                    CompiledRuleSet.Format.YAML, "bundled");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Data-driven eligibility rules. Rule sets are written as Easy Rules YAML or
+ * JSON definitions, read once, and compiled into a flat array of predicates
+ * over a {@link com.paymentgateway.rules.RuleContext}; nothing is parsed or
+ * interpreted per request.
+ */
+package com.paymentgateway.rules;
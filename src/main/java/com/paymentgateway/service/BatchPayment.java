@@ -0,0 +1,47 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.paymentgateway.generated.model.PaymentRequest;
+import com.paymentgateway.generated.model.PaymentResponse;
+
+import java.util.UUID;
+
+/**
+ * One payment of a batch submission: the request {@code POST /payment/pay}
+ * takes, plus the user the {@code X-User-Id} header would carry.
+ */
+public record BatchPayment(UUID userId, PaymentRequest payment) {
+
+        /**
+         * One line of the batch response. Carries the response {@code /payment/pay}
+         * would have returned, or an error. Lines are written as payments finish,
+         * not in request order.
+         *
+         * @param index position of the payment in the submitted batch
+         * @param error {@code Bad Request} for a payment rejected before it was
+         *              attempted, {@code Too Many Requests} when its merchant is
+         *              over its payment rate, {@code Internal Server Error} when
+         *              its outcome could not be recorded; with a message, as in
+         *              the error body of a single payment
+         */
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public record Result(int index, UUID paymentId, PaymentResponse response, String error, String message) {
+
+                static Result of(int index, PaymentResponse response) {
+                        return new Result(index, response.getPaymentId(), response, null, null);
+                }
+
+                static Result rejected(int index, UUID paymentId, String message) {
+                        return new Result(index, paymentId, null, "Bad Request", message);
+                }
+
+                static Result throttled(int index, UUID paymentId) {
+                        return new Result(index, paymentId, null, "Too Many Requests",
+                                        "Merchant request rate exceeded");
+                }
+
+                static Result failed(int index, UUID paymentId, String message) {
+                        return new Result(index, paymentId, null, "Internal Server Error", message);
+                }
+        }
+}
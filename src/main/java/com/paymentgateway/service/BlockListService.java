@@ -0,0 +1,344 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.BlockListProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Temporary block-list for instruments and vendors that keep failing.
+ * <p>
+ * Failures are counted in Redis over a sliding window (a sorted set of failure
+ * timestamps per target); one script trims the window, adds the failure and,
+ * once the threshold is reached, writes {@code blocklist:blocked:<target>:<id>}
+ * with the block's end time as value and TTL, and adds {@code <target>:<id>} to
+ * the {@code blocklist:index} sorted set scored by that end time. All nodes
+ * share the count.
+ * <p>
+ * Lookups never go to Redis. Each node mirrors the blocked keys in memory:
+ * keyspace notifications on {@code blocklist:blocked:*} add and drop entries as
+ * they change, and a periodic resync from the index repairs anything a
+ * notification missed, reading only blocks that have not ended rather than
+ * scanning the keyspace. An entry past its end time is treated as unblocked
+ * even before its expiry event arrives.
+ * <p>
+ * Redis calls go through {@link RedisGuard}. While it is unavailable failures
+ * are not counted and the mirror is left as it is, so blocks already in it
+ * still hold until they end.
+ */
+@Component
+@Slf4j
+public class BlockListService implements MessageListener {
+
+        public static final String BLOCKED_PREFIX = "blocklist:blocked:";
+        static final String FAILURES_PREFIX = "blocklist:failures:";
+        // Outside BLOCKED_PREFIX so its changes are not taken for block events
+        static final String INDEX_KEY = "blocklist:index";
+        private static final String KEYSPACE_EVENTS = "K$gx";
+
+        // KEYS: failures zset, blocked key, index zset. ARGV: now, window ms, max
+        // failures, member, block ms, blocked-until, index member. Returns 1 when
+        // this failure set the block.
+        private static final byte[] RECORD_FAILURE_SCRIPT = ("if redis.call('EXISTS', KEYS[2]) == 1 then return 0 end "
+                        + "local now = tonumber(ARGV[1]) "
+                        + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2])) "
+                        + "redis.call('ZADD', KEYS[1], now, ARGV[4]) "
+                        + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                        + "if redis.call('ZCARD', KEYS[1]) < tonumber(ARGV[3]) then return 0 end "
+                        + "redis.call('DEL', KEYS[1]) "
+                        + "redis.call('SET', KEYS[2], ARGV[6], 'PX', ARGV[5]) "
+                        + "redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', now) "
+                        + "redis.call('ZADD', KEYS[3], ARGV[6], ARGV[7]) "
+                        + "return 1").getBytes(StandardCharsets.UTF_8);
+
+        private final RedisGuard redisGuard;
+        private final BlockListProperties properties;
+        private final Map<BlockTarget, Map<String, Entry>> mirror = new HashMap<>();
+        // Orders mirror writes, so a resync can tell which entries arrived after it read Redis
+        private final AtomicLong writes = new AtomicLong();
+        private final Map<BlockTarget, Counter> blocked = new HashMap<>();
+
+        public BlockListService(RedisGuard redisGuard, BlockListProperties properties, MeterRegistry meterRegistry) {
+                this.redisGuard = redisGuard;
+                this.properties = properties;
+                for (BlockTarget target : BlockTarget.values()) {
+                        Map<String, Entry> entries = new ConcurrentHashMap<>();
+                        mirror.put(target, entries);
+                        Gauge.builder("blocklist.size", entries, Map::size)
+                                        .description("Entries in this node's copy of the block-list")
+                                        .tag("target", target.getKeySegment())
+                                        .register(meterRegistry);
+                        blocked.put(target, Counter.builder("blocklist.blocked")
+                                        .description("Blocks triggered by failures recorded on this node")
+                                        .tag("target", target.getKeySegment())
+                                        .register(meterRegistry));
+                }
+        }
+
+        /**
+         * O(1) and local: a map lookup against this node's mirror.
+         */
+        public boolean isBlocked(BlockTarget target, String id) {
+                Entry entry = mirror.get(target).get(id);
+                if (entry == null) {
+                        return false;
+                }
+                if (entry.blockedUntil() > System.currentTimeMillis()) {
+                        return true;
+                }
+                mirror.get(target).remove(id, entry);
+                return false;
+        }
+
+        public boolean isBlocked(BlockTarget target, UUID id) {
+                return id != null && isBlocked(target, id.toString());
+        }
+
+        /**
+         * Counts a failure against the target and blocks it if the window's
+         * threshold is reached. Not counted if Redis is unavailable.
+         */
+        public void recordFailure(BlockTarget target, String id) {
+                if (!properties.isEnabled() || id == null) {
+                        return;
+                }
+                BlockListProperties.Threshold threshold = threshold(target);
+                long now = System.currentTimeMillis();
+                long blockMillis = threshold.getBlockDuration().toMillis();
+                long blockedUntil = now + blockMillis;
+                byte[][] keysAndArgs = {
+                                bytes(FAILURES_PREFIX + target.getKeySegment() + ":" + id),
+                                bytes(blockedKey(target, id)),
+                                bytes(INDEX_KEY),
+                                bytes(Long.toString(now)),
+                                bytes(Long.toString(threshold.getWindow().toMillis())),
+                                bytes(Integer.toString(threshold.getMaxFailures())),
+                                bytes(now + "-" + ThreadLocalRandom.current().nextLong()),
+                                bytes(Long.toString(blockMillis)),
+                                bytes(Long.toString(blockedUntil)),
+                                bytes(indexMember(target, id)) };
+                Long result = redisGuard.execute((RedisCallback<Long>) connection -> connection.scriptingCommands()
+                                .eval(RECORD_FAILURE_SCRIPT, ReturnType.INTEGER, 3, keysAndArgs), () -> 0L);
+                if (result != null && result == 1L) {
+                        // Visible here at once; other nodes hear about it from the keyspace event
+                        mirror.get(target).put(id, entry(blockedUntil));
+                        blocked.get(target).increment();
+                        log.warn("Blocked {} {} for {} after {} failures in {}", target.getKeySegment(), id,
+                                        threshold.getBlockDuration(), threshold.getMaxFailures(),
+                                        threshold.getWindow());
+                }
+        }
+
+        public void recordFailure(BlockTarget target, UUID id) {
+                if (id != null) {
+                        recordFailure(target, id.toString());
+                }
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        public void start() {
+                if (!properties.isEnabled()) {
+                        return;
+                }
+                if (properties.isConfigureKeyspaceEvents()) {
+                        enableKeyspaceEvents();
+                }
+                resync();
+        }
+
+        /**
+         * Rebuilds the mirror from the index: blocks that have not ended, each
+         * confirmed against its blocked key so one deleted by hand stays
+         * unblocked. Entries written to the mirror after the index was read are
+         * newer than what was read, and are kept.
+         */
+        @Scheduled(fixedDelayString = "${payment.blocklist.resync-interval:30s}",
+                        initialDelayString = "${payment.blocklist.resync-interval:30s}")
+        public void resync() {
+                if (!properties.isEnabled()) {
+                        return;
+                }
+                long readFrom = writes.get();
+                long now = System.currentTimeMillis();
+                byte[] index = bytes(INDEX_KEY);
+                // Best effort: a missed trim only leaves ended blocks for the next run
+                redisGuard.execute((RedisCallback<Long>) connection -> connection.zSetCommands()
+                                .zRemRangeByScore(index, Double.NEGATIVE_INFINITY, now), () -> null);
+                Set<byte[]> members = redisGuard.execute((RedisCallback<Set<byte[]>>) connection -> connection
+                                .zSetCommands().zRangeByScore(index, now, Double.POSITIVE_INFINITY), () -> null);
+                if (members == null) {
+                        log.warn("Block-list resync skipped, Redis is unavailable; keeping the current local copy");
+                        return;
+                }
+                List<String> indexed = members.stream().map(member -> new String(member, StandardCharsets.UTF_8))
+                                .toList();
+                List<String> keys = indexed.stream().map(BlockListService::blockedKeyOf).toList();
+                byte[][] rawKeys = keys.stream().map(BlockListService::bytes).toArray(byte[][]::new);
+                List<byte[]> values = keys.isEmpty() ? List.of()
+                                : redisGuard.execute((RedisCallback<List<byte[]>>) connection -> connection
+                                                .stringCommands().mGet(rawKeys), () -> null);
+                if (values == null) {
+                        log.warn("Block-list resync skipped, Redis is unavailable; keeping the current local copy");
+                        return;
+                }
+
+                Map<BlockTarget, Map<String, Long>> fresh = new HashMap<>();
+                for (BlockTarget target : BlockTarget.values()) {
+                        fresh.put(target, new HashMap<>());
+                }
+                List<byte[]> unblocked = new ArrayList<>();
+                for (int i = 0; i < keys.size(); i++) {
+                        byte[] value = values.get(i);
+                        ParsedKey parsed = parse(keys.get(i));
+                        if (value == null) {
+                                unblocked.add(bytes(indexed.get(i)));
+                        } else if (parsed != null) {
+                                fresh.get(parsed.target()).put(parsed.id(), parseLong(value));
+                        }
+                }
+                if (!unblocked.isEmpty()) {
+                        byte[][] stale = unblocked.toArray(byte[][]::new);
+                        // Best effort, like the trim
+                        redisGuard.execute((RedisCallback<Long>) connection -> connection.zSetCommands()
+                                        .zRem(index, stale), () -> null);
+                }
+
+                for (BlockTarget target : BlockTarget.values()) {
+                        Map<String, Entry> entries = mirror.get(target);
+                        Map<String, Long> read = fresh.get(target);
+                        read.forEach((id, blockedUntil) -> entries.merge(id, entry(blockedUntil),
+                                        (current, replacement) -> current.write() > readFrom ? current : replacement));
+                        entries.entrySet().removeIf(e -> e.getValue().write() <= readFrom
+                                        && !read.containsKey(e.getKey()));
+                }
+        }
+
+        /**
+         * Keyspace notification for a blocked key: {@code set} adds or extends
+         * the entry, {@code expired} and {@code del} drop it.
+         */
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+                String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+                String key = channel.substring(channel.indexOf(':') + 1);
+                ParsedKey parsed = parse(key);
+                if (parsed == null) {
+                        return;
+                }
+                String event = new String(message.getBody(), StandardCharsets.UTF_8);
+                Map<String, Entry> entries = mirror.get(parsed.target());
+                switch (event) {
+                        case "set" -> {
+                                byte[] rawKey = bytes(key);
+                                // Missed while Redis is unavailable; the next resync picks it up
+                                byte[] value = redisGuard.execute((RedisCallback<byte[]>) connection -> connection
+                                                .stringCommands().get(rawKey), () -> null);
+                                if (value != null) {
+                                        entries.put(parsed.id(), entry(parseLong(value)));
+                                }
+                        }
+                        case "expired", "del" -> entries.remove(parsed.id());
+                        default -> {
+                        }
+                }
+        }
+
+        private void enableKeyspaceEvents() {
+                Boolean enabled = redisGuard.execute((RedisCallback<Boolean>) connection -> {
+                        Properties current = connection.serverCommands().getConfig("notify-keyspace-events");
+                        String flags = current == null ? "" : current.getProperty("notify-keyspace-events", "");
+                        String merged = flags;
+                        for (char flag : KEYSPACE_EVENTS.toCharArray()) {
+                                // 'A' already covers '$', 'g' and 'x'
+                                if (merged.indexOf(flag) < 0 && (flag == 'K' || merged.indexOf('A') < 0)) {
+                                        merged += flag;
+                                }
+                        }
+                        if (!merged.equals(flags)) {
+                                connection.serverCommands().setConfig("notify-keyspace-events", merged);
+                                log.info("Enabled Redis keyspace notifications: {}", merged);
+                        }
+                        return true;
+                }, () -> false);
+                if (!Boolean.TRUE.equals(enabled)) {
+                        log.warn("Could not enable keyspace notifications, block-list changes from other nodes "
+                                        + "will arrive on resync only");
+                }
+        }
+
+        private BlockListProperties.Threshold threshold(BlockTarget target) {
+                return target == BlockTarget.INSTRUMENT ? properties.getInstrument() : properties.getVendor();
+        }
+
+        static String blockedKey(BlockTarget target, String id) {
+                return blockedKeyOf(indexMember(target, id));
+        }
+
+        private static String indexMember(BlockTarget target, String id) {
+                return target.getKeySegment() + ":" + id;
+        }
+
+        private static String blockedKeyOf(String indexMember) {
+                return BLOCKED_PREFIX + indexMember;
+        }
+
+        private Entry entry(long blockedUntil) {
+                return new Entry(blockedUntil, writes.incrementAndGet());
+        }
+
+        private static ParsedKey parse(String key) {
+                if (!key.startsWith(BLOCKED_PREFIX)) {
+                        return null;
+                }
+                String rest = key.substring(BLOCKED_PREFIX.length());
+                int separator = rest.indexOf(':');
+                if (separator < 0) {
+                        return null;
+                }
+                String segment = rest.substring(0, separator);
+                for (BlockTarget target : BlockTarget.values()) {
+                        if (target.getKeySegment().equals(segment)) {
+                                return new ParsedKey(target, rest.substring(separator + 1));
+                        }
+                }
+                return null;
+        }
+
+        private static byte[] bytes(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static long parseLong(byte[] value) {
+                return Long.parseLong(new String(value, StandardCharsets.UTF_8));
+        }
+
+        private record ParsedKey(BlockTarget target, String id) {
+        }
+
+        /**
+         * @param write position in the order of mirror writes
+         */
+        private record Entry(long blockedUntil, long write) {
+        }
+}
@@ -0,0 +1,20 @@
+package com.paymentgateway.service;
+
+/**
+ * What the block-list can block. The key segment names the target in Redis.
+ */
+public enum BlockTarget {
+
+        INSTRUMENT("instrument"),
+        VENDOR("vendor");
+
+        private final String keySegment;
+
+        BlockTarget(String keySegment) {
+                this.keySegment = keySegment;
+        }
+
+        public String getKeySegment() {
+                return keySegment;
+        }
+}
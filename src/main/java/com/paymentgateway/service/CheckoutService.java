@@ -1,21 +1,24 @@
 package com.paymentgateway.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentgateway.config.HandoffTokenProperties;
 import com.paymentgateway.generated.model.CheckoutResponse;
 import com.paymentgateway.generated.model.InstrumentDetails;
 import com.paymentgateway.generated.model.PaymentMethodOption;
+import com.paymentgateway.jfr.CheckoutEvaluatedEvent;
+import com.paymentgateway.logging.LogMarkers;
+import com.paymentgateway.model.Money;
 import com.paymentgateway.model.PaymentInstrument;
 import com.paymentgateway.model.PaymentMethod;
-import com.paymentgateway.model.MerchantPaymentConfig;
-import com.paymentgateway.repository.PaymentMethodRepository;
+import com.paymentgateway.model.VendorHealth;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,15 +26,29 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CheckoutService {
 
-        private final PaymentMethodRepository paymentMethodRepository;
+        private static final long IDEMPOTENCY_CACHE_SIZE = 100_000;
+        private static final Duration IDEMPOTENCY_TTL = Duration.ofHours(1);
+        private static final String DECLINED_REASON = "Instrument declined earlier in this payment";
+        private static final String BLOCKED_REASON = "Instrument temporarily blocked after repeated failures";
+
         private final CustomerInstrumentService customerInstrumentService;
-        private final MerchantConfigService merchantConfigService;
         private final RuleEngineService ruleEngineService;
         private final DowntimeService downtimeService;
-        private final StringRedisTemplate redisTemplate;
+        private final RetryStateStore retryStateStore;
+        private final StageTimer stageTimer;
+        private final VendorAvailabilityService vendorAvailabilityService;
+        private final VendorRouter vendorRouter;
+        private final HandoffTokenService handoffTokenService;
+        private final HandoffTokenProperties handoffTokenProperties;
+        private final BlockListService blockListService;
+        private final CheckoutTemplateCache checkoutTemplateCache;
 
         // In-memory cache for idempotency (TODO: Move to Redis)
-        private final Map<UUID, CheckoutResponse> idempotencyCache = new ConcurrentHashMap<>();
+        // Bounded so a long-running node cannot grow it without limit
+        private final Cache<UUID, CheckoutResponse> idempotencyCache = Caffeine.newBuilder()
+                        .maximumSize(IDEMPOTENCY_CACHE_SIZE)
+                        .expireAfterWrite(IDEMPOTENCY_TTL)
+                        .build();
 
         @Timed(value = "service.execution", extraTags = { "domain", "checkout", "service", "CheckoutService", "method",
                         "getCheckoutOptions" })
@@ -42,61 +59,93 @@ public class CheckoutService {
                         UUID idempotencyKey,
                         UUID merchantId,
                         UUID userId,
-                        Double amount,
+                        Money amount,
                         String mcc,
                         UUID paymentId) { // NEW - optional parameter for retry scenarios
 
-                log.debug("Getting checkout options - checkoutId: {}, idempotencyKey: {}, merchantId: {}, userId: {}, paymentId: {}",
-                                checkoutId, idempotencyKey, merchantId, userId, paymentId);
+                long requestStart = System.nanoTime();
+                CheckoutEvaluatedEvent event = new CheckoutEvaluatedEvent();
+                event.begin();
+                // checkoutId, merchantId and paymentId are in the MDC (RequestLogContext)
+                log.debug("Getting checkout options - idempotencyKey: {}, userId: {}", idempotencyKey, userId);
 
                 // Check idempotency cache - if same request made before, return cached response
-                if (idempotencyCache.containsKey(idempotencyKey)) {
-                        CheckoutResponse cachedResponse = idempotencyCache.get(idempotencyKey);
-                        log.info("Returning cached checkout - checkoutId: {}, paymentId: {}",
-                                        checkoutId, cachedResponse.getPaymentId());
+                CheckoutResponse cachedResponse = idempotencyCache.getIfPresent(idempotencyKey);
+                if (cachedResponse != null) {
+                        log.info(LogMarkers.CHECKOUT, "Returning cached checkout - paymentId: {}",
+                                        cachedResponse.getPaymentId());
+                        commitEvent(event, checkoutId, merchantId, true, 0, cachedResponse);
                         return cachedResponse;
                 }
 
+                StageTimer.Split split = stageTimer.split();
+
                 // If paymentId provided (retry scenario), fetch declined instruments from Redis
                 Set<String> declinedInstruments = new HashSet<>();
                 if (paymentId != null) {
-                        String key = "checkout:declined:" + paymentId;
-                        Set<String> members = redisTemplate.opsForSet().members(key);
-                        if (members != null) {
-                                declinedInstruments.addAll(members);
-                                log.debug("Retry scenario - paymentId: {}, declined instruments: {}", paymentId,
-                                                declinedInstruments);
-                        }
+                        long redisStart = System.nanoTime();
+                        declinedInstruments.addAll(retryStateStore.declinedInstruments(paymentId));
+                        log.debug("Retry scenario - declined instruments: {}", declinedInstruments);
+                        split.lap(PipelineStage.CHECKOUT_DECLINED_LOOKUP, redisStart);
                 }
 
+                CheckoutResponse response = evaluate(idempotencyKey, merchantId, userId, amount, mcc,
+                                declinedInstruments, split);
+
+                // Cache the response for idempotency
+                idempotencyCache.put(idempotencyKey, response);
+
+                split.record();
+                stageTimer.record(PipelineStage.CHECKOUT_TOTAL, requestStart);
+                commitEvent(event, checkoutId, merchantId, false, declinedInstruments.size(), response);
+
+                log.info(LogMarkers.CHECKOUT, "Checkout session created - paymentId: {}, methods: {}",
+                                response.getPaymentId(), response.getPaymentMethods().size());
+
+                return response;
+        }
+
+        /**
+         * A synthetic checkout for the startup warm-up: the same evaluation as
+         * {@link #getCheckoutOptions}, so the same code gets compiled, but
+         * nothing is cached for idempotency and no latency is recorded, so SLO
+         * and service timers only ever see real traffic.
+         */
+        public CheckoutResponse warmUp(UUID merchantId, UUID userId, Money amount, String mcc) {
+                return evaluate(UUID.randomUUID(), merchantId, userId, amount, mcc, Set.of(), stageTimer.split());
+        }
+
+        private CheckoutResponse evaluate(UUID idempotencyKey, UUID merchantId, UUID userId, Money amount,
+                        String mcc, Set<String> declinedInstruments, StageTimer.Split split) {
                 // Generate deterministic payment ID from idempotency key
                 // This ensures same idempotency key always generates same payment ID
                 UUID generatedPaymentId = UUID.nameUUIDFromBytes(idempotencyKey.toString().getBytes());
 
-                // 1. Load Global Methods
-                List<PaymentMethod> globalMethods = paymentMethodRepository.findByActiveTrue();
-                log.debug("Loaded {} global payment methods for checkoutId: {}", globalMethods.size(), checkoutId);
+                // 1. Method-level decisions for this merchant, MCC and amount (cached per merchant)
+                long stageStart = System.nanoTime();
+                long amountMinor = amount.minorUnits();
+                CheckoutTemplate template = checkoutTemplateCache.get(merchantId, mcc, amountMinor);
+                stageStart = split.lap(PipelineStage.CHECKOUT_METHODS, stageStart);
 
                 // 2. Fetch User Instruments
                 List<PaymentInstrument> userInstruments = customerInstrumentService.getInstrumentsForUser(userId);
-                log.debug("Found {} user instruments for userId: {}, checkoutId: {}",
-                                userInstruments.size(), userId, checkoutId);
-
-                List<PaymentMethodOption> methodOptions = new ArrayList<>();
+                split.lap(PipelineStage.CHECKOUT_INSTRUMENTS, stageStart);
+                if (log.isDebugEnabled()) {
+                        log.debug("Found {} user instruments for userId: {}", userInstruments.size(), userId);
+                }
+                Map<String, List<PaymentInstrument>> instrumentsByMethod = userInstruments.stream()
+                                .collect(Collectors.groupingBy(PaymentInstrument::getMethodId));
 
-                for (PaymentMethod method : globalMethods) {
-                        // Get Merchant Config for this method
-                        MerchantPaymentConfig merchantConfig = merchantConfigService.getConfig(merchantId,
-                                        method.getMethodId());
+                List<PaymentMethodOption> methodOptions = new ArrayList<>(template.methods().size());
 
-                        // 3. Apply Rules for the Method itself
-                        String methodIneligibilityReason = ruleEngineService.getIneligibilityReason(method, null,
-                                        merchantId, mcc, amount);
-                        boolean methodEnabled = methodIneligibilityReason == null;
+                for (CheckoutTemplate.MethodTemplate methodTemplate : template.methods()) {
+                        PaymentMethod method = methodTemplate.method();
+                        boolean methodEnabled = methodTemplate.enabled();
+                        String methodIneligibilityReason = methodTemplate.ineligibilityReason();
 
-                        // 4. Filter and Map User Instruments for this Method
-                        List<InstrumentDetails> instrumentDetails = userInstruments.stream()
-                                        .filter(instr -> instr.getMethodId().equals(method.getMethodId()))
+                        // 3. Map this user's instruments for the method
+                        List<InstrumentDetails> instrumentDetails = instrumentsByMethod
+                                        .getOrDefault(method.getMethodId(), List.of()).stream()
                                         .map(instr -> {
                                                 String instrRuleReason;
                                                 boolean isDown;
@@ -106,13 +155,27 @@ public class CheckoutService {
                                                 if (!methodEnabled) {
                                                         instrRuleReason = methodIneligibilityReason;
                                                         isDown = false;
+                                                } else if (declinedInstruments
+                                                                .contains(instr.getInstrumentId().toString())) {
+                                                        instrRuleReason = DECLINED_REASON;
+                                                        isDown = false;
+                                                } else if (blockListService.isBlocked(BlockTarget.INSTRUMENT,
+                                                                instr.getInstrumentId())) {
+                                                        // Local mirror lookup, no Redis round trip
+                                                        instrRuleReason = BLOCKED_REASON;
+                                                        isDown = false;
                                                 } else {
                                                         // Check Instrument specific rules
+                                                        long instrRulesStart = System.nanoTime();
                                                         instrRuleReason = ruleEngineService.getIneligibilityReason(
-                                                                        method, instr, merchantId, mcc, amount);
+                                                                        method, instr, merchantId, mcc,
+                                                                        amountMinor);
+                                                        long downtimeStart = split.lap(PipelineStage.CHECKOUT_RULES,
+                                                                        instrRulesStart);
                                                         // Check Downtime
                                                         isDown = downtimeService.isInstrumentDown(method.getMethodId(),
                                                                         instr.getIssuer());
+                                                        split.lap(PipelineStage.CHECKOUT_DOWNTIME, downtimeStart);
                                                 }
 
                                                 boolean eligible = instrRuleReason == null && !isDown;
@@ -134,39 +197,71 @@ public class CheckoutService {
                                         })
                                         .collect(Collectors.toList());
 
-                        PaymentMethodOption option = new PaymentMethodOption();
-                        option.setMethodId(method.getMethodId());
-                        option.setMethodName(method.getMethodName());
-                        option.setSupportedNetworks(method.getSupportedNetworks());
-                        option.setEnabled(methodEnabled);
-                        option.setReasonIfDisabled(methodIneligibilityReason);
-                        option.setAllowAddNew(methodEnabled);
-                        option.setUserInstruments(instrumentDetails);
-
-                        methodOptions.add(option);
+                        methodOptions.add(methodTemplate.newOption(instrumentDetails));
                 }
 
                 CheckoutResponse response = new CheckoutResponse();
                 response.setPaymentId(generatedPaymentId); // Deterministic payment ID from idempotency key
                 response.setPaymentMethods(methodOptions);
 
-                // Cache the response for idempotency
-                idempotencyCache.put(idempotencyKey, response);
+                // Hand what was decided here to /payment/pay so it need not be recomputed
+                stageStart = System.nanoTime();
+                response.setHandoffToken(issueHandoffToken(generatedPaymentId, merchantId, userId, amount,
+                                methodOptions));
+                split.lap(PipelineStage.CHECKOUT_HANDOFF, stageStart);
+                return response;
+        }
 
-                log.info("Checkout session created - checkoutId: {}, paymentId: {}, methods: {}",
-                                checkoutId, generatedPaymentId, methodOptions.size());
+        private String issueHandoffToken(UUID paymentId, UUID merchantId, UUID userId, Money amount,
+                        List<PaymentMethodOption> methodOptions) {
+                List<HandoffToken.EligibleInstrument> eligible = new ArrayList<>();
+                for (PaymentMethodOption option : methodOptions) {
+                        for (InstrumentDetails instrument : option.getUserInstruments()) {
+                                if (Boolean.TRUE.equals(instrument.getEligible())) {
+                                        eligible.add(new HandoffToken.EligibleInstrument(option.getMethodId(),
+                                                        instrument.getInstrumentId()));
+                                }
+                        }
+                }
+                List<VendorHealth> vendors = vendorAvailabilityService.getAvailableVendors().stream()
+                                .filter(v -> !blockListService.isBlocked(BlockTarget.VENDOR, v.getVendorId()))
+                                .toList();
+                List<String> shortlist = vendorRouter.rank(vendors, amount.minorUnits(),
+                                handoffTokenProperties.getShortlistSize());
+                return handoffTokenService.issue(paymentId, merchantId, userId, amount, eligible, shortlist);
+        }
 
-                return response;
+        private void commitEvent(CheckoutEvaluatedEvent event, UUID checkoutId, UUID merchantId, boolean cacheHit,
+                        int declinedCount, CheckoutResponse response) {
+                event.end();
+                if (!event.shouldCommit()) {
+                        return;
+                }
+                event.checkoutId = String.valueOf(checkoutId);
+                event.merchantId = String.valueOf(merchantId);
+                event.cacheHit = cacheHit;
+                event.declinedInstrumentCount = declinedCount;
+                event.methodCount = response.getPaymentMethods().size();
+                for (PaymentMethodOption option : response.getPaymentMethods()) {
+                        if (option.getUserInstruments() == null) {
+                                continue;
+                        }
+                        event.instrumentCount += option.getUserInstruments().size();
+                        for (InstrumentDetails instrument : option.getUserInstruments()) {
+                                if (Boolean.TRUE.equals(instrument.getEligible())) {
+                                        event.eligibleInstrumentCount++;
+                                }
+                        }
+                }
+                event.commit();
         }
 
         public void addDeclinedInstrument(UUID paymentId, UUID instrumentId) {
                 if (paymentId == null || instrumentId == null) {
                         return;
                 }
-                String key = "checkout:declined:" + paymentId;
-                redisTemplate.opsForSet().add(key, instrumentId.toString());
-                redisTemplate.expire(key, 1, TimeUnit.HOURS);
-                log.info("Added declined instrument to Redis - paymentId: {}, instrumentId: {}", paymentId,
+                retryStateStore.addDeclinedInstrument(paymentId, instrumentId);
+                log.info("Added declined instrument - paymentId: {}, instrumentId: {}", paymentId,
                                 instrumentId);
         }
 }
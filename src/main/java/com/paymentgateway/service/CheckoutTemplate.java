@@ -0,0 +1,49 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.paymentgateway.generated.model.InstrumentDetails;
+import com.paymentgateway.generated.model.PaymentMethodOption;
+import com.paymentgateway.model.PaymentMethod;
+
+import java.util.List;
+
+/**
+ * The user-independent part of a checkout for one merchant, MCC and amount
+ * band: every active method with its method-level decision, in catalog order.
+ */
+public record CheckoutTemplate(List<MethodTemplate> methods) {
+
+        /**
+         * @param supportedNetworks   the method's network names
+         * @param ineligibilityReason null when the method is enabled
+         * @param encodedFields       the option's JSON fields other than
+         *                            {@code userInstruments}, or null if not
+         *                            pre-encoded
+         */
+        public record MethodTemplate(PaymentMethod method, List<String> supportedNetworks,
+                        String ineligibilityReason, SerializableString encodedFields) {
+
+                public boolean enabled() {
+                        return ineligibilityReason == null;
+                }
+
+                /**
+                 * A new option for one response, sharing this template's
+                 * method-level fields and encoding.
+                 */
+                public PaymentMethodOption newOption(List<InstrumentDetails> userInstruments) {
+                        return fill(new TemplatedPaymentMethodOption(encodedFields), userInstruments);
+                }
+
+                PaymentMethodOption fill(PaymentMethodOption option, List<InstrumentDetails> userInstruments) {
+                        option.setMethodId(method.getMethodId());
+                        option.setMethodName(method.getMethodName());
+                        option.setSupportedNetworks(supportedNetworks);
+                        option.setEnabled(enabled());
+                        option.setReasonIfDisabled(ineligibilityReason);
+                        option.setAllowAddNew(enabled());
+                        option.setUserInstruments(userInstruments);
+                        return option;
+                }
+        }
+}
@@ -0,0 +1,229 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentgateway.config.CheckoutTemplateProperties;
+import com.paymentgateway.generated.model.PaymentMethodOption;
+import com.paymentgateway.model.PaymentMethod;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Caches the method-level part of checkout responses per merchant and MCC, so
+ * a request only evaluates and encodes its user's instruments.
+ * <p>
+ * Method-level decisions depend on the amount only through a few comparisons,
+ * so each (merchant, MCC) entry asks the rule engine for the amounts where a
+ * decision can flip and keeps one template per band between and at those
+ * amounts. A template holds each method's decision and its JSON fields,
+ * encoded once.
+ * <p>
+ * The active method catalog is taken from the ReferenceDataStore and checked
+ * for changes every {@code catalog-refresh-interval}; entries built against an
+ * older catalog or rule set version are rebuilt on their next use. Saving a
+ * merchant's config drops that merchant's entries on this node; other nodes
+ * drop them after their next reference data sync.
+ */
+@Component
+@Slf4j
+public class CheckoutTemplateCache {
+
+        private static final String INSTRUMENTS_FIELD = "userInstruments";
+
+        private final ReferenceDataStore referenceDataStore;
+        private final RuleEngineService ruleEngineService;
+        private final NetworkRegistry networkRegistry;
+        private final CheckoutTemplateProperties properties;
+        private final ObjectMapper objectMapper;
+        private final Cache<MerchantKey, MerchantTemplates> templates;
+        private final Counter builds;
+        // Bumped by every invalidation; a build that overlapped one is not cached
+        private final AtomicLong generation = new AtomicLong();
+        private volatile Catalog catalog;
+
+        public CheckoutTemplateCache(ReferenceDataStore referenceDataStore,
+                        RuleEngineService ruleEngineService,
+                        NetworkRegistry networkRegistry,
+                        CheckoutTemplateProperties properties,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+                this.referenceDataStore = referenceDataStore;
+                this.ruleEngineService = ruleEngineService;
+                this.networkRegistry = networkRegistry;
+                this.properties = properties;
+                this.objectMapper = objectMapper;
+                this.templates = Caffeine.newBuilder()
+                                .maximumSize(properties.getMaxSize())
+                                .expireAfterWrite(properties.getTtl())
+                                .recordStats()
+                                .build();
+                CaffeineCacheMetrics.monitor(meterRegistry, templates, "checkout.template");
+                this.builds = Counter.builder("checkout.template.builds")
+                                .description("Checkout templates evaluated from merchant config and rules")
+                                .register(meterRegistry);
+        }
+
+        public CheckoutTemplate get(UUID merchantId, String mcc, long amountMinor) {
+                Catalog current = catalog();
+                if (!properties.isEnabled()) {
+                        return build(current, merchantId, mcc, amountMinor, false);
+                }
+
+                long observed = generation.get();
+                String rulesVersion = ruleEngineService.rulesVersion();
+                MerchantKey key = new MerchantKey(merchantId, mcc);
+                MerchantTemplates merchant = templates.getIfPresent(key);
+                if (merchant == null || merchant.catalog != current
+                                || !Objects.equals(merchant.rulesVersion, rulesVersion)) {
+                        merchant = new MerchantTemplates(current, rulesVersion,
+                                        ruleEngineService.methodAmountBreakpoints(merchantId, mcc, current.methods()));
+                        if (generation.get() == observed) {
+                                templates.put(key, merchant);
+                        }
+                }
+                if (merchant.breakpoints == null) {
+                        return build(current, merchantId, mcc, amountMinor, false);
+                }
+
+                int band = band(merchant.breakpoints, amountMinor);
+                CheckoutTemplate template = merchant.bands.get(band);
+                if (template == null) {
+                        template = build(current, merchantId, mcc, amountMinor, true);
+                        if (generation.get() == observed) {
+                                merchant.bands.set(band, template);
+                        }
+                }
+                return template;
+        }
+
+        @EventListener
+        public void onMerchantConfigChanged(MerchantConfigChangedEvent event) {
+                generation.incrementAndGet();
+                templates.asMap().keySet().removeIf(key -> key.merchantId().equals(event.merchantId()));
+        }
+
+        public void invalidateAll() {
+                generation.incrementAndGet();
+                templates.invalidateAll();
+        }
+
+        /**
+         * Checks the active methods and drops every template if they changed.
+         */
+        @Scheduled(fixedDelayString = "${payment.checkout-template.catalog-refresh-interval:30s}",
+                        initialDelayString = "${payment.checkout-template.catalog-refresh-interval:30s}")
+        public void refreshCatalog() {
+                try {
+                        Catalog loaded = new Catalog(referenceDataStore.activeMethods());
+                        Catalog current = catalog;
+                        if (current != null && current.methods().equals(loaded.methods())) {
+                                return;
+                        }
+                        catalog = loaded;
+                        if (current != null) {
+                                log.info("Payment method catalog changed ({} active methods), "
+                                                + "dropping checkout templates", loaded.methods().size());
+                                invalidateAll();
+                        }
+                } catch (Exception e) {
+                        log.warn("Payment method catalog refresh failed, keeping the current catalog", e);
+                }
+        }
+
+        private Catalog catalog() {
+                Catalog current = catalog;
+                if (current == null) {
+                        // First checkout on this node; concurrent first loads are harmless
+                        current = new Catalog(referenceDataStore.activeMethods());
+                        catalog = current;
+                }
+                return current;
+        }
+
+        private CheckoutTemplate build(Catalog catalog, UUID merchantId, String mcc, long amountMinor,
+                        boolean encode) {
+                builds.increment();
+                List<CheckoutTemplate.MethodTemplate> methods = new ArrayList<>(catalog.methods().size());
+                for (PaymentMethod method : catalog.methods()) {
+                        String reason = ruleEngineService.getIneligibilityReason(method, null, merchantId, mcc,
+                                        amountMinor);
+                        List<String> networks = networkRegistry.namesOf(method.getSupportedNetworks());
+                        CheckoutTemplate.MethodTemplate template = new CheckoutTemplate.MethodTemplate(method, networks,
+                                        reason, null);
+                        methods.add(encode ? new CheckoutTemplate.MethodTemplate(method, networks, reason,
+                                        encode(template)) : template);
+                }
+                return new CheckoutTemplate(List.copyOf(methods));
+        }
+
+        /**
+         * The option's JSON object without braces and {@code userInstruments},
+         * plus a trailing comma, written by the application's mapper so it
+         * matches what the mapper would have produced.
+         */
+        private SerializableString encode(CheckoutTemplate.MethodTemplate template) {
+                try {
+                        ObjectNode fields = objectMapper.valueToTree(template.fill(new PaymentMethodOption(), null));
+                        fields.remove(INSTRUMENTS_FIELD);
+                        String json = objectMapper.writeValueAsString(fields);
+                        String inner = json.substring(1, json.length() - 1);
+                        SerializedString encoded = new SerializedString(inner.isEmpty() ? "" : inner + ",");
+                        encoded.asUnquotedUTF8();
+                        return encoded;
+                } catch (JsonProcessingException e) {
+                        log.warn("Could not pre-encode checkout method {}, serializing it per request",
+                                        template.method().getMethodId(), e);
+                        return null;
+                }
+        }
+
+        /**
+         * Amounts equal to a breakpoint get odd bands, amounts between two get
+         * even ones.
+         */
+        static int band(long[] breakpoints, long amountMinor) {
+                int index = Arrays.binarySearch(breakpoints, amountMinor);
+                return index >= 0 ? 2 * index + 1 : 2 * (-index - 1);
+        }
+
+        private record MerchantKey(UUID merchantId, String mcc) {
+        }
+
+        private static final class MerchantTemplates {
+
+                private final Catalog catalog;
+                private final String rulesVersion;
+                private final long[] breakpoints;
+                private final AtomicReferenceArray<CheckoutTemplate> bands;
+
+                private MerchantTemplates(Catalog catalog, String rulesVersion, long[] breakpoints) {
+                        this.catalog = catalog;
+                        this.rulesVersion = rulesVersion;
+                        this.breakpoints = breakpoints;
+                        this.bands = breakpoints == null ? null
+                                        : new AtomicReferenceArray<>(2 * breakpoints.length + 1);
+                }
+        }
+
+        // Compared by identity: templates built against a replaced catalog are stale
+        private record Catalog(List<PaymentMethod> methods) {
+        }
+}
@@ -0,0 +1,37 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.model.Money;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * What checkout decided, carried to pay time inside a signed token: who may
+ * pay, how much, with which instruments, and which vendors to try first.
+ *
+ * @param eligible         instruments that passed rules and downtime checks
+ * @param vendorShortlist  vendor ids, best first
+ */
+public record HandoffToken(
+                UUID paymentId,
+                UUID merchantId,
+                UUID userId,
+                Money amount,
+                Instant issuedAt,
+                Instant expiresAt,
+                List<EligibleInstrument> eligible,
+                List<String> vendorShortlist) {
+
+        public record EligibleInstrument(String methodId, UUID instrumentId) {
+        }
+
+        public boolean allows(String methodId, UUID instrumentId) {
+                for (EligibleInstrument instrument : eligible) {
+                        if (instrument.instrumentId().equals(instrumentId) && instrument.methodId().equals(methodId)) {
+                                return true;
+                        }
+                }
+                return false;
+        }
+}
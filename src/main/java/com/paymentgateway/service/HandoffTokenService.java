@@ -0,0 +1,224 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.HandoffTokenProperties;
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.model.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and verifies checkout-to-payment handoff tokens.
+ * <p>
+ * A token is a compact binary encoding of a {@link HandoffToken} followed by a
+ * truncated HMAC-SHA256, base64url encoded. Verification is a MAC over a few
+ * hundred bytes and a decode; it touches no repository, cache or rule, so
+ * pay-time validation costs the same however much checkout had to evaluate.
+ */
+@Component
+@Slf4j
+public class HandoffTokenService {
+
+        // 2: amount as minor units and currency code instead of a double
+        private static final byte VERSION = 2;
+        private static final String ALGORITHM = "HmacSHA256";
+        private static final int MAC_LENGTH = 16;
+        private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+        private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+        private final HandoffTokenProperties properties;
+        private final List<SecretKeySpec> keys = new ArrayList<>();
+        private final ThreadLocal<Mac> signingMac;
+
+        public HandoffTokenService(HandoffTokenProperties properties) {
+                this.properties = properties;
+                if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+                        byte[] random = new byte[32];
+                        new SecureRandom().nextBytes(random);
+                        keys.add(new SecretKeySpec(random, ALGORITHM));
+                        log.warn("payment.handoff.secret not set, using a random key; "
+                                        + "tokens will not verify on other nodes or after a restart");
+                } else {
+                        keys.add(key(properties.getSecret()));
+                }
+                for (String previous : properties.getPreviousSecrets()) {
+                        keys.add(key(previous));
+                }
+                SecretKeySpec signingKey = keys.get(0);
+                this.signingMac = ThreadLocal.withInitial(() -> newMac(signingKey));
+        }
+
+        public String issue(UUID paymentId, UUID merchantId, UUID userId, Money amount,
+                        List<HandoffToken.EligibleInstrument> eligible, List<String> vendorShortlist) {
+                Instant now = Instant.now();
+                return encode(new HandoffToken(paymentId, merchantId, userId, amount, now,
+                                now.plus(properties.getTtl()), eligible, vendorShortlist));
+        }
+
+        String encode(HandoffToken token) {
+                ByteBuffer buffer = ByteBuffer.allocate(encodedLength(token) + MAC_LENGTH);
+                buffer.put(VERSION);
+                buffer.putLong(token.issuedAt().getEpochSecond());
+                buffer.putLong(token.expiresAt().getEpochSecond());
+                putUuid(buffer, token.paymentId());
+                putUuid(buffer, token.merchantId());
+                putUuid(buffer, token.userId());
+                buffer.putLong(token.amount().minorUnits());
+                putString(buffer, token.amount().currency());
+                buffer.put((byte) token.eligible().size());
+                for (HandoffToken.EligibleInstrument instrument : token.eligible()) {
+                        putUuid(buffer, instrument.instrumentId());
+                        putString(buffer, instrument.methodId());
+                }
+                buffer.put((byte) token.vendorShortlist().size());
+                for (String vendorId : token.vendorShortlist()) {
+                        putString(buffer, vendorId);
+                }
+
+                int payloadLength = buffer.position();
+                Mac mac = signingMac.get();
+                mac.update(buffer.array(), 0, payloadLength);
+                buffer.put(mac.doFinal(), 0, MAC_LENGTH);
+                return ENCODER.encodeToString(buffer.array());
+        }
+
+        /**
+         * @throws InvalidRequestException if the token is malformed, was not
+         *                                 signed with a known key or has expired
+         */
+        public HandoffToken verify(String encoded) {
+                byte[] bytes;
+                try {
+                        bytes = DECODER.decode(encoded);
+                } catch (IllegalArgumentException e) {
+                        throw new InvalidRequestException("Invalid handoff token");
+                }
+                if (bytes.length <= MAC_LENGTH + 1 || bytes[0] != VERSION) {
+                        throw new InvalidRequestException("Invalid handoff token");
+                }
+
+                int payloadLength = bytes.length - MAC_LENGTH;
+                byte[] signature = Arrays.copyOfRange(bytes, payloadLength, bytes.length);
+                if (!signedByKnownKey(bytes, payloadLength, signature)) {
+                        throw new InvalidRequestException("Invalid handoff token");
+                }
+
+                HandoffToken token;
+                try {
+                        token = decode(ByteBuffer.wrap(bytes, 1, payloadLength - 1));
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                        throw new InvalidRequestException("Invalid handoff token", e);
+                }
+                if (Instant.now().isAfter(token.expiresAt())) {
+                        throw new InvalidRequestException("Handoff token expired, start a new checkout");
+                }
+                return token;
+        }
+
+        private boolean signedByKnownKey(byte[] bytes, int payloadLength, byte[] signature) {
+                for (int i = 0; i < keys.size(); i++) {
+                        Mac mac = i == 0 ? signingMac.get() : newMac(keys.get(i));
+                        mac.update(bytes, 0, payloadLength);
+                        byte[] expected = Arrays.copyOf(mac.doFinal(), MAC_LENGTH);
+                        if (MessageDigest.isEqual(expected, signature)) {
+                                return true;
+                        }
+                }
+                return false;
+        }
+
+        private static HandoffToken decode(ByteBuffer buffer) {
+                Instant issuedAt = Instant.ofEpochSecond(buffer.getLong());
+                Instant expiresAt = Instant.ofEpochSecond(buffer.getLong());
+                UUID paymentId = getUuid(buffer);
+                UUID merchantId = getUuid(buffer);
+                UUID userId = getUuid(buffer);
+                Money amount = new Money(buffer.getLong(), getString(buffer));
+                int eligibleCount = Byte.toUnsignedInt(buffer.get());
+                List<HandoffToken.EligibleInstrument> eligible = new ArrayList<>(eligibleCount);
+                for (int i = 0; i < eligibleCount; i++) {
+                        UUID instrumentId = getUuid(buffer);
+                        eligible.add(new HandoffToken.EligibleInstrument(getString(buffer), instrumentId));
+                }
+                int vendorCount = Byte.toUnsignedInt(buffer.get());
+                List<String> vendors = new ArrayList<>(vendorCount);
+                for (int i = 0; i < vendorCount; i++) {
+                        vendors.add(getString(buffer));
+                }
+                if (buffer.hasRemaining()) {
+                        throw new IllegalArgumentException("Trailing bytes in handoff token");
+                }
+                return new HandoffToken(paymentId, merchantId, userId, amount, issuedAt, expiresAt, eligible, vendors);
+        }
+
+        private static int encodedLength(HandoffToken token) {
+                if (token.eligible().size() > 255 || token.vendorShortlist().size() > 255) {
+                        throw new IllegalArgumentException("Too many entries for a handoff token");
+                }
+                int length = 1 + 8 + 8 + 16 * 3 + 8 + 1 + utf8Length(token.amount().currency()) + 1 + 1;
+                for (HandoffToken.EligibleInstrument instrument : token.eligible()) {
+                        length += 16 + 1 + utf8Length(instrument.methodId());
+                }
+                for (String vendorId : token.vendorShortlist()) {
+                        length += 1 + utf8Length(vendorId);
+                }
+                return length;
+        }
+
+        private static int utf8Length(String value) {
+                int length = value.getBytes(StandardCharsets.UTF_8).length;
+                if (length > 255) {
+                        throw new IllegalArgumentException("Identifier too long for a handoff token: " + value);
+                }
+                return length;
+        }
+
+        private static void putUuid(ByteBuffer buffer, UUID uuid) {
+                buffer.putLong(uuid.getMostSignificantBits());
+                buffer.putLong(uuid.getLeastSignificantBits());
+        }
+
+        private static UUID getUuid(ByteBuffer buffer) {
+                return new UUID(buffer.getLong(), buffer.getLong());
+        }
+
+        private static void putString(ByteBuffer buffer, String value) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                buffer.put((byte) bytes.length);
+                buffer.put(bytes);
+        }
+
+        private static String getString(ByteBuffer buffer) {
+                byte[] bytes = new byte[Byte.toUnsignedInt(buffer.get())];
+                buffer.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static SecretKeySpec key(String base64) {
+                return new SecretKeySpec(Base64.getDecoder().decode(base64), ALGORITHM);
+        }
+
+        private static Mac newMac(SecretKeySpec key) {
+                try {
+                        Mac mac = Mac.getInstance(ALGORITHM);
+                        mac.init(key);
+                        return mac;
+                } catch (GeneralSecurityException e) {
+                        throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+                }
+        }
+}
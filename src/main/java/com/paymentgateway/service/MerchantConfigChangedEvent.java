@@ -0,0 +1,9 @@
+package com.paymentgateway.service;
+
+import java.util.UUID;
+
+/**
+ * Published after a merchant's payment configuration was saved.
+ */
+public record MerchantConfigChangedEvent(UUID merchantId) {
+}
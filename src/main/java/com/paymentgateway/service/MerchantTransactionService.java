@@ -0,0 +1,86 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.generated.model.MerchantTransactionPage;
+import com.paymentgateway.generated.model.MerchantTransactionSummary;
+import com.paymentgateway.model.TransactionStatus;
+import com.paymentgateway.repository.MerchantTransactionQueryRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Merchant-facing transaction listing with keyset pagination.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MerchantTransactionService {
+
+        static final int DEFAULT_LIMIT = 50;
+        static final int MAX_LIMIT = 500;
+        static final Duration DEFAULT_RANGE = Duration.ofDays(30);
+
+        private final MerchantTransactionQueryRepository queryRepository;
+
+        @Timed(value = "service.execution", extraTags = { "domain", "merchant", "service",
+                        "MerchantTransactionService", "method", "listTransactions" })
+        @Counted(value = "service.execution.count", extraTags = { "domain", "merchant", "service",
+                        "MerchantTransactionService", "method", "listTransactions" })
+        @Transactional(readOnly = true)
+        public MerchantTransactionPage listTransactions(UUID merchantId, ZonedDateTime from, ZonedDateTime to,
+                        String status, Integer limit, String cursor) {
+
+                ZonedDateTime rangeEnd = to != null ? to : ZonedDateTime.now();
+                ZonedDateTime rangeStart = from != null ? from : rangeEnd.minus(DEFAULT_RANGE);
+                if (!rangeStart.isBefore(rangeEnd)) {
+                        throw new InvalidRequestException("'from' must be before 'to'");
+                }
+                TransactionStatus statusFilter = status != null ? parseStatus(status) : null;
+                int pageSize = limit != null ? Math.min(Math.max(limit, 1), MAX_LIMIT) : DEFAULT_LIMIT;
+                TransactionCursor after = cursor != null ? TransactionCursor.decode(cursor) : null;
+
+                log.debug("Listing transactions - merchantId: {}, from: {}, to: {}, status: {}, limit: {}",
+                                merchantId, rangeStart, rangeEnd, status, pageSize);
+
+                // One extra row tells whether another page exists without a COUNT.
+                List<MerchantTransactionSummary> rows = queryRepository.findPage(merchantId,
+                                toLocal(rangeStart), toLocal(rangeEnd), statusFilter,
+                                after != null ? after.createdAt() : null,
+                                after != null ? after.txnId() : null,
+                                pageSize + 1);
+
+                MerchantTransactionPage page = new MerchantTransactionPage();
+                if (rows.size() > pageSize) {
+                        rows = rows.subList(0, pageSize);
+                        MerchantTransactionSummary last = rows.get(pageSize - 1);
+                        page.setNextCursor(new TransactionCursor(last.getCreatedAt().toLocalDateTime(),
+                                        last.getTxnId()).encode());
+                }
+                page.setTransactions(rows);
+                return page;
+        }
+
+        private static TransactionStatus parseStatus(String status) {
+                try {
+                        return TransactionStatus.valueOf(status);
+                } catch (IllegalArgumentException e) {
+                        throw new InvalidRequestException("Unknown status: " + status);
+                }
+        }
+
+        // created_at is stored as a local timestamp in the JVM zone.
+        private static LocalDateTime toLocal(ZonedDateTime time) {
+                return time.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+}
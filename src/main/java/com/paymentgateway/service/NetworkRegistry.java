@@ -0,0 +1,120 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.model.PaymentNetwork;
+import com.paymentgateway.repository.PaymentNetworkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns each payment network a bit, so a set of networks is a {@code long}
+ * mask and a membership check is one AND.
+ * <p>
+ * Assignments live in the {@code networks} table; adding a network is a new
+ * row with the next free bit. The table is read on first use, on startup and
+ * every {@code payment.networks.refresh-interval}.
+ */
+@Component
+@Slf4j
+public class NetworkRegistry {
+
+        private final PaymentNetworkRepository repository;
+        private volatile Snapshot snapshot;
+
+        public NetworkRegistry(PaymentNetworkRepository repository) {
+                this.repository = repository;
+        }
+
+        /**
+         * @return the network's bit, or 0 for null and unknown networks
+         */
+        public long bitOf(String network) {
+                if (network == null) {
+                        return 0L;
+                }
+                Long bit = snapshot().bits().get(network);
+                return bit != null ? bit : 0L;
+        }
+
+        public boolean contains(long mask, String network) {
+                return (mask & bitOf(network)) != 0;
+        }
+
+        /**
+         * @throws InvalidRequestException if a name is not a registered network
+         */
+        public long maskOf(Collection<String> networks) {
+                long mask = 0L;
+                for (String network : networks) {
+                        long bit = bitOf(network);
+                        if (bit == 0L) {
+                                throw new InvalidRequestException("Unknown network: " + network);
+                        }
+                        mask |= bit;
+                }
+                return mask;
+        }
+
+        /**
+         * @return the names of the networks in the mask, in bit order
+         */
+        public List<String> namesOf(long mask) {
+                String[] names = snapshot().names();
+                List<String> networks = new ArrayList<>(Long.bitCount(mask));
+                for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+                        String name = names[Long.numberOfTrailingZeros(remaining)];
+                        if (name != null) {
+                                networks.add(name);
+                        }
+                }
+                return networks;
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        @Scheduled(fixedDelayString = "${payment.networks.refresh-interval:5m}",
+                        initialDelayString = "${payment.networks.refresh-interval:5m}")
+        public void reload() {
+                try {
+                        snapshot = load();
+                } catch (Exception e) {
+                        log.error("Network registry reload failed, keeping the current assignments", e);
+                }
+        }
+
+        private Snapshot snapshot() {
+                Snapshot current = snapshot;
+                if (current == null) {
+                        current = load();
+                        snapshot = current;
+                }
+                return current;
+        }
+
+        private Snapshot load() {
+                Map<String, Long> bits = new HashMap<>();
+                String[] names = new String[Long.SIZE];
+                for (PaymentNetwork network : repository.findAll()) {
+                        int index = network.getBitIndex();
+                        if (index < 0 || index >= Long.SIZE || names[index] != null) {
+                                log.error("Ignoring network {}: bit {} is out of range or already taken",
+                                                network.getName(), index);
+                                continue;
+                        }
+                        names[index] = network.getName();
+                        bits.put(network.getName(), 1L << index);
+                }
+                return new Snapshot(Map.copyOf(bits), names);
+        }
+
+        private record Snapshot(Map<String, Long> bits, String[] names) {
+        }
+}
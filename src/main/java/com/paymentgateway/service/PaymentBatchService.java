@@ -0,0 +1,538 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.admission.AdmissionPriority;
+import com.paymentgateway.admission.MerchantRateLimiter;
+import com.paymentgateway.config.PaymentBatchProperties;
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.generated.model.PaymentRequest;
+import com.paymentgateway.generated.model.PaymentResponse;
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+import com.paymentgateway.logging.LogMarkers;
+import com.paymentgateway.logging.RequestLogContext;
+import com.paymentgateway.model.FailureCode;
+import com.paymentgateway.model.Money;
+import com.paymentgateway.model.Transaction;
+import com.paymentgateway.model.TransactionStatus;
+import com.paymentgateway.model.VendorHealth;
+import com.paymentgateway.repository.TransactionBatchRepository;
+import com.paymentgateway.service.impl.VendorExecutionResult;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pays a batch of payments in stages, doing once per batch what the single
+ * payment path does once per payment:
+ * <ol>
+ * <li>validation, handoff checks and idempotency, per payment and exactly as
+ * {@link PaymentService} does them; a rejected payment gets its own result
+ * and the rest carry on</li>
+ * <li>attempt counters in one pipelined Redis round trip</li>
+ * <li>routing: the available vendors are ranked once for the batch, and only
+ * payments with a checkout shortlist or an earlier failed vendor are routed
+ * on their own</li>
+ * <li>INITIATED rows, and the rows of payments failed before routing, in one
+ * JDBC batch</li>
+ * <li>vendor calls on a shared pool, through {@link VendorDispatchScheduler}
+ * so per-vendor limits and merchant fair queuing hold as for single payments,
+ * with at most {@code concurrency} calls in flight per batch</li>
+ * <li>finished payments in groups of up to {@code flush-size}: one JDBC batch
+ * update, one pipelined Redis write of their statuses, then their results</li>
+ * </ol>
+ * A paymentId may appear once per batch; repeats are rejected so a payment is
+ * never attempted twice at the same time.
+ * <p>
+ * Batches are admitted like single payments: every payment is charged to its
+ * merchant's payment rate ({@link MerchantRateLimiter}) and gets
+ * {@code Too Many Requests} once the merchant is over it. A node runs at most
+ * {@code max-concurrent-batches} batches, and
+ * {@code max-concurrent-batches-per-merchant} per merchant, at a time (see
+ * {@link #admit}).
+ */
+@Service
+@Slf4j
+public class PaymentBatchService {
+
+        private final PaymentService paymentService;
+        private final VendorAvailabilityService vendorAvailabilityService;
+        private final VendorRouter vendorRouter;
+        private final BlockListService blockListService;
+        private final RetryStateStore retryStateStore;
+        private final TransactionBatchRepository transactionBatchRepository;
+        private final PaymentStatusStore paymentStatusStore;
+        private final PaymentStatusLookup paymentStatusLookup;
+        private final VendorExecutionService vendorExecutionService;
+        private final VendorDispatchScheduler vendorDispatchScheduler;
+        private final Validator validator;
+        private final PaymentBatchProperties properties;
+        private final MerchantRateLimiter merchantRateLimiter;
+        private final ThreadPoolExecutor executor;
+        private final Semaphore runningBatches;
+        private final Map<UUID, Integer> runningByMerchant = new ConcurrentHashMap<>();
+
+        public PaymentBatchService(PaymentService paymentService,
+                        VendorAvailabilityService vendorAvailabilityService,
+                        VendorRouter vendorRouter,
+                        BlockListService blockListService,
+                        RetryStateStore retryStateStore,
+                        TransactionBatchRepository transactionBatchRepository,
+                        PaymentStatusStore paymentStatusStore,
+                        PaymentStatusLookup paymentStatusLookup,
+                        VendorExecutionService vendorExecutionService,
+                        VendorDispatchScheduler vendorDispatchScheduler,
+                        Validator validator,
+                        PaymentBatchProperties properties,
+                        ObjectProvider<MerchantRateLimiter> merchantRateLimiter,
+                        MeterRegistry meterRegistry) {
+                this.paymentService = paymentService;
+                this.vendorAvailabilityService = vendorAvailabilityService;
+                this.vendorRouter = vendorRouter;
+                this.blockListService = blockListService;
+                this.retryStateStore = retryStateStore;
+                this.transactionBatchRepository = transactionBatchRepository;
+                this.paymentStatusStore = paymentStatusStore;
+                this.paymentStatusLookup = paymentStatusLookup;
+                this.vendorExecutionService = vendorExecutionService;
+                this.vendorDispatchScheduler = vendorDispatchScheduler;
+                this.validator = validator;
+                this.properties = properties;
+                // Absent when admission control is off
+                this.merchantRateLimiter = merchantRateLimiter.getIfAvailable();
+                this.runningBatches = new Semaphore(properties.getMaxConcurrentBatches());
+                AtomicInteger threads = new AtomicInteger();
+                // Every admitted batch keeps at most concurrency calls queued or running
+                int queueCapacity = properties.getMaxConcurrentBatches() * properties.getConcurrency();
+                this.executor = new ThreadPoolExecutor(properties.getDispatchThreads(), properties.getDispatchThreads(),
+                                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                                        Thread thread = new Thread(runnable,
+                                                        "payment-batch-" + threads.incrementAndGet());
+                                        thread.setDaemon(true);
+                                        return thread;
+                                });
+                // Idle between batches
+                this.executor.allowCoreThreadTimeOut(true);
+                new ExecutorServiceMetrics(executor, "payment.batch", Tags.empty()).bindTo(meterRegistry);
+        }
+
+        @PreDestroy
+        public void shutdown() {
+                executor.shutdownNow();
+        }
+
+        /**
+         * Claims a place for the batch among those running on this node. Close
+         * the permit once the batch is done.
+         *
+         * @return null if the node, or a merchant with payments in the batch,
+         *         already runs as many batches as allowed
+         */
+        public BatchPermit admit(List<BatchPayment> payments) {
+                Set<UUID> merchantIds = new HashSet<>();
+                for (BatchPayment payment : payments) {
+                        if (payment != null && payment.payment() != null && payment.payment().getMerchant() != null) {
+                                merchantIds.add(payment.payment().getMerchant().getMerchantId());
+                        }
+                }
+                merchantIds.remove(null);
+                if (!runningBatches.tryAcquire()) {
+                        return null;
+                }
+                List<UUID> claimed = new ArrayList<>(merchantIds.size());
+                for (UUID merchantId : merchantIds) {
+                        Integer running = runningByMerchant.merge(merchantId, 1, Integer::sum);
+                        claimed.add(merchantId);
+                        if (running > properties.getMaxConcurrentBatchesPerMerchant()) {
+                                new BatchPermit(claimed).close();
+                                return null;
+                        }
+                }
+                return new BatchPermit(claimed);
+        }
+
+        /**
+         * Pays every payment in the batch and hands each result to {@code sink}
+         * as soon as it is known, so results arrive out of order. Every payment
+         * gets exactly one result; {@code sink} is only called on this thread.
+         */
+        @Timed(value = "service.execution", extraTags = { "domain", "payment", "service", "PaymentBatchService",
+                        "method", "processBatch" })
+        @Counted(value = "service.execution.count", extraTags = { "domain", "payment", "service",
+                        "PaymentBatchService", "method", "processBatch" })
+        public void processBatch(List<BatchPayment> payments, Consumer<BatchPayment.Result> sink) {
+                List<Attempt> attempts = validate(payments, sink);
+                retryStateStore.recordAttempts(attempts.stream().map(Attempt::paymentId).toList());
+
+                Routes routes = new Routes();
+                List<Attempt> dispatches = new ArrayList<>(attempts.size());
+                List<Attempt> rejected = new ArrayList<>();
+                for (Attempt attempt : attempts) {
+                        try (RequestLogContext ignored = attempt.logContext()) {
+                                PaymentResponse previous = paymentService.previousOutcome(attempt.paymentId());
+                                if (previous != null) {
+                                        sink.accept(BatchPayment.Result.of(attempt.index, previous));
+                                        continue;
+                                }
+                                if (blockListService.isBlocked(BlockTarget.INSTRUMENT,
+                                                attempt.request.getInstrument().getInstrumentId())) {
+                                        attempt.reject(FailureCode.INSTRUMENT_BLOCKED,
+                                                        VendorExecutionResult.FailureType.INSTRUMENT_DECLINE);
+                                        rejected.add(attempt);
+                                        continue;
+                                }
+                                String vendorId = route(attempt, routes);
+                                if (vendorId == null) {
+                                        attempt.reject(FailureCode.NO_VENDOR_AVAILABLE, null);
+                                        rejected.add(attempt);
+                                        continue;
+                                }
+                                attempt.initiate(vendorId);
+                                dispatches.add(attempt);
+                        }
+                }
+
+                List<Transaction> inserts = new ArrayList<>(dispatches.size() + rejected.size());
+                rejected.forEach(attempt -> inserts.add(attempt.txn));
+                dispatches.forEach(attempt -> inserts.add(attempt.txn));
+                try {
+                        transactionBatchRepository.insertAll(inserts);
+                } catch (RuntimeException e) {
+                        log.error("Failed to insert {} batch transactions", inserts.size(), e);
+                        rejected.forEach(attempt -> sink.accept(attempt.error(e)));
+                        dispatches.forEach(attempt -> sink.accept(attempt.error(e)));
+                        return;
+                }
+                for (Attempt attempt : rejected) {
+                        paymentService.remember(attempt.txn);
+                        paymentStatusLookup.invalidate(attempt.paymentId());
+                        sink.accept(attempt.result());
+                }
+
+                dispatch(dispatches, sink);
+                log.info(LogMarkers.PAYMENT, "Batch processed - payments: {}, attempted: {}, vendor calls: {}",
+                                payments.size(), attempts.size(), dispatches.size());
+        }
+
+        private List<Attempt> validate(List<BatchPayment> payments, Consumer<BatchPayment.Result> sink) {
+                List<Attempt> attempts = new ArrayList<>(payments.size());
+                Set<UUID> seen = new HashSet<>();
+                for (int index = 0; index < payments.size(); index++) {
+                        BatchPayment payment = payments.get(index);
+                        PaymentRequest request = payment != null ? payment.payment() : null;
+                        UUID paymentId = request != null ? request.getPaymentId() : null;
+                        String violation = violation(payment);
+                        if (violation != null) {
+                                sink.accept(BatchPayment.Result.rejected(index, paymentId, violation));
+                                continue;
+                        }
+                        if (!seen.add(paymentId)) {
+                                sink.accept(BatchPayment.Result.rejected(index, paymentId,
+                                                "paymentId appears more than once in the batch"));
+                                continue;
+                        }
+                        if (merchantRateLimiter != null && merchantRateLimiter.tryAcquire(
+                                        request.getMerchant().getMerchantId(), AdmissionPriority.PAYMENT) > 0) {
+                                sink.accept(BatchPayment.Result.throttled(index, paymentId));
+                                continue;
+                        }
+                        try (RequestLogContext ignored = RequestLogContext.payment(paymentId,
+                                        request.getMerchant().getMerchantId())) {
+                                Money amount = PaymentService.amountOf(request);
+                                HandoffToken handoff = paymentService.verifyHandoff(request, payment.userId(), amount);
+                                attempts.add(new Attempt(index, payment.userId(), request, amount, handoff));
+                        } catch (InvalidRequestException e) {
+                                sink.accept(BatchPayment.Result.rejected(index, paymentId, e.getMessage()));
+                        }
+                }
+                return attempts;
+        }
+
+        // What request validation would have rejected on POST /payment/pay
+        private String violation(BatchPayment payment) {
+                if (payment == null || payment.payment() == null) {
+                        return "payment is required";
+                }
+                if (payment.userId() == null) {
+                        return "userId is required";
+                }
+                Set<ConstraintViolation<PaymentRequest>> violations = validator.validate(payment.payment());
+                if (violations.isEmpty()) {
+                        return null;
+                }
+                ConstraintViolation<PaymentRequest> first = violations.iterator().next();
+                return first.getPropertyPath() + " " + first.getMessage();
+        }
+
+        /**
+         * The same vendor PaymentService would pick, without ranking the
+         * available vendors again for every payment.
+         */
+        private String route(Attempt attempt, Routes routes) {
+                Set<String> excludedVendors = paymentService.excludedVendors(attempt.paymentId());
+                if (paymentService.hasFreshShortlist(attempt.handoff)) {
+                        for (String vendorId : attempt.handoff.vendorShortlist()) {
+                                if (!excludedVendors.contains(vendorId)
+                                                && !blockListService.isBlocked(BlockTarget.VENDOR, vendorId)) {
+                                        return vendorId;
+                                }
+                        }
+                        return null;
+                }
+                if (excludedVendors.isEmpty()) {
+                        VendorRouter.Ranking ranking = routes.ranking();
+                        return ranking != null ? ranking.select(attempt.amount.minorUnits()) : null;
+                }
+                List<VendorHealth> remaining = routes.available().stream()
+                                .filter(v -> !excludedVendors.contains(v.getVendorId()))
+                                .toList();
+                return remaining.isEmpty() ? null
+                                : vendorRouter.selectVendor(remaining, attempt.amount.minorUnits()).getVendorId();
+        }
+
+        private void dispatch(List<Attempt> dispatches, Consumer<BatchPayment.Result> sink) {
+                BlockingQueue<Attempt> finished = new LinkedBlockingQueue<>();
+                List<Attempt> group = new ArrayList<>(properties.getFlushSize());
+                boolean interrupted = false;
+                int next = 0;
+                int inFlight = 0;
+                while (next < dispatches.size() || inFlight > 0) {
+                        while (!interrupted && next < dispatches.size() && inFlight < properties.getConcurrency()) {
+                                submit(dispatches.get(next++), finished);
+                                inFlight++;
+                        }
+                        if (interrupted) {
+                                // Never sent, so as safe to retry as a call that timed out waiting for a slot
+                                while (next < dispatches.size()) {
+                                        Attempt attempt = dispatches.get(next++);
+                                        attempt.fail(FailureCode.VENDOR_BUSY, "Batch cancelled before the vendor call",
+                                                        VendorExecutionResult.FailureType.VENDOR_ERROR);
+                                        group.add(attempt);
+                                }
+                        }
+                        if (inFlight > 0) {
+                                try {
+                                        group.add(finished.take());
+                                } catch (InterruptedException e) {
+                                        // Calls already sent still get their outcome persisted
+                                        interrupted = true;
+                                        continue;
+                                }
+                                inFlight -= 1 + finished.drainTo(group,
+                                                Math.max(0, properties.getFlushSize() - group.size()));
+                        }
+                        flush(group, sink);
+                        group.clear();
+                }
+                if (interrupted) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+
+        private void submit(Attempt attempt, BlockingQueue<Attempt> finished) {
+                try {
+                        executor.execute(() -> {
+                                try (RequestLogContext ignored = attempt.logContext()) {
+                                        call(attempt);
+                                } finally {
+                                        finished.add(attempt);
+                                }
+                        });
+                } catch (RejectedExecutionException e) {
+                        attempt.fail(FailureCode.VENDOR_BUSY, "Batch dispatch rejected the vendor call",
+                                        VendorExecutionResult.FailureType.VENDOR_ERROR);
+                        finished.add(attempt);
+                }
+        }
+
+        private void call(Attempt attempt) {
+                Transaction txn = attempt.txn;
+                try {
+                        VendorExecutionResult result = vendorDispatchScheduler.dispatch(txn.getVendorId(),
+                                        txn.getMerchantId(),
+                                        () -> vendorExecutionService.executeVendorPayment(txn.getVendorId(),
+                                                        attempt.request));
+                        if (result.isSuccess()) {
+                                PaymentService.succeed(txn);
+                        } else {
+                                paymentService.recordFailure(txn, result.getFailureType());
+                                attempt.fail(PaymentService.failureCode(result.getFailureType()),
+                                                result.getFailureReason(), result.getFailureType());
+                        }
+                } catch (VendorDispatchScheduler.VendorBusyException e) {
+                        log.warn(LogMarkers.PAYMENT, "Vendor call not sent - {}", e.getMessage());
+                        attempt.fail(FailureCode.VENDOR_BUSY, e.getMessage(),
+                                        VendorExecutionResult.FailureType.VENDOR_ERROR);
+                } catch (RuntimeException e) {
+                        // As on the single path: the outcome is unknown, so the attempt stays INITIATED
+                        log.error(LogMarkers.PAYMENT, "Vendor call failed", e);
+                        attempt.exception = e;
+                }
+        }
+
+        private void flush(List<Attempt> group, Consumer<BatchPayment.Result> sink) {
+                if (group.isEmpty()) {
+                        return;
+                }
+                List<Transaction> outcomes = new ArrayList<>(group.size());
+                for (Attempt attempt : group) {
+                        if (attempt.exception == null) {
+                                outcomes.add(attempt.txn);
+                        }
+                }
+                try {
+                        transactionBatchRepository.updateOutcomes(outcomes);
+                } catch (RuntimeException e) {
+                        log.error("Failed to persist {} batch payment outcomes", outcomes.size(), e);
+                        group.forEach(attempt -> sink.accept(attempt.error(e)));
+                        return;
+                }
+
+                List<PaymentStatusResponse> statuses = new ArrayList<>(outcomes.size());
+                for (Transaction txn : outcomes) {
+                        paymentService.remember(txn);
+                        statuses.add(paymentService.statusOf(txn));
+                }
+                try {
+                        paymentStatusStore.saveAll(statuses);
+                } catch (Exception e) {
+                        log.error("Failed to save payment statuses to Redis", e);
+                }
+                outcomes.forEach(txn -> paymentStatusLookup.invalidate(txn.getPaymentId()));
+                group.forEach(attempt -> sink.accept(attempt.result()));
+        }
+
+        /**
+         * A batch's place on this node, taken by {@link #admit}.
+         */
+        public final class BatchPermit implements AutoCloseable {
+
+                private final List<UUID> merchantIds;
+                private boolean closed;
+
+                private BatchPermit(List<UUID> merchantIds) {
+                        this.merchantIds = merchantIds;
+                }
+
+                @Override
+                public synchronized void close() {
+                        if (closed) {
+                                return;
+                        }
+                        closed = true;
+                        for (UUID merchantId : merchantIds) {
+                                runningByMerchant.computeIfPresent(merchantId,
+                                                (id, running) -> running > 1 ? running - 1 : null);
+                        }
+                        runningBatches.release();
+                }
+        }
+
+        // Vendors available to this batch, ranked on first use
+        private final class Routes {
+
+                private List<VendorHealth> available;
+                private VendorRouter.Ranking ranking;
+
+                List<VendorHealth> available() {
+                        if (available == null) {
+                                available = vendorAvailabilityService.getAvailableVendors().stream()
+                                                .filter(v -> !blockListService.isBlocked(BlockTarget.VENDOR,
+                                                                v.getVendorId()))
+                                                .toList();
+                        }
+                        return available;
+                }
+
+                VendorRouter.Ranking ranking() {
+                        if (ranking == null && !available().isEmpty()) {
+                                ranking = vendorRouter.ranking(available());
+                        }
+                        return ranking;
+                }
+        }
+
+        private final class Attempt {
+
+                private final int index;
+                private final UUID userId;
+                private final PaymentRequest request;
+                private final Money amount;
+                private final HandoffToken handoff;
+                private Transaction txn;
+                private VendorExecutionResult.FailureType failureType;
+                private RuntimeException exception;
+
+                private Attempt(int index, UUID userId, PaymentRequest request, Money amount, HandoffToken handoff) {
+                        this.index = index;
+                        this.userId = userId;
+                        this.request = request;
+                        this.amount = amount;
+                        this.handoff = handoff;
+                }
+
+                UUID paymentId() {
+                        return request.getPaymentId();
+                }
+
+                RequestLogContext logContext() {
+                        return RequestLogContext.payment(paymentId(), request.getMerchant().getMerchantId());
+                }
+
+                void initiate(String vendorId) {
+                        txn = PaymentService.newTransaction(paymentId(), userId, request, amount,
+                                        TransactionStatus.INITIATED);
+                        txn.setVendorId(vendorId);
+                        txn.setUpdatedAt(txn.getCreatedAt());
+                }
+
+                void reject(FailureCode failureCode, VendorExecutionResult.FailureType failureType) {
+                        txn = PaymentService.newTransaction(paymentId(), userId, request, amount,
+                                        TransactionStatus.FAILED);
+                        txn.setFailureCode(failureCode);
+                        txn.setUpdatedAt(txn.getCreatedAt());
+                        this.failureType = failureType;
+                }
+
+                void fail(FailureCode failureCode, String failureDetail,
+                                VendorExecutionResult.FailureType failureType) {
+                        PaymentService.fail(txn, failureCode, failureDetail);
+                        this.failureType = failureType;
+                }
+
+                BatchPayment.Result result() {
+                        if (exception != null) {
+                                return error(exception);
+                        }
+                        return BatchPayment.Result.of(index,
+                                        paymentService.buildResponse(paymentId(), txn, failureType));
+                }
+
+                BatchPayment.Result error(RuntimeException e) {
+                        return BatchPayment.Result.failed(index, paymentId(), e.getMessage());
+                }
+        }
+}
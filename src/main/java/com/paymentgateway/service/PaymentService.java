@@ -1,9 +1,19 @@
 package com.paymentgateway.service;
 
+import com.paymentgateway.config.HandoffTokenProperties;
+import com.paymentgateway.exception.InvalidRequestException;
 import com.paymentgateway.generated.model.PaymentRequest;
 import com.paymentgateway.generated.model.PaymentResponse;
 import com.paymentgateway.generated.model.PaymentStatusResponse;
+import com.paymentgateway.jfr.TransactionPersistedEvent;
+import com.paymentgateway.jfr.VendorCallEvent;
+import com.paymentgateway.jfr.VendorSelectedEvent;
+import com.paymentgateway.logging.LogMarkers;
+import com.paymentgateway.model.FailureCode;
+import com.paymentgateway.model.Money;
+import com.paymentgateway.model.TimeOrderedUuid;
 import com.paymentgateway.model.Transaction;
+import com.paymentgateway.model.TransactionStatus;
 import com.paymentgateway.model.VendorHealth;
 import com.paymentgateway.repository.TransactionRepository;
 import com.paymentgateway.service.impl.VendorExecutionResult;
@@ -12,11 +22,9 @@ import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.concurrent.TimeUnit;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -28,13 +36,19 @@ import java.util.stream.Collectors;
 public class PaymentService {
 
         private final VendorAvailabilityService vendorAvailabilityService;
-        private final PricingService pricingService;
+        private final VendorRouter vendorRouter;
         private final TransactionRepository transactionRepository;
         private final MerchantConfigService merchantConfigService;
         private final CheckoutService checkoutService;
-        private final StringRedisTemplate redisTemplate;
-        private final ObjectMapper objectMapper;
+        private final RetryStateStore retryStateStore;
+        private final PaymentStatusStore paymentStatusStore;
+        private final PaymentStatusLookup paymentStatusLookup;
         private final VendorExecutionService vendorExecutionService;
+        private final VendorDispatchScheduler vendorDispatchScheduler;
+        private final StageTimer stageTimer;
+        private final HandoffTokenService handoffTokenService;
+        private final HandoffTokenProperties handoffTokenProperties;
+        private final BlockListService blockListService;
 
         // In-memory cache for payment idempotency (in production, use Redis/Database)
         // Maps paymentId -> Transaction
@@ -52,151 +66,192 @@ public class PaymentService {
         @Counted(value = "service.execution.count", extraTags = { "domain", "payment", "service", "PaymentService",
                         "method", "processPayment" })
         public PaymentResponse processPayment(PaymentRequest request, UUID userId) {
+                long requestStart = System.nanoTime();
+                StageTimer.Split split = stageTimer.split();
+                try {
+                        return executePayment(request, userId, split);
+                } finally {
+                        split.record();
+                        stageTimer.record(PipelineStage.PAYMENT_TOTAL, requestStart);
+                }
+        }
+
+        private PaymentResponse executePayment(PaymentRequest request, UUID userId, StageTimer.Split split) {
                 UUID paymentId = request.getPaymentId();
 
-                log.info("Processing payment - userId: {}, merchantId: {}, paymentId: {}",
-                                userId, request.getMerchant().getMerchantId(), paymentId);
+                // paymentId and merchantId are in the MDC (RequestLogContext)
+                log.info(LogMarkers.PAYMENT, "Processing payment - userId: {}", userId);
+
+                Money amount = amountOf(request);
+
+                // Validation: the checkout handoff token proves the instrument was eligible for this user
+                long stageStart = System.nanoTime();
+                HandoffToken handoff = verifyHandoff(request, userId, amount);
+                stageStart = split.lap(PipelineStage.PAYMENT_HANDOFF, stageStart);
 
                 // Increment retry count
-                String retryKey = "payment:retry:" + paymentId;
-                redisTemplate.opsForValue().increment(retryKey);
-                redisTemplate.expire(retryKey, 24, TimeUnit.HOURS);
+                retryStateStore.recordAttempt(paymentId);
+                split.lap(PipelineStage.PAYMENT_RETRY_COUNTER, stageStart);
 
                 // IDEMPOTENCY: Check if payment already processed for this paymentId
-                if (paymentCache.containsKey(paymentId)) {
-                        Transaction existingTxn = paymentCache.get(paymentId);
-
-                        // If payment was successful, return the cached result
-                        if ("SUCCESS".equals(existingTxn.getStatus())) {
-                                log.info("Payment already successful for paymentId: {}, txnId: {}",
-                                                paymentId, existingTxn.getTxnId());
-                                return buildResponse(paymentId, existingTxn);
-                        }
-
-                        // If payment failed, check if we should retry
-                        if ("FAILED".equals(existingTxn.getStatus())) {
-                                String failureReason = existingTxn.getFailureReason();
-
-                                // Retry only for vendor/instrument failures, not for validation failures
-                                if (isRetryableFailure(failureReason)) {
-                                        log.info("Retrying failed payment - paymentId: {}, previousFailure: {}",
-                                                        paymentId, failureReason);
-                                        // Continue with retry logic below
-                                } else {
-                                        log.info("Payment failed with non-retryable error - paymentId: {}, reason: {}",
-                                                        paymentId, failureReason);
-                                        return buildResponse(paymentId, existingTxn);
-                                }
-                        }
+                PaymentResponse previous = previousOutcome(paymentId);
+                if (previous != null) {
+                        return previous;
+                }
 
-                        // If payment is PENDING, return the pending status
-                        if ("PENDING".equals(existingTxn.getStatus())) {
-                                log.info("Payment still pending - paymentId: {}, txnId: {}",
-                                                paymentId, existingTxn.getTxnId());
-                                return buildResponse(paymentId, existingTxn);
-                        }
+                // Instruments blocked after repeated failures are rejected before routing
+                if (blockListService.isBlocked(BlockTarget.INSTRUMENT, request.getInstrument().getInstrumentId())) {
+                        log.info(LogMarkers.PAYMENT, "Instrument blocked - instrumentId: {}",
+                                        request.getInstrument().getInstrumentId());
+                        Transaction failedTxn = createFailedTransaction(paymentId, userId, request, amount,
+                                        FailureCode.INSTRUMENT_BLOCKED);
+                        remember(failedTxn);
+                        paymentStatusLookup.invalidate(paymentId);
+                        return buildResponse(paymentId, failedTxn,
+                                        VendorExecutionResult.FailureType.INSTRUMENT_DECLINE);
                 }
 
-                // Smart Routing with vendor exclusion for retries
-                List<VendorHealth> candidates = vendorAvailabilityService.getAvailableVendors();
+                // Smart Routing with vendor exclusion for retries and block-listed vendors
+                stageStart = System.nanoTime();
+                VendorSelectedEvent selectedEvent = new VendorSelectedEvent();
+                selectedEvent.begin();
+                Set<String> excludedVendors = excludedVendors(paymentId);
+                String selectedVendorId;
+                int candidateCount;
+                int availableCount;
+                if (hasFreshShortlist(handoff)) {
+                        // Ranked at checkout; the first vendor not yet failed for this payment
+                        List<String> remaining = handoff.vendorShortlist().stream()
+                                        .filter(v -> !excludedVendors.contains(v)
+                                                        && !blockListService.isBlocked(BlockTarget.VENDOR, v))
+                                        .collect(Collectors.toList());
+                        candidateCount = handoff.vendorShortlist().size();
+                        availableCount = remaining.size();
+                        selectedVendorId = remaining.isEmpty() ? null : remaining.get(0);
+                } else {
+                        List<VendorHealth> candidates = vendorAvailabilityService.getAvailableVendors();
+
+                        // Exclude vendors that have already failed for this payment
+                        List<VendorHealth> availableVendors = candidates.stream()
+                                        .filter(v -> !excludedVendors.contains(v.getVendorId())
+                                                        && !blockListService.isBlocked(BlockTarget.VENDOR,
+                                                                        v.getVendorId()))
+                                        .collect(Collectors.toList());
+                        candidateCount = candidates.size();
+                        availableCount = availableVendors.size();
+
+                        // Sort by Uptime (DESC), Error Rate (ASC), Fee (ASC)
+                        selectedVendorId = availableVendors.isEmpty() ? null
+                                        : vendorRouter.selectVendor(availableVendors, amount.minorUnits())
+                                                        .getVendorId();
+                }
 
-                // Exclude vendors that have already failed for this payment
-                Set<String> excludedVendors = failedVendors.getOrDefault(paymentId, new HashSet<>());
-                List<VendorHealth> availableVendors = candidates.stream()
-                                .filter(v -> !excludedVendors.contains(v.getVendorId()))
-                                .collect(Collectors.toList());
+                if (log.isDebugEnabled()) {
+                        log.debug("Found {} available vendor candidates ({} excluded for retry)",
+                                        availableCount, excludedVendors.size());
+                }
 
-                log.debug("Found {} available vendor candidates ({} excluded for retry)",
-                                availableVendors.size(), excludedVendors.size());
+                split.lap(PipelineStage.PAYMENT_ROUTING, stageStart);
+                commitVendorSelected(selectedEvent, paymentId, candidateCount, candidateCount - availableCount,
+                                selectedVendorId);
 
-                if (availableVendors.isEmpty()) {
+                if (selectedVendorId == null) {
                         Transaction failedTxn = createFailedTransaction(
-                                        paymentId, userId, request,
-                                        "No payment vendors available (all vendors exhausted)",
-                                        VendorExecutionResult.FailureType.VENDOR_ERROR);
-                        paymentCache.put(paymentId, failedTxn);
+                                        paymentId, userId, request, amount,
+                                        FailureCode.NO_VENDOR_AVAILABLE);
+                        remember(failedTxn);
+                        paymentStatusLookup.invalidate(paymentId);
                         return buildResponse(paymentId, failedTxn);
                 }
 
-                // Sort by Uptime (DESC), Error Rate (ASC), Fee (ASC)
-                VendorHealth selectedVendor = availableVendors.stream()
-                                .sorted(Comparator.comparing(VendorHealth::getUptimeScore).reversed()
-                                                .thenComparing(VendorHealth::getErrorRate)
-                                                .thenComparing(v -> pricingService.calculateFee(v.getVendorId(),
-                                                                request.getPayment().getAmount())))
-                                .findFirst()
-                                .orElseThrow();
-
-                log.info("Selected vendor: {} for paymentId: {}", selectedVendor.getVendorId(), paymentId);
+                log.info(LogMarkers.PAYMENT, "Selected vendor: {}", selectedVendorId);
 
                 // Initialize Transaction
-                Transaction txn = new Transaction();
-                txn.setTxnId(UUID.randomUUID());
-                txn.setUserId(userId);
-                txn.setMerchantId(request.getMerchant().getMerchantId());
-                txn.setPaymentId(paymentId);
-                txn.setInstrumentId(request.getInstrument().getInstrumentId());
-                txn.setMethodId(request.getInstrument().getMethodId());
-                txn.setAmount(request.getPayment().getAmount());
-                txn.setVendorId(selectedVendor.getVendorId());
-                txn.setStatus("INITIATED");
-                txn.setCreatedAt(LocalDateTime.now());
+                Transaction txn = newTransaction(paymentId, userId, request, amount, TransactionStatus.INITIATED);
+                txn.setVendorId(selectedVendorId);
 
-                transactionRepository.save(txn);
+                stageStart = System.nanoTime();
+                persist(txn, true);
+                stageStart = split.lap(PipelineStage.PAYMENT_PERSIST, stageStart);
 
                 // Execute Payment (with vendor call)
-                VendorExecutionResult result = vendorExecutionService.executeVendorPayment(selectedVendor.getVendorId(),
-                                request);
+                VendorCallEvent callEvent = new VendorCallEvent();
+                callEvent.begin();
+                VendorExecutionResult result;
+                try {
+                        // Queued behind other merchants' calls when the vendor is at its concurrency limit
+                        result = vendorDispatchScheduler.dispatch(selectedVendorId, txn.getMerchantId(),
+                                        () -> vendorExecutionService.executeVendorPayment(txn.getVendorId(),
+                                                        request));
+                } catch (VendorDispatchScheduler.VendorBusyException e) {
+                        stageStart = split.lap(PipelineStage.PAYMENT_VENDOR, stageStart);
+                        callEvent.end();
+                        if (callEvent.shouldCommit()) {
+                                callEvent.paymentId = String.valueOf(paymentId);
+                                callEvent.vendorId = selectedVendorId;
+                                callEvent.outcome = "VENDOR_BUSY";
+                                callEvent.commit();
+                        }
+                        log.warn(LogMarkers.PAYMENT, "Vendor call not sent - {}", e.getMessage());
+                        return failVendorCall(paymentId, txn, FailureCode.VENDOR_BUSY,
+                                        e.getMessage(), VendorExecutionResult.FailureType.VENDOR_ERROR, split,
+                                        stageStart);
+                }
+                stageStart = split.lap(PipelineStage.PAYMENT_VENDOR, stageStart);
+                callEvent.end();
+                if (callEvent.shouldCommit()) {
+                        callEvent.paymentId = String.valueOf(paymentId);
+                        callEvent.vendorId = selectedVendorId;
+                        callEvent.outcome = result.isSuccess() ? "SUCCESS" : String.valueOf(result.getFailureType());
+                        callEvent.commit();
+                }
 
                 // Update Status based on vendor response
                 if (result.isSuccess()) {
-                        txn.setStatus("SUCCESS");
-                        txn.setUpdatedAt(LocalDateTime.now());
-                        transactionRepository.save(txn);
-                        paymentCache.put(paymentId, txn);
-                        savePaymentStatus(paymentId, txn, 0);
+                        succeed(txn);
+                        persist(txn, false);
+                        stageStart = split.lap(PipelineStage.PAYMENT_PERSIST, stageStart);
+                        remember(txn);
+                        savePaymentStatus(txn);
+                        split.lap(PipelineStage.PAYMENT_STATUS_WRITE, stageStart);
                         return buildResponse(paymentId, txn);
                 } else {
-                        txn.setStatus("FAILED");
-                        txn.setFailureReason(result.getFailureReason());
-                        txn.setUpdatedAt(LocalDateTime.now());
-                        transactionRepository.save(txn);
-                        paymentCache.put(paymentId, txn);
+                        recordFailure(txn, result.getFailureType());
+                        return failVendorCall(paymentId, txn, failureCode(result.getFailureType()),
+                                        result.getFailureReason(),
+                                        result.getFailureType(), split, stageStart);
+                }
+        }
 
-                        // Track failed vendor
-                        failedVendors.computeIfAbsent(paymentId, k -> new HashSet<>())
-                                        .add(selectedVendor.getVendorId());
+        private PaymentResponse failVendorCall(UUID paymentId, Transaction txn, FailureCode failureCode,
+                        String failureDetail, VendorExecutionResult.FailureType failureType, StageTimer.Split split,
+                        long stageStart) {
+                fail(txn, failureCode, failureDetail);
+                persist(txn, false);
+                split.lap(PipelineStage.PAYMENT_PERSIST, stageStart);
+                remember(txn);
 
-                        // Track retry count
-                        int retries = retryCount.getOrDefault(paymentId, 0);
-                        savePaymentStatus(paymentId, txn, retries);
+                stageStart = System.nanoTime();
+                savePaymentStatus(txn);
+                split.lap(PipelineStage.PAYMENT_STATUS_WRITE, stageStart);
 
-                        return buildResponse(paymentId, txn, result.getFailureType());
-                }
+                return buildResponse(paymentId, txn, failureType);
         }
 
         @Timed(value = "service.execution", extraTags = { "domain", "payment", "service", "PaymentService", "method",
                         "getPaymentStatus" })
         @Counted(value = "service.execution.count", extraTags = { "domain", "payment", "service", "PaymentService",
                         "method", "getPaymentStatus" })
+        @Transactional(readOnly = true)
         public PaymentStatusResponse getPaymentStatus(UUID paymentId) {
-                log.info("Querying payment status - paymentId: {}", paymentId);
-
-                // Check Redis first
-                try {
-                        String key = "payment:status:" + paymentId;
-                        String statusJson = redisTemplate.opsForValue().get(key);
-                        if (statusJson != null) {
-                                return objectMapper.readValue(statusJson, PaymentStatusResponse.class);
-                        }
-                } catch (Exception e) {
-                        log.error("Failed to deserialize payment status", e);
-                }
-
-                // Check in-memory cache (fallback)
-                if (paymentCache.containsKey(paymentId)) {
-                        Transaction txn = paymentCache.get(paymentId);
-                        return buildStatusResponse(paymentId, txn);
+                log.debug("Querying payment status - paymentId: {}", paymentId);
+
+                // Redis, then the bounded local cache, then the transactions table
+                long lookupStart = System.nanoTime();
+                Optional<PaymentStatusResponse> status = paymentStatusLookup.find(paymentId);
+                stageTimer.record(PipelineStage.STATUS_TOTAL, lookupStart);
+                if (status.isPresent()) {
+                        return status.get();
                 }
 
                 log.warn("Payment not found - paymentId: {}", paymentId);
@@ -207,65 +262,236 @@ public class PaymentService {
                 return response;
         }
 
-        private void savePaymentStatus(UUID paymentId, Transaction txn, int retryCount) {
+        /**
+         * The response to return for a payment this node already has an outcome
+         * for: a success, a pending attempt or a failure that must not be
+         * retried.
+         *
+         * @return null when the payment should be attempted
+         */
+        PaymentResponse previousOutcome(UUID paymentId) {
+                Transaction existingTxn = paymentCache.get(paymentId);
+                if (existingTxn == null) {
+                        return null;
+                }
+
+                // If payment was successful, return the cached result
+                if (existingTxn.getStatus() == TransactionStatus.SUCCESS) {
+                        log.info(LogMarkers.PAYMENT, "Payment already successful - txnId: {}", existingTxn.getTxnId());
+                        return buildResponse(paymentId, existingTxn);
+                }
+
+                // If payment failed, check if we should retry
+                if (existingTxn.getStatus() == TransactionStatus.FAILED) {
+                        FailureCode failureCode = existingTxn.getFailureCode();
+
+                        // Retry only for vendor/instrument failures, not for validation failures
+                        if (failureCode != null && failureCode.isRetryable()) {
+                                log.info(LogMarkers.PAYMENT, "Retrying failed payment - previousFailure: {}",
+                                                failureCode);
+                                return null;
+                        }
+                        log.info(LogMarkers.PAYMENT, "Payment failed with non-retryable error - reason: {}",
+                                        failureCode);
+                        return buildResponse(paymentId, existingTxn);
+                }
+
+                // If payment is PENDING, return the pending status
+                if (existingTxn.getStatus() == TransactionStatus.PENDING) {
+                        log.info(LogMarkers.PAYMENT, "Payment still pending - txnId: {}", existingTxn.getTxnId());
+                        return buildResponse(paymentId, existingTxn);
+                }
+                return null;
+        }
+
+        // Vendors that already failed this payment on this node
+        Set<String> excludedVendors(UUID paymentId) {
+                return failedVendors.getOrDefault(paymentId, Set.of());
+        }
+
+        static void succeed(Transaction txn) {
+                txn.setStatus(TransactionStatus.SUCCESS);
+                txn.setUpdatedAt(LocalDateTime.now());
+        }
+
+        static void fail(Transaction txn, FailureCode failureCode, String failureDetail) {
+                txn.setStatus(TransactionStatus.FAILED);
+                txn.setFailureCode(failureCode);
+                txn.setFailureDetail(failureDetail);
+                txn.setUpdatedAt(LocalDateTime.now());
+        }
+
+        /**
+         * Keeps a persisted outcome for idempotency and, when its vendor failed,
+         * excludes that vendor from the payment's retries.
+         */
+        void remember(Transaction txn) {
+                paymentCache.put(txn.getPaymentId(), txn);
+                if (txn.getStatus() == TransactionStatus.FAILED && txn.getVendorId() != null) {
+                        failedVendors.computeIfAbsent(txn.getPaymentId(), k -> ConcurrentHashMap.newKeySet())
+                                        .add(txn.getVendorId());
+                }
+        }
+
+        // Feedback loop: instrument declines count against the instrument, vendor
+        // errors and timeouts against the vendor
+        void recordFailure(Transaction txn, VendorExecutionResult.FailureType failureType) {
+                if (failureType == VendorExecutionResult.FailureType.INSTRUMENT_DECLINE) {
+                        blockListService.recordFailure(BlockTarget.INSTRUMENT, txn.getInstrumentId());
+                        try {
+                                // Retry checkouts for this payment mark the instrument ineligible
+                                checkoutService.addDeclinedInstrument(txn.getPaymentId(), txn.getInstrumentId());
+                        } catch (Exception e) {
+                                log.error("Failed to record declined instrument in Redis", e);
+                        }
+                } else if (failureType == VendorExecutionResult.FailureType.VENDOR_ERROR
+                                || failureType == VendorExecutionResult.FailureType.TIMEOUT) {
+                        blockListService.recordFailure(BlockTarget.VENDOR, txn.getVendorId());
+                }
+        }
+
+        /**
+         * @return the verified token, or null when the request has none and
+         *         tokens are not required
+         */
+        HandoffToken verifyHandoff(PaymentRequest request, UUID userId, Money amount) {
+                if (request.getHandoffToken() == null) {
+                        if (handoffTokenProperties.isRequired()) {
+                                throw new InvalidRequestException("handoffToken is required");
+                        }
+                        return null;
+                }
+                HandoffToken handoff = handoffTokenService.verify(request.getHandoffToken());
+                if (!handoff.paymentId().equals(request.getPaymentId())
+                                || !handoff.merchantId().equals(request.getMerchant().getMerchantId())
+                                || !handoff.userId().equals(userId)) {
+                        throw new InvalidRequestException("Handoff token was issued for a different checkout");
+                }
+                if (!handoff.amount().equals(amount)) {
+                        throw new InvalidRequestException("Amount differs from the checkout");
+                }
+                if (!handoff.allows(request.getInstrument().getMethodId(), request.getInstrument().getInstrumentId())) {
+                        throw new InvalidRequestException("Instrument is not eligible for this checkout");
+                }
+                return handoff;
+        }
+
+        // The API's decimal amount becomes minor units here and nowhere later in pay
+        static Money amountOf(PaymentRequest request) {
+                if (request.getPayment() == null || request.getPayment().getAmount() == null) {
+                        throw new InvalidRequestException("payment.amount is required");
+                }
                 try {
-                        PaymentStatusResponse response = buildStatusResponse(paymentId, txn);
-                        response.setRetryCount(retryCount);
+                        return Money.ofDefaultCurrency(request.getPayment().getAmount(), request.getPayment().getCurrency());
+                } catch (IllegalArgumentException e) {
+                        throw new InvalidRequestException("Invalid amount: " + e.getMessage(), e);
+                }
+        }
 
-                        String statusJson = objectMapper.writeValueAsString(response);
-                        String key = "payment:status:" + paymentId;
-                        redisTemplate.opsForValue().set(key, statusJson, 24, TimeUnit.HOURS);
+        boolean hasFreshShortlist(HandoffToken handoff) {
+                return handoff != null && !handoff.vendorShortlist().isEmpty()
+                                && handoff.issuedAt().plus(handoffTokenProperties.getShortlistMaxAge())
+                                                .isAfter(Instant.now());
+        }
+
+        private void savePaymentStatus(Transaction txn) {
+                try {
+                        paymentStatusStore.save(statusOf(txn));
                 } catch (Exception e) {
                         log.error("Failed to save payment status to Redis", e);
                 }
+                paymentStatusLookup.invalidate(txn.getPaymentId());
         }
 
-        private boolean isRetryableFailure(String failureReason) {
-                if (failureReason == null) {
-                        return false;
+        static FailureCode failureCode(VendorExecutionResult.FailureType failureType) {
+                if (failureType == null)
+                        return FailureCode.UNKNOWN;
+                switch (failureType) {
+                        case VENDOR_ERROR:
+                                return FailureCode.VENDOR_ERROR;
+                        case INSTRUMENT_DECLINE:
+                                return FailureCode.INSTRUMENT_DECLINED;
+                        case VALIDATION_ERROR:
+                                return FailureCode.VALIDATION_ERROR;
+                        case TIMEOUT:
+                                return FailureCode.VENDOR_TIMEOUT;
+                        default:
+                                return FailureCode.UNKNOWN;
                 }
-
-                // Retryable failures: vendor issues, timeouts, instrument temporary issues
-                return failureReason.contains("Vendor") ||
-                                failureReason.contains("timeout") ||
-                                failureReason.contains("temporarily unavailable") ||
-                                failureReason.contains("network error");
         }
 
         private Transaction createFailedTransaction(
-                        UUID paymentId, UUID userId, PaymentRequest request,
-                        String failureReason, VendorExecutionResult.FailureType failureType) {
+                        UUID paymentId, UUID userId, PaymentRequest request, Money amount,
+                        FailureCode failureCode) {
 
+                Transaction txn = newTransaction(paymentId, userId, request, amount, TransactionStatus.FAILED);
+                txn.setFailureCode(failureCode);
+
+                persist(txn, true);
+                return txn;
+        }
+
+        static Transaction newTransaction(UUID paymentId, UUID userId, PaymentRequest request, Money amount,
+                        TransactionStatus status) {
                 Transaction txn = new Transaction();
-                txn.setTxnId(UUID.randomUUID());
+                txn.setTxnId(TimeOrderedUuid.next());
                 txn.setUserId(userId);
                 txn.setMerchantId(request.getMerchant().getMerchantId());
                 txn.setPaymentId(paymentId);
                 txn.setInstrumentId(request.getInstrument().getInstrumentId());
                 txn.setMethodId(request.getInstrument().getMethodId());
-                txn.setAmount(request.getPayment().getAmount());
-                txn.setStatus("FAILED");
-                txn.setFailureReason(failureReason);
+                txn.setAmountMinor(amount.minorUnits());
+                txn.setCurrency(amount.currency());
+                txn.setStatus(status);
                 txn.setCreatedAt(LocalDateTime.now());
-
-                transactionRepository.save(txn);
                 return txn;
         }
 
-        private PaymentResponse buildResponse(UUID paymentId, Transaction txn) {
+        private void persist(Transaction txn, boolean insert) {
+                TransactionPersistedEvent event = new TransactionPersistedEvent();
+                event.begin();
+                if (insert) {
+                        transactionRepository.save(txn);
+                } else {
+                        transactionRepository.updateOutcome(txn.getTxnId(), txn.getCreatedAt(), txn.getStatus(),
+                                        txn.getFailureCode(), txn.getFailureDetail(), txn.getUpdatedAt());
+                }
+                event.end();
+                if (event.shouldCommit()) {
+                        event.txnId = String.valueOf(txn.getTxnId());
+                        event.paymentId = String.valueOf(txn.getPaymentId());
+                        event.status = txn.getStatus().name();
+                        event.insert = insert;
+                        event.commit();
+                }
+        }
+
+        private void commitVendorSelected(VendorSelectedEvent event, UUID paymentId, int candidates, int excluded,
+                        String vendorId) {
+                event.end();
+                if (event.shouldCommit()) {
+                        event.paymentId = String.valueOf(paymentId);
+                        event.candidates = candidates;
+                        event.excluded = excluded;
+                        event.vendorId = vendorId;
+                        event.commit();
+                }
+        }
+
+        PaymentResponse buildResponse(UUID paymentId, Transaction txn) {
                 return buildResponse(paymentId, txn, null);
         }
 
-        private PaymentResponse buildResponse(UUID paymentId, Transaction txn,
+        PaymentResponse buildResponse(UUID paymentId, Transaction txn,
                         VendorExecutionResult.FailureType failureType) {
                 PaymentResponse response = new PaymentResponse();
                 response.setPaymentId(paymentId);
                 response.setTxnId(txn.getTxnId());
-                response.setStatus(PaymentResponse.StatusEnum.fromValue(txn.getStatus()));
+                response.setStatus(responseStatus(txn.getStatus()));
                 response.setFailureReason(txn.getFailureReason());
 
                 // Set retry flags based on failure type
-                if ("FAILED".equals(txn.getStatus()) && failureType != null) {
+                if (txn.getStatus() == TransactionStatus.FAILED && failureType != null) {
                         response.setRetryable(failureType == VendorExecutionResult.FailureType.VENDOR_ERROR ||
                                         failureType == VendorExecutionResult.FailureType.TIMEOUT);
                         response.setRequiresNewInstrument(
@@ -278,7 +504,7 @@ public class PaymentService {
                 // Set response code
                 if (failureType != null) {
                         response.setResponseCode(getResponseCode(failureType));
-                } else if ("SUCCESS".equals(txn.getStatus())) {
+                } else if (txn.getStatus() == TransactionStatus.SUCCESS) {
                         response.setResponseCode("00");
                 } else {
                         response.setResponseCode("99");
@@ -287,6 +513,15 @@ public class PaymentService {
                 return response;
         }
 
+        private static PaymentResponse.StatusEnum responseStatus(TransactionStatus status) {
+                return switch (status) {
+                        case SUCCESS -> PaymentResponse.StatusEnum.SUCCESS;
+                        case FAILED -> PaymentResponse.StatusEnum.FAILED;
+                        // The response has no INITIATED; an unfinished attempt is pending
+                        case INITIATED, PENDING -> PaymentResponse.StatusEnum.PENDING;
+                };
+        }
+
         private String getResponseCode(VendorExecutionResult.FailureType failureType) {
                 if (failureType == null)
                         return "99";
@@ -304,22 +539,10 @@ public class PaymentService {
                 }
         }
 
-        private PaymentStatusResponse buildStatusResponse(UUID paymentId, Transaction txn) {
-                PaymentStatusResponse response = new PaymentStatusResponse();
-                response.setPaymentId(paymentId);
-                response.setTxnId(txn.getTxnId());
-                response.setStatus(PaymentStatusResponse.StatusEnum.fromValue(txn.getStatus()));
-                response.setAmount(txn.getAmount());
-                response.setFailureReason(txn.getFailureReason());
-                response.setRetryCount(retryCount.getOrDefault(paymentId, 0));
-
-                // Convert LocalDateTime to OffsetDateTime
-                if (txn.getCreatedAt() != null) {
-                        response.setCreatedAt(txn.getCreatedAt().atZone(ZoneId.systemDefault()));
-                }
-                if (txn.getUpdatedAt() != null) {
-                        response.setUpdatedAt(txn.getUpdatedAt().atZone(ZoneId.systemDefault()));
-                }
-                return response;
+        // A success reports no retries, whatever attempts came before it
+        PaymentStatusResponse statusOf(Transaction txn) {
+                int retries = txn.getStatus() == TransactionStatus.SUCCESS ? 0
+                                : retryCount.getOrDefault(txn.getPaymentId(), 0);
+                return PaymentStatusLookup.toStatusResponse(txn.getPaymentId(), txn, retries);
         }
 }
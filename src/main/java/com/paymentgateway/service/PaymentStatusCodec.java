@@ -0,0 +1,131 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Compact, versioned binary encoding of {@link PaymentStatusResponse} for the
+ * {@code payment:status:*} Redis keys.
+ *
+ * <pre>
+ * offset  size  field
+ *   0      1    version
+ *   1      1    status (StatusEnum ordinal)
+ *   2      4    retryCount
+ *   6     16    paymentId (msb, lsb)
+ *  22     16    txnId (msb, lsb), nil UUID when absent
+ *  38      8    amount (IEEE 754 bits), NaN when absent
+ *  46      8    createdAt (epoch millis), Long.MIN_VALUE when absent
+ *  54      8    updatedAt (epoch millis), Long.MIN_VALUE when absent
+ *  62      2    failureReason length in UTF-8 bytes, 0 when absent
+ *  64      n    failureReason
+ * </pre>
+ *
+ * All fixed-width fields sit before the variable-length tail. The status byte is
+ * the enum ordinal: reordering {@code StatusEnum} requires a version bump.
+ */
+public final class PaymentStatusCodec {
+
+        public static final byte VERSION = 1;
+
+        private static final int STATUS_OFFSET = 1;
+
+        static final int HEADER_SIZE = 64;
+
+        private static final int MAX_REASON_BYTES = 0xFFFF;
+        private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+        private static final PaymentStatusResponse.StatusEnum[] STATUSES = PaymentStatusResponse.StatusEnum.values();
+
+        private PaymentStatusCodec() {
+        }
+
+        public static byte[] encode(PaymentStatusResponse status) {
+                byte[] reason = encodeReason(status.getFailureReason());
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + reason.length);
+
+                buffer.put(VERSION);
+                buffer.put((byte) status.getStatus().ordinal());
+                buffer.putInt(status.getRetryCount() != null ? status.getRetryCount() : 0);
+                putUuid(buffer, status.getPaymentId());
+                putUuid(buffer, status.getTxnId());
+                buffer.putDouble(status.getAmount() != null ? status.getAmount() : Double.NaN);
+                buffer.putLong(toEpochMillis(status.getCreatedAt()));
+                buffer.putLong(toEpochMillis(status.getUpdatedAt()));
+                buffer.putShort((short) reason.length);
+                buffer.put(reason);
+                return buffer.array();
+        }
+
+        public static PaymentStatusResponse decode(byte[] bytes) {
+                if (!isBinary(bytes) || bytes.length < HEADER_SIZE) {
+                        throw new IllegalArgumentException("Not a version " + VERSION + " payment status record");
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                buffer.position(STATUS_OFFSET);
+
+                PaymentStatusResponse status = new PaymentStatusResponse();
+                status.setStatus(STATUSES[buffer.get()]);
+                status.setRetryCount(buffer.getInt());
+                status.setPaymentId(getUuid(buffer));
+                status.setTxnId(getUuid(buffer));
+
+                double amount = buffer.getDouble();
+                status.setAmount(Double.isNaN(amount) ? null : amount);
+                status.setCreatedAt(fromEpochMillis(buffer.getLong()));
+                status.setUpdatedAt(fromEpochMillis(buffer.getLong()));
+
+                int reasonLength = Short.toUnsignedInt(buffer.getShort());
+                if (reasonLength > 0) {
+                        status.setFailureReason(new String(bytes, HEADER_SIZE, reasonLength, StandardCharsets.UTF_8));
+                }
+                return status;
+        }
+
+        /**
+         * Distinguishes binary records from legacy JSON values, which always start
+         * with '{'.
+         */
+        public static boolean isBinary(byte[] bytes) {
+                return bytes != null && bytes.length > 0 && bytes[0] == VERSION;
+        }
+
+        private static byte[] encodeReason(String reason) {
+                if (reason == null || reason.isEmpty()) {
+                        return new byte[0];
+                }
+                byte[] bytes = reason.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length <= MAX_REASON_BYTES) {
+                        return bytes;
+                }
+                // Truncation may split a multi-byte character; the decoder replaces it.
+                byte[] truncated = new byte[MAX_REASON_BYTES];
+                System.arraycopy(bytes, 0, truncated, 0, MAX_REASON_BYTES);
+                return truncated;
+        }
+
+        private static void putUuid(ByteBuffer buffer, UUID uuid) {
+                buffer.putLong(uuid != null ? uuid.getMostSignificantBits() : 0L);
+                buffer.putLong(uuid != null ? uuid.getLeastSignificantBits() : 0L);
+        }
+
+        private static UUID getUuid(ByteBuffer buffer) {
+                long msb = buffer.getLong();
+                long lsb = buffer.getLong();
+                return msb == 0L && lsb == 0L ? null : new UUID(msb, lsb);
+        }
+
+        private static long toEpochMillis(ZonedDateTime time) {
+                return time != null ? time.toInstant().toEpochMilli() : NO_TIMESTAMP;
+        }
+
+        private static ZonedDateTime fromEpochMillis(long epochMillis) {
+                return epochMillis == NO_TIMESTAMP ? null
+                                : Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault());
+        }
+}
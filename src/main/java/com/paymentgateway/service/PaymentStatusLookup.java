@@ -0,0 +1,168 @@
+package com.paymentgateway.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.paymentgateway.config.PaymentStatusCacheProperties;
+import com.paymentgateway.config.TransactionPartitioningProperties;
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+import com.paymentgateway.model.Money;
+import com.paymentgateway.model.Transaction;
+import com.paymentgateway.model.TransactionStatus;
+import com.paymentgateway.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through resolution of payment status: Redis, then a bounded node-local
+ * cache, then the transactions table via idx_transaction_payment_id.
+ * <p>
+ * The local cache loads each id at most once at a time, so concurrent misses for
+ * the same payment share one database query. The database is searched within the
+ * recent lookup window first, so only the newest partitions are probed, and then
+ * across all partitions. Ids with no transaction are cached as empty for a
+ * shorter TTL so polling for unknown payments stays off the database; when the
+ * miss came from a read-only (replica) transaction it is confirmed on the
+ * primary first, so replication lag is never cached as NOT_FOUND. Statuses
+ * found in the database are written back to Redis.
+ */
+@Component
+@Slf4j
+public class PaymentStatusLookup {
+
+        private final TransactionRepository transactionRepository;
+        private final PaymentStatusStore paymentStatusStore;
+        private final StageTimer stageTimer;
+        private final Duration lookupWindow;
+        private final LoadingCache<UUID, Optional<PaymentStatusResponse>> localCache;
+
+        public PaymentStatusLookup(TransactionRepository transactionRepository,
+                        PaymentStatusStore paymentStatusStore,
+                        PaymentStatusCacheProperties properties,
+                        TransactionPartitioningProperties partitioningProperties,
+                        StageTimer stageTimer,
+                        MeterRegistry meterRegistry) {
+                this.transactionRepository = transactionRepository;
+                this.paymentStatusStore = paymentStatusStore;
+                this.stageTimer = stageTimer;
+                this.lookupWindow = partitioningProperties.getLookupWindow();
+
+                long ttlNanos = properties.getTtl().toNanos();
+                long negativeTtlNanos = properties.getNegativeTtl().toNanos();
+                this.localCache = Caffeine.newBuilder()
+                                .maximumSize(properties.getMaxSize())
+                                .expireAfter(new Expiry<UUID, Optional<PaymentStatusResponse>>() {
+                                        @Override
+                                        public long expireAfterCreate(UUID key, Optional<PaymentStatusResponse> value,
+                                                        long currentTime) {
+                                                return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                                        }
+
+                                        @Override
+                                        public long expireAfterUpdate(UUID key, Optional<PaymentStatusResponse> value,
+                                                        long currentTime, long currentDuration) {
+                                                return expireAfterCreate(key, value, currentTime);
+                                        }
+
+                                        @Override
+                                        public long expireAfterRead(UUID key, Optional<PaymentStatusResponse> value,
+                                                        long currentTime, long currentDuration) {
+                                                return currentDuration;
+                                        }
+                                })
+                                .recordStats()
+                                .build(this::loadFromDatabase);
+
+                CaffeineCacheMetrics.monitor(meterRegistry, localCache, "payment.status.local");
+        }
+
+        /**
+         * @return the payment status, or empty if no transaction exists for the id
+         */
+        public Optional<PaymentStatusResponse> find(UUID paymentId) {
+                long redisStart = System.nanoTime();
+                try {
+                        PaymentStatusResponse cached = paymentStatusStore.find(paymentId);
+                        if (cached != null) {
+                                return Optional.of(cached);
+                        }
+                } catch (Exception e) {
+                        log.error("Failed to read payment status from Redis - paymentId: {}", paymentId, e);
+                } finally {
+                        stageTimer.record(PipelineStage.STATUS_REDIS, redisStart);
+                }
+                return localCache.get(paymentId);
+        }
+
+        /**
+         * Drops the local entry once this node has written a newer status, so a
+         * negative entry cannot hide a payment that was just made.
+         */
+        public void invalidate(UUID paymentId) {
+                localCache.invalidate(paymentId);
+        }
+
+        private Optional<PaymentStatusResponse> loadFromDatabase(UUID paymentId) {
+                long databaseStart = System.nanoTime();
+                List<Transaction> attempts = transactionRepository.findByPaymentIdAndCreatedAtAfterOrderByCreatedAtDesc(
+                                paymentId, LocalDateTime.now().minus(lookupWindow));
+                if (attempts.isEmpty()) {
+                        attempts = transactionRepository.findByPaymentIdOrderByCreatedAtDesc(paymentId);
+                }
+                if (attempts.isEmpty() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                        // A replica may not have the payment yet
+                        attempts = transactionRepository.findOnPrimaryByPaymentId(paymentId);
+                }
+                stageTimer.record(PipelineStage.STATUS_DATABASE, databaseStart);
+                if (attempts.isEmpty()) {
+                        log.debug("No transaction for paymentId: {}, caching as unknown", paymentId);
+                        return Optional.empty();
+                }
+
+                PaymentStatusResponse status = toStatusResponse(paymentId, attempts.get(0), attempts.size() - 1);
+                try {
+                        paymentStatusStore.saveIfAbsent(status);
+                } catch (Exception e) {
+                        log.warn("Failed to refill payment status in Redis - paymentId: {}", paymentId, e);
+                }
+                return Optional.of(status);
+        }
+
+        static PaymentStatusResponse toStatusResponse(UUID paymentId, Transaction txn, int retryCount) {
+                PaymentStatusResponse response = new PaymentStatusResponse();
+                response.setPaymentId(paymentId);
+                response.setTxnId(txn.getTxnId());
+                response.setStatus(toStatusEnum(txn.getStatus()));
+                response.setAmount(Money.toDouble(txn.getAmountMinor(), txn.getCurrency()));
+                response.setFailureReason(txn.getFailureReason());
+                response.setRetryCount(retryCount);
+
+                // Convert LocalDateTime to OffsetDateTime
+                if (txn.getCreatedAt() != null) {
+                        response.setCreatedAt(txn.getCreatedAt().atZone(ZoneId.systemDefault()));
+                }
+                if (txn.getUpdatedAt() != null) {
+                        response.setUpdatedAt(txn.getUpdatedAt().atZone(ZoneId.systemDefault()));
+                }
+                return response;
+        }
+
+        // INITIATED rows are in flight with a vendor; the API reports them as PENDING.
+        private static PaymentStatusResponse.StatusEnum toStatusEnum(TransactionStatus status) {
+                return switch (status) {
+                        case SUCCESS -> PaymentStatusResponse.StatusEnum.SUCCESS;
+                        case FAILED -> PaymentStatusResponse.StatusEnum.FAILED;
+                        case INITIATED, PENDING -> PaymentStatusResponse.StatusEnum.PENDING;
+                };
+        }
+}
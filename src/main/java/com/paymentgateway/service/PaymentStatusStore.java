@@ -0,0 +1,122 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentgateway.config.RedisResilienceProperties;
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Redis storage for payment status records under {@code payment:status:*}.
+ * Records are written with {@link PaymentStatusCodec}; values still holding the
+ * legacy JSON form are read through Jackson until their TTL runs out.
+ * <p>
+ * Calls go through {@link RedisGuard}. Statuses saved while Redis is degraded
+ * are kept in a bounded local cache, served from there by {@link #find}, and
+ * dropped once their buffered write has been replayed.
+ */
+@Component
+public class PaymentStatusStore {
+
+        static final String KEY_PREFIX = "payment:status:";
+        static final long TTL_SECONDS = 24 * 60 * 60;
+
+        private final RedisGuard redisGuard;
+        private final ObjectMapper objectMapper;
+        // Encoded records saved while degraded and not yet replayed
+        private final Cache<UUID, byte[]> pending;
+
+        public PaymentStatusStore(RedisGuard redisGuard, ObjectMapper objectMapper,
+                        RedisResilienceProperties properties) {
+                this.redisGuard = redisGuard;
+                this.objectMapper = objectMapper;
+                this.pending = Caffeine.newBuilder()
+                                .maximumSize(properties.getMaxLocalEntries())
+                                .expireAfterWrite(properties.getLocalTtl())
+                                .build();
+        }
+
+        public void save(PaymentStatusResponse status) {
+                UUID paymentId = status.getPaymentId();
+                byte[] key = key(paymentId);
+                byte[] value = PaymentStatusCodec.encode(status);
+                redisGuard.executeOrBuffer("payment status " + paymentId,
+                                (RedisCallback<Boolean>) connection -> connection.stringCommands()
+                                                .setEx(key, TTL_SECONDS, value),
+                                () -> pending.put(paymentId, value),
+                                () -> pending.asMap().remove(paymentId, value));
+        }
+
+        /**
+         * Saves many statuses in one pipelined round trip. While Redis is
+         * degraded they are buffered and served locally as one write.
+         */
+        public void saveAll(List<PaymentStatusResponse> statuses) {
+                if (statuses.isEmpty()) {
+                        return;
+                }
+                Map<UUID, byte[]> values = new LinkedHashMap<>();
+                for (PaymentStatusResponse status : statuses) {
+                        values.put(status.getPaymentId(), PaymentStatusCodec.encode(status));
+                }
+                redisGuard.executeOrBuffer(values.size() + " payment statuses", (RedisCallback<Void>) connection -> {
+                        connection.openPipeline();
+                        try {
+                                values.forEach((paymentId, value) -> connection.stringCommands()
+                                                .setEx(key(paymentId), TTL_SECONDS, value));
+                        } finally {
+                                connection.closePipeline();
+                        }
+                        return null;
+                }, () -> pending.putAll(values), () -> values.forEach(pending.asMap()::remove));
+        }
+
+        /**
+         * Writes the status only if no record exists, so a refill from the database
+         * never overwrites a newer status written by the payment path.
+         */
+        public void saveIfAbsent(PaymentStatusResponse status) {
+                byte[] key = key(status.getPaymentId());
+                byte[] value = PaymentStatusCodec.encode(status);
+                // Skipped while degraded: the database already has the status
+                redisGuard.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                                .set(key, value, Expiration.seconds(TTL_SECONDS),
+                                                RedisStringCommands.SetOption.ifAbsent()),
+                                () -> false);
+        }
+
+        /**
+         * @return the stored status, or null if the key does not exist or Redis
+         *         is unavailable
+         */
+        public PaymentStatusResponse find(UUID paymentId) throws IOException {
+                byte[] value = pending.getIfPresent(paymentId);
+                if (value == null) {
+                        byte[] key = key(paymentId);
+                        value = redisGuard.execute((RedisCallback<byte[]>) connection -> connection.stringCommands()
+                                        .get(key), () -> null);
+                }
+                if (value == null) {
+                        return null;
+                }
+                if (PaymentStatusCodec.isBinary(value)) {
+                        return PaymentStatusCodec.decode(value);
+                }
+                return objectMapper.readValue(value, PaymentStatusResponse.class);
+        }
+
+        private static byte[] key(UUID paymentId) {
+                return (KEY_PREFIX + paymentId).getBytes(StandardCharsets.UTF_8);
+        }
+}
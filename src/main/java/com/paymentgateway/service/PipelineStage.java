@@ -0,0 +1,53 @@
+package com.paymentgateway.service;
+
+import java.time.Duration;
+
+/**
+ * Timed stages of the checkout, payment and status pipelines. The set is fixed,
+ * so the stage timer tags stay bounded at one series per constant. Each stage
+ * carries its default latency objective; the totals follow the design doc.
+ */
+public enum PipelineStage {
+
+        CHECKOUT_DECLINED_LOOKUP("checkout", "declined-lookup", Duration.ofMillis(5)),
+        CHECKOUT_METHODS("checkout", "methods", Duration.ofMillis(10)),
+        CHECKOUT_INSTRUMENTS("checkout", "instruments", Duration.ofMillis(20)),
+        CHECKOUT_RULES("checkout", "rules", Duration.ofMillis(20)),
+        CHECKOUT_DOWNTIME("checkout", "downtime", Duration.ofMillis(20)),
+        CHECKOUT_HANDOFF("checkout", "handoff", Duration.ofMillis(10)),
+        CHECKOUT_TOTAL("checkout", "total", Duration.ofMillis(120)),
+
+        PAYMENT_RETRY_COUNTER("payment", "retry-counter", Duration.ofMillis(5)),
+        PAYMENT_HANDOFF("payment", "handoff", Duration.ofMillis(1)),
+        PAYMENT_ROUTING("payment", "routing", Duration.ofMillis(20)),
+        PAYMENT_PERSIST("payment", "persist", Duration.ofMillis(20)),
+        PAYMENT_VENDOR("payment", "vendor", Duration.ofMillis(150)),
+        PAYMENT_STATUS_WRITE("payment", "status-write", Duration.ofMillis(5)),
+        PAYMENT_TOTAL("payment", "total", Duration.ofMillis(200)),
+
+        STATUS_REDIS("status", "redis", Duration.ofMillis(5)),
+        STATUS_DATABASE("status", "database", Duration.ofMillis(20)),
+        STATUS_TOTAL("status", "total", Duration.ofMillis(50));
+
+        private final String pipeline;
+        private final String stage;
+        private final Duration defaultObjective;
+
+        PipelineStage(String pipeline, String stage, Duration defaultObjective) {
+                this.pipeline = pipeline;
+                this.stage = stage;
+                this.defaultObjective = defaultObjective;
+        }
+
+        public String getPipeline() {
+                return pipeline;
+        }
+
+        public String getStage() {
+                return stage;
+        }
+
+        public Duration getDefaultObjective() {
+                return defaultObjective;
+        }
+}
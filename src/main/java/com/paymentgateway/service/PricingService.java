@@ -1,5 +1,9 @@
 package com.paymentgateway.service;
 
 public interface PricingService {
-    Double calculateFee(String vendorId, Double amount);
+    /**
+     * @return the vendor's fee in minor units, or {@link Long#MAX_VALUE} if
+     *         no pricing model covers the amount
+     */
+    long calculateFee(String vendorId, long amountMinor);
 }
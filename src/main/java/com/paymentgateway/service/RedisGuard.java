@@ -0,0 +1,294 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.RedisResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and replay buffer in front of the Redis calls on the payment
+ * and checkout paths.
+ * <p>
+ * Commands already time out quickly (see RedisClientConfig). After
+ * {@code failure-threshold} consecutive failures the circuit opens and calls
+ * return their fallback without touching Redis; every {@code open-duration}
+ * one call is let through as a probe, and its success closes the circuit.
+ * <p>
+ * While the circuit is open, writes that must reach Redis eventually are
+ * appended to a bounded in-memory buffer, and callers keep their effect in
+ * local structures so this node can still read it. Once Redis answers again
+ * the buffer is replayed in order; until it is empty new writes are appended
+ * behind it, so a replayed write never overwrites a newer one. A write that
+ * timed out may have been applied and is replayed anyway, so buffered writes
+ * must be safe to apply twice or tolerate it (retry counters may over-count).
+ * <p>
+ * Degraded mode lasts from the circuit opening until the buffer is drained.
+ */
+@Component
+@Slf4j
+public class RedisGuard {
+
+        private static final long CLOSED = Long.MIN_VALUE;
+        private static final Runnable NOTHING = () -> {
+        };
+
+        private final StringRedisTemplate redisTemplate;
+        private final RedisResilienceProperties properties;
+        private final Deque<BufferedWrite> buffer = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicBoolean probing = new AtomicBoolean();
+        private final LongTaskTimer degraded;
+        private final Timer degradedDuration;
+        private final Counter bufferedWrites;
+        private final Counter replayedWrites;
+        private final Counter droppedWrites;
+
+        // Not this: replay() holds that lock across Redis calls
+        private final Object episodeLock = new Object();
+
+        private volatile long openedAt = CLOSED;
+        // Guarded by episodeLock
+        private LongTaskTimer.Sample degradedSample;
+
+        public RedisGuard(StringRedisTemplate redisTemplate, RedisResilienceProperties properties,
+                        MeterRegistry meterRegistry) {
+                this.redisTemplate = redisTemplate;
+                this.properties = properties;
+                this.degraded = LongTaskTimer.builder("redis.degraded")
+                                .description("Current Redis degraded-mode episode, from the circuit opening until "
+                                                + "the replay buffer is drained")
+                                .register(meterRegistry);
+                this.degradedDuration = Timer.builder("redis.degraded.duration")
+                                .description("Length of finished Redis degraded-mode episodes")
+                                .register(meterRegistry);
+                Gauge.builder("redis.circuit.open", this, guard -> guard.openedAt != CLOSED ? 1 : 0)
+                                .description("1 while the Redis circuit is open")
+                                .register(meterRegistry);
+                Gauge.builder("redis.buffer.size", buffered, AtomicInteger::get)
+                                .description("Writes waiting to be replayed to Redis")
+                                .register(meterRegistry);
+                this.bufferedWrites = writes(meterRegistry, "buffered");
+                this.replayedWrites = writes(meterRegistry, "replayed");
+                this.droppedWrites = writes(meterRegistry, "dropped");
+        }
+
+        /**
+         * Runs a call whose effect is not worth keeping if Redis is unavailable:
+         * reads, refills and conditional writes.
+         *
+         * @return the call's result, or the fallback's if the circuit is open or
+         *         the call failed
+         */
+        public <T> T execute(RedisCallback<T> callback, Supplier<T> fallback) {
+                Permit permit = acquire();
+                if (permit == Permit.REJECTED) {
+                        return fallback.get();
+                }
+                try {
+                        T result = redisTemplate.execute(callback);
+                        onSuccess(permit);
+                        return result;
+                } catch (RuntimeException e) {
+                        onFailure(permit, e);
+                        return fallback.get();
+                }
+        }
+
+        /**
+         * @see #executeOrBuffer(String, RedisCallback, Runnable, Runnable)
+         */
+        public boolean executeOrBuffer(String operation, RedisCallback<?> callback) {
+                return executeOrBuffer(operation, callback, NOTHING, NOTHING);
+        }
+
+        /**
+         * @see #executeOrBuffer(String, RedisCallback, Runnable, Runnable)
+         */
+        public boolean executeOrBuffer(String operation, RedisCallback<?> callback, Runnable onBuffered) {
+                return executeOrBuffer(operation, callback, onBuffered, NOTHING);
+        }
+
+        /**
+         * Runs a write that has to reach Redis, or buffers it for replay when the
+         * circuit is open, the write fails or earlier writes are still buffered.
+         *
+         * @param operation  names the write in logs
+         * @param onBuffered runs before the write is buffered, to keep its effect
+         *                   readable on this node
+         * @param onReplayed runs once a buffered write has reached Redis
+         * @return true if the write reached Redis now
+         */
+        public boolean executeOrBuffer(String operation, RedisCallback<?> callback, Runnable onBuffered,
+                        Runnable onReplayed) {
+                if (buffered.get() == 0) {
+                        Permit permit = acquire();
+                        if (permit != Permit.REJECTED) {
+                                try {
+                                        redisTemplate.execute(callback);
+                                        onSuccess(permit);
+                                        return true;
+                                } catch (RuntimeException e) {
+                                        onFailure(permit, e);
+                                }
+                        }
+                }
+                onBuffered.run();
+                if (buffered.incrementAndGet() > properties.getMaxBufferedWrites()) {
+                        buffered.decrementAndGet();
+                        droppedWrites.increment();
+                        log.debug("Redis replay buffer full, dropping {}", operation);
+                        return false;
+                }
+                buffer.addLast(new BufferedWrite(operation, callback, onReplayed));
+                bufferedWrites.increment();
+                return false;
+        }
+
+        /**
+         * @return true from the circuit opening until the buffer is drained
+         */
+        public boolean isDegraded() {
+                return openedAt != CLOSED || buffered.get() > 0;
+        }
+
+        /**
+         * Probes an open circuit even without traffic and replays buffered writes
+         * in order, stopping at the first failure.
+         */
+        @Scheduled(fixedDelayString = "${payment.redis.replay-interval:1s}")
+        public synchronized void replay() {
+                if (openedAt != CLOSED) {
+                        Permit permit = acquire();
+                        if (permit == Permit.REJECTED) {
+                                return;
+                        }
+                        try {
+                                redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+                                onSuccess(permit);
+                        } catch (RuntimeException e) {
+                                onFailure(permit, e);
+                                return;
+                        }
+                }
+
+                int replayed = 0;
+                BufferedWrite write;
+                while (replayed < properties.getReplayBatchSize() && (write = buffer.peekFirst()) != null) {
+                        Permit permit = acquire();
+                        if (permit == Permit.REJECTED) {
+                                return;
+                        }
+                        try {
+                                redisTemplate.execute(write.callback());
+                                onSuccess(permit);
+                        } catch (RuntimeException e) {
+                                onFailure(permit, e);
+                                log.debug("Replay of {} failed, retrying on the next run", write.operation());
+                                return;
+                        }
+                        buffer.pollFirst();
+                        buffered.decrementAndGet();
+                        replayedWrites.increment();
+                        write.onReplayed().run();
+                        replayed++;
+                }
+                if (replayed > 0) {
+                        log.info("Replayed {} buffered writes to Redis, {} left", replayed, buffered.get());
+                }
+                if (!isDegraded()) {
+                        endDegraded();
+                }
+        }
+
+        private Permit acquire() {
+                long opened = openedAt;
+                if (opened == CLOSED) {
+                        return Permit.NORMAL;
+                }
+                if (System.nanoTime() - opened >= properties.getOpenDuration().toNanos()
+                                && probing.compareAndSet(false, true)) {
+                        return Permit.PROBE;
+                }
+                return Permit.REJECTED;
+        }
+
+        private void onSuccess(Permit permit) {
+                consecutiveFailures.set(0);
+                if (permit == Permit.PROBE) {
+                        openedAt = CLOSED;
+                        probing.set(false);
+                        log.info("Redis is answering again, closing the circuit ({} writes to replay)",
+                                        buffered.get());
+                }
+        }
+
+        private void onFailure(Permit permit, RuntimeException e) {
+                if (permit == Permit.PROBE) {
+                        openedAt = System.nanoTime();
+                        probing.set(false);
+                        return;
+                }
+                log.debug("Redis call failed", e);
+                if (consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold() && openedAt == CLOSED) {
+                        open(e);
+                }
+        }
+
+        private void open(RuntimeException cause) {
+                synchronized (episodeLock) {
+                        if (openedAt != CLOSED) {
+                                return;
+                        }
+                        openedAt = System.nanoTime();
+                        if (degradedSample == null) {
+                                degradedSample = degraded.start();
+                        }
+                }
+                log.warn("Redis failing ({}), opening the circuit: payment and checkout state is kept locally "
+                                + "and buffered for replay", cause.toString());
+        }
+
+        private void endDegraded() {
+                long nanos;
+                synchronized (episodeLock) {
+                        // The circuit may have opened again since the caller looked
+                        if (degradedSample == null || openedAt != CLOSED) {
+                                return;
+                        }
+                        nanos = degradedSample.stop();
+                        degradedSample = null;
+                }
+                degradedDuration.record(Duration.ofNanos(nanos));
+                log.info("Redis degraded mode ended after {}", Duration.ofNanos(nanos));
+        }
+
+        private static Counter writes(MeterRegistry meterRegistry, String result) {
+                return Counter.builder("redis.buffer.writes")
+                                .description("Writes buffered while Redis was unavailable, by what became of them")
+                                .tag("result", result)
+                                .register(meterRegistry);
+        }
+
+        private enum Permit {
+                NORMAL, PROBE, REJECTED
+        }
+
+        private record BufferedWrite(String operation, RedisCallback<?> callback, Runnable onReplayed) {
+        }
+}
@@ -0,0 +1,154 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.model.PricingModel;
+import com.paymentgateway.model.VendorHealth;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * One immutable copy of the reference data the hot paths read, as of
+ * {@code syncedAt}. Replaced as a whole by {@link ReferenceDataStore}; the
+ * entities in it must not be modified.
+ *
+ * @param fullSyncedAt            when merchant configs were last read in full,
+ *                                which is the only time deletions are seen
+ * @param merchantConfigWatermark the latest merchant config updated_at seen,
+ *                                where the next delta sync starts
+ * @param merchantConfigs         every config of each merchant, enabled or not
+ * @param pricingByVendor         each vendor's bands by ascending lower bound
+ */
+record ReferenceData(
+        Instant syncedAt,
+        Instant fullSyncedAt,
+        LocalDateTime merchantConfigWatermark,
+        List<PaymentMethod> activeMethods,
+        Map<UUID, List<MerchantPaymentConfig>> merchantConfigs,
+        Map<String, List<PricingModel>> pricingByVendor,
+        List<VendorHealth> vendors) {
+
+    static final ReferenceData EMPTY = new ReferenceData(Instant.EPOCH, Instant.EPOCH, null, List.of(), Map.of(),
+            Map.of(), List.of());
+
+    static ReferenceData of(Instant syncedAt, Instant fullSyncedAt, List<PaymentMethod> activeMethods,
+            Collection<MerchantPaymentConfig> merchantConfigs, Collection<PricingModel> pricingModels,
+            List<VendorHealth> vendors) {
+        return new ReferenceData(syncedAt, fullSyncedAt, latestUpdate(merchantConfigs, null),
+                List.copyOf(activeMethods), byMerchant(merchantConfigs), byVendor(pricingModels),
+                List.copyOf(vendors));
+    }
+
+    /**
+     * This data with the catalog, pricing and vendors replaced and the changed
+     * merchant configs merged in; a merchant's list is only copied when one of
+     * its configs actually differs.
+     *
+     * @param changedMerchants receives the merchants whose configs differ
+     */
+    ReferenceData withDelta(Instant syncedAt, List<PaymentMethod> activeMethods,
+            Collection<MerchantPaymentConfig> changedConfigs, Collection<PricingModel> pricingModels,
+            List<VendorHealth> vendors, Set<UUID> changedMerchants) {
+        Map<UUID, List<MerchantPaymentConfig>> merged = merchantConfigs;
+        for (Map.Entry<UUID, List<MerchantPaymentConfig>> entry : byMerchant(changedConfigs).entrySet()) {
+            List<MerchantPaymentConfig> current = merchantConfigs.getOrDefault(entry.getKey(), List.of());
+            List<MerchantPaymentConfig> updated = merge(current, entry.getValue());
+            if (!updated.equals(current)) {
+                if (merged == merchantConfigs) {
+                    merged = new HashMap<>(merchantConfigs);
+                }
+                merged.put(entry.getKey(), updated);
+                changedMerchants.add(entry.getKey());
+            }
+        }
+        return new ReferenceData(syncedAt, fullSyncedAt, latestUpdate(changedConfigs, merchantConfigWatermark),
+                List.copyOf(activeMethods), merged == merchantConfigs ? merged : Map.copyOf(merged),
+                byVendor(pricingModels), List.copyOf(vendors));
+    }
+
+    /**
+     * This data with one merchant config saved on this node applied.
+     */
+    ReferenceData withMerchantConfig(MerchantPaymentConfig config) {
+        Map<UUID, List<MerchantPaymentConfig>> merged = new HashMap<>(merchantConfigs);
+        merged.put(config.getMerchantId(),
+                merge(merchantConfigs.getOrDefault(config.getMerchantId(), List.of()), List.of(config)));
+        return new ReferenceData(syncedAt, fullSyncedAt, merchantConfigWatermark, activeMethods,
+                Map.copyOf(merged), pricingByVendor, vendors);
+    }
+
+    MerchantPaymentConfig merchantConfig(UUID merchantId, String methodId) {
+        for (MerchantPaymentConfig config : merchantConfigs.getOrDefault(merchantId, List.of())) {
+            if (config.getMethodId().equals(methodId)) {
+                return config;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the vendor's band containing the amount, or null
+     */
+    PricingModel pricingModel(String vendorId, long amountMinor) {
+        for (PricingModel model : pricingByVendor.getOrDefault(vendorId, List.of())) {
+            if (model.getMinAmountMinor() > amountMinor) {
+                return null;
+            }
+            if (model.getMaxAmountMinor() >= amountMinor) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    int merchantConfigCount() {
+        return merchantConfigs.values().stream().mapToInt(List::size).sum();
+    }
+
+    // A merchant has one config per method; a changed one replaces it
+    private static List<MerchantPaymentConfig> merge(List<MerchantPaymentConfig> current,
+            List<MerchantPaymentConfig> changed) {
+        Map<String, MerchantPaymentConfig> byMethod = new LinkedHashMap<>();
+        current.forEach(config -> byMethod.put(config.getMethodId(), config));
+        changed.forEach(config -> byMethod.put(config.getMethodId(), config));
+        return List.copyOf(byMethod.values());
+    }
+
+    private static Map<UUID, List<MerchantPaymentConfig>> byMerchant(Collection<MerchantPaymentConfig> configs) {
+        Map<UUID, List<MerchantPaymentConfig>> byMerchant = new HashMap<>();
+        for (MerchantPaymentConfig config : configs) {
+            byMerchant.computeIfAbsent(config.getMerchantId(), id -> new ArrayList<>()).add(config);
+        }
+        byMerchant.replaceAll((merchantId, list) -> merge(List.of(), list));
+        return Map.copyOf(byMerchant);
+    }
+
+    private static Map<String, List<PricingModel>> byVendor(Collection<PricingModel> models) {
+        return Map.copyOf(models.stream().collect(Collectors.groupingBy(PricingModel::getVendorId,
+                Collectors.collectingAndThen(Collectors.toList(), list -> list.stream()
+                        .sorted(Comparator.comparingLong(PricingModel::getMinAmountMinor))
+                        .toList()))));
+    }
+
+    private static LocalDateTime latestUpdate(Collection<MerchantPaymentConfig> configs, LocalDateTime since) {
+        LocalDateTime latest = since;
+        for (MerchantPaymentConfig config : configs) {
+            LocalDateTime updatedAt = config.getUpdatedAt();
+            if (updatedAt != null && (latest == null || updatedAt.isAfter(latest))) {
+                latest = updatedAt;
+            }
+        }
+        return latest;
+    }
+}
@@ -0,0 +1,309 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.model.PricingModel;
+import com.paymentgateway.model.VendorHealth;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned, checksummed binary file holding one {@link ReferenceData}, so a
+ * restarting node can serve before it has read anything from the database.
+ *
+ * <pre>
+ * offset  size  field
+ *   0      4    magic "PGRD"
+ *   4      2    format version
+ *   6      2    reserved
+ *   8      8    syncedAt (epoch millis)
+ *  16      8    fullSyncedAt (epoch millis)
+ *  24      8    merchantConfigWatermark (epoch micros, UTC wall clock), NO_TIMESTAMP when absent
+ *  32      4    payload length
+ *  36      4    payload CRC32C
+ *  40      n    payload: methods, merchant configs, pricing models, vendors,
+ *               each a 4-byte count followed by the rows
+ * </pre>
+ *
+ * Strings are a 4-byte UTF-8 length (-1 for null) and the bytes; nullable
+ * numbers are a presence byte and the value. Any change to the row layout
+ * requires a version bump; a file with another version is ignored. Files are
+ * written to a temporary sibling and renamed over the old one, so a reader
+ * sees either the previous snapshot or the new one.
+ */
+final class ReferenceDataSnapshot {
+
+        static final short VERSION = 1;
+
+        static final int HEADER_SIZE = 40;
+
+        private static final int MAGIC = 0x50475244;
+        private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+        private ReferenceDataSnapshot() {
+        }
+
+        static void write(Path file, ReferenceData data) throws IOException {
+                byte[] payload = encodePayload(data);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC);
+                header.putShort(VERSION);
+                header.putShort((short) 0);
+                header.putLong(data.syncedAt().toEpochMilli());
+                header.putLong(data.fullSyncedAt().toEpochMilli());
+                header.putLong(toMicros(data.merchantConfigWatermark()));
+                header.putInt(payload.length);
+                header.putInt((int) crc.getValue());
+                header.flip();
+
+                Path parent = file.toAbsolutePath().getParent();
+                Files.createDirectories(parent);
+                Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+                try {
+                        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                                channel.write(new ByteBuffer[] { header, ByteBuffer.wrap(payload) });
+                                channel.force(true);
+                        }
+                        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                        Files.deleteIfExists(temp);
+                }
+        }
+
+        /**
+         * Maps the file and decodes it.
+         *
+         * @throws IOException if the file cannot be read, is from another
+         *                     format version or fails its checksum
+         */
+        static ReferenceData read(Path file) throws IOException {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                        long size = channel.size();
+                        if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                                throw new IOException("Not a reference data snapshot: " + size + " bytes");
+                        }
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                        if (buffer.getInt() != MAGIC) {
+                                throw new IOException("Not a reference data snapshot: bad magic");
+                        }
+                        short version = buffer.getShort();
+                        if (version != VERSION) {
+                                throw new IOException("Reference data snapshot version " + version + ", expected "
+                                                + VERSION);
+                        }
+                        buffer.getShort();
+                        Instant syncedAt = Instant.ofEpochMilli(buffer.getLong());
+                        Instant fullSyncedAt = Instant.ofEpochMilli(buffer.getLong());
+                        LocalDateTime watermark = fromMicros(buffer.getLong());
+                        int payloadLength = buffer.getInt();
+                        int checksum = buffer.getInt();
+                        if (payloadLength != size - HEADER_SIZE) {
+                                throw new IOException("Reference data snapshot truncated");
+                        }
+
+                        ByteBuffer payload = buffer.slice(HEADER_SIZE, payloadLength);
+                        CRC32C crc = new CRC32C();
+                        crc.update(payload.duplicate());
+                        if ((int) crc.getValue() != checksum) {
+                                throw new IOException("Reference data snapshot checksum mismatch");
+                        }
+                        return decodePayload(payload, syncedAt, fullSyncedAt, watermark);
+                }
+        }
+
+        private static byte[] encodePayload(ReferenceData data) throws IOException {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+                DataOutputStream out = new DataOutputStream(bytes);
+
+                out.writeInt(data.activeMethods().size());
+                for (PaymentMethod method : data.activeMethods()) {
+                        writeString(out, method.getMethodId());
+                        writeString(out, method.getMethodName());
+                        out.writeLong(method.getSupportedNetworks());
+                        out.writeBoolean(method.isActive());
+                }
+
+                out.writeInt(data.merchantConfigCount());
+                for (List<MerchantPaymentConfig> configs : data.merchantConfigs().values()) {
+                        for (MerchantPaymentConfig config : configs) {
+                                writeUuid(out, config.getConfigId());
+                                writeUuid(out, config.getMerchantId());
+                                writeString(out, config.getMethodId());
+                                writeNullableLong(out, config.getSupportedNetworks());
+                                writeNullableLong(out, config.getMinAmountMinor());
+                                writeNullableLong(out, config.getMaxAmountMinor());
+                                out.writeBoolean(Boolean.TRUE.equals(config.getEnabled()));
+                                out.writeLong(toMicros(config.getCreatedAt()));
+                                out.writeLong(toMicros(config.getUpdatedAt()));
+                        }
+                }
+
+                List<PricingModel> pricing = data.pricingByVendor().values().stream().flatMap(List::stream).toList();
+                out.writeInt(pricing.size());
+                for (PricingModel model : pricing) {
+                        writeString(out, model.getVendorId());
+                        out.writeLong(model.getMinAmountMinor());
+                        out.writeLong(model.getMaxAmountMinor());
+                        out.writeInt(model.getFeeBps());
+                        out.writeLong(model.getFixedFeeMinor());
+                }
+
+                out.writeInt(data.vendors().size());
+                for (VendorHealth vendor : data.vendors()) {
+                        writeString(out, vendor.getVendorId());
+                        writeNullableDouble(out, vendor.getUptimeScore());
+                        writeNullableDouble(out, vendor.getErrorRate());
+                        out.writeBoolean(vendor.isDown());
+                        out.writeLong(toMicros(vendor.getLastUpdated()));
+                }
+
+                out.flush();
+                return bytes.toByteArray();
+        }
+
+        private static ReferenceData decodePayload(ByteBuffer in, Instant syncedAt, Instant fullSyncedAt,
+                        LocalDateTime watermark) {
+                int count = in.getInt();
+                List<PaymentMethod> methods = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                        PaymentMethod method = new PaymentMethod();
+                        method.setMethodId(readString(in));
+                        method.setMethodName(readString(in));
+                        method.setSupportedNetworks(in.getLong());
+                        method.setActive(in.get() != 0);
+                        methods.add(method);
+                }
+
+                count = in.getInt();
+                List<MerchantPaymentConfig> configs = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                        MerchantPaymentConfig config = new MerchantPaymentConfig();
+                        config.setConfigId(readUuid(in));
+                        config.setMerchantId(readUuid(in));
+                        config.setMethodId(readString(in));
+                        config.setSupportedNetworks(readNullableLong(in));
+                        config.setMinAmountMinor(readNullableLong(in));
+                        config.setMaxAmountMinor(readNullableLong(in));
+                        config.setEnabled(in.get() != 0);
+                        config.setCreatedAt(fromMicros(in.getLong()));
+                        config.setUpdatedAt(fromMicros(in.getLong()));
+                        configs.add(config);
+                }
+
+                count = in.getInt();
+                List<PricingModel> pricing = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                        PricingModel model = new PricingModel();
+                        model.setVendorId(readString(in));
+                        model.setMinAmountMinor(in.getLong());
+                        model.setMaxAmountMinor(in.getLong());
+                        model.setFeeBps(in.getInt());
+                        model.setFixedFeeMinor(in.getLong());
+                        pricing.add(model);
+                }
+
+                count = in.getInt();
+                List<VendorHealth> vendors = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                        VendorHealth vendor = new VendorHealth();
+                        vendor.setVendorId(readString(in));
+                        vendor.setUptimeScore(readNullableDouble(in));
+                        vendor.setErrorRate(readNullableDouble(in));
+                        vendor.setDown(in.get() != 0);
+                        vendor.setLastUpdated(fromMicros(in.getLong()));
+                        vendors.add(vendor);
+                }
+
+                ReferenceData data = ReferenceData.of(syncedAt, fullSyncedAt, methods, configs, pricing, vendors);
+                // Resume delta syncs where the writer left off, not at the newest config it happened to hold
+                return new ReferenceData(syncedAt, fullSyncedAt, watermark, data.activeMethods(),
+                                data.merchantConfigs(), data.pricingByVendor(), data.vendors());
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+                if (value == null) {
+                        out.writeInt(-1);
+                        return;
+                }
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+        }
+
+        private static String readString(ByteBuffer in) {
+                int length = in.getInt();
+                if (length < 0) {
+                        return null;
+                }
+                byte[] bytes = new byte[length];
+                in.get(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static void writeUuid(DataOutputStream out, UUID value) throws IOException {
+                out.writeLong(value.getMostSignificantBits());
+                out.writeLong(value.getLeastSignificantBits());
+        }
+
+        private static UUID readUuid(ByteBuffer in) {
+                return new UUID(in.getLong(), in.getLong());
+        }
+
+        private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                        out.writeLong(value);
+                }
+        }
+
+        private static Long readNullableLong(ByteBuffer in) {
+                return in.get() != 0 ? in.getLong() : null;
+        }
+
+        private static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                        out.writeDouble(value);
+                }
+        }
+
+        private static Double readNullableDouble(ByteBuffer in) {
+                return in.get() != 0 ? in.getDouble() : null;
+        }
+
+        // Timestamps are local wall-clock values; UTC only fixes an epoch to count from
+        private static long toMicros(LocalDateTime time) {
+                if (time == null) {
+                        return NO_TIMESTAMP;
+                }
+                return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+        }
+
+        private static LocalDateTime fromMicros(long micros) {
+                if (micros == NO_TIMESTAMP) {
+                        return null;
+                }
+                return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+        }
+}
@@ -0,0 +1,255 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.ReferenceDataProperties;
+import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.model.PricingModel;
+import com.paymentgateway.model.VendorHealth;
+import com.paymentgateway.repository.MerchantPaymentConfigRepository;
+import com.paymentgateway.repository.PaymentMethodRepository;
+import com.paymentgateway.repository.PricingModelRepository;
+import com.paymentgateway.repository.VendorHealthRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-process copy of the reference data read on every checkout and payment:
+ * the active method catalog, merchant configs, pricing bands and vendor
+ * health.
+ * <p>
+ * On first use it maps the snapshot file written by an earlier run and serves
+ * from it straight away, so a fleet restart does not reload everything from
+ * Postgres at once. Without a usable snapshot it reads the tables instead.
+ * Every {@code sync-interval} a background sync re-reads the small tables and
+ * fetches merchant configs updated since the last sync; a full merchant config
+ * read every {@code full-sync-interval} also drops deleted ones. The first sync
+ * runs right after startup, so a node started from a snapshot catches up
+ * within seconds. The current data is written back to the snapshot every
+ * {@code snapshot-interval} and on shutdown.
+ * <p>
+ * Merchant configs saved on this node are applied immediately; other nodes see
+ * them after their next sync, and drop affected checkout templates then.
+ */
+@Component
+@Slf4j
+public class ReferenceDataStore {
+
+        private final PaymentMethodRepository paymentMethodRepository;
+        private final MerchantPaymentConfigRepository merchantConfigRepository;
+        private final PricingModelRepository pricingModelRepository;
+        private final VendorHealthRepository vendorHealthRepository;
+        private final ReferenceDataProperties properties;
+        private final ApplicationEventPublisher eventPublisher;
+        private final Counter syncFailures;
+
+        private volatile ReferenceData data;
+        // syncedAt of the data last read from or written to the snapshot file
+        private volatile Instant snapshotSyncedAt = Instant.EPOCH;
+
+        public ReferenceDataStore(PaymentMethodRepository paymentMethodRepository,
+                        MerchantPaymentConfigRepository merchantConfigRepository,
+                        PricingModelRepository pricingModelRepository,
+                        VendorHealthRepository vendorHealthRepository,
+                        ReferenceDataProperties properties,
+                        ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry) {
+                this.paymentMethodRepository = paymentMethodRepository;
+                this.merchantConfigRepository = merchantConfigRepository;
+                this.pricingModelRepository = pricingModelRepository;
+                this.vendorHealthRepository = vendorHealthRepository;
+                this.properties = properties;
+                this.eventPublisher = eventPublisher;
+
+                Gauge.builder("reference.data.age", this, store -> store.data != null
+                                ? Duration.between(store.data.syncedAt(), Instant.now()).toMillis() / 1000.0
+                                : Double.NaN)
+                                .description("Time since the reference data was last synced from the database")
+                                .baseUnit("seconds")
+                                .register(meterRegistry);
+                this.syncFailures = Counter.builder("reference.data.sync.failures")
+                                .description("Reference data syncs that failed; the previous data stays in use")
+                                .register(meterRegistry);
+        }
+
+        public List<PaymentMethod> activeMethods() {
+                return data().activeMethods();
+        }
+
+        /**
+         * @return the merchant's config for the method, enabled or not, or null
+         */
+        public MerchantPaymentConfig merchantConfig(UUID merchantId, String methodId) {
+                return data().merchantConfig(merchantId, methodId);
+        }
+
+        public List<MerchantPaymentConfig> merchantConfigs(UUID merchantId) {
+                return data().merchantConfigs().getOrDefault(merchantId, List.of());
+        }
+
+        /**
+         * @return the vendor's pricing band containing the amount, or null
+         */
+        public PricingModel pricingModel(String vendorId, long amountMinor) {
+                return data().pricingModel(vendorId, amountMinor);
+        }
+
+        public List<PricingModel> pricingModels() {
+                return data().pricingByVendor().values().stream().flatMap(List::stream).toList();
+        }
+
+        public List<VendorHealth> vendors() {
+                return data().vendors();
+        }
+
+        public Instant syncedAt() {
+                return data().syncedAt();
+        }
+
+        /**
+         * Applies a merchant config this node has just saved.
+         */
+        public synchronized void put(MerchantPaymentConfig config) {
+                data = data().withMerchantConfig(config);
+        }
+
+        @Scheduled(fixedDelayString = "${payment.reference-data.sync-interval:10s}", initialDelay = 0)
+        public synchronized void sync() {
+                ReferenceData current = data();
+                try {
+                        Instant now = Instant.now();
+                        List<PaymentMethod> methods = paymentMethodRepository.findByActiveTrue();
+                        List<PricingModel> pricing = pricingModelRepository.findAll();
+                        List<VendorHealth> vendors = vendorHealthRepository.findAll();
+
+                        Set<UUID> changedMerchants = new HashSet<>();
+                        LocalDateTime watermark = current.merchantConfigWatermark();
+                        Instant fullSyncDue = current.fullSyncedAt().plus(properties.getFullSyncInterval());
+                        ReferenceData synced;
+                        if (watermark == null || fullSyncDue.isBefore(now)) {
+                                synced = ReferenceData.of(now, now, methods, merchantConfigRepository.findAll(),
+                                                pricing, vendors);
+                                changedMerchants.addAll(current.merchantConfigs().keySet());
+                                changedMerchants.addAll(synced.merchantConfigs().keySet());
+                                changedMerchants.removeIf(merchantId -> Objects.equals(
+                                                current.merchantConfigs().get(merchantId),
+                                                synced.merchantConfigs().get(merchantId)));
+                        } else {
+                                List<MerchantPaymentConfig> changed = merchantConfigRepository
+                                                .findByUpdatedAtGreaterThanEqual(
+                                                                watermark.minus(properties.getSyncOverlap()));
+                                synced = current.withDelta(now, methods, changed, pricing, vendors, changedMerchants);
+                        }
+                        data = synced;
+
+                        for (UUID merchantId : changedMerchants) {
+                                eventPublisher.publishEvent(new MerchantConfigChangedEvent(merchantId));
+                        }
+                        if (!changedMerchants.isEmpty()) {
+                                log.info("Reference data synced, configs changed for {} merchants",
+                                                changedMerchants.size());
+                        }
+                } catch (Exception e) {
+                        syncFailures.increment();
+                        log.warn("Reference data sync failed, serving data as of {}", current.syncedAt(), e);
+                }
+        }
+
+        @Scheduled(fixedDelayString = "${payment.reference-data.snapshot-interval:5m}",
+                        initialDelayString = "${payment.reference-data.snapshot-interval:5m}")
+        @PreDestroy
+        public void writeSnapshot() {
+                Path file = snapshotFile();
+                ReferenceData current = data;
+                // Nothing new since the file was read or written; an empty store never overwrites a snapshot
+                if (file == null || current == null || !current.syncedAt().isAfter(snapshotSyncedAt)) {
+                        return;
+                }
+                try {
+                        ReferenceDataSnapshot.write(file, current);
+                        snapshotSyncedAt = current.syncedAt();
+                        log.debug("Reference data snapshot written to {}", file);
+                } catch (IOException e) {
+                        log.warn("Could not write reference data snapshot {}", file, e);
+                }
+        }
+
+        private ReferenceData data() {
+                ReferenceData current = data;
+                return current != null ? current : load();
+        }
+
+        private synchronized ReferenceData load() {
+                if (data != null) {
+                        return data;
+                }
+                ReferenceData loaded = readSnapshot();
+                if (loaded == null) {
+                        loaded = readDatabase();
+                }
+                data = loaded;
+                return loaded;
+        }
+
+        private ReferenceData readSnapshot() {
+                Path file = snapshotFile();
+                if (file == null || !Files.exists(file)) {
+                        return null;
+                }
+                try {
+                        ReferenceData snapshot = ReferenceDataSnapshot.read(file);
+                        Duration age = Duration.between(snapshot.syncedAt(), Instant.now());
+                        if (age.compareTo(properties.getMaxSnapshotAge()) > 0) {
+                                log.info("Reference data snapshot {} is {} old, reading the database instead", file,
+                                                age);
+                                return null;
+                        }
+                        snapshotSyncedAt = snapshot.syncedAt();
+                        log.info("Serving reference data from snapshot {} synced {} ago ({} methods, "
+                                        + "{} merchant configs, {} vendors)", file, age,
+                                        snapshot.activeMethods().size(), snapshot.merchantConfigCount(),
+                                        snapshot.vendors().size());
+                        return snapshot;
+                } catch (IOException | RuntimeException e) {
+                        log.warn("Ignoring unreadable reference data snapshot {}", file, e);
+                        return null;
+                }
+        }
+
+        private ReferenceData readDatabase() {
+                try {
+                        Instant now = Instant.now();
+                        return ReferenceData.of(now, now, paymentMethodRepository.findByActiveTrue(),
+                                        merchantConfigRepository.findAll(), pricingModelRepository.findAll(),
+                                        vendorHealthRepository.findAll());
+                } catch (Exception e) {
+                        // The next sync reads everything again
+                        syncFailures.increment();
+                        log.error("Reference data load failed, serving nothing until the next sync", e);
+                        return ReferenceData.EMPTY;
+                }
+        }
+
+        private Path snapshotFile() {
+                String file = properties.getSnapshotFile();
+                return file == null || file.isBlank() ? null : Paths.get(file);
+        }
+}
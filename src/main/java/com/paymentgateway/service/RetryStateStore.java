@@ -0,0 +1,111 @@
+package com.paymentgateway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentgateway.config.RedisResilienceProperties;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis state carried between attempts of one payment: the attempt counter
+ * under {@code payment:retry:*} and the instruments declined so far under
+ * {@code checkout:declined:*}, which a retried checkout marks ineligible.
+ * <p>
+ * Calls go through {@link RedisGuard}. Instruments declined while Redis is
+ * degraded are also kept in a bounded local cache, so a retry served by this
+ * node still sees them before the buffered writes are replayed.
+ */
+@Component
+public class RetryStateStore {
+
+        static final String RETRY_PREFIX = "payment:retry:";
+        static final String DECLINED_PREFIX = "checkout:declined:";
+
+        private static final long RETRY_TTL_SECONDS = TimeUnit.HOURS.toSeconds(24);
+        private static final long DECLINED_TTL_SECONDS = TimeUnit.HOURS.toSeconds(1);
+
+        private final RedisGuard redisGuard;
+        private final Cache<UUID, Set<String>> pendingDeclined;
+
+        public RetryStateStore(RedisGuard redisGuard, RedisResilienceProperties properties) {
+                this.redisGuard = redisGuard;
+                this.pendingDeclined = Caffeine.newBuilder()
+                                .maximumSize(properties.getMaxLocalEntries())
+                                .expireAfterWrite(properties.getLocalTtl())
+                                .build();
+        }
+
+        public void recordAttempt(UUID paymentId) {
+                byte[] key = key(RETRY_PREFIX, paymentId);
+                redisGuard.executeOrBuffer("retry count " + paymentId, (RedisCallback<Boolean>) connection -> {
+                        connection.stringCommands().incr(key);
+                        return connection.keyCommands().expire(key, RETRY_TTL_SECONDS);
+                });
+        }
+
+        /**
+         * Counts an attempt for each payment in one pipelined round trip.
+         */
+        public void recordAttempts(Collection<UUID> paymentIds) {
+                if (paymentIds.isEmpty()) {
+                        return;
+                }
+                List<byte[]> keys = paymentIds.stream().map(paymentId -> key(RETRY_PREFIX, paymentId)).toList();
+                redisGuard.executeOrBuffer(keys.size() + " retry counts", (RedisCallback<Void>) connection -> {
+                        connection.openPipeline();
+                        try {
+                                for (byte[] key : keys) {
+                                        connection.stringCommands().incr(key);
+                                        connection.keyCommands().expire(key, RETRY_TTL_SECONDS);
+                                }
+                        } finally {
+                                connection.closePipeline();
+                        }
+                        return null;
+                });
+        }
+
+        public void addDeclinedInstrument(UUID paymentId, UUID instrumentId) {
+                byte[] key = key(DECLINED_PREFIX, paymentId);
+                String member = instrumentId.toString();
+                byte[] value = member.getBytes(StandardCharsets.UTF_8);
+                // The set only grows, so the local copy can stay until it expires
+                redisGuard.executeOrBuffer("declined instrument " + paymentId, (RedisCallback<Boolean>) connection -> {
+                        connection.setCommands().sAdd(key, value);
+                        return connection.keyCommands().expire(key, DECLINED_TTL_SECONDS);
+                }, () -> pendingDeclined.asMap().computeIfAbsent(paymentId, id -> ConcurrentHashMap.newKeySet())
+                                .add(member));
+        }
+
+        /**
+         * @return the instrument ids declined so far in this payment; while Redis
+         *         is unavailable, only those recorded on this node
+         */
+        public Set<String> declinedInstruments(UUID paymentId) {
+                byte[] key = key(DECLINED_PREFIX, paymentId);
+                Set<byte[]> members = redisGuard.execute((RedisCallback<Set<byte[]>>) connection -> connection
+                                .setCommands().sMembers(key), () -> null);
+                Set<String> declined = new HashSet<>();
+                if (members != null) {
+                        members.forEach(member -> declined.add(new String(member, StandardCharsets.UTF_8)));
+                }
+                Set<String> local = pendingDeclined.getIfPresent(paymentId);
+                if (local != null) {
+                        declined.addAll(local);
+                }
+                return declined;
+        }
+
+        private static byte[] key(String prefix, UUID paymentId) {
+                return (prefix + paymentId).getBytes(StandardCharsets.UTF_8);
+        }
+}
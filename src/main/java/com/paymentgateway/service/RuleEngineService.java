@@ -2,11 +2,36 @@ package com.paymentgateway.service;
 
 import com.paymentgateway.model.PaymentInstrument;
 import com.paymentgateway.model.PaymentMethod;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Amounts are in minor units of {@link com.paymentgateway.model.Money#DEFAULT_CURRENCY}.
+ */
 public interface RuleEngineService {
-    boolean isEligible(PaymentMethod method, PaymentInstrument instrument, UUID merchantId, String mcc, Double amount);
+    boolean isEligible(PaymentMethod method, PaymentInstrument instrument, UUID merchantId, String mcc,
+            long amountMinor);
 
     String getIneligibilityReason(PaymentMethod method, PaymentInstrument instrument, UUID merchantId, String mcc,
-            Double amount);
+            long amountMinor);
+
+    /**
+     * Amounts at which a method-level result ({@code instrument == null}) can
+     * change for this merchant and MCC, ascending. Every amount strictly between
+     * two neighbouring breakpoints, or equal to one, gets the same method-level
+     * results, which lets checkout reuse them.
+     *
+     * @return null if the engine cannot tell, in which case nothing is reused
+     */
+    default long[] methodAmountBreakpoints(UUID merchantId, String mcc, List<PaymentMethod> methods) {
+        return null;
+    }
+
+    /**
+     * @return an identifier that changes whenever the rules themselves change,
+     *         or null if they never do
+     */
+    default String rulesVersion() {
+        return null;
+    }
 }
@@ -0,0 +1,114 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.SloProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.DoubleStream;
+
+/**
+ * Records per-stage latency of the checkout, payment and status pipelines into
+ * {@code pipeline.stage.duration}, tagged only by pipeline and stage.
+ * <p>
+ * Every timer is registered up front with a percentile histogram (for
+ * Prometheus), the stage's SLO as a bucket boundary, and client-side
+ * p50/p90/p99 (plus the SLO percentile) for the {@code slo} actuator
+ * endpoint. Recording is a {@code nanoTime} pair and an array lookup; no meter
+ * lookups happen on the request path.
+ */
+@Component
+public class StageTimer {
+
+        public static final String METER_NAME = "pipeline.stage.duration";
+        private static final double[] REPORTED_PERCENTILES = { 0.5, 0.9, 0.99 };
+
+        private final Timer[] timers = new Timer[PipelineStage.values().length];
+        private final Map<PipelineStage, Duration> objectives = new EnumMap<>(PipelineStage.class);
+
+        public StageTimer(MeterRegistry meterRegistry, SloProperties sloProperties) {
+                double[] percentiles = DoubleStream.concat(DoubleStream.of(REPORTED_PERCENTILES),
+                                DoubleStream.of(sloProperties.getPercentile())).distinct().toArray();
+                for (PipelineStage stage : PipelineStage.values()) {
+                        Duration objective = sloProperties.objectiveFor(stage);
+                        objectives.put(stage, objective);
+                        timers[stage.ordinal()] = Timer.builder(METER_NAME)
+                                        .description("Latency of one stage of a request pipeline")
+                                        .tag("pipeline", stage.getPipeline())
+                                        .tag("stage", stage.getStage())
+                                        .publishPercentileHistogram()
+                                        .publishPercentiles(percentiles)
+                                        .serviceLevelObjectives(objective)
+                                        .minimumExpectedValue(Duration.ofNanos(100_000))
+                                        .maximumExpectedValue(Duration.ofSeconds(10))
+                                        .register(meterRegistry);
+                }
+        }
+
+        /**
+         * Records the time since {@code startNanos} against the stage.
+         *
+         * @return the current {@link System#nanoTime()}, to start the next stage
+         */
+        public long record(PipelineStage stage, long startNanos) {
+                long now = System.nanoTime();
+                timers[stage.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+                return now;
+        }
+
+        /**
+         * Starts accumulating stage times for one request. Use when a stage runs
+         * many times per request (rules per instrument) and should be recorded
+         * once with its summed time.
+         */
+        public Split split() {
+                return new Split();
+        }
+
+        public Timer timer(PipelineStage stage) {
+                return timers[stage.ordinal()];
+        }
+
+        public Duration objective(PipelineStage stage) {
+                return objectives.get(stage);
+        }
+
+        /**
+         * Per-request accumulator; not thread-safe.
+         */
+        public final class Split {
+
+                private final long[] elapsed = new long[timers.length];
+                private long touched;
+
+                private Split() {
+                }
+
+                /**
+                 * Adds the time since {@code startNanos} to the stage.
+                 *
+                 * @return the current {@link System#nanoTime()}, to start the next stage
+                 */
+                public long lap(PipelineStage stage, long startNanos) {
+                        long now = System.nanoTime();
+                        elapsed[stage.ordinal()] += now - startNanos;
+                        touched |= 1L << stage.ordinal();
+                        return now;
+                }
+
+                /**
+                 * Records every stage that was lapped at least once.
+                 */
+                public void record() {
+                        for (int i = 0; i < elapsed.length; i++) {
+                                if ((touched & (1L << i)) != 0) {
+                                        timers[i].record(elapsed[i], TimeUnit.NANOSECONDS);
+                                }
+                        }
+                }
+        }
+}
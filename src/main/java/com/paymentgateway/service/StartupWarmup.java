@@ -0,0 +1,296 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.ReadReplicaRoutingDataSource;
+import com.paymentgateway.config.ReplicaLagMonitor;
+import com.paymentgateway.config.WarmupProperties;
+import com.paymentgateway.model.Money;
+import com.paymentgateway.model.PaymentInstrument;
+import com.paymentgateway.model.PricingModel;
+import com.paymentgateway.repository.PaymentInstrumentRepository;
+import com.paymentgateway.repository.TransactionRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms a freshly started node before it takes traffic: loads the method
+ * catalog, pricing models, vendor health and the busiest merchants' configs
+ * and checkout templates, opens the connection pools and Redis, then runs
+ * synthetic checkouts so the hot paths are compiled.
+ * <p>
+ * Starts on its own thread once the application is ready; until it finishes
+ * the {@code warmup} health indicator keeps the readiness group out of
+ * service. Every step is best effort: a failing step is reported and the next
+ * one runs, and steps still pending at {@code payment.warmup.timeout} are
+ * skipped. The last report is shown under {@code /actuator/health/readiness}.
+ */
+@Component
+@Slf4j
+public class StartupWarmup {
+
+        // Small, typical and large checkout amounts in paise, so more than one band gets built
+        private static final long[] SYNTHETIC_AMOUNTS = { 10_000, 250_000, 5_000_000 };
+
+        private final WarmupProperties properties;
+        private final ReferenceDataStore referenceDataStore;
+        private final TransactionRepository transactionRepository;
+        private final PaymentInstrumentRepository paymentInstrumentRepository;
+        private final CheckoutTemplateCache checkoutTemplateCache;
+        private final PricingService pricingService;
+        private final VendorAvailabilityService vendorAvailabilityService;
+        private final MerchantConfigService merchantConfigService;
+        private final CheckoutService checkoutService;
+        private final StringRedisTemplate redisTemplate;
+        private final ObjectProvider<HikariDataSource> pools;
+        private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+
+        private volatile Report report;
+
+        public StartupWarmup(WarmupProperties properties,
+                        ReferenceDataStore referenceDataStore,
+                        TransactionRepository transactionRepository,
+                        PaymentInstrumentRepository paymentInstrumentRepository,
+                        CheckoutTemplateCache checkoutTemplateCache,
+                        PricingService pricingService,
+                        VendorAvailabilityService vendorAvailabilityService,
+                        MerchantConfigService merchantConfigService,
+                        CheckoutService checkoutService,
+                        StringRedisTemplate redisTemplate,
+                        ObjectProvider<HikariDataSource> pools,
+                        ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                        MeterRegistry meterRegistry) {
+                this.properties = properties;
+                this.referenceDataStore = referenceDataStore;
+                this.transactionRepository = transactionRepository;
+                this.paymentInstrumentRepository = paymentInstrumentRepository;
+                this.checkoutTemplateCache = checkoutTemplateCache;
+                this.pricingService = pricingService;
+                this.vendorAvailabilityService = vendorAvailabilityService;
+                this.merchantConfigService = merchantConfigService;
+                this.checkoutService = checkoutService;
+                this.redisTemplate = redisTemplate;
+                this.pools = pools;
+                this.replicaLagMonitor = replicaLagMonitor;
+
+                TimeGauge.builder("startup.warmup.duration", this, TimeUnit.NANOSECONDS,
+                                w -> w.report != null ? w.report.duration().toNanos() : Double.NaN)
+                                .description("Time the startup warm-up took; NaN while it is running")
+                                .register(meterRegistry);
+        }
+
+        /**
+         * The finished warm-up, or null while it has not finished.
+         */
+        public Report report() {
+                return report;
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        public void start() {
+                if (!properties.isEnabled()) {
+                        report = new Report(State.DISABLED, Duration.ZERO, Map.of(), Map.of());
+                        return;
+                }
+                Thread thread = new Thread(this::run, "startup-warmup");
+                thread.setDaemon(true);
+                thread.start();
+        }
+
+        void run() {
+                log.info("Startup warm-up started, node stays out of service until it finishes");
+                Run run = new Run(System.nanoTime() + properties.getTimeout().toNanos());
+                List<UUID> merchants = new ArrayList<>();
+                List<UUID> users = new ArrayList<>();
+
+                run.step("connections", this::primePools);
+                run.step("redis", this::pingRedis);
+                run.step("paymentMethods", this::loadCatalog);
+                run.step("pricingModels", this::loadPricing);
+                run.step("vendors", () -> vendorAvailabilityService.getAvailableVendors().size());
+                run.step("merchants", () -> warmMerchants(merchants, run));
+                run.step("syntheticUsers", () -> loadUsers(users));
+                run.step("syntheticCheckouts", () -> syntheticCheckouts(merchants, users, run));
+
+                Report finished = run.finish();
+                report = finished;
+                log.info("Startup warm-up {} in {} ms - coverage: {}, failures: {}", finished.state(),
+                                finished.duration().toMillis(), finished.coverage(), finished.failures().keySet());
+        }
+
+        private int primePools() throws SQLException {
+                int connections = 0;
+                for (HikariDataSource pool : pools.orderedStream().toList()) {
+                        connections += prime(pool, Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize()));
+                }
+                ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+                if (monitor != null) {
+                        for (ReadReplicaRoutingDataSource.Replica replica : monitor.getReplicas()) {
+                                if (replica.getDataSource() instanceof HikariDataSource pool) {
+                                        connections += prime(pool,
+                                                        Math.min(pool.getMinimumIdle(), pool.getMaximumPoolSize()));
+                                }
+                        }
+                }
+                return connections;
+        }
+
+        // Holds the connections together so the pool has to open that many
+        private static int prime(DataSource dataSource, int count) throws SQLException {
+                List<Connection> held = new ArrayList<>(count);
+                try {
+                        for (int i = 0; i < count; i++) {
+                                Connection connection = dataSource.getConnection();
+                                held.add(connection);
+                                connection.isValid(1);
+                        }
+                } finally {
+                        for (Connection connection : held) {
+                                connection.close();
+                        }
+                }
+                return held.size();
+        }
+
+        private int pingRedis() {
+                String reply = redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+                return "PONG".equalsIgnoreCase(reply) ? 1 : 0;
+        }
+
+        // The first read loads the reference data, from its snapshot when there is a fresh one
+        private int loadCatalog() {
+                checkoutTemplateCache.refreshCatalog();
+                return referenceDataStore.activeMethods().size();
+        }
+
+        // One fee calculation per model runs the same lookup and arithmetic as routing
+        private int loadPricing() {
+                List<PricingModel> models = referenceDataStore.pricingModels();
+                for (PricingModel model : models) {
+                        pricingService.calculateFee(model.getVendorId(), model.getMinAmountMinor());
+                }
+                return models.size();
+        }
+
+        private int warmMerchants(List<UUID> merchants, Run run) {
+                merchants.addAll(transactionRepository.findBusiestMerchants(
+                                LocalDateTime.now().minus(properties.getMerchantLookback()),
+                                PageRequest.of(0, properties.getTopMerchants())));
+                int warmed = 0;
+                for (UUID merchantId : merchants) {
+                        if (run.expired()) {
+                                break;
+                        }
+                        merchantConfigService.getEnabledConfigs(merchantId);
+                        for (String mcc : properties.getMccs()) {
+                                for (long amountMinor : SYNTHETIC_AMOUNTS) {
+                                        checkoutTemplateCache.get(merchantId, mcc, amountMinor);
+                                }
+                        }
+                        warmed++;
+                }
+                return warmed;
+        }
+
+        private int loadUsers(List<UUID> users) {
+                Set<UUID> distinct = new LinkedHashSet<>();
+                for (PaymentInstrument instrument : paymentInstrumentRepository
+                                .findAll(PageRequest.of(0, properties.getSyntheticUsers()))) {
+                        distinct.add(instrument.getUserId());
+                }
+                users.addAll(distinct);
+                return users.size();
+        }
+
+        private int syntheticCheckouts(List<UUID> merchants, List<UUID> users, Run run) {
+                // Without history or stored instruments the checkouts still run the method-level path
+                List<UUID> merchantIds = merchants.isEmpty() ? List.of(UUID.randomUUID()) : merchants;
+                List<UUID> userIds = users.isEmpty() ? List.of(UUID.randomUUID()) : users;
+                List<String> mccs = properties.getMccs();
+                int done = 0;
+                while (done < properties.getSyntheticCheckouts() && !run.expired()) {
+                        // Not through getCheckoutOptions: no idempotency entries, stage or service timings
+                        checkoutService.warmUp(merchantIds.get(done % merchantIds.size()),
+                                        userIds.get(done % userIds.size()),
+                                        new Money(SYNTHETIC_AMOUNTS[done % SYNTHETIC_AMOUNTS.length],
+                                                        Money.DEFAULT_CURRENCY),
+                                        mccs.get(done % mccs.size()));
+                        done++;
+                }
+                return done;
+        }
+
+        public enum State {
+                COMPLETE, TIMED_OUT, DISABLED
+        }
+
+        /**
+         * @param coverage how many items each step loaded or ran
+         * @param failures the error of each step that failed
+         */
+        public record Report(State state, Duration duration, Map<String, Integer> coverage,
+                        Map<String, String> failures) {
+        }
+
+        private static final class Run {
+
+                private final long startedAt = System.nanoTime();
+                private final long deadline;
+                private final Map<String, Integer> coverage = new LinkedHashMap<>();
+                private final Map<String, String> failures = new LinkedHashMap<>();
+                private boolean timedOut;
+
+                private Run(long deadline) {
+                        this.deadline = deadline;
+                }
+
+                boolean expired() {
+                        if (System.nanoTime() - deadline >= 0) {
+                                timedOut = true;
+                        }
+                        return timedOut;
+                }
+
+                void step(String name, Callable<Integer> work) {
+                        if (expired()) {
+                                return;
+                        }
+                        try {
+                                coverage.put(name, work.call());
+                        } catch (Exception e) {
+                                log.warn("Startup warm-up step {} failed, continuing", name, e);
+                                failures.put(name, e.toString());
+                        }
+                }
+
+                Report finish() {
+                        return new Report(timedOut ? State.TIMED_OUT : State.COMPLETE,
+                                        Duration.ofNanos(System.nanoTime() - startedAt),
+                                        Collections.unmodifiableMap(coverage), Collections.unmodifiableMap(failures));
+                }
+        }
+}
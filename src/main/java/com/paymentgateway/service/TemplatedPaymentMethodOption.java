@@ -0,0 +1,50 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.paymentgateway.generated.model.PaymentMethodOption;
+
+import java.io.IOException;
+
+/**
+ * A {@link PaymentMethodOption} built from a cached template. When written as
+ * JSON, every field but {@code userInstruments} is copied from the template's
+ * pre-encoded bytes instead of being serialized again; other formats, and
+ * templates that were not encoded, serialize it like a plain option. The
+ * method-level fields must not be changed after construction.
+ */
+@JsonSerialize(using = TemplatedPaymentMethodOption.Serializer.class)
+class TemplatedPaymentMethodOption extends PaymentMethodOption {
+
+        private final SerializableString encodedFields;
+
+        TemplatedPaymentMethodOption(SerializableString encodedFields) {
+                this.encodedFields = encodedFields;
+        }
+
+        public static final class Serializer extends StdSerializer<TemplatedPaymentMethodOption> {
+
+                public Serializer() {
+                        super(TemplatedPaymentMethodOption.class);
+                }
+
+                @Override
+                public void serialize(TemplatedPaymentMethodOption value, JsonGenerator gen,
+                                SerializerProvider provider) throws IOException {
+                        if (value.encodedFields == null || !(gen instanceof JsonGeneratorImpl)) {
+                                provider.findValueSerializer(PaymentMethodOption.class).serialize(value, gen, provider);
+                                return;
+                        }
+                        // The fragment ends with a comma, so userInstruments follows as if it were first
+                        gen.writeStartObject(value);
+                        gen.writeRaw(value.encodedFields);
+                        gen.writeFieldName("userInstruments");
+                        provider.defaultSerializeValue(value.getUserInstruments(), gen);
+                        gen.writeEndObject();
+                }
+        }
+}
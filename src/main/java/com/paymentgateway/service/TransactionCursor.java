@@ -0,0 +1,49 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.exception.InvalidRequestException;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a merchant's transaction listing: the (created_at, txn_id)
+ * of the last row returned. Encoded as an opaque URL-safe token.
+ */
+public record TransactionCursor(LocalDateTime createdAt, UUID txnId) {
+
+    private static final byte VERSION = 1;
+    private static final int SIZE = 1 + Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        buffer.put(VERSION);
+        buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(createdAt.getNano());
+        buffer.putLong(txnId.getMostSignificantBits());
+        buffer.putLong(txnId.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static TransactionCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor", e);
+        }
+        if (bytes.length != SIZE || bytes[0] != VERSION) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, SIZE - 1);
+        long epochSecond = buffer.getLong();
+        int nanos = buffer.getInt();
+        if (nanos < 0 || nanos > 999_999_999) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+        return new TransactionCursor(createdAt, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+}
@@ -0,0 +1,263 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.VendorDispatchProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Shares each vendor's concurrency between merchants with weighted fair
+ * queuing, so one merchant's peak cannot take every connection to a vendor.
+ * <p>
+ * A call runs immediately while the vendor has a free slot and nobody is
+ * waiting. Otherwise it queues under its merchant and is stamped with a
+ * virtual finish time, {@code max(vendor clock, merchant's last finish) + 1/weight};
+ * freed slots go to the smallest stamp. A merchant with weight 8 is served
+ * eight times as often as one with weight 1 while both are backlogged, and a
+ * merchant with one waiting call is never stuck behind another's backlog.
+ * <p>
+ * The call still runs on the caller's thread; the scheduler only decides when.
+ * Queues are bounded per merchant and per vendor, and waits are bounded by
+ * {@code queueTimeout}; either limit fails the call with
+ * {@link VendorBusyException}.
+ */
+@Component
+public class VendorDispatchScheduler {
+
+        private final VendorDispatchProperties properties;
+        private final MeterRegistry meterRegistry;
+        private final Map<String, VendorQueue> vendors = new ConcurrentHashMap<>();
+
+        public VendorDispatchScheduler(VendorDispatchProperties properties, MeterRegistry meterRegistry) {
+                this.properties = properties;
+                this.meterRegistry = meterRegistry;
+        }
+
+        /**
+         * Runs {@code call} once the vendor has a slot for this merchant.
+         *
+         * @throws VendorBusyException if the queue is full or the wait timed out
+         */
+        public <T> T dispatch(String vendorId, UUID merchantId, Supplier<T> call) {
+                if (!properties.isEnabled()) {
+                        return call.get();
+                }
+                VendorQueue vendor = vendors.computeIfAbsent(vendorId, this::newVendorQueue);
+                String tier = properties.tierOf(merchantId);
+                TierMeters meters = vendor.meters(tier);
+                long waitNanos = vendor.acquire(merchantId, tier, meters);
+                meters.queueWait.record(waitNanos, TimeUnit.NANOSECONDS);
+                try {
+                        return call.get();
+                } finally {
+                        vendor.release();
+                }
+        }
+
+        private VendorQueue newVendorQueue(String vendorId) {
+                VendorQueue vendor = new VendorQueue(vendorId, properties.concurrencyOf(vendorId));
+                Gauge.builder("vendor.dispatch.queued", vendor, VendorQueue::queued)
+                                .description("Vendor calls waiting for a slot")
+                                .tag("vendor", vendorId)
+                                .register(meterRegistry);
+                Gauge.builder("vendor.dispatch.inflight", vendor, VendorQueue::inFlight)
+                                .description("Vendor calls in progress")
+                                .tag("vendor", vendorId)
+                                .register(meterRegistry);
+                properties.getTierWeights().keySet().forEach(vendor::meters);
+                vendor.meters(properties.getDefaultTier());
+                return vendor;
+        }
+
+        private TierMeters newTierMeters(String vendorId, String tier) {
+                Timer queueWait = Timer.builder("vendor.dispatch.queue.wait")
+                                .description("Time a vendor call waited for a slot")
+                                .tag("vendor", vendorId)
+                                .tag("tier", tier)
+                                .register(meterRegistry);
+                return new TierMeters(queueWait, rejectedCounter(vendorId, tier, "queue_full"),
+                                rejectedCounter(vendorId, tier, "timeout"));
+        }
+
+        private Counter rejectedCounter(String vendorId, String tier, String reason) {
+                return Counter.builder("vendor.dispatch.rejected")
+                                .description("Vendor calls failed without being sent")
+                                .tag("vendor", vendorId)
+                                .tag("tier", tier)
+                                .tag("reason", reason)
+                                .register(meterRegistry);
+        }
+
+        /**
+         * A vendor call was not sent because the vendor had no slot for it in
+         * time. Safe to retry, on this vendor or another.
+         */
+        public static class VendorBusyException extends RuntimeException {
+
+                public VendorBusyException(String message) {
+                        super(message);
+                }
+        }
+
+        // Tagged by tier, not merchant, so the series count stays fixed
+        private record TierMeters(Timer queueWait, Counter queueFull, Counter timedOut) {
+        }
+
+        private static final class Ticket {
+
+                private final UUID merchantId;
+                private final double finishTag;
+                private final long sequence;
+                private final CountDownLatch granted = new CountDownLatch(1);
+
+                private Ticket(UUID merchantId, double finishTag, long sequence) {
+                        this.merchantId = merchantId;
+                        this.finishTag = finishTag;
+                        this.sequence = sequence;
+                }
+        }
+
+        private static final class Flow {
+
+                private int depth;
+                private double lastFinish;
+        }
+
+        private final class VendorQueue {
+
+                private final String vendorId;
+                private final int limit;
+                private final Map<String, TierMeters> meters = new ConcurrentHashMap<>();
+                private final ReentrantLock lock = new ReentrantLock();
+                private final PriorityQueue<Ticket> queue = new PriorityQueue<>(
+                                Comparator.comparingDouble((Ticket t) -> t.finishTag)
+                                                .thenComparingLong(t -> t.sequence));
+                // Merchants with waiting calls only; a flow is dropped with its last ticket
+                private final Map<UUID, Flow> flows = new HashMap<>();
+                private double virtualTime;
+                private long sequence;
+                private int inFlight;
+
+                private VendorQueue(String vendorId, int limit) {
+                        this.vendorId = vendorId;
+                        this.limit = limit;
+                }
+
+                TierMeters meters(String tier) {
+                        return meters.computeIfAbsent(tier, t -> newTierMeters(vendorId, t));
+                }
+
+                /**
+                 * @return nanoseconds spent waiting for the slot
+                 */
+                long acquire(UUID merchantId, String tier, TierMeters tierMeters) {
+                        Ticket ticket;
+                        lock.lock();
+                        try {
+                                if (inFlight < limit && queue.isEmpty()) {
+                                        inFlight++;
+                                        return 0L;
+                                }
+                                Flow flow = flows.get(merchantId);
+                                if (queue.size() >= properties.getMaxQueuedPerVendor()
+                                                || (flow != null && flow.depth >= properties.getMaxQueuedPerMerchant())) {
+                                        tierMeters.queueFull.increment();
+                                        throw new VendorBusyException("Vendor " + vendorId + " is busy, queue full");
+                                }
+                                if (flow == null) {
+                                        flow = new Flow();
+                                        flows.put(merchantId, flow);
+                                }
+                                double finishTag = Math.max(virtualTime, flow.lastFinish)
+                                                + 1.0 / properties.weightOf(tier);
+                                flow.lastFinish = finishTag;
+                                flow.depth++;
+                                ticket = new Ticket(merchantId, finishTag, sequence++);
+                                queue.add(ticket);
+                        } finally {
+                                lock.unlock();
+                        }
+
+                        long waitStart = System.nanoTime();
+                        boolean interrupted = false;
+                        try {
+                                if (ticket.granted.await(properties.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                                        return System.nanoTime() - waitStart;
+                                }
+                        } catch (InterruptedException e) {
+                                interrupted = true;
+                        }
+
+                        lock.lock();
+                        try {
+                                // Granted between the timeout and taking the lock: keep the slot
+                                if (ticket.granted.getCount() == 0) {
+                                        return System.nanoTime() - waitStart;
+                                }
+                                queue.remove(ticket);
+                                dequeued(ticket);
+                        } finally {
+                                lock.unlock();
+                        }
+                        if (interrupted) {
+                                Thread.currentThread().interrupt();
+                        }
+                        tierMeters.timedOut.increment();
+                        throw new VendorBusyException("Vendor " + vendorId + " is busy, timed out waiting for a slot");
+                }
+
+                void release() {
+                        lock.lock();
+                        try {
+                                inFlight--;
+                                while (inFlight < limit && !queue.isEmpty()) {
+                                        Ticket next = queue.poll();
+                                        virtualTime = next.finishTag;
+                                        dequeued(next);
+                                        inFlight++;
+                                        next.granted.countDown();
+                                }
+                        } finally {
+                                lock.unlock();
+                        }
+                }
+
+                private void dequeued(Ticket ticket) {
+                        Flow flow = flows.get(ticket.merchantId);
+                        if (--flow.depth == 0) {
+                                flows.remove(ticket.merchantId);
+                        }
+                }
+
+                int queued() {
+                        lock.lock();
+                        try {
+                                return queue.size();
+                        } finally {
+                                lock.unlock();
+                        }
+                }
+
+                int inFlight() {
+                        lock.lock();
+                        try {
+                                return inFlight;
+                        } finally {
+                                lock.unlock();
+                        }
+                }
+        }
+}
@@ -0,0 +1,83 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.model.VendorHealth;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Smart routing: picks the best vendor among the available candidates.
+ */
+@Component
+@RequiredArgsConstructor
+public class VendorRouter {
+
+        // Everything in the ranking except fee, which depends on the amount
+        private static final Comparator<VendorHealth> HEALTH = Comparator
+                        .comparing(VendorHealth::getUptimeScore).reversed()
+                        .thenComparing(VendorHealth::getErrorRate);
+
+        private final PricingService pricingService;
+
+        /**
+         * Sort by Uptime (DESC), Error Rate (ASC), Fee (ASC) and take the top
+         * candidate.
+         *
+         * @param availableVendors non-empty list of candidates
+         */
+        public VendorHealth selectVendor(List<VendorHealth> availableVendors, long amountMinor) {
+                return availableVendors.stream()
+                                .sorted(ranking(amountMinor))
+                                .findFirst()
+                                .orElseThrow();
+        }
+
+        /**
+         * Up to {@code limit} candidates in routing order, best first, as vendor
+         * ids.
+         */
+        public List<String> rank(List<VendorHealth> availableVendors, long amountMinor, int limit) {
+                return availableVendors.stream()
+                                .sorted(ranking(amountMinor))
+                                .limit(limit)
+                                .map(VendorHealth::getVendorId)
+                                .toList();
+        }
+
+        /**
+         * Ranks the candidates once for payments of any amount. Only fee depends
+         * on the amount, so {@link Ranking#select} compares fees among the
+         * vendors tied for best uptime and error rate, and picks the same vendor
+         * {@link #selectVendor} would.
+         *
+         * @param availableVendors non-empty list of candidates
+         */
+        public Ranking ranking(List<VendorHealth> availableVendors) {
+                VendorHealth best = availableVendors.stream().min(HEALTH).orElseThrow();
+                return new Ranking(availableVendors.stream()
+                                .filter(v -> HEALTH.compare(v, best) == 0)
+                                .toList());
+        }
+
+        private Comparator<VendorHealth> ranking(long amountMinor) {
+                return HEALTH.thenComparingLong(v -> pricingService.calculateFee(v.getVendorId(), amountMinor));
+        }
+
+        public final class Ranking {
+
+                private final List<VendorHealth> leaders;
+
+                private Ranking(List<VendorHealth> leaders) {
+                        this.leaders = leaders;
+                }
+
+                public String select(long amountMinor) {
+                        if (leaders.size() == 1) {
+                                return leaders.get(0).getVendorId();
+                        }
+                        return selectVendor(leaders, amountMinor).getVendorId();
+                }
+        }
+}
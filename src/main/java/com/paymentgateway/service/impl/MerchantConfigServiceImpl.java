@@ -2,18 +2,23 @@ package com.paymentgateway.service.impl;
 
 import com.paymentgateway.model.MerchantPaymentConfig;
 import com.paymentgateway.repository.MerchantPaymentConfigRepository;
+import com.paymentgateway.service.MerchantConfigChangedEvent;
 import com.paymentgateway.service.MerchantConfigService;
+import com.paymentgateway.service.ReferenceDataStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Database-backed implementation of MerchantConfigService.
- * Fetches merchant payment configuration from the database.
+ * Lookups are served from the ReferenceDataStore copy of the configs; saves
+ * go to the database and are applied to this node's copy straight away.
  */
 @Service
 @Primary
@@ -22,17 +27,19 @@ import java.util.UUID;
 public class MerchantConfigServiceImpl implements MerchantConfigService {
 
     private final MerchantPaymentConfigRepository repository;
+    private final ReferenceDataStore referenceDataStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public MerchantPaymentConfig getConfig(UUID merchantId, String methodId) {
-        log.debug("Fetching merchant config from DB - merchantId: {}, methodId: {}", merchantId, methodId);
-        return repository.findByMerchantIdAndMethodId(merchantId, methodId).orElse(null);
+        return referenceDataStore.merchantConfig(merchantId, methodId);
     }
 
     @Override
     public List<MerchantPaymentConfig> getEnabledConfigs(UUID merchantId) {
-        log.debug("Fetching enabled merchant configs from DB - merchantId: {}", merchantId);
-        return repository.findByMerchantIdAndEnabledTrue(merchantId);
+        return referenceDataStore.merchantConfigs(merchantId).stream()
+                .filter(config -> Boolean.TRUE.equals(config.getEnabled()))
+                .toList();
     }
 
     /**
@@ -42,12 +49,16 @@ public class MerchantConfigServiceImpl implements MerchantConfigService {
     public MerchantPaymentConfig saveConfig(MerchantPaymentConfig config) {
         log.info("Saving merchant config to DB - merchantId: {}, methodId: {}",
                 config.getMerchantId(), config.getMethodId());
-        return repository.save(config);
+        MerchantPaymentConfig saved = repository.save(config);
+        referenceDataStore.put(saved);
+        eventPublisher.publishEvent(new MerchantConfigChangedEvent(saved.getMerchantId()));
+        return saved;
     }
 
     /**
      * Get all configurations for a merchant (including disabled).
      */
+    @Transactional(readOnly = true)
     public List<MerchantPaymentConfig> getAllConfigs(UUID merchantId) {
         return repository.findByMerchantId(merchantId);
     }
@@ -1,30 +1,38 @@
 package com.paymentgateway.service.impl;
 
 import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.model.Money;
 import com.paymentgateway.model.PaymentInstrument;
 import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.rules.RuleSetRegistry;
 import com.paymentgateway.service.MerchantConfigService;
+import com.paymentgateway.service.NetworkRegistry;
 import com.paymentgateway.service.RuleEngineService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.LongStream;
 
 @Service
 @RequiredArgsConstructor
 public class SimpleRuleEngineService implements RuleEngineService {
 
     private final MerchantConfigService merchantConfigService;
+    private final RuleSetRegistry ruleSetRegistry;
+    private final NetworkRegistry networkRegistry;
 
     @Override
     public boolean isEligible(PaymentMethod method, PaymentInstrument instrument, UUID merchantId, String mcc,
-            Double amount) {
-        return getIneligibilityReason(method, instrument, merchantId, mcc, amount) == null;
+            long amountMinor) {
+        return getIneligibilityReason(method, instrument, merchantId, mcc, amountMinor) == null;
     }
 
     @Override
     public String getIneligibilityReason(PaymentMethod method, PaymentInstrument instrument, UUID merchantId,
-            String mcc, Double amount) {
+            String mcc, long amountMinor) {
 
         // 1. Fetch Merchant-Specific Configuration
         MerchantPaymentConfig merchantConfig = merchantConfigService.getConfig(merchantId, method.getMethodId());
@@ -33,31 +41,56 @@ public class SimpleRuleEngineService implements RuleEngineService {
             return "Payment method not enabled for this merchant";
         }
 
-        // 2. MCC Restrictions (e.g., Gambling MCCs block Credit Cards)
-        if ("6011".equals(mcc) && "CREDIT_CARD".equals(method.getMethodId())) {
-            return "Credit Cards not allowed for this Merchant Category";
+        // 2. Global rules (MCC restrictions, regulatory limits), compiled from the active rule set
+        String ruleReason = ruleSetRegistry.current().evaluate(method.getMethodId(), mcc,
+                instrument != null ? instrument.getNetwork() : null,
+                instrument != null ? instrument.getIssuer() : null,
+                instrument != null, amountMinor);
+        if (ruleReason != null) {
+            return ruleReason;
         }
 
         // 3. Network Compatibility (using MERCHANT config, not global method)
-        if (instrument != null && merchantConfig.getSupportedNetworks() != null) {
-            if (!merchantConfig.getSupportedNetworks().contains(instrument.getNetwork())) {
-                return "Network " + instrument.getNetwork() + " not supported by merchant";
-            }
+        if (instrument != null && merchantConfig.getSupportedNetworks() != null
+                && !networkRegistry.contains(merchantConfig.getSupportedNetworks(), instrument.getNetwork())) {
+            return "Network " + instrument.getNetwork() + " not supported by merchant";
         }
 
         // 4. Amount Limits (merchant-specific limits)
-        if (merchantConfig.getMinAmount() != null && amount < merchantConfig.getMinAmount().doubleValue()) {
-            return "Amount below merchant's minimum of " + merchantConfig.getMinAmount();
+        Long minAmountMinor = merchantConfig.getMinAmountMinor();
+        if (minAmountMinor != null && amountMinor < minAmountMinor) {
+            return "Amount below merchant's minimum of " + Money.toDecimal(minAmountMinor, Money.DEFAULT_CURRENCY);
         }
-        if (merchantConfig.getMaxAmount() != null && amount > merchantConfig.getMaxAmount().doubleValue()) {
-            return "Amount exceeds merchant's maximum of " + merchantConfig.getMaxAmount();
+        Long maxAmountMinor = merchantConfig.getMaxAmountMinor();
+        if (maxAmountMinor != null && amountMinor > maxAmountMinor) {
+            return "Amount exceeds merchant's maximum of " + Money.toDecimal(maxAmountMinor, Money.DEFAULT_CURRENCY);
         }
 
-        // 5. Global Method Limits (e.g., UPI regulatory limits)
-        if ("UPI".equals(method.getMethodId()) && amount > 100000) {
-            return "Amount exceeds UPI regulatory limit of 1,00,000";
+        return null;
+    }
+
+    @Override
+    public long[] methodAmountBreakpoints(UUID merchantId, String mcc, List<PaymentMethod> methods) {
+        // Method-level results compare the amount with rule bounds and merchant limits only
+        LongStream.Builder breakpoints = LongStream.builder();
+        Arrays.stream(ruleSetRegistry.current().amountBounds()).forEach(breakpoints);
+        for (PaymentMethod method : methods) {
+            MerchantPaymentConfig merchantConfig = merchantConfigService.getConfig(merchantId, method.getMethodId());
+            if (merchantConfig == null) {
+                continue;
+            }
+            if (merchantConfig.getMinAmountMinor() != null) {
+                breakpoints.add(merchantConfig.getMinAmountMinor());
+            }
+            if (merchantConfig.getMaxAmountMinor() != null) {
+                breakpoints.add(merchantConfig.getMaxAmountMinor());
+            }
         }
+        return breakpoints.build().sorted().distinct().toArray();
+    }
 
-        return null;
+    @Override
+    public String rulesVersion() {
+        return ruleSetRegistry.current().getVersion();
     }
 }
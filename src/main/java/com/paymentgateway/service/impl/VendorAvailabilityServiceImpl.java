@@ -1,7 +1,7 @@
 package com.paymentgateway.service.impl;
 
 import com.paymentgateway.model.VendorHealth;
-import com.paymentgateway.repository.VendorHealthRepository;
+import com.paymentgateway.service.ReferenceDataStore;
 import com.paymentgateway.service.VendorAvailabilityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -12,10 +12,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class VendorAvailabilityServiceImpl implements VendorAvailabilityService {
 
-    private final VendorHealthRepository vendorHealthRepository;
+    private final ReferenceDataStore referenceDataStore;
 
     @Override
     public List<VendorHealth> getAvailableVendors() {
-        return vendorHealthRepository.findByIsDownFalse();
+        return referenceDataStore.vendors().stream()
+                .filter(vendor -> !vendor.isDown())
+                .toList();
     }
 }
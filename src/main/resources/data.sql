@@ -1,44 +1,38 @@
 -- Merchant Payment Configuration seed data
 -- This data is loaded on application startup for testing
 
--- Default merchant (00000000-0000-0000-0000-000000000000)
-INSERT INTO merchant_payment_config (config_id, merchant_id, method_id, min_amount, max_amount, enabled, created_at, updated_at)
-VALUES 
-('10000000-0000-0000-0000-000000000001', '00000000-0000-0000-0000-000000000000', 'CREDIT_CARD', 1.0, 500000.0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('10000000-0000-0000-0000-000000000002', '00000000-0000-0000-0000-000000000000', 'DEBIT_CARD', 1.0, 200000.0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('10000000-0000-0000-0000-000000000003', '00000000-0000-0000-0000-000000000000', 'UPI', 1.0, 100000.0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('10000000-0000-0000-0000-000000000004', '00000000-0000-0000-0000-000000000000', 'NETBANKING', 10.0, 1000000.0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
-
--- Merchant 1 (11111111-1111-1111-1111-111111111111) - Only Visa/Mastercard
-INSERT INTO merchant_payment_config (config_id, merchant_id, method_id, min_amount, max_amount, enabled, created_at, updated_at)
-VALUES 
-('11000000-0000-0000-0000-000000000001', '11111111-1111-1111-1111-111111111111', 'CREDIT_CARD', 10.0, 100000.0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('11000000-0000-0000-0000-000000000002', '11111111-1111-1111-1111-111111111111', 'UPI', 1.0, 50000.0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+-- Network bits (see NetworkRegistry); masks below are sums of 2^bit_index
+INSERT INTO networks (name, bit_index)
+VALUES
+('VISA', 0),
+('MASTERCARD', 1),
+('AMEX', 2),
+('RUPAY', 3),
+('DINERS', 4),
+('DISCOVER', 5),
+('JCB', 6),
+('MAESTRO', 7),
+('PAYTM', 8),
+('PHONEPE', 9);
 
--- Merchant 2 (22222222-2222-2222-2222-222222222222) - Only UPI and Wallets
-INSERT INTO merchant_payment_config (config_id, merchant_id, method_id, min_amount, max_amount, enabled, created_at, updated_at)
-VALUES 
-('22000000-0000-0000-0000-000000000001', '22222222-2222-2222-2222-222222222222', 'UPI', 1.0, 100000.0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('22000000-0000-0000-0000-000000000002', '22222222-2222-2222-2222-222222222222', 'WALLET', 1.0, 10000.0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
-
--- Supported networks for default merchant
-INSERT INTO merchant_supported_networks (config_id, network)
+-- Default merchant (00000000-0000-0000-0000-000000000000)
+-- Amount limits are in paise
+-- Cards: VISA, MASTERCARD, AMEX (7); VISA, MASTERCARD, RUPAY (11)
+INSERT INTO merchant_payment_config (config_id, merchant_id, method_id, supported_networks, min_amount_minor, max_amount_minor, enabled, created_at, updated_at)
 VALUES 
-('10000000-0000-0000-0000-000000000001', 'VISA'),
-('10000000-0000-0000-0000-000000000001', 'MASTERCARD'),
-('10000000-0000-0000-0000-000000000001', 'AMEX'),
-('10000000-0000-0000-0000-000000000002', 'VISA'),
-('10000000-0000-0000-0000-000000000002', 'MASTERCARD'),
-('10000000-0000-0000-0000-000000000002', 'RUPAY');
+('10000000-0000-0000-0000-000000000001', '00000000-0000-0000-0000-000000000000', 'CREDIT_CARD', 7, 100, 50000000, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('10000000-0000-0000-0000-000000000002', '00000000-0000-0000-0000-000000000000', 'DEBIT_CARD', 11, 100, 20000000, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('10000000-0000-0000-0000-000000000003', '00000000-0000-0000-0000-000000000000', 'UPI', 0, 100, 10000000, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('10000000-0000-0000-0000-000000000004', '00000000-0000-0000-0000-000000000000', 'NETBANKING', 0, 1000, 100000000, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
--- Supported networks for Merchant 1 (No Amex)
-INSERT INTO merchant_supported_networks (config_id, network)
+-- Merchant 1 (11111111-1111-1111-1111-111111111111) - Only Visa/Mastercard (3), no Amex
+INSERT INTO merchant_payment_config (config_id, merchant_id, method_id, supported_networks, min_amount_minor, max_amount_minor, enabled, created_at, updated_at)
 VALUES 
-('11000000-0000-0000-0000-000000000001', 'VISA'),
-('11000000-0000-0000-0000-000000000001', 'MASTERCARD');
+('11000000-0000-0000-0000-000000000001', '11111111-1111-1111-1111-111111111111', 'CREDIT_CARD', 3, 1000, 10000000, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('11000000-0000-0000-0000-000000000002', '11111111-1111-1111-1111-111111111111', 'UPI', 0, 100, 5000000, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
--- Supported networks for Merchant 2 (Wallets)
-INSERT INTO merchant_supported_networks (config_id, network)
+-- Merchant 2 (22222222-2222-2222-2222-222222222222) - Only UPI and Wallets (PAYTM, PHONEPE: 768)
+INSERT INTO merchant_payment_config (config_id, merchant_id, method_id, supported_networks, min_amount_minor, max_amount_minor, enabled, created_at, updated_at)
 VALUES 
-('22000000-0000-0000-0000-000000000002', 'PAYTM'),
-('22000000-0000-0000-0000-000000000002', 'PHONEPE');
+('22000000-0000-0000-0000-000000000001', '22222222-2222-2222-2222-222222222222', 'UPI', 0, 100, 10000000, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+('22000000-0000-0000-0000-000000000002', '22222222-2222-2222-2222-222222222222', 'WALLET', 768, 100, 1000000, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
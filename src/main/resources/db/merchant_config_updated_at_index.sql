@@ -0,0 +1,8 @@
+-- Index for the reference data delta sync, which fetches merchant payment
+-- configs by updated_at every few seconds on every node.
+--
+-- CONCURRENTLY avoids blocking config writes while it builds, so this must run
+-- outside a transaction block.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_merchant_payment_config_updated_at
+    ON merchant_payment_config (updated_at);
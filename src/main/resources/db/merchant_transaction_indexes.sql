@@ -0,0 +1,15 @@
+-- Covering indexes for the merchant transaction listing (keyset pagination on
+-- merchant_id, created_at, txn_id). INCLUDE keeps the listed columns in the
+-- index leaf pages so pages are served by index-only scans.
+--
+-- On a partitioned transactions table these cascade to every partition. CREATE
+-- INDEX CONCURRENTLY is not supported on a partitioned parent; build large
+-- partitions concurrently first and ATTACH them if the lock matters.
+
+CREATE INDEX IF NOT EXISTS idx_transactions_merchant_created
+    ON transactions (merchant_id, created_at DESC, txn_id DESC)
+    INCLUDE (payment_id, status, amount_minor, currency, method_id, vendor_id);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_merchant_status_created
+    ON transactions (merchant_id, status, created_at DESC, txn_id DESC)
+    INCLUDE (payment_id, amount_minor, currency, method_id, vendor_id);
@@ -0,0 +1,53 @@
+-- One-time migration: store amounts as BIGINT minor units (paise for INR)
+-- instead of DOUBLE PRECISION / NUMERIC (see Money). Run once against
+-- Postgres before deploying the version that reads the *_minor columns.
+--
+-- Transaction amounts are scaled by their own currency's minor unit; merchant
+-- limits and pricing bands are in INR. Percentage fees become basis points.
+-- Dropping transactions.amount drops the covering indexes that INCLUDE it;
+-- re-run merchant_transaction_indexes.sql afterwards.
+
+BEGIN;
+
+ALTER TABLE transactions ADD COLUMN amount_minor BIGINT;
+UPDATE transactions
+SET amount_minor = round(amount::numeric * CASE
+        WHEN currency IN ('JPY', 'KRW', 'VND', 'CLP', 'ISK') THEN 1
+        WHEN currency IN ('BHD', 'KWD', 'OMR', 'JOD', 'TND') THEN 1000
+        ELSE 100 END)
+WHERE amount IS NOT NULL;
+UPDATE transactions SET amount_minor = 0 WHERE amount_minor IS NULL;
+ALTER TABLE transactions ALTER COLUMN amount_minor SET NOT NULL;
+ALTER TABLE transactions DROP COLUMN amount;
+
+ALTER TABLE merchant_payment_config
+    ADD COLUMN min_amount_minor BIGINT,
+    ADD COLUMN max_amount_minor BIGINT;
+UPDATE merchant_payment_config
+SET min_amount_minor = round(min_amount * 100),
+    max_amount_minor = round(max_amount * 100);
+ALTER TABLE merchant_payment_config
+    DROP COLUMN min_amount,
+    DROP COLUMN max_amount;
+
+-- min_amount and max_amount are part of the primary key, so the table is rebuilt
+CREATE TABLE pricing_models_minor (
+    vendor_id        VARCHAR(255) NOT NULL,
+    min_amount_minor BIGINT       NOT NULL,
+    max_amount_minor BIGINT       NOT NULL,
+    fee_bps          INTEGER      NOT NULL,
+    fixed_fee_minor  BIGINT       NOT NULL,
+    PRIMARY KEY (vendor_id, min_amount_minor, max_amount_minor)
+);
+INSERT INTO pricing_models_minor (vendor_id, min_amount_minor, max_amount_minor, fee_bps, fixed_fee_minor)
+SELECT vendor_id,
+       round(min_amount::numeric * 100),
+       round(max_amount::numeric * 100),
+       round(coalesce(fee_percent, 0)::numeric * 100),
+       round(coalesce(fixed_fee, 0)::numeric * 100)
+FROM pricing_models;
+DROP TABLE pricing_models;
+ALTER TABLE pricing_models_minor RENAME TO pricing_models;
+ALTER TABLE pricing_models RENAME CONSTRAINT pricing_models_minor_pkey TO pricing_models_pkey;
+
+COMMIT;
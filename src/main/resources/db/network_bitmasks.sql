@@ -0,0 +1,61 @@
+-- One-time migration: replace the merchant_supported_networks and
+-- payment_method_networks join tables with BIGINT mask columns over the bits
+-- in the new networks table (see NetworkRegistry). Run once against Postgres
+-- before deploying the version that reads the masks.
+--
+-- A config that had no network rows gets mask 0 (no network accepted), which
+-- is how an empty join table was read before. Bits are never reused: to add
+-- a network, insert it with the next free bit_index.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS networks (
+    name      VARCHAR(30) PRIMARY KEY,
+    bit_index INTEGER     NOT NULL UNIQUE CHECK (bit_index BETWEEN 0 AND 63)
+);
+
+INSERT INTO networks (name, bit_index)
+VALUES
+('VISA', 0),
+('MASTERCARD', 1),
+('AMEX', 2),
+('RUPAY', 3),
+('DINERS', 4),
+('DISCOVER', 5),
+('JCB', 6),
+('MAESTRO', 7),
+('PAYTM', 8),
+('PHONEPE', 9)
+ON CONFLICT (name) DO NOTHING;
+
+-- Any other network already in use gets the next free bit
+INSERT INTO networks (name, bit_index)
+SELECT used.name, (SELECT MAX(bit_index) FROM networks) + ROW_NUMBER() OVER (ORDER BY used.name)
+FROM (SELECT network AS name FROM merchant_supported_networks
+      UNION
+      SELECT network FROM payment_method_networks) used
+WHERE used.name IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM networks n WHERE n.name = used.name);
+
+ALTER TABLE merchant_payment_config ADD COLUMN supported_networks BIGINT;
+
+UPDATE merchant_payment_config c
+SET supported_networks = COALESCE((
+    SELECT bit_or(1::BIGINT << n.bit_index)
+    FROM merchant_supported_networks m
+    JOIN networks n ON n.name = m.network
+    WHERE m.config_id = c.config_id), 0);
+
+ALTER TABLE payment_methods ADD COLUMN supported_networks BIGINT NOT NULL DEFAULT 0;
+
+UPDATE payment_methods p
+SET supported_networks = COALESCE((
+    SELECT bit_or(1::BIGINT << n.bit_index)
+    FROM payment_method_networks m
+    JOIN networks n ON n.name = m.network
+    WHERE m.method_id = p.method_id), 0);
+
+DROP TABLE merchant_supported_networks;
+DROP TABLE payment_method_networks;
+
+COMMIT;
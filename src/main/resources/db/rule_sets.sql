@@ -0,0 +1,16 @@
+-- Stored eligibility rule sets (see rules/default-rules.yml for the format).
+-- Nodes poll the version column and recompile when it changes, so an update
+-- must bump version in the same statement:
+--
+--   UPDATE rule_sets SET definition = '...', version = version + 1,
+--          updated_at = now() WHERE rule_set_id = 'global';
+--
+-- Until a 'global' row exists the bundled default rules apply.
+
+CREATE TABLE IF NOT EXISTS rule_sets (
+    rule_set_id VARCHAR(50) PRIMARY KEY,
+    format      VARCHAR(10) NOT NULL CHECK (format IN ('YAML', 'JSON')),
+    definition  TEXT        NOT NULL,
+    version     BIGINT      NOT NULL,
+    updated_at  TIMESTAMP   NOT NULL DEFAULT now()
+);
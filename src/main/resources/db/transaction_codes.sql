@@ -0,0 +1,68 @@
+-- One-time migration: store transaction status and failure classification as
+-- SMALLINT codes (see TransactionStatus and FailureCode) instead of free text.
+-- Run once against Postgres before deploying the version that reads them.
+--
+-- The code tables are for reporting joins; the application keeps its own copy
+-- in the enums, so new codes are added in both places. Existing failure text
+-- is classified with the same substring rules the old retry check used, so
+-- stored failures keep their retryability, and is kept as failure_detail
+-- unless it is just the code's message.
+-- Dropping transactions.status drops the covering indexes that use it;
+-- re-run merchant_transaction_indexes.sql afterwards.
+
+BEGIN;
+
+CREATE TABLE transaction_statuses (
+    code SMALLINT    PRIMARY KEY,
+    name VARCHAR(32) NOT NULL UNIQUE
+);
+INSERT INTO transaction_statuses (code, name) VALUES
+    (0, 'INITIATED'),
+    (1, 'SUCCESS'),
+    (2, 'FAILED'),
+    (3, 'PENDING');
+
+CREATE TABLE failure_codes (
+    code      SMALLINT     PRIMARY KEY,
+    name      VARCHAR(32)  NOT NULL UNIQUE,
+    message   VARCHAR(255) NOT NULL,
+    retryable BOOLEAN      NOT NULL
+);
+INSERT INTO failure_codes (code, name, message, retryable) VALUES
+    (0, 'UNKNOWN', 'Payment failed', FALSE),
+    (1, 'NO_VENDOR_AVAILABLE', 'No payment vendors available (all vendors exhausted)', FALSE),
+    (2, 'INSTRUMENT_BLOCKED', 'Instrument temporarily blocked after repeated failures', FALSE),
+    (3, 'VENDOR_BUSY', 'Vendor at capacity, payment not sent', TRUE),
+    (4, 'VENDOR_ERROR', 'Vendor error', TRUE),
+    (5, 'VENDOR_TIMEOUT', 'Vendor timeout', TRUE),
+    (6, 'INSTRUMENT_DECLINED', 'Instrument declined', FALSE),
+    (7, 'VALIDATION_ERROR', 'Payment rejected by vendor validation', FALSE);
+
+ALTER TABLE transactions
+    ADD COLUMN status_code  SMALLINT,
+    ADD COLUMN failure_code SMALLINT;
+UPDATE transactions
+SET status_code = CASE status
+        WHEN 'SUCCESS' THEN 1
+        WHEN 'FAILED' THEN 2
+        WHEN 'PENDING' THEN 3
+        ELSE 0 END;
+UPDATE transactions
+SET failure_code = CASE
+        WHEN failure_reason = 'No payment vendors available (all vendors exhausted)' THEN 1
+        WHEN failure_reason = 'Instrument temporarily blocked after repeated failures' THEN 2
+        WHEN failure_reason LIKE 'Vendor % is busy%' THEN 3
+        WHEN failure_reason LIKE '%timeout%' THEN 5
+        WHEN failure_reason LIKE '%Vendor%'
+            OR failure_reason LIKE '%temporarily unavailable%'
+            OR failure_reason LIKE '%network error%' THEN 4
+        ELSE 0 END
+WHERE status_code = 2;
+UPDATE transactions SET failure_reason = NULL WHERE failure_code IN (1, 2);
+
+ALTER TABLE transactions DROP COLUMN status;
+ALTER TABLE transactions RENAME COLUMN status_code TO status;
+ALTER TABLE transactions ALTER COLUMN status SET NOT NULL;
+ALTER TABLE transactions RENAME COLUMN failure_reason TO failure_detail;
+
+COMMIT;
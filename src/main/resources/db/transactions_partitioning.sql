@@ -0,0 +1,58 @@
+-- One-time migration: turn the transactions table into a table range-partitioned
+-- on created_at. Run once against Postgres before enabling
+-- payment.transactions.partitioning; TransactionPartitionManager then creates
+-- upcoming partitions and archives expired ones.
+--
+-- Existing rows stay in place: the old table is attached as the partition
+-- transactions_legacy covering everything before the current period. Rows
+-- already created in the current period are moved first into that period's
+-- partition, named as TransactionPartitionManager names it, so the legacy
+-- table passes the attach constraint check on a live database. The legacy
+-- partition is not named like a managed partition, so it is never archived
+-- automatically.
+--
+-- Set the granularity to match payment.transactions.partitioning.granularity
+-- (MONTHLY unless set) before running, e.g.
+--   SET payment.partition_granularity = 'DAILY';
+
+BEGIN;
+
+DROP INDEX IF EXISTS idx_transaction_payment_id;
+
+ALTER TABLE transactions RENAME TO transactions_legacy;
+
+-- Partition keys must be part of the primary key and non-null.
+UPDATE transactions_legacy SET created_at = COALESCE(updated_at, TIMESTAMP '1970-01-01') WHERE created_at IS NULL;
+ALTER TABLE transactions_legacy ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE transactions_legacy DROP CONSTRAINT transactions_pkey;
+ALTER TABLE transactions_legacy ADD CONSTRAINT transactions_legacy_pkey PRIMARY KEY (txn_id, created_at);
+
+CREATE TABLE transactions (LIKE transactions_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+ALTER TABLE transactions ADD PRIMARY KEY (txn_id, created_at);
+
+-- Lookups pass a created_at lower bound so only recent partitions are probed.
+CREATE INDEX idx_transaction_payment_id ON transactions (payment_id, created_at);
+
+DO $$
+DECLARE
+    daily boolean := upper(coalesce(nullif(current_setting('payment.partition_granularity', true), ''),
+                                    'MONTHLY')) = 'DAILY';
+    period_start date := CASE WHEN daily THEN current_date ELSE date_trunc('month', now())::date END;
+    period_end date := CASE WHEN daily THEN period_start + 1 ELSE (period_start + interval '1 month')::date END;
+    current_partition text := 'transactions_p' || to_char(period_start, CASE WHEN daily THEN 'YYYYMMDD' ELSE 'YYYYMM' END);
+BEGIN
+    EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                   current_partition, period_start, period_end);
+
+    -- Rows stamped after the current period (clock skew) stay behind and fail
+    -- the attach below; move them by hand first.
+    EXECUTE format('WITH moved AS (DELETE FROM transactions_legacy WHERE created_at >= %L AND created_at < %L '
+                   || 'RETURNING *) INSERT INTO transactions SELECT * FROM moved',
+                   period_start, period_end);
+
+    EXECUTE format('ALTER TABLE transactions ATTACH PARTITION transactions_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   period_start);
+END
+$$;
+
+COMMIT;
@@ -0,0 +1,67 @@
+package com.paymentgateway.admission;
+
+import com.paymentgateway.config.AdmissionControlProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlProperties.Concurrency config;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new AdmissionControlProperties.Concurrency();
+        config.setInitialLimit(10);
+        config.setMinLimit(2);
+        config.setMaxLimit(100);
+        config.setWindow(Duration.ZERO);
+        config.setMinWindowSamples(1);
+    }
+
+    @Test
+    public void testCheckoutShedBeforePayment() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire(AdmissionPriority.CHECKOUT));
+        }
+
+        assertFalse(limiter.tryAcquire(AdmissionPriority.CHECKOUT));
+        assertTrue(limiter.tryAcquire(AdmissionPriority.PAYMENT));
+        assertTrue(limiter.tryAcquire(AdmissionPriority.PAYMENT));
+        assertFalse(limiter.tryAcquire(AdmissionPriority.PAYMENT));
+        assertEquals(1.0, meterRegistry.get("admission.rejected").tag("priority", "checkout").counter().count());
+    }
+
+    @Test
+    public void testStableLatency_LimitGrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire(AdmissionPriority.PAYMENT));
+            limiter.release(1_000_000, false);
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testDrops_LimitShrinksToFloor() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire(AdmissionPriority.PAYMENT));
+            limiter.release(1_000_000, true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+}
@@ -0,0 +1,69 @@
+package com.paymentgateway.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.paymentgateway.config.AdmissionControlProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MerchantRateLimiterTest {
+
+    @Test
+    public void testBurstExhausted_ReturnsWait() {
+        UUID merchantId = UUID.randomUUID();
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        AdmissionControlProperties.MerchantLimits limits = new AdmissionControlProperties.MerchantLimits();
+        limits.setCheckoutRate(1);
+        limits.setCheckoutBurst(3);
+        properties.getMerchants().put(merchantId, limits);
+        MerchantRateLimiter limiter = new MerchantRateLimiter(properties, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(merchantId, AdmissionPriority.CHECKOUT));
+        }
+
+        assertTrue(limiter.tryAcquire(merchantId, AdmissionPriority.CHECKOUT) > 0);
+        assertEquals(0, limiter.tryAcquire(merchantId, AdmissionPriority.PAYMENT));
+        assertEquals(0, limiter.tryAcquire(UUID.randomUUID(), AdmissionPriority.CHECKOUT));
+    }
+
+    @Test
+    public void testMerchantIdExtractedFromBody() {
+        UUID merchantId = UUID.randomUUID();
+        String body = "{\"amount\":10.5,\"user\":{\"id\":\"x\"},\"merchant\":{\"name\":\"m\",\"merchantId\":\""
+                + merchantId + "\"}}";
+
+        assertEquals(merchantId, AdmissionControlFilter.merchantId(body.getBytes(StandardCharsets.UTF_8),
+                "application/json"));
+        assertNull(AdmissionControlFilter.merchantId("not json".getBytes(StandardCharsets.UTF_8), null));
+    }
+
+    @Test
+    public void testMerchantIdExtractedFromCborBody() throws Exception {
+        UUID merchantId = UUID.randomUUID();
+        byte[] body = new ObjectMapper(new CBORFactory()).writeValueAsBytes(Map.of(
+                "amount", 10.5,
+                "merchant", Map.of("mcc", "5411", "merchantId", merchantId.toString())));
+
+        assertEquals(merchantId, AdmissionControlFilter.merchantId(body, "application/cbor"));
+        assertNull(AdmissionControlFilter.merchantId(body, "application/json"));
+    }
+
+    @Test
+    public void testBodyOverLimit_NotBuffered() throws Exception {
+        MockHttpServletRequest small = new MockHttpServletRequest("POST", "/payment/pay");
+        small.setContent(new byte[16]);
+        MockHttpServletRequest large = new MockHttpServletRequest("POST", "/payment/pay");
+        large.setContent(new byte[17]);
+
+        assertEquals(16, AdmissionControlFilter.readBody(small, 16).length);
+        assertNull(AdmissionControlFilter.readBody(large, 16));
+    }
+}
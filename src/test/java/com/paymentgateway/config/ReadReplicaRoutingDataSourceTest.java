@@ -0,0 +1,74 @@
+package com.paymentgateway.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class ReadReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadReplicaRoutingDataSource.Replica replica1;
+    private ReadReplicaRoutingDataSource.Replica replica2;
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replica1 = new ReadReplicaRoutingDataSource.Replica("replica-1", mock(DataSource.class));
+        replica2 = new ReadReplicaRoutingDataSource.Replica("replica-2", mock(DataSource.class));
+        routingDataSource = new ReadReplicaRoutingDataSource(mock(DataSource.class), List.of(replica1, replica2),
+                5_000, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void testReadWriteTransaction_UsesPrimary() {
+        replica1.setLagMillis(0);
+        replica2.setLagMillis(0);
+
+        assertEquals(ReadReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void testReadOnlyTransaction_RoundRobinsHealthyReplicas() {
+        replica1.setLagMillis(0);
+        replica2.setLagMillis(100);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Object first = routingDataSource.determineCurrentLookupKey();
+        Object second = routingDataSource.determineCurrentLookupKey();
+
+        assertEquals(List.of("replica-1", "replica-2"), List.of(first, second));
+    }
+
+    @Test
+    public void testReadOnlyTransaction_SkipsLaggingReplica() {
+        replica1.setLagMillis(60_000);
+        replica2.setLagMillis(0);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-2", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-2", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void testReadOnlyTransaction_FallsBackToPrimaryWhenAllLagging() {
+        replica1.setLagMillis(60_000);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(ReadReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        assertEquals(1.0, meterRegistry.get("datasource.routing.fallback").counter().count());
+    }
+}
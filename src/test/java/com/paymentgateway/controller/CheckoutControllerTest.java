@@ -1,10 +1,12 @@
 package com.paymentgateway.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.paymentgateway.generated.model.CheckoutRequest;
 import com.paymentgateway.generated.model.CheckoutResponse;
 import com.paymentgateway.generated.model.MerchantDetails;
 import com.paymentgateway.generated.model.PaymentDetails;
+import com.paymentgateway.model.Money;
 import com.paymentgateway.service.CheckoutService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,13 +14,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CheckoutController.class)
@@ -63,7 +69,7 @@ public class CheckoutControllerTest {
                                 eq(idempotencyKey),
                                 eq(merchantId),
                                 eq(userId),
-                                eq(100.0),
+                                eq(new Money(10_000, "INR")),
                                 eq("1234"),
                                 isNull()))
                                 .thenReturn(mockResponse);
@@ -88,4 +94,92 @@ public class CheckoutControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON))
                                 .andExpect(status().isBadRequest());
         }
+
+        @Test
+        public void testGetCheckoutOptions_AmountFinerThanMinorUnit_BadRequest() throws Exception {
+                CheckoutRequest request = new CheckoutRequest();
+                request.setCheckoutId(UUID.randomUUID());
+                MerchantDetails merchant = new MerchantDetails();
+                merchant.setMerchantId(UUID.randomUUID());
+                merchant.setMcc("1234");
+                request.setMerchant(merchant);
+                PaymentDetails payment = new PaymentDetails();
+                payment.setAmount(100.005);
+                payment.setCurrency("INR");
+                request.setPayment(payment);
+
+                mockMvc.perform(post("/checkout")
+                                .header("X-User-Id", UUID.randomUUID().toString())
+                                .header("X-Idempotency-Key", UUID.randomUUID().toString())
+                                .content(objectMapper.writeValueAsString(request))
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isBadRequest());
+                verifyNoInteractions(checkoutService);
+        }
+
+        @Test
+        public void testGetCheckoutOptions_NonInrCurrency_BadRequest() throws Exception {
+                CheckoutRequest request = new CheckoutRequest();
+                request.setCheckoutId(UUID.randomUUID());
+                MerchantDetails merchant = new MerchantDetails();
+                merchant.setMerchantId(UUID.randomUUID());
+                merchant.setMcc("1234");
+                request.setMerchant(merchant);
+                PaymentDetails payment = new PaymentDetails();
+                payment.setAmount(1000.0);
+                payment.setCurrency("JPY");
+                request.setPayment(payment);
+
+                mockMvc.perform(post("/checkout")
+                                .header("X-User-Id", UUID.randomUUID().toString())
+                                .header("X-Idempotency-Key", UUID.randomUUID().toString())
+                                .content(objectMapper.writeValueAsString(request))
+                                .contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isBadRequest());
+                verifyNoInteractions(checkoutService);
+        }
+
+        @Test
+        public void testGetCheckoutOptions_CborNegotiated() throws Exception {
+                UUID merchantId = UUID.randomUUID();
+                UUID userId = UUID.randomUUID();
+                UUID idempotencyKey = UUID.randomUUID();
+                UUID checkoutId = UUID.randomUUID();
+                UUID paymentId = UUID.randomUUID();
+
+                CheckoutResponse mockResponse = new CheckoutResponse();
+                mockResponse.setPaymentId(paymentId);
+                mockResponse.setPaymentMethods(new ArrayList<>());
+
+                CheckoutRequest request = new CheckoutRequest();
+                request.setCheckoutId(checkoutId);
+                MerchantDetails merchant = new MerchantDetails();
+                merchant.setMerchantId(merchantId);
+                merchant.setMcc("1234");
+                request.setMerchant(merchant);
+                PaymentDetails payment = new PaymentDetails();
+                payment.setAmount(100.0);
+                payment.setCurrency("INR");
+                request.setPayment(payment);
+
+                when(checkoutService.getCheckoutOptions(eq(checkoutId), eq(idempotencyKey), eq(merchantId),
+                                eq(userId), eq(new Money(10_000, "INR")), eq("1234"), isNull()))
+                                .thenReturn(mockResponse);
+
+                ObjectMapper cbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+                MediaType applicationCbor = MediaType.parseMediaType("application/cbor");
+                MvcResult result = mockMvc.perform(post("/checkout")
+                                .header("X-User-Id", userId.toString())
+                                .header("X-Idempotency-Key", idempotencyKey.toString())
+                                .content(cbor.writeValueAsBytes(request))
+                                .contentType(applicationCbor)
+                                .accept(applicationCbor))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentTypeCompatibleWith(applicationCbor))
+                                .andReturn();
+
+                CheckoutResponse response = cbor.readValue(result.getResponse().getContentAsByteArray(),
+                                CheckoutResponse.class);
+                assertEquals(paymentId, response.getPaymentId());
+        }
 }
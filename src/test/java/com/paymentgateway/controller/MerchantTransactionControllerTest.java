@@ -0,0 +1,60 @@
+package com.paymentgateway.controller;
+
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.generated.model.MerchantTransactionPage;
+import com.paymentgateway.service.MerchantTransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(MerchantTransactionController.class)
+public class MerchantTransactionControllerTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockBean
+        private MerchantTransactionService merchantTransactionService;
+
+        @Test
+        public void testListMerchantTransactions_Success() throws Exception {
+                UUID merchantId = UUID.randomUUID();
+
+                MerchantTransactionPage page = new MerchantTransactionPage();
+                page.setTransactions(new ArrayList<>());
+                page.setNextCursor("abc");
+
+                when(merchantTransactionService.listTransactions(eq(merchantId), isNull(), isNull(), eq("SUCCESS"),
+                                eq(50), isNull()))
+                                .thenReturn(page);
+
+                mockMvc.perform(get("/merchants/{merchantId}/transactions", merchantId)
+                                .param("status", "SUCCESS"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.nextCursor").value("abc"));
+        }
+
+        @Test
+        public void testListMerchantTransactions_InvalidCursor() throws Exception {
+                UUID merchantId = UUID.randomUUID();
+
+                when(merchantTransactionService.listTransactions(eq(merchantId), any(), any(), any(), any(),
+                                eq("bad")))
+                                .thenThrow(new InvalidRequestException("Invalid cursor"));
+
+                mockMvc.perform(get("/merchants/{merchantId}/transactions", merchantId)
+                                .param("cursor", "bad"))
+                                .andExpect(status().isBadRequest());
+        }
+}
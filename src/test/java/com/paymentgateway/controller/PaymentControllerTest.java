@@ -1,17 +1,25 @@
 package com.paymentgateway.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.paymentgateway.config.BinaryContentNegotiationConfig;
 import com.paymentgateway.generated.model.*;
 import com.paymentgateway.service.PaymentService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -21,6 +29,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PaymentController.class)
+@Import(BinaryContentNegotiationConfig.class)
 public class PaymentControllerTest {
 
         @Autowired
@@ -123,6 +132,32 @@ public class PaymentControllerTest {
                                 .andExpect(jsonPath("$.retryCount").value(1));
         }
 
+        @Test
+        public void testGetPaymentStatus_CborDatesEncodedAsJson() throws Exception {
+                UUID paymentId = UUID.randomUUID();
+
+                PaymentStatusResponse response = new PaymentStatusResponse();
+                response.setPaymentId(paymentId);
+                response.setStatus(PaymentStatusResponse.StatusEnum.SUCCESS);
+                response.setCreatedAt(OffsetDateTime.of(2026, 3, 1, 10, 15, 30, 0, ZoneOffset.ofHoursMinutes(5, 30)));
+
+                when(paymentService.getPaymentStatus(paymentId)).thenReturn(response);
+
+                MediaType applicationCbor = MediaType.parseMediaType("application/cbor");
+                JsonNode json = objectMapper.readTree(mockMvc.perform(get("/payment/status/{paymentId}", paymentId)
+                                .accept(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsByteArray());
+                JsonNode cbor = new ObjectMapper(new CBORFactory()).readTree(mockMvc.perform(
+                                get("/payment/status/{paymentId}", paymentId).accept(applicationCbor))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsByteArray());
+
+                // Same spring.jackson settings: an ISO-8601 string, not a numeric timestamp
+                assertTrue(json.get("createdAt").isTextual());
+                assertEquals(json.get("createdAt"), cbor.get("createdAt"));
+        }
+
         @Test
         public void testGetPaymentStatus_NotFound() throws Exception {
                 UUID paymentId = UUID.randomUUID();
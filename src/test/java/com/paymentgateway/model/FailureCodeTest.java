@@ -0,0 +1,41 @@
+package com.paymentgateway.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FailureCodeTest {
+
+    @Test
+    public void testCodesRoundTrip() {
+        for (FailureCode failure : FailureCode.values()) {
+            assertSame(failure, FailureCode.fromCode(failure.code()));
+        }
+        for (TransactionStatus status : TransactionStatus.values()) {
+            assertSame(status, TransactionStatus.fromCode(status.code()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> FailureCode.fromCode(99));
+        assertThrows(IllegalArgumentException.class, () -> TransactionStatus.fromCode(-1));
+    }
+
+    @Test
+    public void testRetryability() {
+        assertTrue(FailureCode.VENDOR_TIMEOUT.isRetryable());
+        // A declined payment is answered with its decline, as before failure codes
+        assertFalse(FailureCode.INSTRUMENT_DECLINED.isRetryable());
+        assertFalse(FailureCode.VALIDATION_ERROR.isRetryable());
+        assertFalse(FailureCode.UNKNOWN.isRetryable());
+    }
+
+    @Test
+    public void testFailureReason_DetailOverridesCodeMessage() {
+        Transaction txn = new Transaction();
+        assertNull(txn.getFailureReason());
+
+        txn.setFailureCode(FailureCode.VENDOR_TIMEOUT);
+        assertEquals("Vendor timeout", txn.getFailureReason());
+
+        txn.setFailureDetail("Issuer did not respond in 30s");
+        assertEquals("Issuer did not respond in 30s", txn.getFailureReason());
+    }
+}
@@ -0,0 +1,43 @@
+package com.paymentgateway.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    public void testDecimalAmountsConvertExactly() {
+        assertEquals(new Money(100_050, "INR"), Money.of(1000.50, "INR"));
+        // 1.1 is not exact as a double, but its shortest decimal form is
+        assertEquals(110, Money.of(1.1, "INR").minorUnits());
+        assertEquals(new Money(1_999, "INR"), Money.of(19.99, null));
+        assertEquals(new Money(1_000, "JPY"), Money.of(1000, "JPY"));
+        assertEquals(new Money(1_250, "KWD"), Money.of(1.25, "KWD"));
+    }
+
+    @Test
+    public void testRoundTripToApiAmount() {
+        assertEquals(1000.5, Money.toDouble(100_050, "INR"));
+        assertEquals(new BigDecimal("1000.50"), Money.toDecimal(100_050, "INR"));
+        assertEquals("1000.50 INR", new Money(100_050, "INR").toString());
+    }
+
+    @Test
+    public void testFinerThanMinorUnitOrUnknownCurrency_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(10.005, "INR"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(10.5, "JPY"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(10, "RUPEES"));
+    }
+
+    @Test
+    public void testRequestAmountOutsideDefaultCurrency_Rejected() {
+        assertEquals(new Money(10_000, "INR"), Money.ofDefaultCurrency(100, "INR"));
+        assertEquals(new Money(10_000, "INR"), Money.ofDefaultCurrency(100, null));
+        // 1000 JPY must not pass as 1000 paise against INR-denominated bounds
+        assertThrows(IllegalArgumentException.class, () -> Money.ofDefaultCurrency(1000, "JPY"));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofDefaultCurrency(1.25, "KWD"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.paymentgateway.rules;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledRuleSetTest {
+
+    @Test
+    public void testBundledRulesMatchPreviousBehaviour() {
+        CompiledRuleSet rules = RuleSetRegistry.bundled();
+
+        assertEquals("Credit Cards not allowed for this Merchant Category",
+                rules.evaluate("CREDIT_CARD", "6011", null, null, false, 10_000));
+        assertNull(rules.evaluate("CREDIT_CARD", "5411", null, null, false, 10_000));
+        assertEquals("Amount exceeds UPI regulatory limit of 1,00,000",
+                rules.evaluate("UPI", "5411", null, null, false, 10_000_001));
+        assertNull(rules.evaluate("UPI", "5411", null, null, false, 10_000_000));
+    }
+
+    @Test
+    public void testPriorityOrderAndInstrumentLevelRules() {
+        String yaml = """
+                name: "no-amex-above-50k"
+                description: "AMEX not accepted above 50,000"
+                priority: 2
+                condition: network == "AMEX" && amount >= 50_000
+                actions:
+                  - "reject"
+                ---
+                name: "blocked-issuers"
+                description: "Issuer not supported"
+                priority: 1
+                condition: issuer in ["BANK_A", "BANK_B"] || (mcc == "7995" && !(method == "UPI"))
+                actions:
+                  - "reject"
+                """;
+        CompiledRuleSet rules = CompiledRuleSet.compile(yaml, CompiledRuleSet.Format.YAML, "test");
+
+        assertEquals(2, rules.size());
+        assertNull(rules.evaluate("CREDIT_CARD", "5411", null, null, false, 6_000_000));
+        assertEquals("AMEX not accepted above 50,000",
+                rules.evaluate("CREDIT_CARD", "5411", "AMEX", "HDFC", true, 6_000_000));
+        assertEquals("Issuer not supported", rules.evaluate("CREDIT_CARD", "5411", "AMEX", "BANK_B", true, 6_000_000));
+        assertEquals("Issuer not supported", rules.evaluate("CREDIT_CARD", "7995", "VISA", "HDFC", true, 1_000));
+        assertNull(rules.evaluate("UPI", "7995", "VISA", "HDFC", true, 1_000));
+    }
+
+    @Test
+    public void testJsonDefinitions() {
+        String json = "[{\"name\":\"wallet-cap\",\"description\":\"Wallet limit\",\"priority\":1,"
+                + "\"condition\":\"method == \\\"WALLET\\\" && amount > 10000\",\"actions\":[\"reject\"]}]";
+
+        CompiledRuleSet rules = CompiledRuleSet.compile(json, CompiledRuleSet.Format.JSON, "test");
+
+        assertEquals("Wallet limit", rules.evaluate("WALLET", "5411", null, null, false, 2_000_000));
+    }
+
+    @Test
+    public void testAmountsCompiledToMinorUnits() {
+        String yaml = """
+                name: "small-ticket"
+                description: "Below 10.50"
+                condition: amount < 10.50
+                actions:
+                  - "reject"
+                """;
+        CompiledRuleSet rules = CompiledRuleSet.compile(yaml, CompiledRuleSet.Format.YAML, "test");
+
+        assertArrayEquals(new long[] { 1_050 }, rules.amountBounds());
+        assertEquals("Below 10.50", rules.evaluate("UPI", "5411", null, null, false, 1_049));
+        assertNull(rules.evaluate("UPI", "5411", null, null, false, 1_050));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CompiledRuleSet.compile(yaml.replace("10.50", "10.505"), CompiledRuleSet.Format.YAML, "test"));
+        assertTrue(e.getMessage().contains("invalid amount"));
+    }
+
+    @Test
+    public void testInvalidCondition_Rejected() {
+        String yaml = """
+                name: "broken"
+                description: "Broken"
+                condition: currency == "USD"
+                actions:
+                  - "reject"
+                """;
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CompiledRuleSet.compile(yaml, CompiledRuleSet.Format.YAML, "test"));
+        assertTrue(e.getMessage().contains("unknown field 'currency'"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.BlockListProperties;
+import com.paymentgateway.config.RedisResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BlockListServiceTest {
+
+        private StringRedisTemplate redisTemplate;
+        private RedisStringCommands stringCommands;
+        private RedisZSetCommands zSetCommands;
+        private BlockListService blockListService;
+
+        @BeforeEach
+        @SuppressWarnings("unchecked")
+        public void setUp() {
+                redisTemplate = mock(StringRedisTemplate.class);
+                RedisConnection connection = mock(RedisConnection.class);
+                stringCommands = mock(RedisStringCommands.class);
+                zSetCommands = mock(RedisZSetCommands.class);
+                when(connection.stringCommands()).thenReturn(stringCommands);
+                when(connection.zSetCommands()).thenReturn(zSetCommands);
+                when(redisTemplate.execute(any(RedisCallback.class)))
+                                .thenAnswer(inv -> inv.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+                RedisResilienceProperties resilience = new RedisResilienceProperties();
+                resilience.setFailureThreshold(1);
+                RedisGuard redisGuard = new RedisGuard(redisTemplate, resilience, new SimpleMeterRegistry());
+                blockListService = new BlockListService(redisGuard, new BlockListProperties(),
+                                new SimpleMeterRegistry());
+        }
+
+        @Test
+        public void testKeyspaceEvents_MaintainMirror() {
+                String key = BlockListService.blockedKey(BlockTarget.VENDOR, "PAYU");
+                when(stringCommands.get(bytes(key)))
+                                .thenReturn(bytes(Long.toString(System.currentTimeMillis() + 60_000)));
+
+                blockListService.onMessage(event(key, "set"), null);
+                assertTrue(blockListService.isBlocked(BlockTarget.VENDOR, "PAYU"));
+                assertFalse(blockListService.isBlocked(BlockTarget.INSTRUMENT, "PAYU"));
+
+                blockListService.onMessage(event(key, "expired"), null);
+                assertFalse(blockListService.isBlocked(BlockTarget.VENDOR, "PAYU"));
+        }
+
+        @Test
+        public void testEntryPastEndTime_NotBlocked() {
+                String key = BlockListService.blockedKey(BlockTarget.VENDOR, "RAZORPAY");
+                when(stringCommands.get(bytes(key))).thenReturn(bytes(Long.toString(System.currentTimeMillis() - 1)));
+
+                blockListService.onMessage(event(key, "set"), null);
+
+                assertFalse(blockListService.isBlocked(BlockTarget.VENDOR, "RAZORPAY"));
+        }
+
+        @Test
+        public void testResync_ReadsIndexAndKeepsNewerEntries() {
+                byte[] until = bytes(Long.toString(System.currentTimeMillis() + 60_000));
+                String instrumentKey = BlockListService.blockedKey(BlockTarget.INSTRUMENT, "i-1");
+                when(stringCommands.get(bytes(instrumentKey))).thenReturn(until);
+                when(stringCommands.get(bytes(BlockListService.blockedKey(BlockTarget.VENDOR, "JUSPAY"))))
+                                .thenReturn(until);
+                blockListService.onMessage(event(BlockListService.blockedKey(BlockTarget.VENDOR, "JUSPAY"), "set"),
+                                null);
+                when(zSetCommands.zRangeByScore(eq(bytes(BlockListService.INDEX_KEY)), anyDouble(), anyDouble()))
+                                .thenReturn(new LinkedHashSet<>(
+                                                List.of(bytes("vendor:PAYU"), bytes("vendor:CASHFREE"))));
+                when(stringCommands.mGet(any(byte[][].class))).thenAnswer(inv -> {
+                        // A block recorded elsewhere while the resync is reading Redis
+                        blockListService.onMessage(event(instrumentKey, "set"), null);
+                        return Arrays.asList(until, null);
+                });
+
+                blockListService.resync();
+
+                assertTrue(blockListService.isBlocked(BlockTarget.VENDOR, "PAYU"));
+                // Unblocked by hand: dropped locally and from the index
+                assertFalse(blockListService.isBlocked(BlockTarget.VENDOR, "CASHFREE"));
+                verify(zSetCommands).zRem(bytes(BlockListService.INDEX_KEY), bytes("vendor:CASHFREE"));
+                // Not in the index any more, and older than the read
+                assertFalse(blockListService.isBlocked(BlockTarget.VENDOR, "JUSPAY"));
+                assertTrue(blockListService.isBlocked(BlockTarget.INSTRUMENT, "i-1"));
+        }
+
+        @Test
+        public void testUnrelatedKeyIgnored() {
+                blockListService.onMessage(event("payment:status:abc", "set"), null);
+
+                verifyNoInteractions(stringCommands);
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        public void testResync_RedisUnavailable_KeepsLocalCopy() {
+                String key = BlockListService.blockedKey(BlockTarget.VENDOR, "PAYU");
+                when(stringCommands.get(bytes(key)))
+                                .thenReturn(bytes(Long.toString(System.currentTimeMillis() + 60_000)));
+                blockListService.onMessage(event(key, "set"), null);
+                doThrow(new QueryTimeoutException("timeout")).when(redisTemplate).execute(any(RedisCallback.class));
+
+                blockListService.resync();
+                blockListService.recordFailure(BlockTarget.INSTRUMENT, "i-1");
+
+                assertTrue(blockListService.isBlocked(BlockTarget.VENDOR, "PAYU"));
+                assertFalse(blockListService.isBlocked(BlockTarget.INSTRUMENT, "i-1"));
+        }
+
+        private static DefaultMessage event(String key, String event) {
+                return new DefaultMessage(("__keyspace@0__:" + key).getBytes(StandardCharsets.UTF_8),
+                                event.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static byte[] bytes(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+        }
+}
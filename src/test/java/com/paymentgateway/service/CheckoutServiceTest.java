@@ -0,0 +1,179 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentgateway.config.CheckoutTemplateProperties;
+import com.paymentgateway.config.HandoffTokenProperties;
+import com.paymentgateway.config.SloProperties;
+import com.paymentgateway.generated.model.CheckoutResponse;
+import com.paymentgateway.generated.model.InstrumentDetails;
+import com.paymentgateway.model.Money;
+import com.paymentgateway.model.PaymentInstrument;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.repository.PaymentNetworkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class CheckoutServiceTest {
+
+        private static final Money AMOUNT = new Money(10_000, "INR");
+
+        private ReferenceDataStore referenceDataStore;
+        private CustomerInstrumentService customerInstrumentService;
+        private RuleEngineService ruleEngineService;
+        private HandoffTokenService handoffTokenService;
+        private BlockListService blockListService;
+        private StageTimer stageTimer;
+        private CheckoutService checkoutService;
+
+        @BeforeEach
+        public void setUp() {
+                referenceDataStore = mock(ReferenceDataStore.class);
+                customerInstrumentService = mock(CustomerInstrumentService.class);
+                ruleEngineService = mock(RuleEngineService.class);
+                DowntimeService downtimeService = mock(DowntimeService.class);
+                HandoffTokenProperties handoffTokenProperties = new HandoffTokenProperties();
+                blockListService = mock(BlockListService.class);
+                handoffTokenService = new HandoffTokenService(handoffTokenProperties);
+                CheckoutTemplateCache checkoutTemplateCache = new CheckoutTemplateCache(referenceDataStore,
+                                ruleEngineService, new NetworkRegistry(mock(PaymentNetworkRepository.class)),
+                                new CheckoutTemplateProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+                stageTimer = new StageTimer(new SimpleMeterRegistry(), new SloProperties());
+                checkoutService = new CheckoutService(customerInstrumentService, ruleEngineService, downtimeService,
+                                mock(RetryStateStore.class), stageTimer,
+                                mock(VendorAvailabilityService.class), new VendorRouter(mock(PricingService.class)),
+                                handoffTokenService, handoffTokenProperties, blockListService, checkoutTemplateCache);
+
+                PaymentMethod card = new PaymentMethod();
+                card.setMethodId("CREDIT_CARD");
+                card.setMethodName("Credit Card");
+                when(referenceDataStore.activeMethods()).thenReturn(List.of(card));
+        }
+
+        @Test
+        public void testSameIdempotencyKey_ReturnsCachedResponse() {
+                UUID idempotencyKey = UUID.randomUUID();
+
+                CheckoutResponse first = checkout(idempotencyKey);
+                CheckoutResponse second = checkout(idempotencyKey);
+
+                assertSame(first, second);
+                verify(referenceDataStore, times(1)).activeMethods();
+        }
+
+        @Test
+        public void testWarmUp_NotTimedOrCached() {
+                UUID merchantId = UUID.randomUUID();
+
+                CheckoutResponse warm = checkoutService.warmUp(merchantId, UUID.randomUUID(), AMOUNT, "5411");
+                CheckoutResponse again = checkoutService.warmUp(merchantId, UUID.randomUUID(), AMOUNT, "5411");
+
+                assertEquals(1, warm.getPaymentMethods().size());
+                assertNotEquals(warm.getPaymentId(), again.getPaymentId());
+                assertEquals(0, stageTimer.timer(PipelineStage.CHECKOUT_TOTAL).count());
+                assertEquals(0, stageTimer.timer(PipelineStage.CHECKOUT_METHODS).count());
+        }
+
+        @Test
+        public void testEmitsCheckoutEvaluatedEvent(@TempDir Path tempDir) throws Exception {
+                UUID userId = UUID.randomUUID();
+                when(customerInstrumentService.getInstrumentsForUser(any()))
+                                .thenReturn(List.of(instrument(userId), instrument(userId)));
+                when(ruleEngineService.getIneligibilityReason(any(), isNull(), any(), anyString(), anyLong()))
+                                .thenReturn(null);
+                when(ruleEngineService.getIneligibilityReason(any(), any(PaymentInstrument.class), any(), anyString(),
+                                anyLong()))
+                                .thenReturn(null, "Network AMEX not supported by merchant");
+
+                Path dump = tempDir.resolve("checkout.jfr");
+                UUID idempotencyKey = UUID.randomUUID();
+                try (Recording recording = new Recording()) {
+                        recording.enable("com.paymentgateway.CheckoutEvaluated");
+                        recording.start();
+                        checkout(idempotencyKey);
+                        checkout(idempotencyKey);
+                        recording.stop();
+                        recording.dump(dump);
+                }
+
+                List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                                .filter(e -> e.getEventType().getName().equals("com.paymentgateway.CheckoutEvaluated"))
+                                .toList();
+                assertEquals(2, events.size());
+                RecordedEvent evaluated = events.get(0);
+                assertFalse(evaluated.getBoolean("cacheHit"));
+                assertEquals(1, evaluated.getInt("methodCount"));
+                assertEquals(2, evaluated.getInt("instrumentCount"));
+                assertEquals(1, evaluated.getInt("eligibleInstrumentCount"));
+                assertTrue(events.get(1).getBoolean("cacheHit"));
+        }
+
+        @Test
+        public void testHandoffTokenCarriesOnlyEligibleInstruments() {
+                UUID userId = UUID.randomUUID();
+                PaymentInstrument eligible = instrument(userId);
+                PaymentInstrument declined = instrument(userId);
+                when(customerInstrumentService.getInstrumentsForUser(userId)).thenReturn(List.of(eligible, declined));
+                when(ruleEngineService.getIneligibilityReason(any(), eq(declined), any(), anyString(), anyLong()))
+                                .thenReturn("Network AMEX not supported by merchant");
+
+                UUID merchantId = UUID.randomUUID();
+                CheckoutResponse response = checkoutService.getCheckoutOptions(UUID.randomUUID(), UUID.randomUUID(),
+                                merchantId, userId, AMOUNT, "5411", null);
+
+                HandoffToken handoff = handoffTokenService.verify(response.getHandoffToken());
+                assertEquals(response.getPaymentId(), handoff.paymentId());
+                assertEquals(merchantId, handoff.merchantId());
+                assertEquals(userId, handoff.userId());
+                assertTrue(handoff.allows("CREDIT_CARD", eligible.getInstrumentId()));
+                assertFalse(handoff.allows("CREDIT_CARD", declined.getInstrumentId()));
+        }
+
+        @Test
+        public void testBlockedInstrumentIneligibleWithoutRules() {
+                UUID userId = UUID.randomUUID();
+                PaymentInstrument blocked = instrument(userId);
+                when(customerInstrumentService.getInstrumentsForUser(userId)).thenReturn(List.of(blocked));
+                when(blockListService.isBlocked(BlockTarget.INSTRUMENT, blocked.getInstrumentId())).thenReturn(true);
+
+                CheckoutResponse response = checkoutService.getCheckoutOptions(UUID.randomUUID(), UUID.randomUUID(),
+                                UUID.randomUUID(), userId, AMOUNT, "5411", null);
+
+                InstrumentDetails details = response.getPaymentMethods().get(0).getUserInstruments().get(0);
+                assertFalse(details.getEligible());
+                assertEquals("Instrument temporarily blocked after repeated failures",
+                                details.getIneligibilityReason());
+                verify(ruleEngineService, never()).getIneligibilityReason(any(), eq(blocked), any(), any(), anyLong());
+        }
+
+        private CheckoutResponse checkout(UUID idempotencyKey) {
+                return checkoutService.getCheckoutOptions(UUID.randomUUID(), idempotencyKey, UUID.randomUUID(),
+                                UUID.randomUUID(), AMOUNT, "5411", null);
+        }
+
+        private PaymentInstrument instrument(UUID userId) {
+                PaymentInstrument instrument = new PaymentInstrument();
+                instrument.setInstrumentId(UUID.randomUUID());
+                instrument.setUserId(userId);
+                instrument.setMethodId("CREDIT_CARD");
+                instrument.setNetwork("VISA");
+                instrument.setIssuer("ICICI");
+                return instrument;
+        }
+}
@@ -0,0 +1,149 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.paymentgateway.config.CheckoutTemplateProperties;
+import com.paymentgateway.generated.model.InstrumentDetails;
+import com.paymentgateway.generated.model.PaymentMethodOption;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.model.PaymentNetwork;
+import com.paymentgateway.repository.PaymentNetworkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+public class CheckoutTemplateCacheTest {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private ReferenceDataStore referenceDataStore;
+        private RuleEngineService ruleEngineService;
+        private CheckoutTemplateCache cache;
+        private PaymentMethod upi;
+
+        @BeforeEach
+        public void setUp() {
+                referenceDataStore = mock(ReferenceDataStore.class);
+                ruleEngineService = mock(RuleEngineService.class);
+                PaymentNetworkRepository paymentNetworkRepository = mock(PaymentNetworkRepository.class);
+                PaymentNetwork visa = new PaymentNetwork();
+                visa.setName("VISA");
+                visa.setBitIndex(0);
+                when(paymentNetworkRepository.findAll()).thenReturn(List.of(visa));
+                cache = new CheckoutTemplateCache(referenceDataStore, ruleEngineService,
+                                new NetworkRegistry(paymentNetworkRepository), new CheckoutTemplateProperties(),
+                                objectMapper, new SimpleMeterRegistry());
+
+                upi = new PaymentMethod();
+                upi.setMethodId("UPI");
+                upi.setMethodName("UPI");
+                when(referenceDataStore.activeMethods()).thenReturn(List.of(upi));
+                when(ruleEngineService.rulesVersion()).thenReturn("v1");
+                when(ruleEngineService.methodAmountBreakpoints(any(), anyString(), any()))
+                                .thenReturn(new long[] { 10_000_000 });
+                when(ruleEngineService.getIneligibilityReason(any(), isNull(), any(), anyString(), anyLong()))
+                                .thenAnswer(inv -> inv.<Long>getArgument(4) > 10_000_000 ? "UPI limit exceeded" : null);
+        }
+
+        @Test
+        public void testBand_SeparatesBreakpointsFromRangesBetweenThem() {
+                long[] breakpoints = { 100, 500 };
+
+                assertEquals(0, CheckoutTemplateCache.band(breakpoints, 50));
+                assertEquals(1, CheckoutTemplateCache.band(breakpoints, 100));
+                assertEquals(2, CheckoutTemplateCache.band(breakpoints, 250));
+                assertEquals(3, CheckoutTemplateCache.band(breakpoints, 500));
+                assertEquals(4, CheckoutTemplateCache.band(breakpoints, 900));
+        }
+
+        @Test
+        public void testSameBand_ReusesTemplate() {
+                UUID merchantId = UUID.randomUUID();
+
+                CheckoutTemplate small = cache.get(merchantId, "5411", 10_000);
+                CheckoutTemplate alsoSmall = cache.get(merchantId, "5411", 9_999_900);
+                CheckoutTemplate large = cache.get(merchantId, "5411", 15_000_000);
+
+                assertSame(small, alsoSmall);
+                assertTrue(small.methods().get(0).enabled());
+                assertEquals("UPI limit exceeded", large.methods().get(0).ineligibilityReason());
+                verify(ruleEngineService, times(2)).getIneligibilityReason(any(), isNull(), any(), anyString(),
+                                anyLong());
+                verify(referenceDataStore, times(1)).activeMethods();
+        }
+
+        @Test
+        public void testMerchantConfigChanged_RebuildsThatMerchant() {
+                UUID merchantId = UUID.randomUUID();
+                UUID otherMerchantId = UUID.randomUUID();
+                CheckoutTemplate before = cache.get(merchantId, "5411", 10_000);
+                CheckoutTemplate other = cache.get(otherMerchantId, "5411", 10_000);
+
+                cache.onMerchantConfigChanged(new MerchantConfigChangedEvent(merchantId));
+
+                assertNotSame(before, cache.get(merchantId, "5411", 10_000));
+                assertSame(other, cache.get(otherMerchantId, "5411", 10_000));
+        }
+
+        @Test
+        public void testRulesVersionOrCatalogChanged_Rebuilds() {
+                UUID merchantId = UUID.randomUUID();
+                CheckoutTemplate v1 = cache.get(merchantId, "5411", 10_000);
+
+                when(ruleEngineService.rulesVersion()).thenReturn("v2");
+                CheckoutTemplate v2 = cache.get(merchantId, "5411", 10_000);
+                assertNotSame(v1, v2);
+
+                PaymentMethod card = new PaymentMethod();
+                card.setMethodId("CREDIT_CARD");
+                card.setMethodName("Credit Card");
+                card.setSupportedNetworks(1L);
+                when(referenceDataStore.activeMethods()).thenReturn(List.of(upi, card));
+                cache.refreshCatalog();
+
+                List<CheckoutTemplate.MethodTemplate> methods = cache.get(merchantId, "5411", 10_000).methods();
+                assertEquals(2, methods.size());
+                assertEquals(List.of(), methods.get(0).supportedNetworks());
+                assertEquals(List.of("VISA"), methods.get(1).supportedNetworks());
+        }
+
+        @Test
+        public void testNoBreakpoints_NothingCached() {
+                when(ruleEngineService.methodAmountBreakpoints(any(), anyString(), any())).thenReturn(null);
+                UUID merchantId = UUID.randomUUID();
+
+                assertNotSame(cache.get(merchantId, "5411", 10_000), cache.get(merchantId, "5411", 10_000));
+        }
+
+        @Test
+        public void testPreEncodedOption_SerializesLikePlainOption() throws Exception {
+                CheckoutTemplate.MethodTemplate template = cache.get(UUID.randomUUID(), "5411", 15_000_000).methods()
+                                .get(0);
+                InstrumentDetails instrument = new InstrumentDetails();
+                instrument.setInstrumentId(UUID.randomUUID());
+                instrument.setMethodId("UPI");
+                instrument.setType("UPI");
+                instrument.setEligible(false);
+                instrument.setIneligibilityReason("UPI limit exceeded");
+
+                PaymentMethodOption templated = template.newOption(List.of(instrument));
+                PaymentMethodOption plain = template.fill(new PaymentMethodOption(), List.of(instrument));
+
+                assertNotNull(template.encodedFields());
+                assertEquals(objectMapper.writeValueAsString(plain), objectMapper.writeValueAsString(templated));
+                assertEquals(objectMapper.writeValueAsString(List.of(plain, plain)),
+                                objectMapper.writeValueAsString(List.of(templated, templated)));
+
+                ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+                assertEquals(plain, cbor.readValue(cbor.writeValueAsBytes(templated), PaymentMethodOption.class));
+        }
+}
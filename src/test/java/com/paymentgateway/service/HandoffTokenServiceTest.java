@@ -0,0 +1,84 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.HandoffTokenProperties;
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandoffTokenServiceTest {
+
+        private static final String KEY_A = Base64.getEncoder().encodeToString(new byte[32]);
+        private static final String KEY_B = Base64.getEncoder()
+                        .encodeToString("another-32-byte-signing-key-0001".getBytes());
+
+        @Test
+        public void testRoundTrip() {
+                HandoffTokenService service = service(KEY_A);
+                UUID instrumentId = UUID.randomUUID();
+
+                String encoded = service.issue(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                                new Money(100_050, "INR"),
+                                List.of(new HandoffToken.EligibleInstrument("CREDIT_CARD", instrumentId)),
+                                List.of("PAYU", "RAZORPAY"));
+                HandoffToken token = service.verify(encoded);
+
+                assertEquals(new Money(100_050, "INR"), token.amount());
+                assertTrue(token.allows("CREDIT_CARD", instrumentId));
+                assertFalse(token.allows("UPI", instrumentId));
+                assertEquals(List.of("PAYU", "RAZORPAY"), token.vendorShortlist());
+        }
+
+        @Test
+        public void testTamperedToken_Rejected() {
+                HandoffTokenService service = service(KEY_A);
+                byte[] bytes = Base64.getUrlDecoder().decode(issue(service));
+                bytes[20] ^= 1;
+
+                assertThrows(InvalidRequestException.class,
+                                () -> service.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes)));
+                assertThrows(InvalidRequestException.class, () -> service.verify("not a token"));
+        }
+
+        @Test
+        public void testExpiredToken_Rejected() {
+                HandoffTokenService service = service(KEY_A);
+                Instant issuedAt = Instant.now().minusSeconds(7200);
+                String encoded = service.encode(new HandoffToken(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                                new Money(1_000, "INR"), issuedAt, issuedAt.plusSeconds(3600), List.of(),
+                                List.of()));
+
+                InvalidRequestException e = assertThrows(InvalidRequestException.class, () -> service.verify(encoded));
+                assertTrue(e.getMessage().contains("expired"));
+        }
+
+        @Test
+        public void testPreviousKeyAcceptedDuringRotation() {
+                String encoded = issue(service(KEY_A));
+
+                HandoffTokenProperties rotated = new HandoffTokenProperties();
+                rotated.setSecret(KEY_B);
+                rotated.setPreviousSecrets(List.of(KEY_A));
+
+                assertNotNull(new HandoffTokenService(rotated).verify(encoded));
+                assertThrows(InvalidRequestException.class, () -> service(KEY_B).verify(encoded));
+        }
+
+        private static HandoffTokenService service(String secret) {
+                HandoffTokenProperties properties = new HandoffTokenProperties();
+                properties.setSecret(secret);
+                return new HandoffTokenService(properties);
+        }
+
+        private static String issue(HandoffTokenService service) {
+                return service.issue(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                                new Money(1_000, "INR"),
+                                List.of(new HandoffToken.EligibleInstrument("UPI", UUID.randomUUID())), List.of("PAYU"));
+        }
+}
@@ -0,0 +1,99 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.generated.model.MerchantTransactionPage;
+import com.paymentgateway.generated.model.MerchantTransactionSummary;
+import com.paymentgateway.model.TransactionStatus;
+import com.paymentgateway.repository.MerchantTransactionQueryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MerchantTransactionServiceTest {
+
+        private MerchantTransactionQueryRepository queryRepository;
+        private MerchantTransactionService service;
+
+        @BeforeEach
+        public void setUp() {
+                queryRepository = mock(MerchantTransactionQueryRepository.class);
+                service = new MerchantTransactionService(queryRepository);
+        }
+
+        @Test
+        public void testListTransactions_FullPageReturnsCursorOfLastRow() {
+                UUID merchantId = UUID.randomUUID();
+                List<MerchantTransactionSummary> rows = rows(3);
+                when(queryRepository.findPage(eq(merchantId), any(), any(), isNull(), isNull(), isNull(), eq(3)))
+                                .thenReturn(rows);
+
+                MerchantTransactionPage page = service.listTransactions(merchantId, null, null, null, 2, null);
+
+                assertEquals(2, page.getTransactions().size());
+                TransactionCursor cursor = TransactionCursor.decode(page.getNextCursor());
+                assertEquals(rows.get(1).getTxnId(), cursor.txnId());
+                assertEquals(rows.get(1).getCreatedAt().toLocalDateTime(), cursor.createdAt());
+        }
+
+        @Test
+        public void testListTransactions_LastPageHasNoCursor() {
+                UUID merchantId = UUID.randomUUID();
+                when(queryRepository.findPage(eq(merchantId), any(), any(), eq(TransactionStatus.SUCCESS), any(), any(),
+                                anyInt())).thenReturn(rows(1));
+
+                MerchantTransactionPage page = service.listTransactions(merchantId, null, null, "SUCCESS", 2, null);
+
+                assertEquals(1, page.getTransactions().size());
+                assertNull(page.getNextCursor());
+        }
+
+        @Test
+        public void testListTransactions_CursorSeeksAfterPosition() {
+                UUID merchantId = UUID.randomUUID();
+                TransactionCursor cursor = new TransactionCursor(LocalDateTime.now().withNano(123_456_000),
+                                UUID.randomUUID());
+
+                service.listTransactions(merchantId, null, null, null, 10, cursor.encode());
+
+                verify(queryRepository).findPage(eq(merchantId), any(), any(), isNull(),
+                                eq(cursor.createdAt()), eq(cursor.txnId()), eq(11));
+        }
+
+        @Test
+        public void testListTransactions_InvalidInputs() {
+                UUID merchantId = UUID.randomUUID();
+                ZonedDateTime now = ZonedDateTime.now();
+
+                assertThrows(InvalidRequestException.class,
+                                () -> service.listTransactions(merchantId, now, now.minusDays(1), null, null, null));
+                assertThrows(InvalidRequestException.class,
+                                () -> service.listTransactions(merchantId, null, null, "REFUNDED", null, null));
+                assertThrows(InvalidRequestException.class,
+                                () -> service.listTransactions(merchantId, null, null, null, null, "not-a-cursor!"));
+                verifyNoInteractions(queryRepository);
+        }
+
+        private List<MerchantTransactionSummary> rows(int count) {
+                List<MerchantTransactionSummary> rows = new ArrayList<>();
+                LocalDateTime createdAt = LocalDateTime.now();
+                for (int i = 0; i < count; i++) {
+                        MerchantTransactionSummary row = new MerchantTransactionSummary();
+                        row.setTxnId(UUID.randomUUID());
+                        row.setPaymentId(UUID.randomUUID());
+                        row.setStatus("SUCCESS");
+                        row.setCreatedAt(createdAt.minusSeconds(i).atZone(ZoneId.systemDefault()));
+                        rows.add(row);
+                }
+                return rows;
+        }
+}
@@ -0,0 +1,61 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.exception.InvalidRequestException;
+import com.paymentgateway.model.PaymentNetwork;
+import com.paymentgateway.repository.PaymentNetworkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class NetworkRegistryTest {
+
+        private PaymentNetworkRepository repository;
+        private NetworkRegistry registry;
+
+        @BeforeEach
+        public void setUp() {
+                repository = mock(PaymentNetworkRepository.class);
+                when(repository.findAll()).thenReturn(List.of(network("VISA", 0), network("MASTERCARD", 1),
+                                network("RUPAY", 3)));
+                registry = new NetworkRegistry(repository);
+        }
+
+        @Test
+        public void testMaskAndNames_RoundTrip() {
+                long mask = registry.maskOf(List.of("RUPAY", "VISA"));
+
+                assertEquals(0b1001L, mask);
+                assertEquals(List.of("VISA", "RUPAY"), registry.namesOf(mask));
+                assertTrue(registry.contains(mask, "RUPAY"));
+                assertFalse(registry.contains(mask, "MASTERCARD"));
+                assertFalse(registry.contains(mask, null));
+        }
+
+        @Test
+        public void testUnknownNetwork_RejectedOnWriteAndNeverContained() {
+                assertThrows(InvalidRequestException.class, () -> registry.maskOf(List.of("VISA", "AMEX")));
+                assertFalse(registry.contains(-1L, "AMEX"));
+        }
+
+        @Test
+        public void testReload_PicksUpNewNetworks() {
+                assertEquals(0L, registry.bitOf("AMEX"));
+
+                when(repository.findAll()).thenReturn(List.of(network("VISA", 0), network("AMEX", 2)));
+                registry.reload();
+
+                assertEquals(1L << 2, registry.bitOf("AMEX"));
+                assertEquals(List.of("VISA", "AMEX"), registry.namesOf(-1L));
+        }
+
+        private static PaymentNetwork network(String name, int bitIndex) {
+                PaymentNetwork network = new PaymentNetwork();
+                network.setName(name);
+                network.setBitIndex(bitIndex);
+                return network;
+        }
+}
@@ -0,0 +1,240 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.admission.AdmissionPriority;
+import com.paymentgateway.admission.MerchantRateLimiter;
+import com.paymentgateway.config.HandoffTokenProperties;
+import com.paymentgateway.config.PaymentBatchProperties;
+import com.paymentgateway.config.SloProperties;
+import com.paymentgateway.config.VendorDispatchProperties;
+import com.paymentgateway.generated.model.MerchantDetails;
+import com.paymentgateway.generated.model.PaymentDetails;
+import com.paymentgateway.generated.model.PaymentInstrument;
+import com.paymentgateway.generated.model.PaymentRequest;
+import com.paymentgateway.generated.model.PaymentResponse;
+import com.paymentgateway.model.Transaction;
+import com.paymentgateway.model.VendorHealth;
+import com.paymentgateway.repository.TransactionBatchRepository;
+import com.paymentgateway.repository.TransactionRepository;
+import com.paymentgateway.service.impl.VendorExecutionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PaymentBatchServiceTest {
+
+        private VendorAvailabilityService vendorAvailabilityService;
+        private VendorExecutionService vendorExecutionService;
+        private TransactionBatchRepository transactionBatchRepository;
+        private PaymentStatusStore paymentStatusStore;
+        private MerchantRateLimiter merchantRateLimiter;
+        private PaymentBatchService batchService;
+
+        @BeforeEach
+        public void setUp() {
+                vendorAvailabilityService = mock(VendorAvailabilityService.class);
+                vendorExecutionService = mock(VendorExecutionService.class);
+                transactionBatchRepository = mock(TransactionBatchRepository.class);
+                paymentStatusStore = mock(PaymentStatusStore.class);
+                BlockListService blockListService = mock(BlockListService.class);
+                PaymentStatusLookup paymentStatusLookup = mock(PaymentStatusLookup.class);
+                VendorRouter vendorRouter = new VendorRouter(mock(PricingService.class));
+                VendorDispatchScheduler vendorDispatchScheduler = new VendorDispatchScheduler(
+                                new VendorDispatchProperties(), new SimpleMeterRegistry());
+                PaymentService paymentService = new PaymentService(vendorAvailabilityService, vendorRouter,
+                                mock(TransactionRepository.class), mock(MerchantConfigService.class),
+                                mock(CheckoutService.class), mock(RetryStateStore.class), paymentStatusStore,
+                                paymentStatusLookup, vendorExecutionService, vendorDispatchScheduler,
+                                new StageTimer(new SimpleMeterRegistry(), new SloProperties()),
+                                mock(HandoffTokenService.class), new HandoffTokenProperties(), blockListService);
+
+                PaymentBatchProperties properties = new PaymentBatchProperties();
+                properties.setConcurrency(2);
+                properties.setDispatchThreads(2);
+                properties.setFlushSize(10);
+                properties.setMaxConcurrentBatches(2);
+                properties.setMaxConcurrentBatchesPerMerchant(1);
+                merchantRateLimiter = mock(MerchantRateLimiter.class);
+                @SuppressWarnings("unchecked")
+                ObjectProvider<MerchantRateLimiter> rateLimiters = mock(ObjectProvider.class);
+                when(rateLimiters.getIfAvailable()).thenReturn(merchantRateLimiter);
+                batchService = new PaymentBatchService(paymentService, vendorAvailabilityService, vendorRouter,
+                                blockListService, mock(RetryStateStore.class), transactionBatchRepository,
+                                paymentStatusStore, paymentStatusLookup, vendorExecutionService,
+                                vendorDispatchScheduler, Validation.buildDefaultValidatorFactory().getValidator(),
+                                properties, rateLimiters, new SimpleMeterRegistry());
+
+                when(vendorAvailabilityService.getAvailableVendors()).thenReturn(List.of(
+                                vendor("RAZORPAY", 99.0), vendor("PAYU", 99.9)));
+        }
+
+        @AfterEach
+        public void tearDown() {
+                batchService.shutdown();
+        }
+
+        @Test
+        public void testBatch_OneResultPerPaymentWithPartialFailures() {
+                UUID userId = UUID.randomUUID();
+                PaymentRequest paid = request(100.0);
+                PaymentRequest declined = request(250.0);
+                PaymentRequest noAmount = request(100.0);
+                noAmount.getPayment().setAmount(null);
+                VendorExecutionResult success = mock(VendorExecutionResult.class);
+                when(success.isSuccess()).thenReturn(true);
+                VendorExecutionResult decline = mock(VendorExecutionResult.class);
+                when(decline.getFailureType()).thenReturn(VendorExecutionResult.FailureType.INSTRUMENT_DECLINE);
+                when(vendorExecutionService.executeVendorPayment(anyString(), eq(paid))).thenReturn(success);
+                when(vendorExecutionService.executeVendorPayment(anyString(), eq(declined))).thenReturn(decline);
+
+                List<BatchPayment.Result> results = process(List.of(new BatchPayment(userId, paid),
+                                new BatchPayment(userId, declined), new BatchPayment(userId, noAmount),
+                                new BatchPayment(userId, paid)));
+
+                assertEquals(List.of(0, 1, 2, 3), results.stream().map(BatchPayment.Result::index).toList());
+                assertEquals(PaymentResponse.StatusEnum.SUCCESS, results.get(0).response().getStatus());
+                assertEquals(PaymentResponse.StatusEnum.FAILED, results.get(1).response().getStatus());
+                assertTrue(results.get(1).response().getRequiresNewInstrument());
+                assertEquals("Bad Request", results.get(2).error());
+                assertEquals("Bad Request", results.get(3).error());
+                assertEquals(paid.getPaymentId(), results.get(3).paymentId());
+
+                // Routed once for the batch, to the vendor with the best uptime
+                verify(vendorAvailabilityService, times(1)).getAvailableVendors();
+                verify(vendorExecutionService, times(2)).executeVendorPayment(eq("PAYU"), any());
+
+                @SuppressWarnings("unchecked")
+                ArgumentCaptor<List<Transaction>> inserted = ArgumentCaptor.forClass(List.class);
+                verify(transactionBatchRepository, times(1)).insertAll(inserted.capture());
+                assertEquals(2, inserted.getValue().size());
+                verify(transactionBatchRepository, atLeastOnce()).updateOutcomes(any());
+                verify(paymentStatusStore, atLeastOnce()).saveAll(any());
+        }
+
+        @Test
+        public void testPaidPaymentResubmitted_ReturnsEarlierOutcome() {
+                UUID userId = UUID.randomUUID();
+                PaymentRequest paid = request(100.0);
+                VendorExecutionResult success = mock(VendorExecutionResult.class);
+                when(success.isSuccess()).thenReturn(true);
+                when(vendorExecutionService.executeVendorPayment(anyString(), any())).thenReturn(success);
+
+                BatchPayment.Result first = process(List.of(new BatchPayment(userId, paid))).get(0);
+                BatchPayment.Result second = process(List.of(new BatchPayment(userId, paid))).get(0);
+
+                assertEquals(PaymentResponse.StatusEnum.SUCCESS, second.response().getStatus());
+                assertEquals(first.response().getTxnId(), second.response().getTxnId());
+                verify(vendorExecutionService, times(1)).executeVendorPayment(anyString(), any());
+        }
+
+        @Test
+        public void testMerchantOverPaymentRate_ItemsThrottled() {
+                UUID userId = UUID.randomUUID();
+                PaymentRequest admitted = request(100.0);
+                PaymentRequest throttled = request(100.0);
+                VendorExecutionResult success = mock(VendorExecutionResult.class);
+                when(success.isSuccess()).thenReturn(true);
+                when(vendorExecutionService.executeVendorPayment(anyString(), any())).thenReturn(success);
+                when(merchantRateLimiter.tryAcquire(throttled.getMerchant().getMerchantId(), AdmissionPriority.PAYMENT))
+                                .thenReturn(1_000_000L);
+
+                List<BatchPayment.Result> results = process(List.of(new BatchPayment(userId, admitted),
+                                new BatchPayment(userId, throttled)));
+
+                assertEquals(PaymentResponse.StatusEnum.SUCCESS, results.get(0).response().getStatus());
+                assertEquals("Too Many Requests", results.get(1).error());
+                verify(merchantRateLimiter).tryAcquire(admitted.getMerchant().getMerchantId(),
+                                AdmissionPriority.PAYMENT);
+                verify(vendorExecutionService, times(1)).executeVendorPayment(anyString(), any());
+        }
+
+        @Test
+        public void testAdmit_BoundsRunningBatchesPerNodeAndMerchant() {
+                UUID userId = UUID.randomUUID();
+                PaymentRequest first = request(100.0);
+                PaymentRequest sameMerchant = request(100.0);
+                sameMerchant.setMerchant(first.getMerchant());
+
+                PaymentBatchService.BatchPermit permit = batchService.admit(List.of(new BatchPayment(userId, first)));
+                assertNotNull(permit);
+                // One batch per merchant
+                assertNull(batchService.admit(List.of(new BatchPayment(userId, sameMerchant))));
+                PaymentBatchService.BatchPermit other = batchService.admit(
+                                List.of(new BatchPayment(userId, request(100.0))));
+                assertNotNull(other);
+                // Two per node
+                assertNull(batchService.admit(List.of(new BatchPayment(userId, request(100.0)))));
+
+                permit.close();
+                other.close();
+                assertNotNull(batchService.admit(List.of(new BatchPayment(userId, sameMerchant))));
+        }
+
+        @Test
+        public void testRanking_PicksSameVendorAsSelectVendor() {
+                PricingService pricingService = mock(PricingService.class);
+                // PAYU is cheaper below 1000.00, RAZORPAY above
+                when(pricingService.calculateFee(eq("PAYU"), anyLong()))
+                                .thenAnswer(inv -> inv.<Long>getArgument(1) / 50);
+                when(pricingService.calculateFee(eq("RAZORPAY"), anyLong()))
+                                .thenAnswer(inv -> 2_000 + inv.<Long>getArgument(1) / 100);
+                VendorRouter vendorRouter = new VendorRouter(pricingService);
+                List<VendorHealth> vendors = List.of(vendor("RAZORPAY", 99.9), vendor("PAYU", 99.9),
+                                vendor("CASHFREE", 98.0));
+
+                VendorRouter.Ranking ranking = vendorRouter.ranking(vendors);
+
+                for (long amountMinor : new long[] { 10_000, 100_000, 150_000, 1_000_000 }) {
+                        assertEquals(vendorRouter.selectVendor(vendors, amountMinor).getVendorId(),
+                                        ranking.select(amountMinor));
+                }
+                assertEquals("PAYU", ranking.select(10_000));
+                assertEquals("RAZORPAY", ranking.select(1_000_000));
+        }
+
+        private List<BatchPayment.Result> process(List<BatchPayment> payments) {
+                List<BatchPayment.Result> results = new ArrayList<>();
+                batchService.processBatch(payments, results::add);
+                results.sort(Comparator.comparingInt(BatchPayment.Result::index));
+                return results;
+        }
+
+        private static PaymentRequest request(double amount) {
+                PaymentRequest request = new PaymentRequest();
+                request.setPaymentId(UUID.randomUUID());
+                MerchantDetails merchant = new MerchantDetails();
+                merchant.setMerchantId(UUID.randomUUID());
+                request.setMerchant(merchant);
+                PaymentDetails payment = new PaymentDetails();
+                payment.setAmount(amount);
+                request.setPayment(payment);
+                PaymentInstrument instrument = new PaymentInstrument();
+                instrument.setInstrumentId(UUID.randomUUID());
+                instrument.setMethodId("UPI");
+                request.setInstrument(instrument);
+                return request;
+        }
+
+        private static VendorHealth vendor(String vendorId, double uptimeScore) {
+                VendorHealth vendor = new VendorHealth();
+                vendor.setVendorId(vendorId);
+                vendor.setUptimeScore(uptimeScore);
+                vendor.setErrorRate(0.01);
+                return vendor;
+        }
+}
@@ -0,0 +1,100 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaymentStatusCodecTest {
+
+        @Test
+        public void testRoundTrip_AllFields() {
+                PaymentStatusResponse status = fullStatus();
+
+                PaymentStatusResponse decoded = PaymentStatusCodec.decode(PaymentStatusCodec.encode(status));
+
+                assertEquals(status.getPaymentId(), decoded.getPaymentId());
+                assertEquals(status.getTxnId(), decoded.getTxnId());
+                assertEquals(status.getStatus(), decoded.getStatus());
+                assertEquals(status.getAmount(), decoded.getAmount());
+                assertEquals(status.getCreatedAt().toInstant(), decoded.getCreatedAt().toInstant());
+                assertEquals(status.getUpdatedAt().toInstant(), decoded.getUpdatedAt().toInstant());
+                assertEquals(status.getFailureReason(), decoded.getFailureReason());
+                assertEquals(status.getRetryCount(), decoded.getRetryCount());
+        }
+
+        @Test
+        public void testRoundTrip_AbsentFields() {
+                PaymentStatusResponse status = new PaymentStatusResponse();
+                status.setPaymentId(UUID.randomUUID());
+                status.setStatus(PaymentStatusResponse.StatusEnum.PENDING);
+
+                PaymentStatusResponse decoded = PaymentStatusCodec.decode(PaymentStatusCodec.encode(status));
+
+                assertEquals(status.getPaymentId(), decoded.getPaymentId());
+                assertEquals(PaymentStatusResponse.StatusEnum.PENDING, decoded.getStatus());
+                assertNull(decoded.getTxnId());
+                assertNull(decoded.getAmount());
+                assertNull(decoded.getCreatedAt());
+                assertNull(decoded.getUpdatedAt());
+                assertNull(decoded.getFailureReason());
+                assertEquals(0, decoded.getRetryCount());
+        }
+
+        @Test
+        public void testIsBinary_RejectsLegacyJson() throws Exception {
+                ObjectMapper objectMapper = JsonMapper.builder()
+                                .findAndAddModules()
+                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                .build();
+                byte[] json = objectMapper.writeValueAsBytes(fullStatus());
+
+                assertFalse(PaymentStatusCodec.isBinary(json));
+                assertThrows(IllegalArgumentException.class, () -> PaymentStatusCodec.decode(json));
+        }
+
+        @Test
+        public void testEncodedSize_SmallerThanJson() throws Exception {
+                ObjectMapper objectMapper = JsonMapper.builder()
+                                .findAndAddModules()
+                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                .build();
+                PaymentStatusResponse status = fullStatus();
+
+                int jsonSize = objectMapper.writeValueAsBytes(status).length;
+                int binarySize = PaymentStatusCodec.encode(status).length;
+
+                assertEquals(PaymentStatusCodec.HEADER_SIZE + "Vendor timeout".length(), binarySize);
+                assertTrue(binarySize * 3 < jsonSize, "binary=" + binarySize + " json=" + jsonSize);
+        }
+
+        @Test
+        public void testDecode_UnknownVersion() {
+                byte[] record = PaymentStatusCodec.encode(fullStatus());
+                ByteBuffer.wrap(record).put(0, (byte) 99);
+
+                assertThrows(IllegalArgumentException.class, () -> PaymentStatusCodec.decode(record));
+        }
+
+        private PaymentStatusResponse fullStatus() {
+                ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+                PaymentStatusResponse status = new PaymentStatusResponse();
+                status.setPaymentId(UUID.randomUUID());
+                status.setTxnId(UUID.randomUUID());
+                status.setStatus(PaymentStatusResponse.StatusEnum.FAILED);
+                status.setAmount(1499.50);
+                status.setCreatedAt(now.minusSeconds(3));
+                status.setUpdatedAt(now);
+                status.setFailureReason("Vendor timeout");
+                status.setRetryCount(1);
+                return status;
+        }
+}
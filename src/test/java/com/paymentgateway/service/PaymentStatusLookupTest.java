@@ -0,0 +1,161 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.PaymentStatusCacheProperties;
+import com.paymentgateway.config.SloProperties;
+import com.paymentgateway.config.TransactionPartitioningProperties;
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+import com.paymentgateway.model.Transaction;
+import com.paymentgateway.model.TransactionStatus;
+import com.paymentgateway.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PaymentStatusLookupTest {
+
+        private TransactionRepository transactionRepository;
+        private PaymentStatusStore paymentStatusStore;
+        private PaymentStatusLookup lookup;
+
+        @BeforeEach
+        public void setUp() {
+                transactionRepository = mock(TransactionRepository.class);
+                paymentStatusStore = mock(PaymentStatusStore.class);
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                lookup = new PaymentStatusLookup(transactionRepository, paymentStatusStore,
+                                new PaymentStatusCacheProperties(), new TransactionPartitioningProperties(),
+                                new StageTimer(meterRegistry, new SloProperties()), meterRegistry);
+        }
+
+        @Test
+        public void testFind_RedisHit() throws Exception {
+                UUID paymentId = UUID.randomUUID();
+                PaymentStatusResponse cached = new PaymentStatusResponse();
+                cached.setPaymentId(paymentId);
+                cached.setStatus(PaymentStatusResponse.StatusEnum.SUCCESS);
+                when(paymentStatusStore.find(paymentId)).thenReturn(cached);
+
+                Optional<PaymentStatusResponse> status = lookup.find(paymentId);
+
+                assertSame(cached, status.orElseThrow());
+                verifyNoInteractions(transactionRepository);
+        }
+
+        @Test
+        public void testFind_RedisMiss_LoadsFromDatabaseAndRefills() throws Exception {
+                UUID paymentId = UUID.randomUUID();
+                when(transactionRepository.findByPaymentIdOrderByCreatedAtDesc(paymentId))
+                                .thenReturn(List.of(transaction(paymentId, TransactionStatus.SUCCESS),
+                                                transaction(paymentId, TransactionStatus.FAILED)));
+
+                PaymentStatusResponse status = lookup.find(paymentId).orElseThrow();
+                lookup.find(paymentId);
+
+                assertEquals(PaymentStatusResponse.StatusEnum.SUCCESS, status.getStatus());
+                assertEquals(1, status.getRetryCount());
+                verify(transactionRepository, times(1)).findByPaymentIdOrderByCreatedAtDesc(paymentId);
+                verify(paymentStatusStore).saveIfAbsent(any(PaymentStatusResponse.class));
+        }
+
+        @Test
+        public void testFind_RecentWindowHit_SkipsFullLookup() {
+                UUID paymentId = UUID.randomUUID();
+                when(transactionRepository.findByPaymentIdAndCreatedAtAfterOrderByCreatedAtDesc(eq(paymentId),
+                                any(LocalDateTime.class)))
+                                .thenReturn(List.of(transaction(paymentId, TransactionStatus.SUCCESS)));
+
+                assertTrue(lookup.find(paymentId).isPresent());
+                verify(transactionRepository, never()).findByPaymentIdOrderByCreatedAtDesc(paymentId);
+        }
+
+        @Test
+        public void testFind_InitiatedReportedAsPending() {
+                UUID paymentId = UUID.randomUUID();
+                when(transactionRepository.findByPaymentIdOrderByCreatedAtDesc(paymentId))
+                                .thenReturn(List.of(transaction(paymentId, TransactionStatus.INITIATED)));
+
+                PaymentStatusResponse status = lookup.find(paymentId).orElseThrow();
+
+                assertEquals(PaymentStatusResponse.StatusEnum.PENDING, status.getStatus());
+        }
+
+        @Test
+        public void testFind_UnknownIdNegativeCached() {
+                UUID paymentId = UUID.randomUUID();
+                when(transactionRepository.findByPaymentIdOrderByCreatedAtDesc(paymentId)).thenReturn(List.of());
+
+                assertTrue(lookup.find(paymentId).isEmpty());
+                assertTrue(lookup.find(paymentId).isEmpty());
+
+                verify(transactionRepository, times(1)).findByPaymentIdOrderByCreatedAtDesc(paymentId);
+                // Not in a read-only transaction, so the miss already came from the primary
+                verify(transactionRepository, never()).findOnPrimaryByPaymentId(any());
+                verify(paymentStatusStore, never()).saveIfAbsent(any());
+        }
+
+        @Test
+        public void testFind_ReplicaMiss_ConfirmedOnPrimaryBeforeNegativeCaching() {
+                UUID paymentId = UUID.randomUUID();
+                UUID unknownId = UUID.randomUUID();
+                when(transactionRepository.findByPaymentIdOrderByCreatedAtDesc(any())).thenReturn(List.of());
+                when(transactionRepository.findOnPrimaryByPaymentId(paymentId))
+                                .thenReturn(List.of(transaction(paymentId, TransactionStatus.SUCCESS)));
+
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+                try {
+                        // Not replicated yet, but on the primary
+                        assertEquals(PaymentStatusResponse.StatusEnum.SUCCESS,
+                                        lookup.find(paymentId).orElseThrow().getStatus());
+                        assertTrue(lookup.find(unknownId).isEmpty());
+                        assertTrue(lookup.find(unknownId).isEmpty());
+                } finally {
+                        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+                }
+
+                verify(transactionRepository, times(1)).findOnPrimaryByPaymentId(unknownId);
+        }
+
+        @Test
+        public void testInvalidate_ClearsNegativeEntry() {
+                UUID paymentId = UUID.randomUUID();
+                when(transactionRepository.findByPaymentIdOrderByCreatedAtDesc(paymentId))
+                                .thenReturn(List.of())
+                                .thenReturn(List.of(transaction(paymentId, TransactionStatus.SUCCESS)));
+
+                assertTrue(lookup.find(paymentId).isEmpty());
+                lookup.invalidate(paymentId);
+
+                assertTrue(lookup.find(paymentId).isPresent());
+        }
+
+        @Test
+        public void testFind_RedisFailure_FallsThroughToDatabase() throws Exception {
+                UUID paymentId = UUID.randomUUID();
+                when(paymentStatusStore.find(paymentId)).thenThrow(new RuntimeException("Redis down"));
+                when(transactionRepository.findByPaymentIdOrderByCreatedAtDesc(paymentId))
+                                .thenReturn(List.of(transaction(paymentId, TransactionStatus.FAILED)));
+
+                assertEquals(PaymentStatusResponse.StatusEnum.FAILED, lookup.find(paymentId).orElseThrow().getStatus());
+        }
+
+        private Transaction transaction(UUID paymentId, TransactionStatus status) {
+                Transaction txn = new Transaction();
+                txn.setTxnId(UUID.randomUUID());
+                txn.setPaymentId(paymentId);
+                txn.setStatus(status);
+                txn.setAmountMinor(10_000);
+                txn.setCreatedAt(LocalDateTime.now());
+                return txn;
+        }
+}
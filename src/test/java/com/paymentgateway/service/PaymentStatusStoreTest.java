@@ -0,0 +1,47 @@
+package com.paymentgateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentgateway.config.RedisResilienceProperties;
+import com.paymentgateway.generated.model.PaymentStatusResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PaymentStatusStoreTest {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        public void testSaveWhileDegraded_ServedLocallyUntilReplayed() throws Exception {
+                StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+                when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("timeout"));
+                RedisResilienceProperties properties = new RedisResilienceProperties();
+                properties.setFailureThreshold(1);
+                properties.setOpenDuration(Duration.ZERO);
+                RedisGuard guard = new RedisGuard(redisTemplate, properties, new SimpleMeterRegistry());
+                PaymentStatusStore store = new PaymentStatusStore(guard, new ObjectMapper(), properties);
+
+                UUID paymentId = UUID.randomUUID();
+                PaymentStatusResponse status = new PaymentStatusResponse();
+                status.setPaymentId(paymentId);
+                status.setStatus(PaymentStatusResponse.StatusEnum.SUCCESS);
+                store.save(status);
+
+                PaymentStatusResponse local = store.find(paymentId);
+                assertEquals(paymentId, local.getPaymentId());
+                assertEquals(PaymentStatusResponse.StatusEnum.SUCCESS, local.getStatus());
+
+                reset(redisTemplate);
+                guard.replay();
+                verify(redisTemplate, times(2)).execute(any(RedisCallback.class));
+                assertNull(store.find(paymentId));
+        }
+}
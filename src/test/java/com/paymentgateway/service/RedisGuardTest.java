@@ -0,0 +1,115 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.RedisResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RedisGuardTest {
+
+        private final List<RedisCallback<?>> executed = new ArrayList<>();
+        private StringRedisTemplate redisTemplate;
+        private RedisResilienceProperties properties;
+        private SimpleMeterRegistry meterRegistry;
+        private RedisGuard guard;
+
+        @BeforeEach
+        @SuppressWarnings("unchecked")
+        public void setUp() {
+                redisTemplate = mock(StringRedisTemplate.class);
+                when(redisTemplate.execute(any(RedisCallback.class))).thenThrow(new QueryTimeoutException("timeout"));
+                properties = new RedisResilienceProperties();
+                properties.setFailureThreshold(2);
+                properties.setOpenDuration(Duration.ofMinutes(1));
+                meterRegistry = new SimpleMeterRegistry();
+                guard = new RedisGuard(redisTemplate, properties, meterRegistry);
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        public void testConsecutiveFailures_OpenCircuitAndSkipRedis() {
+                RedisCallback<String> read = connection -> "value";
+
+                assertEquals("fallback", guard.execute(read, () -> "fallback"));
+                assertFalse(guard.isDegraded());
+                assertEquals("fallback", guard.execute(read, () -> "fallback"));
+                assertTrue(guard.isDegraded());
+                assertEquals("fallback", guard.execute(read, () -> "fallback"));
+
+                verify(redisTemplate, times(2)).execute(any(RedisCallback.class));
+                assertEquals(1, meterRegistry.get("redis.circuit.open").gauge().value());
+                assertEquals(1, meterRegistry.get("redis.degraded").longTaskTimer().activeTasks());
+        }
+
+        @Test
+        public void testBufferedWrites_ReplayedInOrderOnceRedisAnswers() {
+                properties.setOpenDuration(Duration.ZERO);
+                guard.execute(connection -> null, () -> null);
+                RedisCallback<Object> first = connection -> null;
+                RedisCallback<Object> second = connection -> null;
+                List<String> replayed = new ArrayList<>();
+
+                assertFalse(guard.executeOrBuffer("first", first, () -> { }, () -> replayed.add("first")));
+                assertFalse(guard.executeOrBuffer("second", second, () -> { }, () -> replayed.add("second")));
+                assertTrue(guard.isDegraded());
+                assertEquals(2, meterRegistry.get("redis.buffer.size").gauge().value());
+
+                redisAnswers();
+                guard.replay();
+
+                assertEquals(List.of("first", "second"), replayed);
+                assertEquals(List.of(first, second), executed.subList(1, 3));
+                assertFalse(guard.isDegraded());
+                assertEquals(2, meterRegistry.get("redis.buffer.writes").tag("result", "replayed").counter().count());
+                assertEquals(1, meterRegistry.get("redis.degraded.duration").timer().count());
+                assertEquals(0, meterRegistry.get("redis.degraded").longTaskTimer().activeTasks());
+        }
+
+        @Test
+        public void testWritesWhileReplayPending_QueueBehindBufferedOnes() {
+                guard.executeOrBuffer("first", connection -> null);
+                redisAnswers();
+
+                RedisCallback<Object> second = connection -> null;
+                assertFalse(guard.executeOrBuffer("second", second));
+                assertTrue(executed.isEmpty());
+
+                guard.replay();
+                assertEquals(2, executed.size());
+                assertSame(second, executed.get(1));
+                assertTrue(guard.executeOrBuffer("third", connection -> null));
+        }
+
+        @Test
+        public void testFullBuffer_DropsNewWrites() {
+                properties.setMaxBufferedWrites(1);
+                List<String> buffered = new ArrayList<>();
+
+                guard.executeOrBuffer("first", connection -> null, () -> buffered.add("first"));
+                guard.executeOrBuffer("second", connection -> null, () -> buffered.add("second"));
+
+                assertEquals(List.of("first", "second"), buffered);
+                assertEquals(1, meterRegistry.get("redis.buffer.size").gauge().value());
+                assertEquals(1, meterRegistry.get("redis.buffer.writes").tag("result", "dropped").counter().count());
+        }
+
+        @SuppressWarnings("unchecked")
+        private void redisAnswers() {
+                reset(redisTemplate);
+                when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(inv -> {
+                        executed.add(inv.getArgument(0));
+                        return null;
+                });
+        }
+}
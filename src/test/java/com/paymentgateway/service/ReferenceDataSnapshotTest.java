@@ -0,0 +1,107 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.model.PaymentMethod;
+import com.paymentgateway.model.PricingModel;
+import com.paymentgateway.model.VendorHealth;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReferenceDataSnapshotTest {
+
+        @TempDir
+        Path dir;
+
+        @Test
+        public void testWriteThenRead_RoundTrips() throws IOException {
+                UUID merchantId = UUID.randomUUID();
+                LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+                ReferenceData data = data(merchantId, updatedAt);
+                Path file = dir.resolve("reference-data.snapshot");
+
+                ReferenceDataSnapshot.write(file, data);
+                ReferenceData read = ReferenceDataSnapshot.read(file);
+
+                assertEquals(data, read);
+                assertEquals(updatedAt, read.merchantConfigWatermark());
+                assertNull(read.merchantConfig(merchantId, "UPI").getMinAmountMinor());
+                assertEquals(150, read.pricingModel("VENDOR_A", 250_000).getFeeBps());
+        }
+
+        @Test
+        public void testCorruptedPayload_Rejected() throws IOException {
+                Path file = dir.resolve("reference-data.snapshot");
+                ReferenceDataSnapshot.write(file, data(UUID.randomUUID(), LocalDateTime.now()));
+                try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                        raf.seek(ReferenceDataSnapshot.HEADER_SIZE + 5);
+                        int b = raf.read();
+                        raf.seek(ReferenceDataSnapshot.HEADER_SIZE + 5);
+                        raf.write(b ^ 0xff);
+                }
+
+                IOException e = assertThrows(IOException.class, () -> ReferenceDataSnapshot.read(file));
+                assertTrue(e.getMessage().contains("checksum"));
+        }
+
+        @Test
+        public void testOtherVersionOrTruncatedFile_Rejected() throws IOException {
+                Path file = dir.resolve("reference-data.snapshot");
+                ReferenceDataSnapshot.write(file, data(UUID.randomUUID(), LocalDateTime.now()));
+                try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                        raf.setLength(raf.length() - 1);
+                }
+                assertThrows(IOException.class, () -> ReferenceDataSnapshot.read(file));
+
+                ReferenceDataSnapshot.write(file, data(UUID.randomUUID(), LocalDateTime.now()));
+                try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                        raf.seek(4);
+                        raf.writeShort(ReferenceDataSnapshot.VERSION + 1);
+                }
+                IOException e = assertThrows(IOException.class, () -> ReferenceDataSnapshot.read(file));
+                assertTrue(e.getMessage().contains("version"));
+        }
+
+        static ReferenceData data(UUID merchantId, LocalDateTime updatedAt) {
+                PaymentMethod upi = new PaymentMethod();
+                upi.setMethodId("UPI");
+                upi.setMethodName("UPI");
+                upi.setSupportedNetworks(0L);
+                upi.setActive(true);
+
+                MerchantPaymentConfig config = new MerchantPaymentConfig();
+                config.setConfigId(UUID.randomUUID());
+                config.setMerchantId(merchantId);
+                config.setMethodId("UPI");
+                config.setMaxAmountMinor(10_000_000L);
+                config.setEnabled(true);
+                config.setCreatedAt(updatedAt);
+                config.setUpdatedAt(updatedAt);
+
+                PricingModel pricing = new PricingModel();
+                pricing.setVendorId("VENDOR_A");
+                pricing.setMinAmountMinor(0);
+                pricing.setMaxAmountMinor(1_000_000);
+                pricing.setFeeBps(150);
+                pricing.setFixedFeeMinor(200);
+
+                VendorHealth vendor = new VendorHealth();
+                vendor.setVendorId("VENDOR_A");
+                vendor.setUptimeScore(99.5);
+                vendor.setDown(false);
+
+                Instant syncedAt = Instant.ofEpochMilli(System.currentTimeMillis());
+                return ReferenceData.of(syncedAt, syncedAt, List.of(upi), List.of(config), List.of(pricing),
+                                List.of(vendor));
+        }
+}
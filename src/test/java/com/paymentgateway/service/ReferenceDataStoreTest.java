@@ -0,0 +1,126 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.ReferenceDataProperties;
+import com.paymentgateway.model.MerchantPaymentConfig;
+import com.paymentgateway.repository.MerchantPaymentConfigRepository;
+import com.paymentgateway.repository.PaymentMethodRepository;
+import com.paymentgateway.repository.PricingModelRepository;
+import com.paymentgateway.repository.VendorHealthRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ReferenceDataStoreTest {
+
+        @TempDir
+        Path dir;
+
+        private final UUID merchantId = UUID.randomUUID();
+        private final LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        private ReferenceData tables;
+        private PaymentMethodRepository paymentMethodRepository;
+        private MerchantPaymentConfigRepository merchantConfigRepository;
+        private PricingModelRepository pricingModelRepository;
+        private VendorHealthRepository vendorHealthRepository;
+        private ApplicationEventPublisher eventPublisher;
+        private ReferenceDataProperties properties;
+
+        @BeforeEach
+        public void setUp() {
+                tables = ReferenceDataSnapshotTest.data(merchantId, updatedAt);
+                paymentMethodRepository = mock(PaymentMethodRepository.class);
+                merchantConfigRepository = mock(MerchantPaymentConfigRepository.class);
+                pricingModelRepository = mock(PricingModelRepository.class);
+                vendorHealthRepository = mock(VendorHealthRepository.class);
+                eventPublisher = mock(ApplicationEventPublisher.class);
+                when(paymentMethodRepository.findByActiveTrue()).thenReturn(tables.activeMethods());
+                when(merchantConfigRepository.findAll()).thenReturn(tables.merchantConfigs().get(merchantId));
+                when(pricingModelRepository.findAll()).thenReturn(List.of(tables.pricingModel("VENDOR_A", 0)));
+                when(vendorHealthRepository.findAll()).thenReturn(tables.vendors());
+                properties = new ReferenceDataProperties();
+                properties.setSnapshotFile(dir.resolve("reference-data.snapshot").toString());
+        }
+
+        @Test
+        public void testFreshSnapshot_ServedWithoutReadingTheDatabase() throws Exception {
+                ReferenceDataSnapshot.write(Path.of(properties.getSnapshotFile()), tables);
+
+                ReferenceDataStore store = store();
+
+                assertEquals(10_000_000L, store.merchantConfig(merchantId, "UPI").getMaxAmountMinor());
+                assertEquals(1, store.vendors().size());
+                verifyNoInteractions(paymentMethodRepository, merchantConfigRepository, pricingModelRepository,
+                                vendorHealthRepository);
+        }
+
+        @Test
+        public void testMissingOrCorruptSnapshot_ReadsTheDatabaseAndWritesOne() throws Exception {
+                Path file = Path.of(properties.getSnapshotFile());
+                Files.write(file, new byte[] { 1, 2, 3 });
+
+                ReferenceDataStore store = store();
+
+                assertEquals(1, store.activeMethods().size());
+                verify(merchantConfigRepository).findAll();
+                store.writeSnapshot();
+                assertEquals(store.merchantConfigs(merchantId), ReferenceDataSnapshot.read(file)
+                                .merchantConfigs().get(merchantId));
+        }
+
+        @Test
+        public void testDeltaSync_AppliesChangedConfigsAndNotifies() {
+                ReferenceDataStore store = store();
+                store.activeMethods();
+
+                MerchantPaymentConfig disabled = new MerchantPaymentConfig();
+                disabled.setConfigId(store.merchantConfig(merchantId, "UPI").getConfigId());
+                disabled.setMerchantId(merchantId);
+                disabled.setMethodId("UPI");
+                disabled.setEnabled(false);
+                disabled.setCreatedAt(updatedAt);
+                disabled.setUpdatedAt(updatedAt.plusSeconds(5));
+                when(merchantConfigRepository.findByUpdatedAtGreaterThanEqual(updatedAt.minus(
+                                properties.getSyncOverlap()))).thenReturn(List.of(disabled));
+
+                store.sync();
+
+                assertFalse(store.merchantConfig(merchantId, "UPI").getEnabled());
+                verify(eventPublisher).publishEvent(new MerchantConfigChangedEvent(merchantId));
+
+                // Seeing the same row again is not a change
+                when(merchantConfigRepository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(disabled));
+                store.sync();
+                verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        }
+
+        @Test
+        public void testFailedSync_KeepsServingPreviousData() {
+                ReferenceDataStore store = store();
+                store.activeMethods();
+                when(vendorHealthRepository.findAll()).thenThrow(new IllegalStateException("db down"));
+
+                store.sync();
+
+                assertEquals(1, store.vendors().size());
+                assertNotNull(store.merchantConfig(merchantId, "UPI"));
+        }
+
+        private ReferenceDataStore store() {
+                return new ReferenceDataStore(paymentMethodRepository, merchantConfigRepository,
+                                pricingModelRepository, vendorHealthRepository, properties, eventPublisher,
+                                new SimpleMeterRegistry());
+        }
+}
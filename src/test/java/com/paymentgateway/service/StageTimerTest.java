@@ -0,0 +1,65 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.SloProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StageTimerTest {
+
+        private SimpleMeterRegistry meterRegistry;
+        private SloProperties sloProperties;
+        private StageTimer stageTimer;
+
+        @BeforeEach
+        public void setUp() {
+                meterRegistry = new SimpleMeterRegistry();
+                sloProperties = new SloProperties();
+                sloProperties.getObjectives().put(PipelineStage.CHECKOUT_RULES, Duration.ofMillis(15));
+                stageTimer = new StageTimer(meterRegistry, sloProperties);
+        }
+
+        @Test
+        public void testAllStagesRegisteredUpFront() {
+                assertEquals(PipelineStage.values().length,
+                                meterRegistry.find(StageTimer.METER_NAME).timers().size());
+                assertNotNull(meterRegistry.find(StageTimer.METER_NAME)
+                                .tags("pipeline", "payment", "stage", "vendor").timer());
+        }
+
+        @Test
+        public void testObjective_OverrideAndDefault() {
+                assertEquals(Duration.ofMillis(15), stageTimer.objective(PipelineStage.CHECKOUT_RULES));
+                assertEquals(PipelineStage.CHECKOUT_TOTAL.getDefaultObjective(),
+                                stageTimer.objective(PipelineStage.CHECKOUT_TOTAL));
+        }
+
+        @Test
+        public void testSplit_SumsLapsAndRecordsOncePerStage() {
+                StageTimer.Split split = stageTimer.split();
+                long start = System.nanoTime();
+                split.lap(PipelineStage.CHECKOUT_RULES, start - TimeUnit.MILLISECONDS.toNanos(2));
+                split.lap(PipelineStage.CHECKOUT_RULES, start - TimeUnit.MILLISECONDS.toNanos(3));
+                split.record();
+
+                Timer rules = stageTimer.timer(PipelineStage.CHECKOUT_RULES);
+                assertEquals(1, rules.count());
+                assertTrue(rules.totalTime(TimeUnit.MILLISECONDS) >= 5);
+                assertEquals(0, stageTimer.timer(PipelineStage.CHECKOUT_DOWNTIME).count());
+        }
+
+        @Test
+        public void testRecord_ReturnsLapEnd() {
+                long start = System.nanoTime();
+                long end = stageTimer.record(PipelineStage.STATUS_REDIS, start);
+
+                assertTrue(end >= start);
+                assertEquals(1, stageTimer.timer(PipelineStage.STATUS_REDIS).count());
+        }
+}
@@ -0,0 +1,124 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.WarmupProperties;
+import com.paymentgateway.model.PaymentInstrument;
+import com.paymentgateway.model.PricingModel;
+import com.paymentgateway.repository.PaymentInstrumentRepository;
+import com.paymentgateway.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class StartupWarmupTest {
+
+        private final UUID merchantId = UUID.randomUUID();
+        private final UUID userId = UUID.randomUUID();
+        private WarmupProperties properties;
+        private ReferenceDataStore referenceDataStore;
+        private CheckoutTemplateCache checkoutTemplateCache;
+        private PricingService pricingService;
+        private CheckoutService checkoutService;
+        private StartupWarmup warmup;
+
+        @BeforeEach
+        @SuppressWarnings("unchecked")
+        public void setUp() {
+                properties = new WarmupProperties();
+                properties.setSyntheticCheckouts(6);
+                referenceDataStore = mock(ReferenceDataStore.class);
+                TransactionRepository transactionRepository = mock(TransactionRepository.class);
+                PaymentInstrumentRepository paymentInstrumentRepository = mock(PaymentInstrumentRepository.class);
+                checkoutTemplateCache = mock(CheckoutTemplateCache.class);
+                pricingService = mock(PricingService.class);
+                VendorAvailabilityService vendorAvailabilityService = mock(VendorAvailabilityService.class);
+                checkoutService = mock(CheckoutService.class);
+                StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+                PricingModel pricing = new PricingModel();
+                pricing.setVendorId("VENDOR_A");
+                pricing.setMinAmountMinor(0);
+                when(referenceDataStore.pricingModels()).thenReturn(List.of(pricing));
+                when(transactionRepository.findBusiestMerchants(any(), any(Pageable.class)))
+                                .thenReturn(List.of(merchantId));
+                PaymentInstrument instrument = new PaymentInstrument();
+                instrument.setUserId(userId);
+                when(paymentInstrumentRepository.findAll(any(Pageable.class)))
+                                .thenReturn(new PageImpl<>(List.of(instrument, instrument)));
+                when(redisTemplate.execute(any(RedisCallback.class))).thenReturn("PONG");
+
+                warmup = new StartupWarmup(properties, referenceDataStore, transactionRepository,
+                                paymentInstrumentRepository, checkoutTemplateCache, pricingService,
+                                vendorAvailabilityService, mock(MerchantConfigService.class), checkoutService,
+                                redisTemplate, mock(ObjectProvider.class), mock(ObjectProvider.class),
+                                new SimpleMeterRegistry());
+        }
+
+        @Test
+        public void testRun_WarmsEveryStepAndReports() {
+                assertNull(warmup.report());
+
+                warmup.run();
+
+                StartupWarmup.Report report = warmup.report();
+                assertEquals(StartupWarmup.State.COMPLETE, report.state());
+                assertEquals(1, report.coverage().get("pricingModels"));
+                assertEquals(1, report.coverage().get("merchants"));
+                assertEquals(1, report.coverage().get("syntheticUsers"));
+                assertEquals(6, report.coverage().get("syntheticCheckouts"));
+                assertTrue(report.failures().isEmpty());
+                verify(pricingService).calculateFee("VENDOR_A", 0);
+                verify(checkoutTemplateCache, times(3)).get(eq(merchantId), eq("5411"), anyLong());
+                verify(checkoutService, times(6)).warmUp(eq(merchantId), eq(userId), any(), eq("5411"));
+                // Synthetic checkouts stay out of idempotency and latency metrics
+                verify(checkoutService, never()).getCheckoutOptions(any(), any(), any(), any(), any(), anyString(),
+                                any());
+        }
+
+        @Test
+        public void testRun_FailedStepIsReportedAndLaterStepsStillRun() {
+                when(referenceDataStore.pricingModels()).thenThrow(new IllegalStateException("db down"));
+
+                warmup.run();
+
+                StartupWarmup.Report report = warmup.report();
+                assertEquals(StartupWarmup.State.COMPLETE, report.state());
+                assertTrue(report.failures().get("pricingModels").contains("db down"));
+                assertEquals(6, report.coverage().get("syntheticCheckouts"));
+        }
+
+        @Test
+        public void testRun_TimeoutSkipsRemainingSteps() {
+                properties.setTimeout(Duration.ZERO);
+
+                warmup.run();
+
+                assertEquals(StartupWarmup.State.TIMED_OUT, warmup.report().state());
+                verifyNoInteractions(checkoutService);
+        }
+
+        @Test
+        public void testDisabled_ReadyImmediately() {
+                properties.setEnabled(false);
+
+                warmup.start();
+
+                assertEquals(StartupWarmup.State.DISABLED, warmup.report().state());
+                verify(checkoutService, never()).warmUp(any(), any(), any(), anyString());
+        }
+}
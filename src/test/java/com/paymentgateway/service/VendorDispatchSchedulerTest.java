@@ -0,0 +1,140 @@
+package com.paymentgateway.service;
+
+import com.paymentgateway.config.VendorDispatchProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VendorDispatchSchedulerTest {
+
+        private static final String VENDOR = "PAYU";
+
+        private final UUID largeMerchant = UUID.randomUUID();
+        private final UUID smallMerchant = UUID.randomUUID();
+
+        private SimpleMeterRegistry meterRegistry;
+        private VendorDispatchProperties properties;
+        private VendorDispatchScheduler scheduler;
+
+        @BeforeEach
+        public void setUp() {
+                meterRegistry = new SimpleMeterRegistry();
+                properties = new VendorDispatchProperties();
+                properties.setDefaultConcurrency(1);
+                properties.setMaxQueuedPerMerchant(3);
+                properties.setQueueTimeout(Duration.ofSeconds(5));
+                scheduler = new VendorDispatchScheduler(properties, meterRegistry);
+        }
+
+        @Test
+        public void testSmallMerchantNotStuckBehindBacklog() throws Exception {
+                List<UUID> served = Collections.synchronizedList(new ArrayList<>());
+                CountDownLatch blocker = new CountDownLatch(1);
+                ExecutorService executor = Executors.newCachedThreadPool();
+                try {
+                        executor.submit(() -> scheduler.dispatch(VENDOR, largeMerchant, () -> await(blocker)));
+                        awaitInFlight(1);
+
+                        for (int i = 0; i < 3; i++) {
+                                executor.submit(() -> scheduler.dispatch(VENDOR, largeMerchant,
+                                                () -> served.add(largeMerchant)));
+                                awaitQueued(i + 1);
+                        }
+                        executor.submit(() -> scheduler.dispatch(VENDOR, smallMerchant, () -> served.add(smallMerchant)));
+                        awaitQueued(4);
+
+                        blocker.countDown();
+                        executor.shutdown();
+                        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+                } finally {
+                        executor.shutdownNow();
+                }
+
+                assertEquals(List.of(largeMerchant, smallMerchant, largeMerchant, largeMerchant), served);
+                assertEquals(5, meterRegistry.get("vendor.dispatch.queue.wait")
+                                .tag("vendor", VENDOR).tag("tier", "STANDARD").timer().count());
+                // Merchant ids are not tags: the series count must not grow with merchants
+                assertTrue(meterRegistry.find("vendor.dispatch.queue.wait").tagKeys("merchant").timers().isEmpty());
+        }
+
+        @Test
+        public void testMerchantQueueFull_Rejected() throws Exception {
+                CountDownLatch blocker = new CountDownLatch(1);
+                ExecutorService executor = Executors.newCachedThreadPool();
+                try {
+                        executor.submit(() -> scheduler.dispatch(VENDOR, largeMerchant, () -> await(blocker)));
+                        awaitInFlight(1);
+                        for (int i = 0; i < 3; i++) {
+                                executor.submit(() -> scheduler.dispatch(VENDOR, largeMerchant, () -> true));
+                                awaitQueued(i + 1);
+                        }
+
+                        assertThrows(VendorDispatchScheduler.VendorBusyException.class,
+                                        () -> scheduler.dispatch(VENDOR, largeMerchant, () -> true));
+                        assertEquals(1.0, meterRegistry.get("vendor.dispatch.rejected")
+                                        .tag("reason", "queue_full").counter().count());
+                } finally {
+                        blocker.countDown();
+                        executor.shutdownNow();
+                }
+        }
+
+        @Test
+        public void testQueueTimeout_Rejected() throws Exception {
+                properties.setQueueTimeout(Duration.ofMillis(20));
+                CountDownLatch blocker = new CountDownLatch(1);
+                ExecutorService executor = Executors.newSingleThreadExecutor();
+                try {
+                        executor.submit(() -> scheduler.dispatch(VENDOR, largeMerchant, () -> await(blocker)));
+                        awaitInFlight(1);
+
+                        assertThrows(VendorDispatchScheduler.VendorBusyException.class,
+                                        () -> scheduler.dispatch(VENDOR, smallMerchant, () -> true));
+                        assertEquals(0.0, meterRegistry.get("vendor.dispatch.queued").gauge().value());
+                } finally {
+                        blocker.countDown();
+                        executor.shutdownNow();
+                }
+        }
+
+        private boolean await(CountDownLatch latch) {
+                try {
+                        return latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                }
+        }
+
+        private void awaitInFlight(int expected) throws InterruptedException {
+                awaitGauge("vendor.dispatch.inflight", expected);
+        }
+
+        private void awaitQueued(int expected) throws InterruptedException {
+                awaitGauge("vendor.dispatch.queued", expected);
+        }
+
+        private void awaitGauge(String name, int expected) throws InterruptedException {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (System.nanoTime() < deadline) {
+                        if (meterRegistry.find(name).gauge() != null
+                                        && meterRegistry.find(name).gauge().value() == expected) {
+                                return;
+                        }
+                        Thread.sleep(1);
+                }
+                fail(name + " never reached " + expected);
+        }
+}